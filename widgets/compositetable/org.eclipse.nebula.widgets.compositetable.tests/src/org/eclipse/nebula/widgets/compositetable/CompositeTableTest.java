@@ -99,6 +99,32 @@ public class CompositeTableTest extends TestCase {
 	}
     }
 
+    public void testSetTopRowRefreshesOnlyNewRows() throws Exception {
+	int numRowsVisible = table.getNumRowsVisible();
+	assertTrue(numRowsVisible > 1 && numRowsVisible < words.length);
+	table.resetRefreshStatistics();
+
+	table.setTopRow(1);
+	readAndDispatch();
+
+	assertEquals(1, table.getTopRow());
+	assertEquals(1, table.getRefreshCount());
+	assertEquals(numRowsVisible, table.getNumRowsVisible());
+	Control[] rowControls = table.getRowControls();
+	for (int i = 0; i < rowControls.length; i++) {
+	    assertEquals(words[1 + i], rowControls[i].toString());
+	}
+
+	table.setTopRow(0);
+	readAndDispatch();
+
+	assertEquals(2, table.getRefreshCount());
+	rowControls = table.getRowControls();
+	for (int i = 0; i < rowControls.length; i++) {
+	    assertEquals(words[i], rowControls[i].toString());
+	}
+    }
+
     public void testSetSelection() {
 	table.setSelection(0, 0);
 	readAndDispatch();
@@ -930,6 +930,53 @@ public class CompositeTable extends Canvas {
 		contentProviders.remove(contentProvider);
 	}
 
+	int refreshCount = 0;
+	long refreshTime = 0;
+	long maxRefreshTime = 0;
+
+	/**
+	 * Method getRefreshCount. Returns the number of times a row was filled with
+	 * data by the content providers since this table was created or since
+	 * {@link #resetRefreshStatistics()} was last called.
+	 *
+	 * @return the number of row refreshes.
+	 */
+	public int getRefreshCount() {
+		return refreshCount;
+	}
+
+	/**
+	 * Method getRefreshTime. Returns the total time spent in the content
+	 * providers' refresh methods since this table was created or since
+	 * {@link #resetRefreshStatistics()} was last called.
+	 *
+	 * @return the total refresh time in nanoseconds.
+	 */
+	public long getRefreshTime() {
+		return refreshTime;
+	}
+
+	/**
+	 * Method getMaxRefreshTime. Returns the longest time spent filling a single
+	 * row with data since this table was created or since
+	 * {@link #resetRefreshStatistics()} was last called.
+	 *
+	 * @return the longest single row refresh time in nanoseconds.
+	 */
+	public long getMaxRefreshTime() {
+		return maxRefreshTime;
+	}
+
+	/**
+	 * Method resetRefreshStatistics. Resets the refresh count and refresh
+	 * times to zero.
+	 */
+	public void resetRefreshStatistics() {
+		refreshCount = 0;
+		refreshTime = 0;
+		maxRefreshTime = 0;
+	}
+
 	LinkedList rowFocusListeners = new LinkedList();
 
 	/**
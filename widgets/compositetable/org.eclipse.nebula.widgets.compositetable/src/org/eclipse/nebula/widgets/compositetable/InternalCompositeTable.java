@@ -661,13 +661,53 @@ class InternalCompositeTable extends Composite implements Listener {
 	 * as the top row specified in the TopRow property.
 	 */
 	private void scrollTop() {
+		// Rotate the existing row objects from one end to the other instead of
+		// hiding and re-showing them so that only the rows that now show a
+		// different line of the collection are refreshed.
 		while (currentVisibleTopRow < topRow) {
-			deleteRowAt(0);
+			TableRow row = (TableRow) rows.removeFirst();
 			++currentVisibleTopRow;
+			int position = rows.size();
+			if (position < numRowsVisible) {
+				releaseFocus(row);
+				rows.addLast(row);
+				fireRefreshEvent(currentVisibleTopRow + position, row
+						.getRowControl());
+			} else {
+				row.setVisible(false);
+				spareRows.addLast(row);
+			}
 		}
 		while (currentVisibleTopRow > topRow) {
 			--currentVisibleTopRow;
-			insertRowAt(0);
+			if (rows.size() >= numRowsVisible) {
+				TableRow row = (TableRow) rows.removeLast();
+				releaseFocus(row);
+				rows.addFirst(row);
+				fireRefreshEvent(currentVisibleTopRow, row.getRowControl());
+			} else {
+				insertRowAt(0);
+			}
+		}
+	}
+
+	/**
+	 * Utility method: If the specified row object contains the focus control,
+	 * hide and re-show it so that the focus does not follow the row to its new
+	 * position, just as it would not if the row had been recycled.
+	 * 
+	 * @param row
+	 *            The row object that is about to be moved.
+	 */
+	private void releaseFocus(TableRow row) {
+		Control rowControl = row.getRowControl();
+		Control focusControl = getDisplay().getFocusControl();
+		while (focusControl != null && focusControl != rowControl) {
+			focusControl = focusControl.getParent();
+		}
+		if (focusControl != null) {
+			row.setVisible(false);
+			row.setVisible(true);
 		}
 	}
 
@@ -1008,12 +1048,19 @@ class InternalCompositeTable extends Composite implements Listener {
 		if (numRowsInCollection < 1) {
 			return;
 		}
+		long start = System.nanoTime();
 		for (Iterator<?> refreshListenersIter = parent.contentProviders.iterator(); refreshListenersIter
 				.hasNext();) {
 			IRowContentProvider listener = (IRowContentProvider) refreshListenersIter
 					.next();
 			listener.refresh(parent, positionInCollection, rowControl);
 		}
+		long elapsed = System.nanoTime() - start;
+		++parent.refreshCount;
+		parent.refreshTime += elapsed;
+		if (elapsed > parent.maxRefreshTime) {
+			parent.maxRefreshTime = elapsed;
+		}
 	}
 
 	// Empty table placeholder
@@ -1247,34 +1294,58 @@ class InternalCompositeTable extends Composite implements Listener {
 		}
 	};
 
+	// Whether the wheel scroller is scheduled, and the number of rows the wheel
+	// has scrolled since it was
+	private boolean wheelScrollPending = false;
+	private int pendingWheelRows = 0;
+
+	/**
+	 * Scrolls the table by the rows accumulated from the scroll wheel, so that
+	 * a burst of wheel events results in a single update of the rows.
+	 */
+	private Runnable wheelScroller = new Runnable() {
+		public void run() {
+			int delta = pendingWheelRows;
+			pendingWheelRows = 0;
+			wheelScrollPending = false;
+			if (isDisposed()) {
+				return;
+			}
+			int newTopRow = topRow + delta;
+			if (newTopRow > numRowsInCollection - numRowsVisible) {
+				newTopRow = numRowsInCollection - numRowsVisible;
+			}
+			if (newTopRow < 0) {
+				newTopRow = 0;
+			}
+			if (newTopRow != topRow) {
+				doSetTopRow(newTopRow, currentRow - (newTopRow - topRow));
+			}
+			if (isRowVisible(currentRow)) {
+				deferredSetFocus(getControl(currentColumn, currentRow), true);
+			}
+		}
+	};
+
 	/**
 	 * Scroll wheel event handling.
 	 */
 	public void handleEvent(Event event) {
         event.doit = false;
-        if (event.count > 0) { // scroll up
-            if (topRow > 0) {
-                if (!fireRequestRowChangeEvent()) {
-                    return;
-                }
-                deselectCurrentRowIfVisible();
-                doSetTopRow(topRow - 1, currentRow + 1);
-                if (isRowVisible(currentRow)) {
-                    deferredSetFocus(getControl(currentColumn, currentRow), true);
-                }
+        int delta = event.count > 0 ? -1 : 1; // scroll up : scroll down
+        if (!wheelScrollPending) {
+            if (delta < 0 ? topRow <= 0
+                    : topRow >= numRowsInCollection - numRowsVisible) {
+                return;
             }
-        } else { // scroll down
-            if (topRow < numRowsInCollection - numRowsVisible) {
-                if (!fireRequestRowChangeEvent()) {
-                    return;
-                }
-                deselectCurrentRowIfVisible();
-                doSetTopRow(topRow + 1, currentRow - 1);
-                if (isRowVisible(currentRow)) {
-                    deferredSetFocus(getControl(currentColumn, currentRow), true);
-                }
+            if (!fireRequestRowChangeEvent()) {
+                return;
             }
+            deselectCurrentRowIfVisible();
+            wheelScrollPending = true;
+            getDisplay().asyncExec(wheelScroller);
         }
+        pendingWheelRows += delta;
 //		if (event.count > 0) {    // Old code (before patch)
 //			if (topRow > 0) {
 //				if (!fireRequestRowChangeEvent()) {
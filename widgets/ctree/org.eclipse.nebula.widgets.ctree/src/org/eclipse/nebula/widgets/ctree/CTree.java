@@ -14,9 +14,11 @@ package org.eclipse.nebula.widgets.ctree;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -45,6 +47,14 @@ import org.eclipse.swt.widgets.Widget;
 
 
 /**
+ * <p>
+ * When created with the SWT.VIRTUAL style, items are created on demand: set the number
+ * of items with {@link #setItemCount(int)} and {@link CTreeItem#setItemCount(int)}, and
+ * fill each item when it is first painted from an SWT.SetData listener, whose event
+ * carries the item and its index in its parent. The controls of cells that scroll out of
+ * view are then not kept, but handed over to cells of the same class and column that
+ * scroll into view (see {@link CTreeCell#reuseControl(Control)}).
+ * </p>
  * <p>
  * NOTE:  THIS WIDGET AND ITS API ARE STILL UNDER DEVELOPMENT.  THIS IS A PRE-RELEASE ALPHA 
  * VERSION.  USERS SHOULD EXPECT API CHANGES IN FUTURE VERSIONS.
@@ -204,6 +214,23 @@ public class CTree extends Composite implements Listener {
 	
 	private List visibleItems = null;
 
+	/**
+	 * the visible rows, rebuilt when invalid
+	 */
+	CTreeRows rows = new CTreeRows();
+	boolean rowsValid = false;
+	/**
+	 * true if the height of a painted row changed since the last layout
+	 */
+	private boolean rowsResized = false;
+	private int firstPaintedRow = -1;
+
+	/**
+	 * the maximum number of controls kept for reuse per cell class and column
+	 */
+	private static final int MAX_RECYCLED_CONTROLS = 32;
+	private Map recycledControls = new HashMap(); // Map <String, List <Control>>
+
 	public CTree(Composite parent, int style) {
 		super(parent, checkStyle(style));
 
@@ -287,6 +314,7 @@ public class CTree extends Composite implements Listener {
 			public void handleEvent(Event event) {
 				getDisplay().removeFilter(SWT.FocusIn, filter);
 				removeAll();
+				recycledControls.clear();
 				if (internalTable != null && !internalTable.isDisposed()) {
 					internalTable.dispose();
 				}
@@ -327,9 +355,137 @@ public class CTree extends Composite implements Listener {
 		}
 		addedItems.add(item);
 		visibleItems = null;
+		rowsValid = false;
 		body.redraw();
 	}
 
+	/**
+	 * Replaces the placeholder of a virtual CTree with the item materialized for it
+	 */
+	void setItem(int index, CTreeItem item) {
+		itemList.set(index, item);
+		visibleItems = null;
+	}
+
+	/**
+	 * Returns the item at the given index of the given parent, creating it if it is the
+	 * placeholder of an item of a virtual CTree which was not needed before.
+	 * @param parent the CTree, or the parent CTreeItem
+	 * @param index the index of the item in its parent
+	 * @return the item
+	 */
+	CTreeItem materialize(Object parent, int index) {
+		if(parent instanceof CTreeItem) {
+			CTreeItem parentItem = (CTreeItem) parent;
+			CTreeItem item = (CTreeItem) parentItem.getItemList().get(index);
+			if(item == null) {
+				item = new CTreeItem(this, parentItem, SWT.NONE, index, true);
+			}
+			return item;
+		} else {
+			CTreeItem item = (CTreeItem) itemList.get(index);
+			if(item == null) {
+				item = new CTreeItem(this, null, SWT.NONE, index, true);
+			}
+			return item;
+		}
+	}
+
+	/**
+	 * Sends an SWT.SetData event for the item if its data has not been set yet
+	 * @param item the item
+	 * @param index the index of the item in its parent
+	 */
+	void checkData(CTreeItem item, int index) {
+		if(!item.cached) {
+			item.cached = true;
+			Event event = new Event();
+			event.item = item;
+			event.index = index;
+			notifyListeners(SWT.SetData, event);
+		}
+	}
+
+	/**
+	 * Lays the items out again after the number of items of the receiver, or of one of
+	 * its items, has been changed
+	 */
+	void itemCountChanged() {
+		visibleItems = null;
+		rowsValid = false;
+		layout(true, true);
+		updatePaintedList = true;
+		body.redraw();
+	}
+
+	/**
+	 * @return the visible rows, built with the last computed item heights if they are not valid
+	 */
+	CTreeRows getRows() {
+		if(!rowsValid) {
+			rows.build(this, getItemHeight(), false);
+			rowsValid = true;
+		}
+		return rows;
+	}
+
+	/**
+	 * @return the item of the row, created if it was not materialized yet
+	 */
+	private CTreeItem getRowItem(CTreeRows rows, int row) {
+		CTreeItem item = rows.getItem(row);
+		if(item == null) {
+			item = materialize(rows.getParent(row), rows.getIndex(row));
+			rows.setItem(row, item);
+			item.setTop(rows.getTop(row));
+			item.setHeight(rows.getHeight(row));
+		}
+		return item;
+	}
+
+	/**
+	 * @return true if the receiver was created with the SWT.VIRTUAL style
+	 */
+	boolean isVirtual() {
+		return (style & SWT.VIRTUAL) != 0;
+	}
+
+	private String getRecycleKey(CTreeCell cell) {
+		return cell.getClass().getName() + '#' + cell.item.getCellIndex(cell);
+	}
+
+	/**
+	 * Keeps the control of a cell which is no longer painted, so that it can be reused
+	 * by another cell of the same class and column.
+	 * @return true if the control is kept, false if it should be disposed
+	 */
+	boolean recycleControl(CTreeCell cell, Control control) {
+		String key = getRecycleKey(cell);
+		List controls = (List) recycledControls.get(key);
+		if(controls == null) {
+			controls = new ArrayList();
+			recycledControls.put(key, controls);
+		}
+		if(controls.size() < MAX_RECYCLED_CONTROLS) {
+			control.setVisible(false);
+			controls.add(control);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return a control kept for the class and column of the cell, or null if there is none
+	 */
+	Control takeRecycledControl(CTreeCell cell) {
+		List controls = (List) recycledControls.get(getRecycleKey(cell));
+		while(controls != null && !controls.isEmpty()) {
+			Control control = (Control) controls.remove(controls.size() - 1);
+			if(!control.isDisposed()) return control;
+		}
+		return null;
+	}
+
 	void addItems() {
 		addedItems = new ArrayList();
 		layout(true, true);
@@ -401,12 +557,30 @@ public class CTree extends Composite implements Listener {
 		}
 	}
 
+	/**
+	 * Clears the text and images of the item at the given index.  In a virtual CTree
+	 * they are requested again with an SWT.SetData event when the item is next painted.
+	 * @param index the index of the item
+	 * @param all if true, the descendants of the item are cleared as well
+	 */
 	public void clear(int index, boolean all) {
-		// TODO Auto-generated method stub
+		checkWidget();
+		if(index < 0 || index >= itemList.size()) SWT.error(SWT.ERROR_INVALID_RANGE);
+		CTreeItem item = (CTreeItem) itemList.get(index);
+		if(item != null) item.clear(all);
 	}
 	
+	/**
+	 * Clears the text and images of every root item.
+	 * @param all if true, the descendants of the items are cleared as well
+	 * @see #clear(int, boolean)
+	 */
 	public void clearAll(boolean all) {
-		// TODO Auto-generated method stub
+		checkWidget();
+		for(Iterator i = itemList.iterator(); i.hasNext(); ) {
+			CTreeItem item = (CTreeItem) i.next();
+			if(item != null) item.clear(all);
+		}
 	}
 
 	public void deselectAll() {
@@ -563,7 +737,7 @@ public class CTree extends Composite implements Listener {
 
 	public CTreeItem getItem(int index) {
 		if(isEmpty() || index < 0 || index > itemList.size()-1) return null;
-		return (CTreeItem) itemList.get(index);
+		return materialize(this, index);
 	}
 
 	public int getItemCount() {
@@ -593,6 +767,11 @@ public class CTree extends Composite implements Listener {
 	 */
 	public CTreeItem[] getItems() {
 		if(isEmpty()) return new CTreeItem[0];
+		if(isVirtual()) {
+			for(int i = 0; i < itemList.size(); i++) {
+				materialize(this, i);
+			}
+		}
 		return (CTreeItem[]) itemList.toArray(new CTreeItem[itemList.size()]);
 	}
 
@@ -605,11 +784,12 @@ public class CTree extends Composite implements Listener {
 //	}
 	List getItems(CTreeItem item, boolean all) {
 		List l = new ArrayList();
-		CTreeItem[] items = item.getItems();
-		for(int i = 0; i < items.length; i++) {
-			l.add(items[i]);
-			if(all || items[i].getExpanded()) {
-				l.addAll(getItems(items[i], all));
+		for(Iterator i = item.getItemList().iterator(); i.hasNext(); ) {
+			CTreeItem child = (CTreeItem) i.next();
+			if(child == null) continue; // not materialized
+			l.add(child);
+			if(all || child.getExpanded()) {
+				l.addAll(getItems(child, all));
 			}
 		}
 		return l;
@@ -652,28 +832,36 @@ public class CTree extends Composite implements Listener {
 		return nativeHeader;
 	}
 	
+	/**
+	 * Returns the items of the rows between the top and the bottom of the viewport, found
+	 * through the row index.  In a virtual CTree, the items are materialized and their data
+	 * requested as needed, and the heights of their rows updated.
+	 * @return the items to be painted
+	 */
 	protected List getPaintedItems() {
+		List list = new ArrayList();
+		CTreeRows rows = getRows();
+		if(rows.size() == 0) {
+			firstPaintedRow = -1;
+			return list;
+		}
 		int top = getScrollPosition().y;
 		int bot = top + body.getClientArea().height;
-		int itop = 0;
-		int ibot = 0;
-		List list = new ArrayList();
-		boolean painting = false;
-		for(Iterator i = items(false).iterator(); i.hasNext(); ) {
-			CTreeItem item = (CTreeItem) i.next();
-			Rectangle r = item.getBounds();
-			ibot = r.y+r.height;
-			if(itop <= top && top < ibot) {
-				painting = true;
-			}
-			if(painting) {
-				list.add(item);
-			}
-			if(itop < bot && bot <= ibot) {
-				break;
+		int first = rows.indexOf(top);
+		int last = Math.max(first, rows.indexOf(bot - 1));
+		for(int row = first; row <= last; row++) {
+			CTreeItem item = getRowItem(rows, row);
+			if(isVirtual()) {
+				checkData(item, rows.getIndex(row));
+				if(item.computedHeight < 0 || !item.painted) {
+					if(rows.setHeight(row, item.computeHeight())) {
+						rowsResized = true;
+					}
+				}
 			}
-			itop = r.y+r.height;
+			list.add(item);
 		}
+		firstPaintedRow = first;
 		return list;
 	}
 	public CTreeItem getParentItem() {
@@ -727,19 +915,9 @@ public class CTree extends Composite implements Listener {
 	}
 
 	public CTreeItem getTopItem() {
-		int top = getScrollPosition().y;
-		int itop = 0;
-		int ibot = 0;
-		for(Iterator i = items(false).iterator(); i.hasNext(); ) {
-			CTreeItem item = (CTreeItem) i.next();
-			Rectangle r = item.getBounds();
-			ibot = r.y+r.height;
-			if(itop <= top && top < ibot) {
-				return item;
-			}
-			itop = r.y+r.height;
-		}
-		return null;
+		CTreeRows rows = getRows();
+		int row = rows.indexOf(getScrollPosition().y);
+		return (row < 0) ? null : getRowItem(rows, row);
 	}
 
 	// public void removeListener(int eventType, Listener listener) {
@@ -1002,6 +1180,7 @@ public class CTree extends Composite implements Listener {
 			visibleItems = new ArrayList();
 			for(Iterator i = itemList.iterator(); i.hasNext(); ) {
 				CTreeItem item = (CTreeItem) i.next();
+				if(item == null) continue; // not materialized
 				if(all || item.isVisible()) {
 					visibleItems.add(item);
 					if(all || item.getExpanded()) {
@@ -1062,18 +1241,22 @@ public class CTree extends Composite implements Listener {
 	 */
 	void layout(int eventType, CTreeItem item) {
 		if(SWT.Collapse == eventType) {
-			layout.layout(eventType, item);
 			visibleItems = null;
+			rowsValid = false;
+			layout.layout(eventType, item);
 			updatePaintedList = true;
 		} else if(SWT.Expand == eventType) {
-			layout.layout(eventType, item);
 			visibleItems = null;
+			rowsValid = false;
+			layout.layout(eventType, item);
 			updatePaintedList = true;
 		} else if(SWT.Hide == eventType && isVisible((CTreeItem)item)) {
+			rowsValid = false;
 			layout.layout(eventType, item);
 			updatePaintedList = true;
 			item.setVisible(false);
 		} else if(SWT.Show == eventType && !isVisible((CTreeItem)item)) {
+			rowsValid = false;
 			layout.layout(eventType, item);
 			updatePaintedList = true;
 			item.setVisible(true);
@@ -1105,6 +1288,13 @@ public class CTree extends Composite implements Listener {
 			topOld = top;
 			heightOld = height;
 			updatePaintedItems();
+			if(rowsResized) {
+				// materialized rows are not of the default height
+				rowsResized = false;
+				layout.layoutRows();
+				updatePaintedItems();
+				rowsResized = false;
+			}
 		}
 
 		Rectangle ebounds = e.getBounds();
@@ -1204,7 +1394,7 @@ public class CTree extends Composite implements Listener {
 		if(gtk && nativeGrid && !paintedItems.isEmpty()) {
 			Rectangle r = getClientArea();
 			int gridline = getGridLineWidth();
-			int firstPaintedIndex = items(false).indexOf(paintedItems.get(0));
+			int firstPaintedIndex = firstPaintedRow;
 			for(int i = 0; i < paintedItems.size(); i++) {
 				CTreeItem item = (CTreeItem) paintedItems.get(i);
 				if(linesVisible && ((firstPaintedIndex + i + 1) % 2 == 0)) {
@@ -1312,6 +1502,7 @@ public class CTree extends Composite implements Listener {
 				selChange = true;
 			}
 			visibleItems = null;
+			rowsValid = false;
 			paintedItems = new ArrayList();
 
 			for(Iterator i = items(true).iterator(); i.hasNext(); ) {
@@ -1351,6 +1542,7 @@ public class CTree extends Composite implements Listener {
 	private void removeItems() {
 		removedItems = new ArrayList();
 		visibleItems = null;
+		rowsValid = false;
 		layout(true, true);
 		updatePaintedList = true;
 	}
@@ -1469,8 +1661,35 @@ public class CTree extends Composite implements Listener {
 	public void setInsertMark(CTreeItem item, boolean before) {
 		// TODO Auto-generated method stub
 	}
+	/**
+	 * Sets the number of root items of the receiver. In a virtual CTree new items are
+	 * only created when they are needed, and their data is requested with an SWT.SetData
+	 * event when they are first painted.
+	 * @param count the new number of root items
+	 */
 	public void setItemCount(int count) {
-		// TODO Auto-generated method stub
+		checkWidget();
+		count = Math.max(0, count);
+		if(count == itemList.size()) return;
+		if(count < itemList.size()) {
+			for(int i = itemList.size() - 1; i >= count; i--) {
+				CTreeItem item = (CTreeItem) itemList.get(i);
+				if(item != null) {
+					item.dispose();
+				} else {
+					itemList.remove(i);
+				}
+			}
+		} else if(isVirtual()) {
+			for(int i = itemList.size(); i < count; i++) {
+				itemList.add(null);
+			}
+		} else {
+			for(int i = itemList.size(); i < count; i++) {
+				new CTreeItem(this, SWT.NONE);
+			}
+		}
+		itemCountChanged();
 	}
 	
 	/**
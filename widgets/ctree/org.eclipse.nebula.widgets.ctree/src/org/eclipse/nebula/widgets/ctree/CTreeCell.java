@@ -14,7 +14,6 @@ package org.eclipse.nebula.widgets.ctree;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -89,6 +88,7 @@ public class CTreeCell {
 		}
 
 		int[] getEventTypes() {
+			if(handlers == null) return new int[0];
 			int count = 0;
 			for(int i = 0; i < handlers.length; i++) {
 				if(handlers[i] != null && !handlers[i].isEmpty()) count++;
@@ -605,11 +605,46 @@ public class CTreeCell {
 	 * @param parent the parent composite of your new control
 	 * @return the newly created control (for multiple controls, create them inside
 	 * a composite, and return the composite here)
+	 * @see #reuseControl(Control)
 	 */
 	protected Control createControl(Composite parent) {
 		return null;
 	}
 
+	/**
+	 * In a virtual CTree, the control of a cell that scrolls out of view is kept and
+	 * offered to the next cell of the same class and column that scrolls into view, instead
+	 * of creating a new one with {@link #createControl(Composite)}.  Override to update the
+	 * given control with the state of this cell; the listeners added with
+	 * {@link #addListener(int, Listener)} are moved to this cell by the caller.
+	 * @param control a control created by another cell of the same class and column
+	 * @return true if the control is now this cell's control, false to dispose of it
+	 * (the default)
+	 */
+	protected boolean reuseControl(Control control) {
+		return false;
+	}
+
+	/**
+	 * Adds or removes the listener forwarding events to this cell's handlers on the
+	 * given control and its children
+	 */
+	private void hookControl(Control control, boolean hook) {
+		int[] types = ehandler.getEventTypes();
+		if(types.length == 0) return;
+		List controls = getControls(control, eventExclusions);
+		for(Iterator iter = controls.iterator(); iter.hasNext(); ) {
+			Control c = (Control) iter.next();
+			for(int i = 0; i < types.length; i++) {
+				if(hook) {
+					c.addListener(types[i], l);
+				} else {
+					c.removeListener(types[i], l);
+				}
+			}
+		}
+	}
+
 	void dispose() {
 		if(check != null) {
 			if(!check.isDisposed()) check.dispose();
@@ -1128,11 +1163,10 @@ public class CTreeCell {
 			}
 			gc.drawLine(x1, y1, x2, y2);
 			CTreeItem it = (CTreeItem) item;
-			int index = Arrays.asList(
-					it.hasParentItem() ? 
-							it.getParentItem().getItems() :
-								ctree.getItems()
-								).indexOf(it);
+			// the raw lists, which keep the placeholders of a virtual CTree
+			int index = it.hasParentItem() ? 
+					it.getParentItem().indexOf(it) : 
+						ctree.indexOf(it);
 			int count = it.hasParentItem() ? 
 					it.getParentItem().getItemCount() : 
 						ctree.getItemCount();
@@ -1172,11 +1206,9 @@ public class CTreeCell {
 			while(it.hasParentItem()) {
 				x1 = x2 -= ((CTree) ctree).getTreeIndent();
 				it = it.getParentItem();
-				index = Arrays.asList(
-						it.hasParentItem() ? 
-								it.getParentItem().getItems() :
-									ctree.getItems()
-									).indexOf(it);
+				index = it.hasParentItem() ? 
+						it.getParentItem().indexOf(it) : 
+							ctree.indexOf(it);
 				count = it.hasParentItem() ? 
 						it.getParentItem().getItemCount() : 
 							ctree.getItemCount();
@@ -1467,6 +1499,18 @@ public class CTreeCell {
 					initialize();
 				}
 				if(isCheck && check == null) check = createCheck();
+				if(control == null && ctree.isVirtual()) {
+					for(Control recycled = ctree.takeRecycledControl(this); recycled != null;
+							recycled = ctree.takeRecycledControl(this)) {
+						if(reuseControl(recycled)) {
+							control = recycled;
+							hookControl(control, true);
+							updateColors();
+							break;
+						}
+						recycled.dispose();
+					}
+				}
 				if(control == null) {
 					control = createControl(ctree.body);
 				} else {
@@ -1480,7 +1524,14 @@ public class CTreeCell {
 					check = null;
 				}
 				if(control != null) {
-					if(holdControl) {
+					if(ctree.isVirtual()) {
+						// rows out of view do not keep their controls
+						hookControl(control, false);
+						if(!ctree.recycleControl(this, control)) {
+							control.dispose();
+						}
+						control = null;
+					} else if(holdControl) {
 						control.setVisible(false);
 					} else {
 						control.dispose();
@@ -73,8 +73,22 @@ public class CTreeItem extends Item {
 	private CTreeItem next;
 	private CTreeItem previous;
 	int computedHeight = -1;
+	/**
+	 * Whether or not the data of this item has been set. Only false for items of a
+	 * virtual CTree which were created on demand and have not been painted since,
+	 * or which were cleared.
+	 */
+	boolean cached = true;
 	
 	private CTreeItem(CTree parent, CTreeItem parentItem, int style, int index) {
+		this(parent, parentItem, style, index, false);
+	}
+
+	/**
+	 * @param placeholder if true, the item replaces the placeholder at the given index
+	 * of a virtual CTree, or of a virtual CTree's item, instead of being inserted
+	 */
+	CTreeItem(CTree parent, CTreeItem parentItem, int style, int index, boolean placeholder) {
 		super(parent, style);
 		this.ctree = parent;
 		this.parentItem = parentItem;
@@ -84,11 +98,20 @@ public class CTreeItem extends Item {
 		if(parentItem != null) {
 			this.checkCell = parent.getCheckColumn();
 			this.parentItem = (CTreeItem) parentItem;
-			((CTreeItem) parentItem).addItem(index, this);
+			if(placeholder) {
+				parentItem.items.set(index, this);
+			} else {
+				((CTreeItem) parentItem).addItem(index, this);
+			}
 		} else {
 			this.checkCell = parent.getCheckRoots() ? parent.getCheckColumn() : -1;
-			parent.addItem(index, this);
+			if(placeholder) {
+				parent.setItem(index, this);
+			} else {
+				parent.addItem(index, this);
+			}
 		}
+		cached = !placeholder;
 	}
 	
 	public CTreeItem(CTree parent, int style) {
@@ -125,6 +148,28 @@ public class CTreeItem extends Item {
 	
 	protected void checkSubclass() {
 	}
+
+	/**
+	 * Clears the text and images of the cells of this item. In a virtual CTree they
+	 * are requested again with an SWT.SetData event when the item is next painted.
+	 * @param all if true, the descendants of this item are cleared as well
+	 */
+	public void clear(boolean all) {
+		for(int i = 0; i < cells.length; i++) {
+			cells[i].clear();
+		}
+		if(ctree.isVirtual()) {
+			cached = false;
+		}
+		if(all) {
+			for(Iterator i = items.iterator(); i.hasNext(); ) {
+				CTreeItem item = (CTreeItem) i.next();
+				if(item != null) item.clear(true);
+			}
+		}
+		ctree.updatePaintedList = true;
+		redraw();
+	}
 	
 	/**
 	 * Computes the size of each cell using the widthHint and heightHint with the same
@@ -227,7 +272,8 @@ public class CTreeItem extends Item {
 		
 		List l = new ArrayList(items);
 		for(Iterator i = l.iterator(); i.hasNext(); ) {
-			((CTreeItem) i.next()).dispose();
+			CTreeItem item = (CTreeItem) i.next();
+			if(item != null) item.dispose();
 		}
 		// TODO dispose listener
 		for(int i = 0; i < cells.length; i++) {
@@ -536,7 +582,7 @@ public class CTreeItem extends Item {
 	
 	public CTreeItem getItem(int index) {
 		if((index >= 0) && (index < items.size())) {
-			return (CTreeItem) items.get(index);
+			return ctree.materialize(this, index);
 		}
 		return null;
 	}
@@ -558,9 +604,22 @@ public class CTreeItem extends Item {
 	
 	public CTreeItem[] getItems() {
 		if(items == null) return new CTreeItem[0];
+		if(ctree.isVirtual()) {
+			for(int i = 0; i < items.size(); i++) {
+				ctree.materialize(this, i);
+			}
+		}
 		return (CTreeItem[]) items.toArray(new CTreeItem[items.size()]);
 	}
 
+	/**
+	 * @return the list of child items, which holds null for the items of a virtual
+	 * CTree that have not been materialized yet
+	 */
+	List getItemList() {
+		return items;
+	}
+
 	public CTree getParent() {
 		return getCTree();
 	}
@@ -917,6 +976,39 @@ public class CTreeItem extends Item {
 		}
 	}
 	
+	/**
+	 * Sets the number of child items of this item. In a virtual CTree new items are
+	 * only created when they are needed, and their data is requested with an SWT.SetData
+	 * event when they are first painted.
+	 * @param count the new number of child items
+	 */
+	public void setItemCount(int count) {
+		count = Math.max(0, count);
+		if(count == items.size()) return;
+		if(count < items.size()) {
+			for(int i = items.size() - 1; i >= count; i--) {
+				CTreeItem item = (CTreeItem) items.get(i);
+				if(item != null) {
+					item.dispose();
+				} else {
+					items.remove(i);
+				}
+			}
+		} else if(ctree.isVirtual()) {
+			for(int i = items.size(); i < count; i++) {
+				items.add(null);
+			}
+		} else {
+			for(int i = items.size(); i < count; i++) {
+				new CTreeItem(this, SWT.NONE);
+			}
+		}
+		if(hasTreeCell()) {
+			getTreeCell().setToggleVisible(count > 0, true);
+		}
+		ctree.itemCountChanged();
+	}
+
 	void setNext(CTreeItem item) { next = item; }
 
 	public void setOpen(boolean open) {
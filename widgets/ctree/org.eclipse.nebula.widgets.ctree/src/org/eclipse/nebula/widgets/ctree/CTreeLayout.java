@@ -11,9 +11,6 @@
 
 package org.eclipse.nebula.widgets.ctree;
 
-import java.util.Iterator;
-import java.util.List;
-
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
@@ -72,21 +69,15 @@ class CTreeLayout extends Layout {
 
 	/**
 	 * Compute the height of the Content area without consideration for cached values.
+	 * <p>The row index of the CTree is rebuilt with the computed height of each item; in a
+	 * virtual CTree only the painted items are measured, the others keep their last computed
+	 * height, or the default item height if they were never materialized.</p>
 	 */
 	protected void computeContentHeight() {
-		if(ctree.isEmpty()) {
-			contentHeight = 0;
-		} else {
-			int gridLine = ctree.getGridLineWidth();
-			List vitems = ctree.items(false);
-			List pitems = ctree.getPaintedItems();
-			contentHeight = (vitems.size() - pitems.size()) * getItemHeight();
-			for(Iterator i = pitems.iterator(); i.hasNext(); ) {
-				contentHeight += ((CTreeItem) i.next()).computeHeight();
-				contentHeight += gridLine;
-			}
-			contentHeight -= gridLine;
-		}
+		CTreeRows rows = ctree.rows;
+		rows.build(ctree, getItemHeight(), !fixedHeight && !ctree.isVirtual());
+		ctree.rowsValid = true;
+		contentHeight = rows.getHeight();
 	}
 
 	/**
@@ -203,7 +194,9 @@ class CTreeLayout extends Layout {
 	int getItemHeight() {
 		if(itemHeightSet) return itemHeight;
 		if(ctree.isEmpty()) return itemHeight;
-		itemHeight = ((CTreeItem) ctree.itemList.get(0)).computeHeight();
+		CTreeItem first = (CTreeItem) ctree.itemList.get(0);
+		if(first == null || !first.cached) return itemHeight;
+		itemHeight = first.computeHeight();
 		itemHeightSet = true;
 		return itemHeight;
 	}
@@ -315,17 +308,29 @@ class CTreeLayout extends Layout {
 	 * Compute the height of the Content area without consideration for cached values.
 	 */
 	protected void layoutContent() {
-		int gridLine = ctree.getGridLineWidth();
-		int top = 0;
-		for(Iterator i = ctree.items(false).iterator(); i.hasNext(); ) {
-			CTreeItem item = (CTreeItem) i.next();
-			item.setTop(top);
-			item.setHeight(fixedHeight ? getItemHeight() : item.computeHeight());
-			top += item.getHeight() + gridLine;
+		CTreeRows rows = ctree.getRows();
+		for(int i = 0; i < rows.size(); i++) {
+			CTreeItem item = rows.getItem(i);
+			if(item != null) {
+				item.setTop(rows.getTop(i));
+				item.setHeight(rows.getHeight(i));
+			}
 		}
 		ctree.body.redraw();
 	}
 
+	/**
+	 * Layout the Content area after the heights of rows have been changed in the row index
+	 * of the CTree, without measuring the items again.
+	 */
+	void layoutRows() {
+		contentHeight = ctree.getRows().getHeight();
+		size.x = headerSize.x;
+		size.y = headerSize.y + contentHeight;
+		layoutContent();
+		updateScrollBars();
+	}
+
 	/**
 	 * Layout the Content area after the given cell has experienced an event of the given type.
 	 * <p>
@@ -0,0 +1,202 @@
+/****************************************************************************
+* Copyright (c) 2026 Contributors to the Eclipse Foundation.
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*****************************************************************************/
+
+package org.eclipse.nebula.widgets.ctree;
+
+import java.util.List;
+
+/**
+ * The rows of a CTree which are visible (every parent is expanded), in painting order.
+ * <p>
+ * Each row keeps its parent (the CTree for roots, a CTreeItem otherwise), its index in
+ * that parent and its item, which is null in a virtual CTree until the item is
+ * materialized. The tops of the rows are kept as a prefix sum of their heights so that
+ * a scroll offset is mapped to a row with a binary search instead of a walk over
+ * every item.
+ * </p>
+ * <p>
+ * NOTE:  THIS WIDGET AND ITS API ARE STILL UNDER DEVELOPMENT.  THIS IS A PRE-RELEASE ALPHA
+ * VERSION.  USERS SHOULD EXPECT API CHANGES IN FUTURE VERSIONS.
+ * </p>
+ */
+class CTreeRows {
+
+	private Object[] parents = new Object[64];
+	private int[] indices = new int[64];
+	private CTreeItem[] items = new CTreeItem[64];
+	private int[] heights = new int[64];
+	/**
+	 * tops[i] is the top of row i, tops[size] the bottom of the last row plus a grid line
+	 */
+	private int[] tops = new int[65];
+	private int size = 0;
+	private int gridLine = 0;
+	/**
+	 * the first row whose top is out of date, size if all are valid
+	 */
+	private int dirtyFrom = 0;
+
+	/**
+	 * Rebuilds the rows from the items of the given CTree.
+	 * @param ctree the CTree
+	 * @param defaultHeight the height of rows whose item is not materialized
+	 * @param compute if true, the height of each materialized item is computed,
+	 * otherwise the last computed height is used if any
+	 */
+	void build(CTree ctree, int defaultHeight, boolean compute) {
+		size = 0;
+		gridLine = ctree.getGridLineWidth();
+		add(ctree, ctree.itemList, defaultHeight, compute);
+		dirtyFrom = 0;
+	}
+
+	private void add(Object parent, List list, int defaultHeight, boolean compute) {
+		for(int i = 0; i < list.size(); i++) {
+			CTreeItem item = (CTreeItem) list.get(i);
+			if(item == null || item.getVisible()) {
+				int height = defaultHeight;
+				if(item != null) {
+					if(compute) {
+						height = item.computeHeight();
+					} else if(item.computedHeight >= 0) {
+						height = item.computedHeight;
+					}
+				}
+				ensureCapacity(size + 1);
+				parents[size] = parent;
+				indices[size] = i;
+				items[size] = item;
+				heights[size] = height;
+				size++;
+				if(item != null && item.getExpanded()) {
+					add(item, item.getItemList(), defaultHeight, compute);
+				}
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if(capacity > items.length) {
+			int length = Math.max(capacity, items.length * 2);
+			Object[] newParents = new Object[length];
+			int[] newIndices = new int[length];
+			CTreeItem[] newItems = new CTreeItem[length];
+			int[] newHeights = new int[length];
+			System.arraycopy(parents, 0, newParents, 0, size);
+			System.arraycopy(indices, 0, newIndices, 0, size);
+			System.arraycopy(items, 0, newItems, 0, size);
+			System.arraycopy(heights, 0, newHeights, 0, size);
+			parents = newParents;
+			indices = newIndices;
+			items = newItems;
+			heights = newHeights;
+			tops = new int[length + 1];
+		}
+	}
+
+	private void validate() {
+		if(dirtyFrom < size) {
+			int top = (dirtyFrom == 0) ? 0 : tops[dirtyFrom];
+			for(int i = dirtyFrom; i < size; i++) {
+				tops[i] = top;
+				top += heights[i] + gridLine;
+			}
+			tops[size] = top;
+			dirtyFrom = size;
+		} else if(size == 0) {
+			tops[0] = 0;
+		}
+	}
+
+	/**
+	 * @return the number of rows
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the height of all rows, without the trailing grid line
+	 */
+	int getHeight() {
+		validate();
+		return (size == 0) ? 0 : tops[size] - gridLine;
+	}
+
+	int getHeight(int row) {
+		return heights[row];
+	}
+
+	/**
+	 * Sets the height of a row; the tops of the following rows are updated when next needed.
+	 * @return true if the height changed
+	 */
+	boolean setHeight(int row, int height) {
+		if(heights[row] != height) {
+			heights[row] = height;
+			dirtyFrom = Math.min(dirtyFrom, row + 1);
+			return true;
+		}
+		return false;
+	}
+
+	int getTop(int row) {
+		validate();
+		return tops[row];
+	}
+
+	/**
+	 * @return the item of the row, null if it is not materialized
+	 */
+	CTreeItem getItem(int row) {
+		return items[row];
+	}
+
+	Object getParent(int row) {
+		return parents[row];
+	}
+
+	int getIndex(int row) {
+		return indices[row];
+	}
+
+	void setItem(int row, CTreeItem item) {
+		items[row] = item;
+	}
+
+	/**
+	 * @param y a position in the body, relative to the top of the first row
+	 * @return the row containing the given position, clamped to the first and last rows,
+	 * or -1 if there are no rows
+	 */
+	int indexOf(int y) {
+		if(size == 0) return -1;
+		validate();
+		int low = 0;
+		int high = size - 1;
+		while(low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if(tops[mid] <= y) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the row of the given item, or -1 if it is not visible
+	 */
+	int indexOf(CTreeItem item) {
+		for(int i = 0; i < size; i++) {
+			if(items[i] == item) return i;
+		}
+		return -1;
+	}
+}
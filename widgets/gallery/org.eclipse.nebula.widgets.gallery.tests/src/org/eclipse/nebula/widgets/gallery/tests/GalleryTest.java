@@ -7,6 +7,8 @@ import org.eclipse.nebula.widgets.gallery.DefaultGalleryItemRenderer;
 import org.eclipse.nebula.widgets.gallery.Gallery;
 import org.eclipse.nebula.widgets.gallery.GalleryItem;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 
@@ -116,6 +118,94 @@ public class GalleryTest extends TestCase {
 		
 	}
 
+	public void testGetGroup() {
+		Gallery g = createGallery(SWT.V_SCROLL);
+		g.setSize(200, 200);
+
+		GalleryItem items[] = new GalleryItem[100];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = new GalleryItem(g, SWT.None);
+			items[i].setText("i" + i);
+			for (int j = 0; j < i % 5; j++) {
+				new GalleryItem(items[i], SWT.None);
+			}
+		}
+
+		for (int i = 0; i < items.length; i++) {
+			Rectangle bounds = items[i].getBounds();
+			assertSame(items[i], g.getGroup(new Point(bounds.x + 1, bounds.y
+					+ bounds.height / 2)));
+		}
+
+		Rectangle last = items[items.length - 1].getBounds();
+		assertNull(g.getGroup(new Point(1, last.y + last.height + 10)));
+
+		g.dispose();
+	}
+
+	public void testIndexOf() {
+		Gallery g = createGallery(SWT.V_SCROLL);
+
+		GalleryItem group = new GalleryItem(g, SWT.None);
+		GalleryItem items[] = new GalleryItem[10];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = new GalleryItem(group, SWT.None);
+		}
+
+		// Insert at the beginning
+		GalleryItem first = new GalleryItem(group, SWT.None, 0);
+		assertEquals(0, group.indexOf(first));
+		for (int i = 0; i < items.length; i++) {
+			assertEquals(i + 1, group.indexOf(items[i]));
+		}
+
+		// Remove in the middle
+		items[4].dispose();
+		assertEquals(4, group.indexOf(items[3]));
+		assertEquals(5, group.indexOf(items[5]));
+		assertEquals(-1, group.indexOf(items[4]));
+
+		GalleryItem firstGroup = new GalleryItem(g, SWT.None, 0);
+		assertEquals(0, g.indexOf(firstGroup));
+		assertEquals(1, g.indexOf(group));
+
+		g.dispose();
+	}
+
+	public void testSelection() {
+		Gallery g = createGallery(SWT.V_SCROLL | SWT.MULTI);
+
+		GalleryItem group = new GalleryItem(g, SWT.None);
+		GalleryItem items[] = new GalleryItem[100];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = new GalleryItem(group, SWT.None);
+		}
+
+		GalleryItem[] selection = new GalleryItem[] { items[50], items[3],
+				items[99] };
+		g.setSelection(selection);
+		assertEquals(3, g.getSelectionCount());
+		GalleryItem[] result = g.getSelection();
+		for (int i = 0; i < selection.length; i++) {
+			assertSame(selection[i], result[i]);
+		}
+
+		items[3].dispose();
+		assertEquals(2, g.getSelectionCount());
+		assertSame(items[50], g.getSelection()[0]);
+		assertSame(items[99], g.getSelection()[1]);
+
+		// The group and its 99 remaining items
+		g.selectAll();
+		assertEquals(100, g.getSelectionCount());
+
+		g.deselectAll();
+		assertEquals(0, g.getSelectionCount());
+		assertEquals(0, g.getSelection().length);
+
+		g.dispose();
+	}
+
 	private Gallery createGallery(int flags) {
 		Gallery g = new Gallery(s, flags);
 
@@ -0,0 +1,199 @@
+package org.eclipse.nebula.widgets.gallery.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.nebula.widgets.gallery.Gallery;
+import org.eclipse.nebula.widgets.gallery.GalleryItem;
+import org.eclipse.nebula.widgets.gallery.GalleryThumbnailService;
+import org.eclipse.nebula.widgets.gallery.NoGroupRenderer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+public class GalleryThumbnailServiceTest extends TestCase {
+	Display d = null;
+	Shell s = null;
+	private boolean createdDisplay = false;
+
+	/**
+	 * Gives access to the downscaling, which does not need a display.
+	 */
+	private static class TestService extends GalleryThumbnailService {
+		TestService(Display display, long maxCacheSize) {
+			super(display, 1, maxCacheSize);
+		}
+
+		public ImageData createThumbnail(ImageData data, int width, int height) {
+			return super.createThumbnail(data, width, height);
+		}
+	}
+
+	protected void tearDown() throws Exception {
+		if (s != null) {
+			s.dispose();
+		}
+		if (createdDisplay) {
+			d.dispose();
+		}
+		super.tearDown();
+	}
+
+	private void createShell() {
+		d = Display.getCurrent();
+		if (d == null) {
+			d = new Display();
+			createdDisplay = true;
+		}
+		s = new Shell(d, SWT.NONE);
+	}
+
+	private static ImageData createImageData(int width, int height,
+			PaletteData palette, int depth, int[] pixels) {
+		ImageData data = new ImageData(width, height, depth, palette);
+		for (int y = 0; y < height; y++) {
+			data.setPixels(0, y, width, pixels, y * width);
+		}
+		return data;
+	}
+
+	public void testAverageDirectPalette() {
+		TestService service = new TestService(null, 1000);
+		PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+		// left half red, right half blue
+		int[] pixels = new int[] { 0xFF0000, 0xFF0000, 0xFF, 0xFF, 0xFF0000,
+				0xFF0000, 0xFF, 0xFF };
+		ImageData thumbnail = service.createThumbnail(createImageData(4, 2,
+				palette, 24, pixels), 2, 2);
+
+		assertEquals(2, thumbnail.width);
+		assertEquals(1, thumbnail.height);
+		assertEquals(new RGB(255, 0, 0), thumbnail.palette.getRGB(thumbnail
+				.getPixel(0, 0)));
+		assertEquals(new RGB(0, 0, 255), thumbnail.palette.getRGB(thumbnail
+				.getPixel(1, 0)));
+	}
+
+	public void testAverageColumns() {
+		TestService service = new TestService(null, 1000);
+		PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+		// alternating black and white columns average to gray
+		int[] pixels = new int[16];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = i % 2 == 0 ? 0 : 0xFFFFFF;
+		}
+		ImageData thumbnail = service.createThumbnail(createImageData(4, 4,
+				palette, 24, pixels), 2, 2);
+
+		assertEquals(2, thumbnail.width);
+		assertEquals(2, thumbnail.height);
+		for (int y = 0; y < 2; y++) {
+			for (int x = 0; x < 2; x++) {
+				assertEquals(new RGB(127, 127, 127), thumbnail.palette
+						.getRGB(thumbnail.getPixel(x, y)));
+			}
+		}
+	}
+
+	public void testAverageOtherMasks() {
+		TestService service = new TestService(null, 1000);
+		PaletteData palette = new PaletteData(0xFF00, 0xFF0000, 0xFF000000);
+		int red = palette.getPixel(new RGB(200, 0, 0));
+		int green = palette.getPixel(new RGB(0, 100, 0));
+		int[] pixels = new int[] { red, red, green, green };
+		ImageData thumbnail = service.createThumbnail(createImageData(2, 2,
+				palette, 32, pixels), 1, 1);
+
+		assertEquals(1, thumbnail.width);
+		assertEquals(1, thumbnail.height);
+		assertEquals(new RGB(100, 50, 0), thumbnail.palette.getRGB(thumbnail
+				.getPixel(0, 0)));
+	}
+
+	public void testIndexedPaletteIsSampled() {
+		TestService service = new TestService(null, 1000);
+		PaletteData palette = new PaletteData(new RGB[] { new RGB(0, 0, 0),
+				new RGB(255, 255, 255) });
+		int[] pixels = new int[40 * 20];
+		ImageData thumbnail = service.createThumbnail(createImageData(40, 20,
+				palette, 8, pixels), 10, 10);
+
+		assertEquals(10, thumbnail.width);
+		assertEquals(5, thumbnail.height);
+		assertSame(palette, thumbnail.palette);
+	}
+
+	public void testUpscaling() {
+		TestService service = new TestService(null, 1000);
+		PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+		ImageData thumbnail = service.createThumbnail(createImageData(4, 2,
+				palette, 24, new int[8]), 40, 40);
+
+		assertEquals(40, thumbnail.width);
+		assertEquals(20, thumbnail.height);
+		assertSame(palette, thumbnail.palette);
+	}
+
+	public void testLeastRecentlyUsedEviction() throws InterruptedException {
+		createShell();
+		Gallery g = new Gallery(s, SWT.V_SCROLL);
+		g.setGroupRenderer(new NoGroupRenderer());
+		GalleryItem group = new GalleryItem(g, SWT.NONE);
+		GalleryItem a = createItem(group);
+		GalleryItem b = createItem(group);
+		GalleryItem c = createItem(group);
+
+		// each 10x10 thumbnail takes 400 bytes
+		TestService service = new TestService(d, 1000);
+		try {
+			Image imageA = waitForThumbnail(service, a);
+			Image imageB = waitForThumbnail(service, b);
+			assertEquals(800, service.getCacheSize());
+
+			// a is used again, so b is the least recently used
+			assertSame(imageA, service.getThumbnail(a, 10, 10));
+			Image imageC = waitForThumbnail(service, c);
+			assertEquals(800, service.getCacheSize());
+			assertTrue(imageB.isDisposed());
+			assertFalse(imageA.isDisposed());
+			assertSame(imageA, service.getThumbnail(a, 10, 10));
+			assertSame(imageC, service.getThumbnail(c, 10, 10));
+
+			// shrinking the cache keeps the most recently used thumbnail
+			service.setMaxCacheSize(400);
+			assertEquals(400, service.getCacheSize());
+			assertTrue(imageA.isDisposed());
+			assertFalse(imageC.isDisposed());
+
+			service.clear();
+			assertEquals(0, service.getCacheSize());
+			assertTrue(imageC.isDisposed());
+		} finally {
+			service.dispose();
+		}
+	}
+
+	private static GalleryItem createItem(GalleryItem group) {
+		GalleryItem item = new GalleryItem(group, SWT.NONE);
+		item.setData(GalleryThumbnailService.SOURCE, new ImageData(20, 20, 24,
+				new PaletteData(0xFF0000, 0xFF00, 0xFF)));
+		return item;
+	}
+
+	private Image waitForThumbnail(GalleryThumbnailService service,
+			GalleryItem item) throws InterruptedException {
+		long end = System.currentTimeMillis() + 5000;
+		Image image = service.getThumbnail(item, 10, 10);
+		while (image == null && System.currentTimeMillis() < end) {
+			if (!d.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+			image = service.getThumbnail(item, 10, 10);
+		}
+		assertNotNull(image);
+		return image;
+	}
+}
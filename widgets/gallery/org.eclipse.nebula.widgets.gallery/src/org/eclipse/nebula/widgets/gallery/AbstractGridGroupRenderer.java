@@ -57,6 +57,11 @@ public abstract class AbstractGridGroupRenderer extends
 
 	private static final int START = 1;
 
+	/**
+	 * Visible item range of the group being drawn. Reused by each draw.
+	 */
+	protected final int[] visibleRange = new int[2];
+
 	/**
 	 * If true, groups are always expanded and toggle button is not displayed
 	 */
@@ -272,78 +277,96 @@ public abstract class AbstractGridGroupRenderer extends
 		}
 	}
 
+	/**
+	 * Returns the indexes of the items of a group which are in the clipping
+	 * area. This method allocates a new array on each call, renderers should
+	 * use
+	 * {@link #getVisibleRange(GalleryItem, int, int, int, int, int, int, int, int[])}
+	 * while drawing.
+	 * 
+	 * @param group
+	 * @param x
+	 * @param y
+	 * @param clipX
+	 * @param clipY
+	 * @param clipWidth
+	 * @param clipHeight
+	 * @param offset
+	 * @return item indexes or null if no item is visible
+	 */
 	protected int[] getVisibleItems(GalleryItem group, int x, int y, int clipX,
 			int clipY, int clipWidth, int clipHeight, int offset) {
-		int[] indexes;
-
-		if (gallery.isVertical()) {
-			int count = ((Integer) group.getData(H_COUNT)).intValue();
-			// TODO: Not used ATM
-			// int vCount = ((Integer) group.getData(V_COUNT)).intValue();
-
-			int firstLine = (clipY - y - offset - minMargin)
-					/ (itemHeight + minMargin);
-			if (firstLine < 0)
-				firstLine = 0;
-
-			int firstItem = firstLine * count;
-			if (Gallery.DEBUG)
-				System.out.println("First line : " + firstLine); //$NON-NLS-1$
-
-			int lastLine = (clipY - y - offset + clipHeight - minMargin)
-					/ (itemHeight + minMargin);
-
-			if (lastLine < firstLine)
-				lastLine = firstLine;
+		int[] range = new int[2];
+		if (!getVisibleRange(group, x, y, clipX, clipY, clipWidth, clipHeight,
+				offset, range))
+			return null;
 
-			if (Gallery.DEBUG)
-				System.out.println("Last line : " + lastLine); //$NON-NLS-1$
+		int[] indexes = new int[range[1] - range[0]];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = range[0] + i;
+		}
 
-			int lastItem = (lastLine + 1) * count;
+		return indexes;
+	}
 
-			// exit if no item selected
-			if (lastItem - firstItem == 0)
-				return null;
+	/**
+	 * Computes the items of a group which are in the clipping area. Visible
+	 * items are always contiguous : the first index is stored in range[0] and
+	 * the last index + 1 in range[1]. Nothing is allocated.
+	 * 
+	 * @param group
+	 * @param x
+	 * @param y
+	 * @param clipX
+	 * @param clipY
+	 * @param clipWidth
+	 * @param clipHeight
+	 * @param offset
+	 * @param range
+	 *            an array of at least 2 elements which receives the result
+	 * @return false if no item is visible
+	 */
+	protected boolean getVisibleRange(GalleryItem group, int x, int y,
+			int clipX, int clipY, int clipWidth, int clipHeight, int offset,
+			int[] range) {
+		int count, firstLine, lastLine;
 
-			indexes = new int[lastItem - firstItem];
-			for (int i = 0; i < (lastItem - firstItem); i++) {
-				indexes[i] = firstItem + i;
-			}
+		if (gallery.isVertical()) {
+			count = ((Integer) group.getData(H_COUNT)).intValue();
 
+			firstLine = (clipY - y - offset - minMargin)
+					/ (itemHeight + minMargin);
+			lastLine = (clipY - y - offset + clipHeight - minMargin)
+					/ (itemHeight + minMargin);
 		} else {
-			int count = ((Integer) group.getData(V_COUNT)).intValue();
+			count = ((Integer) group.getData(V_COUNT)).intValue();
 
-			int firstLine = (clipX - x - offset - minMargin)
+			firstLine = (clipX - x - offset - minMargin)
 					/ (itemWidth + minMargin);
-			if (firstLine < 0)
-				firstLine = 0;
-
-			int firstItem = firstLine * count;
-			if (Gallery.DEBUG)
-				System.out.println("First line : " + firstLine); //$NON-NLS-1$
-
-			int lastLine = (clipX - x - offset + clipWidth - minMargin)
+			lastLine = (clipX - x - offset + clipWidth - minMargin)
 					/ (itemWidth + minMargin);
+		}
 
-			if (lastLine < firstLine)
-				lastLine = firstLine;
+		if (firstLine < 0)
+			firstLine = 0;
+		if (lastLine < firstLine)
+			lastLine = firstLine;
 
-			if (Gallery.DEBUG)
-				System.out.println("Last line : " + lastLine); //$NON-NLS-1$
-
-			int lastItem = (lastLine + 1) * count;
+		if (Gallery.DEBUG)
+			System.out.println("First line : " + firstLine //$NON-NLS-1$
+					+ " Last line : " + lastLine); //$NON-NLS-1$
 
-			// exit if no item selected
-			if (lastItem - firstItem == 0)
-				return null;
+		// Items after the last one are not drawn anyway
+		int firstItem = firstLine * count;
+		int lastItem = Math.min((lastLine + 1) * count, group.getItemCount());
 
-			indexes = new int[lastItem - firstItem];
-			for (int i = 0; i < (lastItem - firstItem); i++) {
-				indexes[i] = firstItem + i;
-			}
-		}
+		// exit if no item selected
+		if (lastItem - firstItem <= 0)
+			return false;
 
-		return indexes;
+		range[0] = firstItem;
+		range[1] = lastItem;
+		return true;
 	}
 
 	/**
@@ -432,26 +432,25 @@ public class DefaultGalleryGroupRenderer extends AbstractGridGroupRenderer {
 
 		// Display item
 		if (isGroupExpanded(group)) {
-			int[] indexes = getVisibleItems(group, x, y, clipX, clipY,
-					clipWidth, clipHeight, groupOffset);
+			int[] range = visibleRange;
+			if (getVisibleRange(group, x, y, clipX, clipY, clipWidth,
+					clipHeight, groupOffset, range)) {
 
-			if (fill) {
-				indexes = new int[] { indexes[0] };
-			}
+				if (fill) {
+					range[1] = range[0] + 1;
+				}
 
-			if (indexes != null && indexes.length > 0) {
-				for (int i = indexes.length - 1; i >= 0; i--) {
+				for (int i = range[1] - 1; i >= range[0]; i--) {
 
-					boolean selected = group
-							.isSelected(group.getItem(indexes[i]));
+					boolean selected = group.isSelected(group.getItem(i));
 
 					if (Gallery.DEBUG) {
 						System.out.println("Selected : " + selected //$NON-NLS-1$
-								+ " index : " + indexes[i] + "item : " //$NON-NLS-1$//$NON-NLS-2$
-								+ group.getItem(indexes[i]));
+								+ " index : " + i + "item : " //$NON-NLS-1$//$NON-NLS-2$
+								+ group.getItem(i));
 					}
 
-					drawItem(gc, indexes[i], selected, group, groupOffset);
+					drawItem(gc, i, selected, group, groupOffset);
 
 				}
 			}
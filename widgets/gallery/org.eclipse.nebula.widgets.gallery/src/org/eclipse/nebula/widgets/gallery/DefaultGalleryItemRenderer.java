@@ -76,11 +76,23 @@ public class DefaultGalleryItemRenderer extends AbstractGalleryItemRenderer {
 
 	int selectionRadius = 15;
 
+	/**
+	 * If set, images of items with a thumbnail source are loaded in the
+	 * background.
+	 */
+	GalleryThumbnailService thumbnailService = null;
+
+	/**
+	 * Drawn while a thumbnail is loading. If null, a rectangle is drawn.
+	 */
+	Image placeholderImage = null;
+
 	// Vars used during drawing (optimization)
 	private boolean _drawBackground = false;
 	private Color _drawBackgroundColor = null;
 	private Image _drawImage = null;
 	private Color _drawForegroundColor = null;
+	private boolean _drawPlaceholder = false;
 
 	/**
 	 * Returns current label state : enabled or disabled
@@ -120,6 +132,20 @@ public class DefaultGalleryItemRenderer extends AbstractGalleryItemRenderer {
 		createColors();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.eclipse.nebula.widgets.gallery.AbstractGalleryItemRenderer#preDraw
+	 * (org.eclipse.swt.graphics.GC)
+	 */
+	public void preDraw(GC gc) {
+		super.preDraw(gc);
+		if (thumbnailService != null) {
+			thumbnailService.updateViewport(gallery);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -131,6 +157,7 @@ public class DefaultGalleryItemRenderer extends AbstractGalleryItemRenderer {
 	public void draw(GC gc, GalleryItem item, int index, int x, int y,
 			int width, int height) {
 		_drawImage = item.getImage();
+		_drawPlaceholder = false;
 		_drawForegroundColor = getForeground(item);
 
 		// Set up the GC
@@ -145,6 +172,17 @@ public class DefaultGalleryItemRenderer extends AbstractGalleryItemRenderer {
 			useableHeight -= fontHeight + 2;
 		}
 
+		// Use a thumbnail of the right size if available
+		if (thumbnailService != null && thumbnailService.hasSource(item)) {
+			_drawImage = thumbnailService.getThumbnail(item, width - 8 - 2
+					* this.dropShadowsSize, useableHeight - 8 - 2
+					* this.dropShadowsSize);
+			if (_drawImage == null) {
+				_drawImage = placeholderImage;
+				_drawPlaceholder = placeholderImage == null;
+			}
+		}
+
 		int imageWidth = 0;
 		int imageHeight = 0;
 		int xShift = 0;
@@ -217,6 +255,16 @@ public class DefaultGalleryItemRenderer extends AbstractGalleryItemRenderer {
 			}
 		}
 
+		// Draw placeholder
+		if (_drawPlaceholder) {
+			gc.setForeground(gallery.getDisplay().getSystemColor(
+					SWT.COLOR_WIDGET_NORMAL_SHADOW));
+			int placeholderSize = Math.min(width, useableHeight) / 2;
+			gc.drawRectangle(x + (width - placeholderSize) / 2, y
+					+ (useableHeight - placeholderSize) / 2, placeholderSize,
+					placeholderSize);
+		}
+
 		// Draw image
 		if (_drawImage != null && size != null) {
 			if (size.x > 0 && size.y > 0) {
@@ -379,6 +427,50 @@ public class DefaultGalleryItemRenderer extends AbstractGalleryItemRenderer {
 		this.backgroundColor = backgroundColor;
 	}
 
+	/**
+	 * Returns the service which loads thumbnails in the background.
+	 * 
+	 * @return the service or null
+	 * @see #setThumbnailService(GalleryThumbnailService)
+	 */
+	public GalleryThumbnailService getThumbnailService() {
+		return thumbnailService;
+	}
+
+	/**
+	 * Set the service which loads thumbnails in the background. Items which
+	 * have a source for this service (see {@link GalleryThumbnailService#SOURCE}
+	 * ) are drawn with a thumbnail of the size of the item instead of
+	 * {@link GalleryItem#getImage()}. Until the thumbnail is ready, the
+	 * placeholder image is drawn. The service is not disposed with the
+	 * renderer.
+	 * 
+	 * @param thumbnailService
+	 *            the service or null to draw item images only
+	 */
+	public void setThumbnailService(GalleryThumbnailService thumbnailService) {
+		this.thumbnailService = thumbnailService;
+	}
+
+	/**
+	 * Returns the image drawn while a thumbnail is loading.
+	 * 
+	 * @return the image or null
+	 */
+	public Image getPlaceholderImage() {
+		return placeholderImage;
+	}
+
+	/**
+	 * Set the image drawn while a thumbnail is loading. If null, an empty
+	 * frame is drawn.
+	 * 
+	 * @param placeholderImage
+	 */
+	public void setPlaceholderImage(Image placeholderImage) {
+		this.placeholderImage = placeholderImage;
+	}
+
 	public boolean isShowRoundedSelectionCorners() {
 		return this.showRoundedSelectionCorners;
 	}
@@ -13,7 +13,7 @@
 package org.eclipse.nebula.widgets.gallery;
 
 import java.lang.reflect.Array;
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -113,7 +113,16 @@ public class Gallery extends Canvas {
 
 	GalleryItem[] items = null;
 
-	private GalleryItem[] selection = null;
+	/**
+	 * Selected items, in selection order.
+	 */
+	private final LinkedHashSet selection = new LinkedHashSet();
+
+	/**
+	 * Array view of the selection returned by getSelection(). Rebuilt after
+	 * the selection has changed.
+	 */
+	private GalleryItem[] selectionArray = null;
 
 	/**
 	 * Selection bit flags. Each 'int' contains flags for 32 items.
@@ -160,6 +169,18 @@ public class Gallery extends Canvas {
 
 	int lastIndexOf = 0;
 
+	/**
+	 * Position of each group along the scrolling direction, followed by the
+	 * full size of the content. Updated with the layout and used to find
+	 * visible groups with a binary search.
+	 */
+	private int[] groupOffsets = null;
+
+	/**
+	 * Indexes of the groups drawn by the current paint. Reused by each paint.
+	 */
+	private int[] visibleGroups = new int[16];
+
 	/**
 	 * Keeps track of the last selected item. This is necessary to support
 	 * "Shift+Mouse button" where we have to select all items between the
@@ -871,8 +892,9 @@ public class Gallery extends Canvas {
 			if (item != null && selected) {
 				notifiedItem = item;
 			} else {
-				if (selection != null && selection.length > 0) {
-					notifiedItem = selection[selection.length - 1];
+				GalleryItem[] selectionLocal = getSelection();
+				if (selectionLocal.length > 0) {
+					notifiedItem = selectionLocal[selectionLocal.length - 1];
 				}
 			}
 
@@ -924,15 +946,8 @@ public class Gallery extends Canvas {
 
 		}
 
-		if (selection == null) {
-			selection = new GalleryItem[1];
-		} else {
-			GalleryItem[] oldSelection = selection;
-			selection = new GalleryItem[oldSelection.length + 1];
-			System.arraycopy(oldSelection, 0, selection, 0,
-					oldSelection.length);
-		}
-		selection[selection.length - 1] = item;
+		selection.add(item);
+		selectionArray = null;
 
 	}
 
@@ -944,11 +959,8 @@ public class Gallery extends Canvas {
 		} else
 			_removeSelection(item.getParentItem(), item);
 
-		int index = _arrayIndexOf(selection, item);
-		if (index == -1)
-			return;
-
-		selection = (GalleryItem[]) _arrayRemoveItem(selection, index);
+		if (selection.remove(item))
+			selectionArray = null;
 
 	}
 
@@ -1000,7 +1012,8 @@ public class Gallery extends Canvas {
 		if (DEBUG)
 			System.out.println("clear"); //$NON-NLS-1$
 
-		this.selection = null;
+		this.selection.clear();
+		this.selectionArray = null;
 		// Deselect groups
 		// We could set selectionFlags to null, but we rather set all values to
 		// 0 to redure garbage collection. On each iteration, we deselect 32
@@ -1226,9 +1239,10 @@ public class Gallery extends Canvas {
 			drawBackground(gc, clipping.x, clipping.y, clipping.width,
 					clipping.height);
 
-			int[] indexes = getVisibleItems(clipping);
+			int count = getVisibleGroups(clipping);
+			int[] indexes = visibleGroups;
 
-			if (indexes != null && indexes.length > 0) {
+			if (count > 0) {
 
 				// Call preDraw for optimization
 				if (groupRenderer != null)
@@ -1236,7 +1250,7 @@ public class Gallery extends Canvas {
 				if (itemRenderer != null)
 					itemRenderer.preDraw(gc);
 
-				for (int i = indexes.length - 1; i >= 0; i--) {
+				for (int i = count - 1; i >= 0; i--) {
 					if (DEBUG)
 						System.out.println("Drawing group " + indexes[i]); //$NON-NLS-1$
 
@@ -1282,10 +1296,17 @@ public class Gallery extends Canvas {
 		}
 	}
 
-	private int[] getVisibleItems(Rectangle clipping) {
+	/**
+	 * Find the groups in the clipping area and store their indexes in
+	 * visibleGroups.
+	 * 
+	 * @param clipping
+	 * @return the number of visible groups
+	 */
+	private int getVisibleGroups(Rectangle clipping) {
 
 		if (items == null)
-			return null;
+			return 0;
 
 		int start = vertical ? (clipping.y + translate)
 				: (clipping.x + translate);
@@ -1293,31 +1314,80 @@ public class Gallery extends Canvas {
 		int end = vertical ? (clipping.y + clipping.height + translate)
 				: (clipping.x + clipping.width + translate);
 
-		ArrayList al = new ArrayList();
-		int index = 0;
-		GalleryItem item = null;
-		while (index < items.length) {
-			if (virtualGroups) {
-				item = _getItem(index, false);
-			} else {
-				item = _getItem(index);
-			}
-			if ((vertical ? item.y : item.x) > end)
-				break;
+		int[] offsets = _getGroupOffsets();
+		int groupCount = offsets.length - 1;
 
-			if ((vertical ? (item.y + item.height)
-					: (item.x + item.width)) >= start)
-				al.add(new Integer(index));
+		// First group which ends after start, last group which begins before
+		// end.
+		int first = _firstOffsetAbove(offsets, 1, groupCount + 1, start - 1) - 1;
+		int last = _firstOffsetAbove(offsets, 0, groupCount, end) - 1;
+
+		int count = last - first + 1;
+		if (count <= 0)
+			return 0;
 
-			index++;
+		if (visibleGroups.length < count) {
+			visibleGroups = new int[Math.max(count, visibleGroups.length * 2)];
 		}
+		for (int i = 0; i < count; i++) {
+			visibleGroups[i] = first + i;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the position of each group, followed by the size of the content.
+	 * The array is rebuilt from the current groups if the last layout does not
+	 * match the item count.
+	 * 
+	 * @return group offsets
+	 */
+	private int[] _getGroupOffsets() {
+		int count = items == null ? 0 : items.length;
 
-		int[] result = new int[al.size()];
+		if (groupOffsets == null || groupOffsets.length != count + 1) {
+			int[] offsets = new int[count + 1];
+			int end = 0;
+			for (int i = 0; i < count; i++) {
+				GalleryItem item = _getItem(i, !virtualGroups);
+				if (item != null) {
+					offsets[i] = vertical ? item.y : item.x;
+					end = offsets[i] + (vertical ? item.height : item.width);
+				} else {
+					offsets[i] = end;
+				}
+			}
+			offsets[count] = end;
+			groupOffsets = offsets;
+		}
 
-		for (int i = 0; i < al.size(); i++)
-			result[i] = ((Integer) al.get(i)).intValue();
+		return groupOffsets;
+	}
 
-		return result;
+	/**
+	 * Binary search in sorted offsets.
+	 * 
+	 * @param offsets
+	 * @param from
+	 *            first index to search (inclusive)
+	 * @param to
+	 *            last index to search (exclusive)
+	 * @param value
+	 * @return the first index in the range whose offset is greater than
+	 *         value, or 'to' if there is none.
+	 */
+	private static int _firstOffsetAbove(int[] offsets, int from, int to,
+			int value) {
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+			if (offsets[middle] > value) {
+				to = middle;
+			} else {
+				from = middle + 1;
+			}
+		}
+		return from;
 	}
 
 	/**
@@ -1441,6 +1511,7 @@ public class Gallery extends Canvas {
 					}
 
 					galleryItem = new GalleryItem(this, SWT.NONE, i, false);
+					galleryItem.parentIndex = i;
 					items[i] = galleryItem;
 
 					if (virtualGroups && !create) {
@@ -1461,6 +1532,7 @@ public class Gallery extends Canvas {
 
 					galleryItem = new GalleryItem(parentItem, SWT.NONE, i,
 							false);
+					galleryItem.parentIndex = i;
 					parentItem.items[i] = galleryItem;
 					setData(galleryItem, i);
 				}
@@ -1561,8 +1633,10 @@ public class Gallery extends Canvas {
 	 */
 	private int calculateSize(GalleryItem onlyUpdateGroup) {
 
-		if (groupRenderer == null)
+		if (groupRenderer == null) {
+			groupOffsets = null;
 			return 0;
+		}
 
 		groupRenderer.preLayout(null);
 
@@ -1570,6 +1644,11 @@ public class Gallery extends Canvas {
 
 		int mainItemCount = getItemCount();
 
+		int[] offsets = groupOffsets;
+		if (offsets == null || offsets.length != mainItemCount + 1) {
+			offsets = new int[mainItemCount + 1];
+		}
+
 		for (int i = 0; i < mainItemCount; i++) {
 			GalleryItem item = null;
 			if (virtualGroups) {
@@ -1578,6 +1657,8 @@ public class Gallery extends Canvas {
 				item = this._getItem(i);
 			}
 
+			offsets[i] = currentHeight;
+
 			if (onlyUpdateGroup != null && !onlyUpdateGroup.equals(item)) {
 				// Item has not changed : no layout.
 				if (vertical) {
@@ -1617,6 +1698,9 @@ public class Gallery extends Canvas {
 
 		}
 
+		offsets[mainItemCount] = currentHeight;
+		groupOffsets = offsets;
+
 		groupRenderer.postLayout(null);
 
 		return currentHeight;
@@ -1760,6 +1844,7 @@ public class Gallery extends Canvas {
 	private void _addItem(GalleryItem item, int position) {
 		// Insert item
 		items = (GalleryItem[]) _arrayAddItem(items, item, position);
+		_updateIndexes(items, position == -1 ? items.length - 1 : position);
 
 		// Update Gallery
 		updateStructuralValues(null, false);
@@ -1903,20 +1988,13 @@ public class Gallery extends Canvas {
 
 		int pos = vertical ? (coords.y + translate) : (coords.x + translate);
 
-		int index = 0;
-		GalleryItem item = null;
-		while (index < items.length) {
-			item = getItem(index);
-
-			if ((vertical ? item.y : item.x) > pos)
-				break;
-
-			if ((vertical ? (item.y + item.height)
-					: (item.x + item.width)) >= pos)
-				return item;
+		int[] offsets = _getGroupOffsets();
+		int groupCount = offsets.length - 1;
 
-			index++;
-		}
+		// First group which ends at or after pos
+		int index = _firstOffsetAbove(offsets, 1, groupCount + 1, pos - 1) - 1;
+		if (index < groupCount && offsets[index] <= pos)
+			return getItem(index);
 
 		return null;
 	}
@@ -2072,6 +2150,9 @@ public class Gallery extends Canvas {
 		int itemCount = getItemCount();
 		if (item == null)
 			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		int index = item.parentIndex;
+		if (0 <= index && index < itemCount && items[index] == item)
+			return index;
 		if (1 <= lastIndexOf && lastIndexOf < itemCount - 1) {
 			if (items[lastIndexOf] == item)
 				return lastIndexOf;
@@ -2083,12 +2164,12 @@ public class Gallery extends Canvas {
 		if (lastIndexOf < itemCount / 2) {
 			for (int i = 0; i < itemCount; i++) {
 				if (items[i] == item)
-					return lastIndexOf = i;
+					return item.parentIndex = lastIndexOf = i;
 			}
 		} else {
 			for (int i = itemCount - 1; i >= 0; --i) {
 				if (items[i] == item)
-					return lastIndexOf = i;
+					return item.parentIndex = lastIndexOf = i;
 			}
 		}
 		return -1;
@@ -2105,6 +2186,9 @@ public class Gallery extends Canvas {
 		int itemCount = parentItem.getItemCount();
 		if (item == null)
 			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		int index = item.parentIndex;
+		if (0 <= index && index < itemCount && parentItem.items[index] == item)
+			return index;
 		if (1 <= parentItem.lastIndexOf
 				&& parentItem.lastIndexOf < itemCount - 1) {
 			if (parentItem.items[parentItem.lastIndexOf] == item)
@@ -2117,12 +2201,12 @@ public class Gallery extends Canvas {
 		if (parentItem.lastIndexOf < itemCount / 2) {
 			for (int i = 0; i < itemCount; i++) {
 				if (parentItem.items[i] == item)
-					return parentItem.lastIndexOf = i;
+					return item.parentIndex = parentItem.lastIndexOf = i;
 			}
 		} else {
 			for (int i = itemCount - 1; i >= 0; --i) {
 				if (parentItem.items[i] == item)
-					return parentItem.lastIndexOf = i;
+					return item.parentIndex = parentItem.lastIndexOf = i;
 			}
 		}
 		return -1;
@@ -2326,18 +2410,16 @@ public class Gallery extends Canvas {
 	}
 
 	public GalleryItem[] getSelection() {
-		if (selection == null) {
-			return new GalleryItem[0];
+		if (selectionArray == null) {
+			selectionArray = (GalleryItem[]) selection
+					.toArray(new GalleryItem[selection.size()]);
 		}
 
-		return selection;
+		return selectionArray;
 	}
 
 	public int getSelectionCount() {
-		if (selection == null)
-			return 0;
-
-		return selection.length;
+		return selection.size();
 	}
 
 	/**
@@ -2358,12 +2440,14 @@ public class Gallery extends Canvas {
 		_deselectAll(false);
 		for (int i = 0; i < items.length; i++) {
 			this.setSelected(items[i], true, false);
+		}
 
-			// Ensure item is visible
-			_showItem(items[i]);
+		if (items.length > 0) {
+			// Ensure the last item is visible
+			_showItem(items[items.length - 1]);
 
 			// Simulate mouse click to enable keyboard navigation
-			lastSingleClick = items[i];
+			lastSingleClick = items[items.length - 1];
 		}
 		redraw();
 	}
@@ -2413,6 +2497,7 @@ public class Gallery extends Canvas {
 		}
 
 		this.items = (GalleryItem[]) this._arrayRemoveItem(this.items, index);
+		_updateIndexes(this.items, index);
 
 		// if( virtual)
 		// itemCount--;
@@ -2426,6 +2511,26 @@ public class Gallery extends Canvas {
 
 		parent.items = (GalleryItem[]) this._arrayRemoveItem(parent.items,
 				index);
+		_updateIndexes(parent.items, index);
+	}
+
+	/**
+	 * Update the index stored in each item after items have been inserted or
+	 * removed.
+	 * 
+	 * @param array
+	 *            the children of a group or the groups of the gallery
+	 * @param from
+	 *            the first index which has changed
+	 */
+	void _updateIndexes(GalleryItem[] array, int from) {
+		if (array == null)
+			return;
+
+		for (int i = Math.max(0, from); i < array.length; i++) {
+			if (array[i] != null)
+				array[i].parentIndex = i;
+		}
 	}
 
 	protected Object[] _arrayRemoveItem(Object[] array, int index) {
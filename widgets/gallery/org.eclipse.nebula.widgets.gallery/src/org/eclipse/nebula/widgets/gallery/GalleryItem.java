@@ -78,6 +78,12 @@ public class GalleryItem extends Item {
 	 */
 	protected int lastIndexOf = 0;
 
+	/**
+	 * Index of this item in its parent. Maintained by the Gallery and checked
+	 * before use, a wrong value only leads to a search.
+	 */
+	int parentIndex = -1;
+
 	/**
 	 * True if the Gallery was created wih SWT.VIRTUAL
 	 */
@@ -185,6 +191,8 @@ public class GalleryItem extends Item {
 
 		// Insert item
 		items = (GalleryItem[]) parent._arrayAddItem(items, item, position);
+		parent._updateIndexes(items, position == -1 ? items.length - 1
+				: position);
 
 		// Update Gallery
 		parent.updateStructuralValues(null, false);
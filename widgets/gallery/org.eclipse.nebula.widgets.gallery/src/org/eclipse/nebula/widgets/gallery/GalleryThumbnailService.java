@@ -0,0 +1,586 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.gallery;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * <p>
+ * Loads thumbnails of large images in the background. Images are decoded and
+ * downscaled to the size they are drawn at by a pool of worker threads, so the
+ * UI thread only draws small images. Ready thumbnails are kept in a least
+ * recently used cache which is bounded by the size of their pixel data. Each
+ * size an image is requested at is cached separately.
+ * </p>
+ * <p>
+ * The source of the image of an item is set with
+ * {@link GalleryItem#setData(String, Object)} by using the key {@link #SOURCE}
+ * . Supported types are java.io.File, java.lang.String (a file name),
+ * java.net.URL and org.eclipse.swt.graphics.ImageData. Override
+ * {@link #loadImageData(Object)} to support other types.
+ * </p>
+ * <p>
+ * Pending requests are ordered by the distance of their item to the center of
+ * the visible area of the gallery. Requests for items which are scrolled more
+ * than one page away from the visible area are dropped. See
+ * {@link DefaultGalleryItemRenderer#setThumbnailService(GalleryThumbnailService)}
+ * .
+ * </p>
+ * <p>
+ * NOTE: THIS WIDGET AND ITS API ARE STILL UNDER DEVELOPMENT.
+ * </p>
+ */
+public class GalleryThumbnailService {
+
+	public final static String SOURCE = "org.eclipse.nebula.widget.gallery.thumbnailSource"; //$NON-NLS-1$
+
+	/**
+	 * Default size of the cache : 64 MB
+	 */
+	public final static long DEFAULT_CACHE_SIZE = 64 * 1024 * 1024;
+
+	private final Display display;
+
+	/**
+	 * Ready thumbnails (Key -> Image), least recently used first. Only used in
+	 * the UI thread.
+	 */
+	private final LinkedHashMap cache = new LinkedHashMap(64, 0.75f, true); // Map <Key, Image>
+
+	private long cacheSize = 0;
+
+	/**
+	 * Keys of images which could not be loaded. Only used in the UI thread.
+	 */
+	private final HashSet failures = new HashSet(); // Set <Key>
+
+	private long maxCacheSize;
+
+	/**
+	 * Requests waiting for a worker or being decoded (Key -> Request). Guarded
+	 * by itself.
+	 */
+	private final Map requests = new HashMap(); // Map <Key, Request>
+
+	/**
+	 * Requests waiting for a worker. Guarded by requests.
+	 */
+	private final ArrayList queue = new ArrayList(); // List <Request>
+
+	private final Thread[] workers;
+
+	private boolean started = false;
+
+	/**
+	 * Current visible area in gallery coordinates. Only used in the UI thread.
+	 */
+	private Rectangle viewport;
+
+	private boolean vertical = true;
+
+	private volatile boolean disposed = false;
+
+	/**
+	 * Create a thumbnail service.
+	 *
+	 * @param display
+	 *            the display images are created on
+	 * @param threads
+	 *            number of worker threads
+	 * @param maxCacheSize
+	 *            maximum size of the pixel data of the cached thumbnails, in
+	 *            bytes
+	 */
+	public GalleryThumbnailService(Display display, int threads,
+			long maxCacheSize) {
+		this.display = display;
+		this.maxCacheSize = maxCacheSize;
+		this.workers = new Thread[Math.max(1, threads)];
+	}
+
+	/**
+	 * Create a thumbnail service with one worker per processor and a cache of
+	 * {@link #DEFAULT_CACHE_SIZE}.
+	 *
+	 * @param display
+	 */
+	public GalleryThumbnailService(Display display) {
+		this(display, Runtime.getRuntime().availableProcessors(),
+				DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Returns true if a source is set on this item.
+	 *
+	 * @param item
+	 * @return
+	 */
+	public boolean hasSource(GalleryItem item) {
+		return getSource(item) != null;
+	}
+
+	/**
+	 * Returns the source of the image of this item. Called in the UI thread.
+	 * The default implementation returns item.getData(SOURCE).
+	 *
+	 * @param item
+	 * @return the source or null
+	 */
+	protected Object getSource(GalleryItem item) {
+		return item.getData(SOURCE);
+	}
+
+	/**
+	 * Returns the thumbnail of the item which fits into width x height, or null
+	 * if it is not ready yet. In this case, the thumbnail is requested and the
+	 * item is redrawn when it is available. Must be called in the UI thread.
+	 *
+	 * @param item
+	 * @param width
+	 * @param height
+	 * @return the thumbnail or null. The thumbnail is owned by the service and
+	 *         must not be disposed.
+	 */
+	public Image getThumbnail(GalleryItem item, int width, int height) {
+		Object source = getSource(item);
+		if (source == null || width <= 0 || height <= 0 || disposed)
+			return null;
+
+		Key key = new Key(source, width, height);
+		Image image = (Image) cache.get(key);
+		if (image != null && !image.isDisposed()) {
+			return image;
+		}
+		if (failures.contains(key)) {
+			return null;
+		}
+
+		synchronized (requests) {
+			Request request = (Request) requests.get(key);
+			if (request == null) {
+				request = new Request(key, item);
+				requests.put(key, request);
+				queue.add(request);
+				startWorkers();
+				requests.notify();
+			} else {
+				request.item = item;
+			}
+			request.priority = getDistance(item);
+		}
+		return null;
+	}
+
+	/**
+	 * Update the visible area of the gallery. Pending requests are ordered
+	 * again by the distance of their item to the center of this area and
+	 * requests for items which are more than one page away from this area are
+	 * dropped. Must be called in the UI thread, usually before each paint.
+	 *
+	 * @param gallery
+	 */
+	public void updateViewport(Gallery gallery) {
+		Rectangle area = gallery.getClientArea();
+		vertical = gallery.isVertical();
+		if (vertical) {
+			viewport = new Rectangle(0, gallery.translate, area.width,
+					area.height);
+		} else {
+			viewport = new Rectangle(gallery.translate, 0, area.width,
+					area.height);
+		}
+
+		int page = vertical ? viewport.height : viewport.width;
+		// half a page from the center to the edge of the visible area, then
+		// one more page
+		int maxDistance = page / 2 + page;
+		synchronized (requests) {
+			for (int i = queue.size() - 1; i >= 0; i--) {
+				Request request = (Request) queue.get(i);
+				if (request.item.isDisposed()) {
+					cancel(i);
+					continue;
+				}
+				request.priority = getDistance(request.item);
+				if (request.priority > maxDistance) {
+					// Scrolled away
+					cancel(i);
+				}
+			}
+		}
+	}
+
+	private void cancel(int queueIndex) {
+		Request request = (Request) queue.remove(queueIndex);
+		requests.remove(request.key);
+	}
+
+	/**
+	 * Distance from the center of the item to the center of the viewport,
+	 * along the scrolling axis.
+	 */
+	private int getDistance(GalleryItem item) {
+		if (viewport == null)
+			return 0;
+		if (vertical) {
+			return Math.abs(item.y + item.height / 2 - viewport.y
+					- viewport.height / 2);
+		}
+		return Math.abs(item.x + item.width / 2 - viewport.x - viewport.width
+				/ 2);
+	}
+
+	/**
+	 * Returns the maximum size of the cache in bytes.
+	 *
+	 * @return
+	 */
+	public long getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	/**
+	 * Set the maximum size of the cache in bytes. Thumbnails are disposed if
+	 * the cache is larger than the new size. Must be called in the UI thread.
+	 *
+	 * @param maxCacheSize
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+		evict();
+	}
+
+	/**
+	 * Returns the current size of the pixel data of the cached thumbnails in
+	 * bytes.
+	 *
+	 * @return
+	 */
+	public long getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Returns the number of thumbnails which are waiting to be decoded.
+	 *
+	 * @return
+	 */
+	public int getPendingCount() {
+		synchronized (requests) {
+			return queue.size();
+		}
+	}
+
+	/**
+	 * Dispose all cached thumbnails and drop pending requests. Must be called
+	 * in the UI thread.
+	 */
+	public void clear() {
+		synchronized (requests) {
+			requests.clear();
+			queue.clear();
+		}
+		Iterator i = cache.values().iterator();
+		while (i.hasNext()) {
+			((Image) i.next()).dispose();
+		}
+		cache.clear();
+		cacheSize = 0;
+		failures.clear();
+	}
+
+	/**
+	 * Stop worker threads and dispose all thumbnails. Must be called in the UI
+	 * thread.
+	 */
+	public void dispose() {
+		disposed = true;
+		clear();
+		synchronized (requests) {
+			requests.notifyAll();
+		}
+	}
+
+	/**
+	 * Load the full image from its source. Called in a worker thread.
+	 * Override to support other types of sources.
+	 *
+	 * @param source
+	 *            the object returned by {@link #getSource(GalleryItem)}
+	 * @return the image data or null
+	 * @throws IOException
+	 */
+	protected ImageData loadImageData(Object source) throws IOException {
+		if (source instanceof ImageData) {
+			return (ImageData) source;
+		}
+
+		ImageData[] data = null;
+		ImageLoader loader = new ImageLoader();
+		if (source instanceof File) {
+			data = loader.load(((File) source).getAbsolutePath());
+		} else if (source instanceof String) {
+			data = loader.load((String) source);
+		} else if (source instanceof URL) {
+			InputStream in = ((URL) source).openStream();
+			try {
+				data = loader.load(in);
+			} finally {
+				in.close();
+			}
+		}
+
+		if (data == null || data.length == 0)
+			return null;
+		return data[0];
+	}
+
+	/**
+	 * Downscale image data so that it fits into width x height. Called in a
+	 * worker thread. Images with a direct palette are averaged over the area
+	 * each target pixel covers, other images are sampled.
+	 *
+	 * @param data
+	 * @param width
+	 * @param height
+	 * @return the thumbnail data
+	 */
+	protected ImageData createThumbnail(ImageData data, int width, int height) {
+		Point size = RendererHelper.getBestSize(data.width, data.height,
+				width, height);
+		int w = Math.max(1, size.x);
+		int h = Math.max(1, size.y);
+
+		if (w >= data.width || h >= data.height || !data.palette.isDirect) {
+			return data.scaledTo(w, h);
+		}
+
+		PaletteData palette = data.palette;
+		PaletteData target = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+		ImageData result = new ImageData(w, h, 24, target);
+
+		int[] row = new int[data.width];
+		int[] red = new int[w];
+		int[] green = new int[w];
+		int[] blue = new int[w];
+		int[] count = new int[w];
+		int[] pixels = new int[w];
+		int[] columns = new int[data.width];
+		for (int x = 0; x < data.width; x++) {
+			columns[x] = (int) ((long) x * w / data.width);
+		}
+
+		int sourceY = 0;
+		for (int y = 0; y < h; y++) {
+			int endY = (int) ((long) (y + 1) * data.height / h);
+			for (int i = 0; i < w; i++) {
+				red[i] = green[i] = blue[i] = count[i] = 0;
+			}
+			for (; sourceY < endY; sourceY++) {
+				data.getPixels(0, sourceY, data.width, row, 0);
+				for (int x = 0; x < data.width; x++) {
+					int pixel = row[x];
+					int column = columns[x];
+					red[column] += shift(pixel & palette.redMask,
+							palette.redShift);
+					green[column] += shift(pixel & palette.greenMask,
+							palette.greenShift);
+					blue[column] += shift(pixel & palette.blueMask,
+							palette.blueShift);
+					count[column]++;
+				}
+			}
+			for (int i = 0; i < w; i++) {
+				int n = Math.max(1, count[i]);
+				pixels[i] = (red[i] / n) << 16 | (green[i] / n) << 8
+						| (blue[i] / n);
+			}
+			result.setPixels(0, y, w, pixels, 0);
+		}
+		return result;
+	}
+
+	private static int shift(int value, int shift) {
+		return shift < 0 ? value >>> -shift : value << shift;
+	}
+
+	private void startWorkers() {
+		if (started)
+			return;
+		started = true;
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new Thread(new Worker(), "Gallery thumbnails " + i); //$NON-NLS-1$
+			workers[i].setDaemon(true);
+			workers[i].setPriority(Thread.MIN_PRIORITY);
+			workers[i].start();
+		}
+	}
+
+	/**
+	 * Called in the UI thread when a thumbnail is ready.
+	 */
+	private void publish(Request request, ImageData data) {
+		synchronized (requests) {
+			if (requests.get(request.key) == request) {
+				requests.remove(request.key);
+			}
+		}
+		if (disposed || display.isDisposed())
+			return;
+		if (data == null) {
+			failures.add(request.key);
+			return;
+		}
+
+		Image old = (Image) cache.remove(request.key);
+		if (old != null) {
+			cacheSize -= getSize(old);
+			old.dispose();
+		}
+		Image image = new Image(display, data);
+		cache.put(request.key, image);
+		cacheSize += getSize(image);
+		evict();
+
+		GalleryItem item = request.item;
+		if (!item.isDisposed()) {
+			Gallery gallery = item.getParent();
+			if (gallery != null && !gallery.isDisposed()) {
+				gallery.redraw(item);
+			}
+		}
+	}
+
+	private void evict() {
+		Iterator i = cache.values().iterator();
+		while (cacheSize > maxCacheSize && i.hasNext()) {
+			Image image = (Image) i.next();
+			cacheSize -= getSize(image);
+			image.dispose();
+			i.remove();
+		}
+	}
+
+	private static long getSize(Image image) {
+		Rectangle bounds = image.getBounds();
+		return 4L * bounds.width * bounds.height;
+	}
+
+	private static class Key {
+		final Object source;
+
+		final int width, height;
+
+		Key(Object source, int width, int height) {
+			this.source = source;
+			this.width = width;
+			this.height = height;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return width == other.width && height == other.height
+					&& source.equals(other.source);
+		}
+
+		public int hashCode() {
+			return source.hashCode() * 31 + width * 17 + height;
+		}
+	}
+
+	private static class Request {
+		final Key key;
+
+		GalleryItem item;
+
+		/**
+		 * Distance to the center of the viewport. Lower values are loaded
+		 * first.
+		 */
+		int priority;
+
+		Request(Key key, GalleryItem item) {
+			this.key = key;
+			this.item = item;
+		}
+	}
+
+	private class Worker implements Runnable {
+		public void run() {
+			while (!disposed) {
+				Request request = null;
+				synchronized (requests) {
+					while (queue.isEmpty() && !disposed) {
+						try {
+							requests.wait();
+						} catch (InterruptedException e) {
+							return;
+						}
+					}
+					if (disposed)
+						return;
+
+					int best = 0;
+					for (int i = 1; i < queue.size(); i++) {
+						if (((Request) queue.get(i)).priority < ((Request) queue
+								.get(best)).priority) {
+							best = i;
+						}
+					}
+					request = (Request) queue.remove(best);
+				}
+
+				ImageData thumbnail = null;
+				try {
+					ImageData data = loadImageData(request.key.source);
+					if (data != null) {
+						thumbnail = createThumbnail(data, request.key.width,
+								request.key.height);
+					}
+				} catch (Exception e) {
+					if (Gallery.DEBUG)
+						e.printStackTrace();
+				}
+
+				final Request finished = request;
+				final ImageData result = thumbnail;
+				if (display.isDisposed())
+					return;
+				try {
+					display.asyncExec(new Runnable() {
+						public void run() {
+							publish(finished, result);
+						}
+					});
+				} catch (RuntimeException e) {
+					// Display disposed in the meantime
+					return;
+				}
+			}
+		}
+	}
+}
@@ -48,21 +48,20 @@ public class NoGroupRenderer extends AbstractGridGroupRenderer {
 			int clipY, int clipWidth, int clipHeight) {
 
 		// Get items in the clipping area
-		int[] indexes = getVisibleItems(group, x, y, clipX, clipY, clipWidth,
-				clipHeight, OFFSET);
-
-		if (indexes != null && indexes.length > 0) {
-			for (int i = indexes.length - 1; i >= 0; i--) {
+		int[] range = visibleRange;
+		if (getVisibleRange(group, x, y, clipX, clipY, clipWidth, clipHeight,
+				OFFSET, range)) {
+			for (int i = range[1] - 1; i >= range[0]; i--) {
 				// Draw item
-				boolean selected = group.isSelected(group.getItem(indexes[i]));
+				boolean selected = group.isSelected(group.getItem(i));
 
 				if (Gallery.DEBUG) {
 					System.out.println(
-							"Selected : " + selected + " index : " + indexes[i] //$NON-NLS-1$//$NON-NLS-2$
-									+ "item : " + group.getItem(indexes[i])); //$NON-NLS-1$
+							"Selected : " + selected + " index : " + i //$NON-NLS-1$//$NON-NLS-2$
+									+ "item : " + group.getItem(i)); //$NON-NLS-1$
 				}
 
-				drawItem(gc, indexes[i], selected, group, OFFSET);
+				drawItem(gc, i, selected, group, OFFSET);
 
 			}
 		}
@@ -0,0 +1,193 @@
+package org.eclipse.nebula.widgets.geomap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.nebula.widgets.geomap.PointD;
+import org.eclipse.nebula.widgets.geomap.internal.LocationIndex;
+import org.junit.Test;
+
+public class LocationIndexTest {
+
+	private static final double DELTA = 1e-9;
+
+	private final Random random = new Random(4711);
+	private final Map<Object, PointD> locations = new HashMap<>();
+	private final LocationIndex index = new LocationIndex();
+
+	private Object[] createElements(int count) {
+		Object[] elements = new Object[count];
+		for (int i = 0; i < count; i++) {
+			elements[i] = "element" + i;
+			locations.put(elements[i], randomLocation());
+		}
+		return elements;
+	}
+
+	private PointD randomLocation() {
+		// a dense area, so the tree gets deep
+		if (random.nextBoolean()) {
+			return new PointD(10 + random.nextDouble(), 60 + random.nextDouble());
+		}
+		return new PointD(random.nextDouble() * 360 - 180,
+				random.nextDouble() * 170 - 85);
+	}
+
+	private void update(Object[] elements) {
+		index.update(elements, locations::get);
+	}
+
+	private Set<Object> query(double x0, double y0, double x1, double y1) {
+		List<LocationIndex.Entry> entries = new ArrayList<>();
+		index.query(x0, y0, x1, y1, entries);
+		Set<Object> result = new HashSet<>();
+		for (LocationIndex.Entry entry : entries) {
+			assertTrue(result.add(entry.element));
+		}
+		return result;
+	}
+
+	private Set<Object> find(Object[] elements, double x0, double y0,
+			double x1, double y1) {
+		Set<Object> result = new HashSet<>();
+		for (Object element : elements) {
+			PointD lonLat = locations.get(element);
+			if (lonLat == null) {
+				continue;
+			}
+			double x = LocationIndex.lon2world(lonLat.x);
+			double y = LocationIndex.lat2world(lonLat.y);
+			if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+				result.add(element);
+			}
+		}
+		return result;
+	}
+
+	private void assertQueries(Object[] elements) {
+		assertEquals(find(elements, 0, 0, 1, 1), query(0, 0, 1, 1));
+		for (int i = 0; i < 50; i++) {
+			double x0 = random.nextDouble(), y0 = random.nextDouble();
+			double size = random.nextDouble() / (1 << random.nextInt(12));
+			assertEquals(find(elements, x0, y0, x0 + size, y0 + size),
+					query(x0, y0, x0 + size, y0 + size));
+		}
+	}
+
+	@Test
+	public void testWorldCoordinates() {
+		assertEquals(0, LocationIndex.lon2world(-180), DELTA);
+		assertEquals(0.5, LocationIndex.lon2world(0), DELTA);
+		assertTrue(LocationIndex.lon2world(180) < 1);
+		assertEquals(0.5, LocationIndex.lat2world(0), DELTA);
+		assertEquals(0, LocationIndex.lat2world(85.0511287798), 1e-6);
+		assertTrue(LocationIndex.lat2world(-90) < 1);
+		assertEquals(0, LocationIndex.lat2world(90), DELTA);
+	}
+
+	@Test
+	public void testQuery() {
+		Object[] elements = createElements(2000);
+		locations.put(elements[7], null);
+		update(elements);
+		assertEquals(elements.length - 1, index.size());
+		assertNull(index.get(elements[7]));
+		assertEquals(8, index.get(elements[8]).getOrder());
+		assertQueries(elements);
+	}
+
+	@Test
+	public void testInsertRemove() {
+		Object[] elements = createElements(1000);
+		update(elements);
+
+		// move some elements, one at a time
+		for (int i = 0; i < 200; i++) {
+			Object element = elements[random.nextInt(elements.length)];
+			locations.put(element, randomLocation());
+			LocationIndex.Entry entry = index.update(element, locations::get);
+			assertNotNull(entry);
+			assertEquals(LocationIndex.lon2world(locations.get(element).x),
+					entry.getX(), DELTA);
+		}
+		assertQueries(elements);
+
+		// remove most elements, which collapses the tree
+		Object[] remaining = new Object[50];
+		System.arraycopy(elements, 500, remaining, 0, remaining.length);
+		update(remaining);
+		assertEquals(remaining.length, index.size());
+		assertNull(index.get(elements[0]));
+		assertEquals(0, index.get(elements[500]).getOrder());
+		assertQueries(remaining);
+
+		// and add them again
+		update(elements);
+		assertEquals(elements.length, index.size());
+		assertQueries(elements);
+
+		index.clear();
+		assertEquals(0, index.size());
+		assertTrue(query(0, 0, 1, 1).isEmpty());
+	}
+
+	@Test
+	public void testCluster() {
+		Object[] elements = createElements(3000);
+		update(elements);
+		for (int depth = 0; depth < 16; depth += 3) {
+			// the elements of each cell of the grid
+			double cells = 1 << depth;
+			Map<List<Integer>, List<Object>> groups = new HashMap<>();
+			for (Object element : elements) {
+				PointD lonLat = locations.get(element);
+				List<Integer> cell = new ArrayList<>(2);
+				cell.add((int) (LocationIndex.lon2world(lonLat.x) * cells));
+				cell.add((int) (LocationIndex.lat2world(lonLat.y) * cells));
+				List<Object> group = groups.get(cell);
+				if (group == null) {
+					group = new ArrayList<>();
+					groups.put(cell, group);
+				}
+				group.add(element);
+			}
+
+			List<LocationIndex.Cluster> clusters = new ArrayList<>();
+			index.cluster(0, 0, 1, 1, depth, clusters);
+			assertEquals(groups.size(), clusters.size());
+			int count = 0;
+			for (LocationIndex.Cluster cluster : clusters) {
+				count += cluster.count;
+				List<Integer> cell = new ArrayList<>(2);
+				cell.add((int) (cluster.x * cells));
+				cell.add((int) (cluster.y * cells));
+				List<Object> group = groups.get(cell);
+				assertNotNull(group);
+				assertEquals(group.size(), cluster.count);
+				double sumX = 0, sumY = 0;
+				for (Object element : group) {
+					sumX += LocationIndex.lon2world(locations.get(element).x);
+					sumY += LocationIndex.lat2world(locations.get(element).y);
+				}
+				assertEquals(sumX / group.size(), cluster.x, DELTA);
+				assertEquals(sumY / group.size(), cluster.y, DELTA);
+				if (cluster.count == 1) {
+					assertEquals(group.get(0), cluster.entry.element);
+				} else {
+					assertNull(cluster.entry);
+				}
+			}
+			assertEquals(elements.length, count);
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package org.eclipse.nebula.widgets.geomap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.nebula.widgets.geomap.TileServer;
+import org.eclipse.nebula.widgets.geomap.internal.GeoMapHelper;
+import org.eclipse.nebula.widgets.geomap.internal.TileCache;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TileCacheTest {
+
+	private static final int TILE_SIZE = 256;
+
+	/**
+	 * A minimal HTTP server standing in for a tile server, answering the same
+	 * png for every tile
+	 */
+	private static class TileHttpServer extends Thread {
+
+		private final ServerSocket socket;
+		private final byte[] tile;
+		private final AtomicInteger requests = new AtomicInteger();
+
+		TileHttpServer(byte[] tile) throws IOException {
+			this.socket = new ServerSocket(0);
+			this.tile = tile;
+			setDaemon(true);
+		}
+
+		int getPort() {
+			return socket.getLocalPort();
+		}
+
+		@Override
+		public void run() {
+			while (!socket.isClosed()) {
+				try (Socket client = socket.accept()) {
+					BufferedReader reader = new BufferedReader(
+							new InputStreamReader(client.getInputStream(),
+									StandardCharsets.ISO_8859_1));
+					String line;
+					while ((line = reader.readLine()) != null
+							&& !line.isEmpty()) {
+						// skip the request
+					}
+					requests.incrementAndGet();
+					OutputStream output = client.getOutputStream();
+					String header = "HTTP/1.1 200 OK\r\nContent-Type: image/png\r\n"
+							+ "Content-Length: " + tile.length
+							+ "\r\nConnection: close\r\n\r\n";
+					output.write(header.getBytes(StandardCharsets.ISO_8859_1));
+					output.write(tile);
+					output.flush();
+				} catch (IOException e) {
+					// closed
+				}
+			}
+		}
+
+		int getRequests() {
+			return requests.get();
+		}
+
+		void close() throws IOException {
+			socket.close();
+		}
+	}
+
+	private Display display;
+	private TileHttpServer server;
+	private GeoMapHelper helper;
+	private TileCache cache;
+	private Image target;
+	private int loads;
+
+	@Before
+	public void setUp() throws IOException {
+		display = Display.getDefault();
+		server = new TileHttpServer(createTile());
+		server.start();
+		helper = new GeoMapHelper(display, new Point(0, 0), 0, 16);
+		helper.setTileServer(new TileServer("http://localhost:" + server.getPort() + "/", 18));
+		helper.addGeoMapHelperListener(tileRef -> loads++);
+		cache = helper.getTileCache();
+		target = new Image(display, 2 * TILE_SIZE, TILE_SIZE);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		helper.dispose();
+		target.dispose();
+		server.close();
+	}
+
+	private static byte[] createTile() {
+		ImageLoader loader = new ImageLoader();
+		loader.data = new ImageData[] { new ImageData(TILE_SIZE, TILE_SIZE,
+				24, new PaletteData(0xff0000, 0xff00, 0xff)) };
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		loader.save(output, SWT.IMAGE_PNG);
+		return output.toByteArray();
+	}
+
+	private void paint(int width, int height) {
+		GC gc = new GC(target);
+		try {
+			helper.paint(gc, null, new Point(width, height));
+		} finally {
+			gc.dispose();
+		}
+	}
+
+	private void waitForLoads(int count) throws InterruptedException {
+		long end = System.currentTimeMillis() + 5000;
+		while (loads < count && System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+		}
+		assertEquals(count, loads);
+	}
+
+	@Test
+	public void testFallbackNotCounted() throws InterruptedException {
+		// only the visible tile, nothing is prefetched
+		cache.setMaxTiles(1);
+		paint(TILE_SIZE, TILE_SIZE);
+		waitForLoads(1);
+		paint(TILE_SIZE, TILE_SIZE);
+
+		helper.setZoom(1);
+		cache.setMaxTiles(16);
+		cache.resetStatistics();
+		// the tile of zoom level 0 is painted in place of the missing one
+		paint(TILE_SIZE, TILE_SIZE);
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testNativeBudget() throws InterruptedException {
+		helper.setZoom(1);
+		// the two visible tiles, nothing is prefetched
+		cache.setMaxTiles(2);
+		long tileSize = (long) TILE_SIZE * TILE_SIZE * 4;
+		cache.setLimit(TileCache.NATIVE, tileSize);
+		paint(2 * TILE_SIZE, TILE_SIZE);
+		waitForLoads(2);
+
+		cache.resetStatistics();
+		paint(2 * TILE_SIZE, TILE_SIZE);
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getEvictions(TileCache.NATIVE));
+		assertEquals(tileSize, cache.getSize(TileCache.NATIVE));
+
+		// the evicted native image is created again from the image data
+		cache.resetStatistics();
+		paint(2 * TILE_SIZE, TILE_SIZE);
+		assertEquals(2, cache.getHits());
+		assertEquals(0, cache.getMisses());
+		assertEquals(2, cache.getEvictions(TileCache.NATIVE));
+		assertEquals(tileSize, cache.getSize(TileCache.NATIVE));
+		assertEquals(2, server.getRequests());
+	}
+
+	@Test
+	public void testDecodeFromCompressed() throws InterruptedException {
+		helper.setZoom(1);
+		cache.setMaxTiles(2);
+		// room for the image data of a single tile
+		cache.setLimit(TileCache.DECODED, 1);
+		paint(2 * TILE_SIZE, TILE_SIZE);
+		waitForLoads(2);
+		assertEquals(1, cache.getEvictions(TileCache.DECODED));
+		assertTrue(cache.getSize(TileCache.COMPRESSED) > 0);
+
+		// the tile without image data is decoded again from its bytes
+		cache.resetStatistics();
+		paint(2 * TILE_SIZE, TILE_SIZE);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		waitForLoads(3);
+
+		cache.resetStatistics();
+		paint(2 * TILE_SIZE, TILE_SIZE);
+		assertEquals(2, cache.getHits());
+		assertEquals(0, cache.getMisses());
+		assertEquals(2, server.getRequests());
+	}
+}
@@ -0,0 +1,208 @@
+package org.eclipse.nebula.widgets.geomap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.nebula.widgets.geomap.internal.TileRef;
+import org.eclipse.nebula.widgets.geomap.internal.TileScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TileSchedulerTest {
+
+	/**
+	 * A tile load which records the order the tiles are loaded in
+	 */
+	private class TileTask implements TileScheduler.Task {
+
+		private final TileRef tile;
+		private final long submitTime;
+		private volatile boolean cancelled;
+
+		TileTask(int x, int y, int z) {
+			this(x, y, z, System.currentTimeMillis());
+		}
+
+		TileTask(int x, int y, int z, long submitTime) {
+			this.tile = new TileRef(x, y, z);
+			this.submitTime = submitTime;
+		}
+
+		@Override
+		public TileRef getTile() {
+			return tile;
+		}
+
+		@Override
+		public long getSubmitTime() {
+			return submitTime;
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		@Override
+		public void run() {
+			synchronized (loaded) {
+				loaded.add(tile);
+			}
+			done.countDown();
+		}
+	}
+
+	/**
+	 * Keeps the single fetcher thread busy until released
+	 */
+	private class BlockingTask extends TileTask {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		BlockingTask() {
+			super(0, 0, 0);
+		}
+
+		@Override
+		public void run() {
+			started.countDown();
+			try {
+				released.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				// stop waiting
+			}
+		}
+	}
+
+	private final ThreadFactory threadFactory = r -> {
+		Thread thread = new Thread(r);
+		thread.setDaemon(true);
+		return thread;
+	};
+
+	private final List<TileRef> loaded = new ArrayList<>();
+	private CountDownLatch done;
+	private TileScheduler<TileTask> scheduler;
+
+	@Before
+	public void setUp() {
+		scheduler = new TileScheduler<>(1, threadFactory);
+	}
+
+	@After
+	public void tearDown() {
+		scheduler.dispose();
+	}
+
+	/**
+	 * Submits the tiles while the fetcher thread is busy, then lets it load
+	 * them
+	 */
+	private List<TileRef> load(Runnable beforeRelease, TileTask... tasks)
+			throws InterruptedException {
+		BlockingTask blocker = new BlockingTask();
+		scheduler.submit(blocker);
+		assertTrue(blocker.started.await(5, TimeUnit.SECONDS));
+		done = new CountDownLatch(tasks.length);
+		for (TileTask task : tasks) {
+			scheduler.submit(task);
+		}
+		assertEquals(tasks.length, scheduler.getQueueSize());
+		beforeRelease.run();
+		blocker.released.countDown();
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		synchronized (loaded) {
+			return new ArrayList<>(loaded);
+		}
+	}
+
+	@Test
+	public void testClosestFirst() throws InterruptedException {
+		// tiles 0..3 are visible, the center is the top left corner of tile 2/2
+		scheduler.setViewport(2, 0, 0, 4 * 256, 4 * 256);
+		List<TileRef> order = load(() -> {
+			// nothing to do
+		}, new TileTask(0, 0, 2), new TileTask(3, 1, 2), new TileTask(4, 4, 3),
+				new TileTask(2, 2, 2), new TileTask(4, 4, 2));
+		assertEquals(Arrays.asList(new TileRef(2, 2, 2), new TileRef(3, 1, 2),
+				new TileRef(0, 0, 2), new TileRef(4, 4, 2),
+				// the next zoom level after the ring around the viewport
+				new TileRef(4, 4, 3)), order);
+	}
+
+	@Test
+	public void testViewportChange() throws InterruptedException {
+		scheduler.setViewport(3, 0, 0, 4 * 256, 4 * 256);
+		final List<List<TileTask>> cancelled = new ArrayList<>();
+		List<TileRef> order = load(() -> {
+			// pan to the lower right, the tiles are ordered by the new center
+			cancelled.add(scheduler.setViewport(3, 600, 600, 4 * 256,
+					4 * 256));
+			done.countDown();
+		}, new TileTask(2, 2, 3), new TileTask(3, 3, 3), new TileTask(0, 0, 3),
+				new TileTask(6, 6, 3), new TileTask(4, 4, 3));
+		assertEquals(Arrays.asList(new TileRef(4, 4, 3), new TileRef(3, 3, 3),
+				new TileRef(2, 2, 3), new TileRef(6, 6, 3)), order);
+		// the tile left of the ring around the viewport is cancelled
+		assertEquals(1, cancelled.get(0).size());
+		assertEquals(new TileRef(0, 0, 3), cancelled.get(0).get(0).getTile());
+		assertTrue(cancelled.get(0).get(0).cancelled);
+		assertEquals(0, scheduler.getQueueSize());
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		scheduler.setViewport(2, 0, 0, 4 * 256, 4 * 256);
+		final TileTask cancelled = new TileTask(2, 2, 2);
+		List<TileRef> order = load(() -> {
+			scheduler.cancel(cancelled);
+			done.countDown();
+		}, new TileTask(0, 0, 2), cancelled, new TileTask(1, 1, 2));
+		assertEquals(Arrays.asList(new TileRef(1, 1, 2), new TileRef(0, 0, 2)),
+				order);
+		assertTrue(cancelled.cancelled);
+		assertEquals(0, scheduler.getQueueSize());
+	}
+
+	@Test
+	public void testDispose() {
+		scheduler.setViewport(2, 0, 0, 4 * 256, 4 * 256);
+		scheduler.dispose();
+		TileTask task = new TileTask(0, 0, 2);
+		scheduler.submit(task);
+		assertEquals(0, scheduler.getQueueSize());
+		assertTrue(scheduler.clear().isEmpty());
+		assertNull(scheduler.setViewport(2, 0, 0, 256, 256));
+	}
+
+	@Test
+	public void testAverageLatency() throws InterruptedException {
+		scheduler.setViewport(4, 0, 0, 8 * 256, 8 * 256);
+		TileTask[] tasks = new TileTask[20];
+		long submitTime = System.currentTimeMillis() - 5;
+		for (int i = 0; i < tasks.length; i++) {
+			tasks[i] = new TileTask(i % 8, i / 8, 4, submitTime);
+		}
+		load(() -> {
+			// nothing to do
+		}, tasks);
+		// wait for the last latency to be accounted for
+		long end = System.currentTimeMillis() + 5000;
+		while (scheduler.getLoadingCount() > 0
+				&& System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		// latencies below 8 ms are not lost to rounding
+		assertTrue(scheduler.getAverageLatency() >= 4);
+	}
+}
@@ -0,0 +1,256 @@
+package org.eclipse.nebula.widgets.geomap.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.nebula.widgets.geomap.DiskTileStore;
+import org.eclipse.nebula.widgets.geomap.TileServer;
+import org.eclipse.nebula.widgets.geomap.TileStore;
+import org.eclipse.nebula.widgets.geomap.internal.TileRef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TileStoreTest {
+
+	private static final byte[] TILE = "tile".getBytes(StandardCharsets.UTF_8);
+
+	/**
+	 * A minimal HTTP server standing in for a tile server. Answers 304 if the
+	 * request carries the current ETag.
+	 */
+	private class TileHttpServer extends Thread {
+
+		private final ServerSocket socket;
+		private final List<String> requests = new ArrayList<>();
+		private volatile String maxAge = "3600";
+		private volatile String contentType;
+
+		TileHttpServer() throws IOException {
+			socket = new ServerSocket(0);
+			setDaemon(true);
+		}
+
+		int getPort() {
+			return socket.getLocalPort();
+		}
+
+		@Override
+		public void run() {
+			while (!socket.isClosed()) {
+				try (Socket client = socket.accept()) {
+					BufferedReader reader = new BufferedReader(
+							new InputStreamReader(client.getInputStream(),
+									StandardCharsets.ISO_8859_1));
+					String request = reader.readLine();
+					boolean notModified = false;
+					String line;
+					while ((line = reader.readLine()) != null
+							&& !line.isEmpty()) {
+						if (line.equalsIgnoreCase("If-None-Match: \"v1\"")) {
+							notModified = true;
+						}
+					}
+					synchronized (requests) {
+						requests.add(request + (notModified ? " 304" : " 200"));
+					}
+					OutputStream output = client.getOutputStream();
+					String header = (notModified ? "HTTP/1.1 304 Not Modified"
+							: "HTTP/1.1 200 OK") + "\r\nETag: \"v1\"\r\n"
+							+ "Cache-Control: max-age=" + maxAge + "\r\n"
+							+ (contentType != null
+									? "Content-Type: " + contentType + "\r\n"
+									: "")
+							+ "Content-Length: "
+							+ (notModified ? 0 : TILE.length)
+							+ "\r\nConnection: close\r\n\r\n";
+					output.write(header.getBytes(StandardCharsets.ISO_8859_1));
+					if (!notModified) {
+						output.write(TILE);
+					}
+					output.flush();
+				} catch (IOException e) {
+					// closed
+				}
+			}
+		}
+
+		List<String> getRequests() {
+			synchronized (requests) {
+				return new ArrayList<>(requests);
+			}
+		}
+
+		void close() throws IOException {
+			socket.close();
+		}
+	}
+
+	private TileHttpServer server;
+	private File directory;
+	private TileServer tileServer;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new TileHttpServer();
+		server.start();
+		directory = Files.createTempDirectory("tiles").toFile();
+		tileServer = new TileServer("http://localhost:" + server.getPort() + "/", 18);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		server.close();
+		delete(directory);
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	@Test
+	public void testLoadWithoutStore() throws IOException {
+		assertArrayEquals(TILE, tileServer.loadTile(new TileRef(1, 2, 3)));
+		assertEquals(1, server.getRequests().size());
+		assertTrue(server.getRequests().get(0).startsWith("GET /3/1/2.png"));
+	}
+
+	@Test
+	public void testFreshTileFromStore() throws IOException {
+		tileServer.setTileStore(new DiskTileStore(directory));
+		TileRef tile = new TileRef(1, 2, 3);
+		assertArrayEquals(TILE, tileServer.loadTile(tile));
+		assertTrue(new File(directory, "3/1/2.png").exists());
+
+		// a new session with the same directory
+		tileServer.setTileStore(new DiskTileStore(directory));
+		assertArrayEquals(TILE, tileServer.loadTile(tile));
+		assertEquals(1, server.getRequests().size());
+	}
+
+	@Test
+	public void testContentType() throws IOException {
+		server.contentType = "image/jpeg; charset=binary";
+		DiskTileStore store = new DiskTileStore(directory);
+		tileServer.setTileStore(store);
+		assertArrayEquals(TILE, tileServer.loadTile(new TileRef(1, 2, 3)));
+		assertTrue(new File(directory, "3/1/2.jpg").exists());
+		assertTrue(new File(directory, "3/1/2.jpg.meta").exists());
+		assertFalse(new File(directory, "3/1/2.png").exists());
+		assertEquals("image/jpeg", store.get("3/1/2").getContentType());
+
+		// the tile server changes the format
+		store.put("3/1/2", new TileStore.Entry(TILE, null, 0, Long.MAX_VALUE,
+				"image/png"));
+		assertTrue(new File(directory, "3/1/2.png").exists());
+		assertFalse(new File(directory, "3/1/2.jpg").exists());
+		assertFalse(new File(directory, "3/1/2.jpg.meta").exists());
+
+		// an unknown content type keeps the suffix
+		store.put("3/1/2", new TileStore.Entry(TILE, null, 0, Long.MAX_VALUE));
+		assertTrue(new File(directory, "3/1/2.png").exists());
+		assertEquals("image/png", store.get("3/1/2").getContentType());
+	}
+
+	@Test
+	public void testRevalidation() throws IOException {
+		server.maxAge = "0";
+		tileServer.setTileStore(new DiskTileStore(directory));
+		TileRef tile = new TileRef(1, 2, 3);
+		assertArrayEquals(TILE, tileServer.loadTile(tile));
+		assertArrayEquals(TILE, tileServer.loadTile(tile));
+		List<String> requests = server.getRequests();
+		assertEquals(2, requests.size());
+		assertTrue(requests.get(0).endsWith(" 200"));
+		assertTrue(requests.get(1).endsWith(" 304"));
+	}
+
+	@Test
+	public void testOfflineJpeg() throws IOException {
+		File file = new File(directory, "3/1/2.jpg");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), TILE);
+
+		DiskTileStore store = new DiskTileStore(directory, 10 * TILE.length);
+		assertEquals(TILE.length, store.getSize());
+		tileServer.setTileStore(store);
+		tileServer.setOffline(true);
+		assertArrayEquals(TILE, tileServer.loadTile(new TileRef(1, 2, 3)));
+
+		store.remove("3/1/2");
+		assertFalse(file.exists());
+		assertEquals(0, store.getSize());
+	}
+
+	@Test
+	public void testExpiredTileWhenServerIsDown() throws IOException {
+		server.maxAge = "0";
+		tileServer.setTileStore(new DiskTileStore(directory));
+		TileRef tile = new TileRef(1, 2, 3);
+		tileServer.loadTile(tile);
+		server.close();
+		assertArrayEquals(TILE, tileServer.loadTile(tile));
+	}
+
+	@Test
+	public void testOffline() throws IOException {
+		// a pre-seeded directory without meta files
+		File file = new File(directory, "3/1/2.png");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), TILE);
+
+		tileServer.setTileStore(new DiskTileStore(directory));
+		tileServer.setOffline(true);
+		assertArrayEquals(TILE, tileServer.loadTile(new TileRef(1, 2, 3)));
+		try {
+			tileServer.loadTile(new TileRef(2, 2, 3));
+			fail("Tile should not be loaded");
+		} catch (IOException e) {
+			// expected
+		}
+		assertTrue(server.getRequests().isEmpty());
+	}
+
+	@Test
+	public void testEviction() {
+		DiskTileStore store = new DiskTileStore(directory, 3 * TILE.length);
+		for (int i = 0; i < 3; i++) {
+			store.put("0/0/" + i, new TileStore.Entry(TILE, null, 0, Long.MAX_VALUE));
+		}
+		// use the first tile, so the second one is the least recently used
+		store.get("0/0/0");
+		store.put("0/0/3", new TileStore.Entry(TILE, null, 0, Long.MAX_VALUE));
+
+		assertEquals(3 * TILE.length, store.getSize());
+		assertNull(store.get("0/0/1"));
+		assertFalse(new File(directory, "0/0/1.png").exists());
+		assertArrayEquals(TILE, store.get("0/0/0").getData());
+		assertArrayEquals(TILE, store.get("0/0/3").getData());
+
+		// the size survives a new session
+		assertEquals(3 * TILE.length,
+				new DiskTileStore(directory, 3 * TILE.length).getSize());
+	}
+}
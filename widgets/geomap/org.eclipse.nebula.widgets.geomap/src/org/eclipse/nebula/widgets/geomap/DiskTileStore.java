@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.nebula.widgets.geomap;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A {@link TileStore} that keeps one file per tile in a directory, using the
+ * common slippy map layout <code>z/x/y.png</code>. The suffix follows the
+ * content type of the tile, e.g. <code>z/x/y.jpg</code> for jpeg tiles, and
+ * is <code>.png</code> if the content type is unknown. The revalidation data
+ * of a tile is kept in a <code>z/x/y.png.meta</code> file next to it.
+ * <p>
+ * The store can be bounded in size, in which case the least recently used
+ * tiles are deleted when the limit is exceeded. The order of use survives
+ * restarts through the modification time of the files.
+ * </p>
+ * <p>
+ * A directory that has been filled by other tools can be used for offline
+ * maps, see {@link TileServer#setOffline(boolean)}. Tiles without a meta file
+ * never expire.
+ * </p>
+ */
+public class DiskTileStore implements TileStore {
+
+	private static final String DEFAULT_SUFFIX = ".png"; //$NON-NLS-1$
+	private static final String META_SUFFIX = ".meta"; //$NON-NLS-1$
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	/**
+	 * The suffixes of the tile files by content type, the default first
+	 */
+	private static final Map<String, String> SUFFIXES = new LinkedHashMap<>();
+
+	static {
+		SUFFIXES.put("image/png", DEFAULT_SUFFIX); //$NON-NLS-1$
+		SUFFIXES.put("image/jpeg", ".jpg"); //$NON-NLS-1$ //$NON-NLS-2$
+		SUFFIXES.put("image/gif", ".gif"); //$NON-NLS-1$ //$NON-NLS-2$
+		SUFFIXES.put("image/webp", ".webp"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static final String ETAG = "etag"; //$NON-NLS-1$
+	private static final String LAST_MODIFIED = "lastModified"; //$NON-NLS-1$
+	private static final String EXPIRES = "expires"; //$NON-NLS-1$
+
+	private final File directory;
+	private final long maxSize;
+
+	/**
+	 * Size of the tile files by key, least recently used first. Only kept if
+	 * the store is bounded.
+	 */
+	private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(
+			256, 0.75f, true);
+	private long size;
+
+	/**
+	 * Initializes an unbounded DiskTileStore, e.g. for a pre-seeded directory
+	 *
+	 * @param directory
+	 *            the root directory of the tiles
+	 */
+	public DiskTileStore(File directory) {
+		this(directory, 0);
+	}
+
+	/**
+	 * Initializes a DiskTileStore. If the store is bounded, the directory is
+	 * scanned to find the size and order of use of the existing tiles.
+	 *
+	 * @param directory
+	 *            the root directory of the tiles
+	 * @param maxSize
+	 *            the maximum size of the tile files in bytes, 0 for no limit
+	 */
+	public DiskTileStore(File directory, long maxSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		if (maxSize > 0) {
+			scan();
+		}
+	}
+
+	/**
+	 * Gets the root directory of the tiles
+	 *
+	 * @return the directory
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Gets the maximum size of the tile files
+	 *
+	 * @return the size in bytes, 0 if the store is not bounded
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Gets the size of the tile files. Only tracked if the store is bounded.
+	 *
+	 * @return the size in bytes
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	private void scan() {
+		final List<File> files = new ArrayList<>();
+		collectTiles(directory, files);
+		final Map<File, Long> times = new HashMap<>();
+		for (File file : files) {
+			times.put(file, file.lastModified());
+		}
+		Collections.sort(files,
+				(f1, f2) -> Long.compare(times.get(f1), times.get(f2)));
+		String root = directory.getAbsolutePath();
+		for (File file : files) {
+			String path = file.getAbsolutePath();
+			String key = path
+					.substring(root.length() + 1,
+							path.length() - getSuffix(file).length())
+					.replace(File.separatorChar, '/');
+			long length = file.length();
+			index.put(key, length);
+			size += length;
+		}
+		evict();
+	}
+
+	private void collectTiles(File dir, List<File> files) {
+		File[] children = dir.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (File child : children) {
+			if (child.isDirectory()) {
+				collectTiles(child, files);
+			} else if (getSuffix(child) != null) {
+				files.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Gets the suffix of a tile file
+	 *
+	 * @return the suffix or null if the file is not a tile
+	 */
+	private static String getSuffix(File file) {
+		String name = file.getName();
+		for (String suffix : SUFFIXES.values()) {
+			if (name.endsWith(suffix)) {
+				return suffix;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the suffix of the tile files of a content type
+	 *
+	 * @return the suffix or null if the content type is unknown
+	 */
+	private static String getSuffix(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		int pos = contentType.indexOf(';');
+		if (pos >= 0) {
+			contentType = contentType.substring(0, pos);
+		}
+		return SUFFIXES.get(contentType.trim().toLowerCase(Locale.ROOT));
+	}
+
+	private static String getContentType(String suffix) {
+		for (Map.Entry<String, String> entry : SUFFIXES.entrySet()) {
+			if (entry.getValue().equals(suffix)) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the existing tile file of a key
+	 *
+	 * @return the file or null if the tile is not stored
+	 */
+	private File findTileFile(String key) {
+		for (String suffix : SUFFIXES.values()) {
+			File file = new File(directory, key + suffix);
+			if (file.isFile()) {
+				return file;
+			}
+		}
+		return null;
+	}
+
+	private File getTileFile(String key, String suffix) {
+		return new File(directory, key + suffix);
+	}
+
+	private static File getMetaFile(File tileFile) {
+		return new File(tileFile.getPath() + META_SUFFIX);
+	}
+
+	private static void delete(File tileFile) {
+		if (tileFile != null) {
+			tileFile.delete();
+			getMetaFile(tileFile).delete();
+		}
+	}
+
+	@Override
+	public Entry get(String key) {
+		File file = findTileFile(key);
+		if (file == null) {
+			return null;
+		}
+		byte[] data;
+		try {
+			data = Files.readAllBytes(file.toPath());
+		} catch (IOException e) {
+			return null;
+		}
+		String eTag = null;
+		long lastModified = file.lastModified();
+		long expires = Long.MAX_VALUE;
+		File metaFile = getMetaFile(file);
+		if (metaFile.exists()) {
+			Properties meta = new Properties();
+			try (InputStream input = new FileInputStream(metaFile)) {
+				meta.load(input);
+				eTag = meta.getProperty(ETAG);
+				lastModified = Long.parseLong(
+						meta.getProperty(LAST_MODIFIED, "0")); //$NON-NLS-1$
+				expires = Long.parseLong(meta.getProperty(EXPIRES, "0")); //$NON-NLS-1$
+			} catch (IOException | NumberFormatException e) {
+				// revalidate
+				expires = 0;
+			}
+		}
+		if (maxSize > 0) {
+			synchronized (this) {
+				// make the access order survive a restart
+				if (index.get(key) != null) {
+					file.setLastModified(System.currentTimeMillis());
+				}
+			}
+		}
+		return new Entry(data, eTag, lastModified, expires,
+				getContentType(getSuffix(file)));
+	}
+
+	@Override
+	public void put(String key, Entry entry) {
+		File oldFile = findTileFile(key);
+		String suffix = getSuffix(entry.getContentType());
+		if (suffix == null) {
+			suffix = oldFile != null ? getSuffix(oldFile) : DEFAULT_SUFFIX;
+		}
+		File file = getTileFile(key, suffix);
+		File parent = file.getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs()
+				&& !parent.isDirectory()) {
+			return;
+		}
+		Properties meta = new Properties();
+		if (entry.getETag() != null) {
+			meta.setProperty(ETAG, entry.getETag());
+		}
+		meta.setProperty(LAST_MODIFIED,
+				String.valueOf(entry.getLastModified()));
+		meta.setProperty(EXPIRES, String.valueOf(entry.getExpires()));
+		try {
+			// the tile first, so the old tile is never taken for fresh and
+			// revalidated with the new meta data
+			write(file, output -> output.write(entry.getData()));
+			write(getMetaFile(file), output -> meta.store(output, null));
+		} catch (IOException e) {
+			// the tile and its meta file, so no stale meta data outlives a
+			// failed write
+			delete(file);
+			return;
+		}
+		if (oldFile != null && !oldFile.equals(file)) {
+			// the content type has changed
+			delete(oldFile);
+		}
+		if (maxSize > 0) {
+			synchronized (this) {
+				Long oldLength = index.put(key, (long) entry.getData().length);
+				if (oldLength != null) {
+					size -= oldLength;
+				}
+				size += entry.getData().length;
+				evict();
+			}
+		}
+	}
+
+	/**
+	 * Writes the content of a file
+	 */
+	private interface ContentWriter {
+		void write(OutputStream output) throws IOException;
+	}
+
+	/**
+	 * Writes a file through a temporary file, so other threads never read a
+	 * partial file.
+	 */
+	private static void write(File file, ContentWriter writer)
+			throws IOException {
+		File temp = new File(file.getPath() + TEMP_SUFFIX
+				+ Thread.currentThread().getId());
+		try {
+			try (OutputStream output = new FileOutputStream(temp)) {
+				writer.write(output);
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			temp.delete();
+		}
+	}
+
+	@Override
+	public void remove(String key) {
+		synchronized (this) {
+			Long length = index.remove(key);
+			if (length != null) {
+				size -= length;
+			}
+		}
+		delete(findTileFile(key));
+	}
+
+	// must hold the lock
+	private void evict() {
+		Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+		while (size > maxSize && it.hasNext()) {
+			Map.Entry<String, Long> eldest = it.next();
+			it.remove();
+			size -= eldest.getValue();
+			delete(findTileFile(eldest.getKey()));
+		}
+	}
+}
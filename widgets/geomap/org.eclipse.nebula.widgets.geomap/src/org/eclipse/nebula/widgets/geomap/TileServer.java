@@ -12,9 +12,17 @@
 
 package org.eclipse.nebula.widgets.geomap;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.nebula.widgets.geomap.internal.TileRef;
 import org.eclipse.nebula.widgets.geomap.internal.URLService;
@@ -30,6 +38,15 @@ public class TileServer extends URLService {
 													// getURLFormatArguments
 	private final int maxZoom;
 
+	/**
+	 * How long a tile is used without revalidation, if the response of the
+	 * tile server does not tell.
+	 */
+	public static final long DEFAULT_EXPIRATION = TimeUnit.DAYS.toMillis(1);
+
+	private volatile TileStore tileStore;
+	private volatile boolean offline;
+
 	// See https://raw.github.com/follesoe/MapReplace/master/js/interceptors.js
 	// for a list of tile servers
 
@@ -109,6 +126,175 @@ public class TileServer extends URLService {
 		return null;
 	}
 
+	/**
+	 * Gets the key of a tile in the {@link TileStore}, by default
+	 * <code>z/x/y</code>
+	 * 
+	 * @param tile
+	 *            the tile
+	 * @return the key
+	 */
+	public String getTileStoreKey(TileRef tile) {
+		return tile.z + "/" + tile.x + "/" + tile.y; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Gets the store that keeps tiles between sessions
+	 * 
+	 * @return the tile store, or null if tiles are only kept in memory
+	 */
+	public TileStore getTileStore() {
+		return tileStore;
+	}
+
+	/**
+	 * Sets the store that keeps tiles between sessions. A store should only be
+	 * used by one TileServer, since the keys do not include the server.
+	 * 
+	 * @param tileStore
+	 *            the tile store, or null to keep tiles only in memory
+	 */
+	public void setTileStore(TileStore tileStore) {
+		this.tileStore = tileStore;
+	}
+
+	/**
+	 * Tells whether tiles are only loaded from the tile store
+	 * 
+	 * @return true if the network is not used
+	 */
+	public boolean isOffline() {
+		return offline;
+	}
+
+	/**
+	 * Sets whether tiles are only loaded from the tile store, e.g. one filled
+	 * in advance. Stored tiles are then used even if they have expired.
+	 * 
+	 * @param offline
+	 *            true if the network should not be used
+	 */
+	public void setOffline(boolean offline) {
+		this.offline = offline;
+	}
+
+	/**
+	 * Loads the encoded image of a tile. A fresh tile from the tile store is
+	 * used as is, an expired one is revalidated with its ETag and Last-Modified
+	 * time. If the tile server cannot be reached, an expired tile is used
+	 * anyway. This method is called on the image fetcher threads.
+	 * 
+	 * @param tile
+	 *            the tile
+	 * @return the encoded image, e.g. png
+	 * @throws IOException
+	 *             if the tile could neither be loaded from the store nor from
+	 *             the tile server
+	 */
+	public byte[] loadTile(TileRef tile) throws IOException {
+		TileStore store = tileStore;
+		String key = store != null ? getTileStoreKey(tile) : null;
+		TileStore.Entry entry = store != null ? store.get(key) : null;
+		if (entry != null
+				&& (offline || !entry.isExpired(System.currentTimeMillis()))) {
+			return entry.getData();
+		}
+		if (offline) {
+			throw new FileNotFoundException(key);
+		}
+		try {
+			TileStore.Entry loaded = fetchTile(tile, entry);
+			if (store != null) {
+				store.put(key, loaded);
+			}
+			return loaded.getData();
+		} catch (IOException e) {
+			if (entry != null) {
+				return entry.getData();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Fetches a tile from the tile server
+	 * 
+	 * @param tile
+	 *            the tile
+	 * @param stored
+	 *            the expired tile from the tile store, or null
+	 * @return the fetched tile, or the stored one with updated expiration if it
+	 *         has not changed
+	 * @throws IOException
+	 */
+	protected TileStore.Entry fetchTile(TileRef tile, TileStore.Entry stored)
+			throws IOException {
+		URLConnection con = new URL(getTileURL(tile)).openConnection();
+		con.setRequestProperty("User-Agent", //$NON-NLS-1$
+				"org.eclipse.nebula.widgets.geomap.GeoMap"); //$NON-NLS-1$
+		if (stored != null) {
+			if (stored.getETag() != null) {
+				con.setRequestProperty("If-None-Match", stored.getETag()); //$NON-NLS-1$
+			}
+			if (stored.getLastModified() > 0) {
+				con.setIfModifiedSince(stored.getLastModified());
+			}
+		}
+		if (stored != null && con instanceof HttpURLConnection
+				&& ((HttpURLConnection) con)
+						.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+			String eTag = con.getHeaderField("ETag"); //$NON-NLS-1$
+			return new TileStore.Entry(stored.getData(),
+					eTag != null ? eTag : stored.getETag(),
+					stored.getLastModified(), getExpiration(con),
+					stored.getContentType());
+		}
+		byte[] data;
+		try (InputStream input = con.getInputStream()) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream(
+					Math.max(con.getContentLength(), 4096));
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = input.read(buffer)) >= 0) {
+				output.write(buffer, 0, count);
+			}
+			data = output.toByteArray();
+		}
+		return new TileStore.Entry(data, con.getHeaderField("ETag"), //$NON-NLS-1$
+				con.getLastModified(), getExpiration(con), con.getContentType());
+	}
+
+	/**
+	 * Gets the time until which a fetched tile is fresh, from the Cache-Control
+	 * max-age or the Expires header
+	 * 
+	 * @param con
+	 *            the connection the tile was fetched with
+	 * @return the expiration time in milliseconds
+	 */
+	protected long getExpiration(URLConnection con) {
+		long now = System.currentTimeMillis();
+		String cacheControl = con.getHeaderField("Cache-Control"); //$NON-NLS-1$
+		if (cacheControl != null) {
+			for (String directive : cacheControl.split(",")) { //$NON-NLS-1$
+				directive = directive.trim();
+				if (directive.startsWith("max-age=")) { //$NON-NLS-1$
+					try {
+						return now + TimeUnit.SECONDS.toMillis(Long
+								.parseLong(directive.substring(8).trim()));
+					} catch (NumberFormatException e) {
+						// ignore
+					}
+				} else if (directive.equals("no-cache") //$NON-NLS-1$
+						|| directive.equals("no-store")) { //$NON-NLS-1$
+					return now;
+				}
+			}
+		}
+		long expiration = con.getExpiration();
+		return expiration > 0 ? expiration : now + DEFAULT_EXPIRATION;
+	}
+
 	@Override
 	public String toString() {
 		return getURL();
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.nebula.widgets.geomap;
+
+/**
+ * A persistent store for the encoded tiles of a {@link TileServer}. It sits
+ * below the in-memory cache of the map, so tiles survive a restart and can be
+ * revalidated instead of fetched again. Implementations must be thread-safe,
+ * since tiles are loaded on several threads.
+ *
+ * @see TileServer#setTileStore(TileStore)
+ * @see DiskTileStore
+ */
+public interface TileStore {
+
+	/**
+	 * An encoded tile, together with the information needed to revalidate it
+	 * with the tile server.
+	 */
+	public static final class Entry {
+
+		private final byte[] data;
+		private final String eTag;
+		private final long lastModified;
+		private final long expires;
+		private final String contentType;
+
+		/**
+		 * Initializes an Entry of unknown content type
+		 *
+		 * @param data
+		 *            the encoded image, e.g. png or jpeg
+		 * @param eTag
+		 *            the ETag header of the response, or null
+		 * @param lastModified
+		 *            the Last-Modified header of the response in milliseconds,
+		 *            or 0
+		 * @param expires
+		 *            the time in milliseconds until which the tile can be used
+		 *            without revalidation
+		 */
+		public Entry(byte[] data, String eTag, long lastModified,
+				long expires) {
+			this(data, eTag, lastModified, expires, null);
+		}
+
+		/**
+		 * Initializes an Entry
+		 *
+		 * @param data
+		 *            the encoded image, e.g. png or jpeg
+		 * @param eTag
+		 *            the ETag header of the response, or null
+		 * @param lastModified
+		 *            the Last-Modified header of the response in milliseconds,
+		 *            or 0
+		 * @param expires
+		 *            the time in milliseconds until which the tile can be used
+		 *            without revalidation
+		 * @param contentType
+		 *            the Content-Type header of the response, e.g.
+		 *            <code>image/jpeg</code>, or null
+		 */
+		public Entry(byte[] data, String eTag, long lastModified,
+				long expires, String contentType) {
+			this.data = data;
+			this.eTag = eTag;
+			this.lastModified = lastModified;
+			this.expires = expires;
+			this.contentType = contentType;
+		}
+
+		/**
+		 * @return the encoded image
+		 */
+		public byte[] getData() {
+			return data;
+		}
+
+		/**
+		 * @return the ETag of the tile or null
+		 */
+		public String getETag() {
+			return eTag;
+		}
+
+		/**
+		 * @return the last modification time of the tile or 0
+		 */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * @return the time until which the tile is fresh
+		 */
+		public long getExpires() {
+			return expires;
+		}
+
+		/**
+		 * @return the content type of the tile or null
+		 */
+		public String getContentType() {
+			return contentType;
+		}
+
+		/**
+		 * Tells whether the tile must be revalidated before use
+		 *
+		 * @param now
+		 *            the current time in milliseconds
+		 * @return true if the tile has expired
+		 */
+		public boolean isExpired(long now) {
+			return now >= expires;
+		}
+	}
+
+	/**
+	 * Gets a stored tile
+	 *
+	 * @param key
+	 *            the key of the tile, see
+	 *            {@link TileServer#getTileStoreKey(org.eclipse.nebula.widgets.geomap.internal.TileRef)}
+	 * @return the stored tile or null
+	 */
+	public Entry get(String key);
+
+	/**
+	 * Stores a tile, replacing the one stored with the same key
+	 *
+	 * @param key
+	 *            the key of the tile
+	 * @param entry
+	 *            the tile
+	 */
+	public void put(String key, Entry entry);
+
+	/**
+	 * Removes a stored tile
+	 *
+	 * @param key
+	 *            the key of the tile
+	 */
+	public void remove(String key);
+}
@@ -11,97 +11,187 @@
 
 package org.eclipse.nebula.widgets.geomap.internal;
 
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.concurrent.FutureTask;
-import java.util.concurrent.atomic.AtomicReference;
+import java.io.ByteArrayInputStream;
 
+import org.eclipse.nebula.widgets.geomap.TileServer;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.widgets.Display;
 
 /**
- * An async image that loads itself in the background on an image-fetcher
- * thread. Once its loaded it will trigger a redraw. Sometimes redraws that are
- * not really necessary can be triggered, but that is not relevant in terms of
- * performance for this swt-component.
- *
+ * An async image that is loaded in the background on an image-fetcher thread,
+ * see {@link TileScheduler}. Once its loaded it will trigger a redraw.
+ * Sometimes redraws that are not really necessary can be triggered, but that
+ * is not relevant in terms of performance for this swt-component.
+ * <p>
+ * The tile is kept as compressed bytes, image data and native image, which
+ * are released independently by the {@link TileCache}. A tile that still has
+ * its compressed bytes is decoded again without loading it.
+ * </p>
  */
-@SuppressWarnings("serial")
-class AsyncImage extends AtomicReference<ImageData> implements Runnable {
+class AsyncImage implements TileScheduler.Task {
 
 	private final GeoMapHelper geoMapHelper;
 	private final TileRef tile;
-	private final String tileUrl;
+	private final TileServer tileServer;
+
+	private volatile long submitTime;
+	private volatile boolean cancelled;
+
+	private volatile byte[] data;
+	private volatile ImageData imageData;
+	private Image image = null; // only used on the display thread
 
-	private volatile long stamp;
-	// private final AtomicReference<ImageData> imageData = new
-	// AtomicReference<ImageData>();
-	private Image image = null; // might as well be thread-local
+	// the following are only used on the display thread
+	private boolean loading;
+	private final long[] tierSizes = new long[3];
 
-	AsyncImage(GeoMapHelper geoMapHelper, TileRef tile, String tileUrl) {
+	AsyncImage(GeoMapHelper geoMapHelper, TileRef tile, TileServer tileServer) {
 		this.geoMapHelper = geoMapHelper;
-		this.stamp = this.geoMapHelper.zoomStamp.longValue();
 		this.tile = tile;
-		this.tileUrl = tileUrl;
-		this.geoMapHelper.executor
-				.execute(new FutureTask<>(this, Boolean.TRUE));
+		this.tileServer = tileServer;
 	}
 
-	private Runnable removeTileFromCacheRunnable = new Runnable() {
-		public void run() {
-			AsyncImage.this.geoMapHelper.cache.remove(tile);
-		}
-	};
-	private Runnable tileUpdatedRunnable = new Runnable() {
+	@Override
+	public TileRef getTile() {
+		return tile;
+	}
+
+	@Override
+	public long getSubmitTime() {
+		return submitTime;
+	}
+
+	/**
+	 * Marks this image as submitted for loading or decoding
+	 */
+	void submitted() {
+		loading = true;
+		submitTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Tells whether this image has been submitted and not loaded yet. An
+	 * image that failed to load stays loading, so it is not retried.
+	 */
+	boolean isLoading() {
+		return loading;
+	}
+
+	/**
+	 * Marks this image as no longer needed. A cancelled image is not loaded,
+	 * or not published if it is being loaded.
+	 */
+	@Override
+	public void cancel() {
+		cancelled = true;
+	}
+
+	boolean isCancelled() {
+		return cancelled;
+	}
+
+	private Runnable tileLoadedRunnable = new Runnable() {
+		@Override
 		public void run() {
-			AsyncImage.this.geoMapHelper.tileUpdated(tile);
+			AsyncImage.this.loading = false;
+			AsyncImage.this.geoMapHelper.tileLoaded(AsyncImage.this);
 		}
 	};
 
 	@Override
 	public void run() {
-		if (stamp != this.geoMapHelper.zoomStamp.longValue()) {
-			try {
-				// here is a race, we just live with.
-				if (!this.geoMapHelper.getDisplay().isDisposed()) {
-					this.geoMapHelper.getDisplay()
-							.asyncExec(removeTileFromCacheRunnable);
-				}
-			} catch (SWTException e) {
-				// ignore
-			}
+		if (cancelled) {
 			return;
 		}
 		try {
-			URLConnection con = new URL(tileUrl).openConnection();
-			con.setRequestProperty("User-Agent", //$NON-NLS-1$
-					"org.eclipse.nebula.widgets.geomap.GeoMap"); //$NON-NLS-1$
-			set(new ImageData(con.getInputStream()));
+			byte[] data = this.data;
+			if (data == null) {
+				data = tileServer.loadTile(tile);
+			}
+			ImageData imageData = new ImageData(
+					new ByteArrayInputStream(data));
+			if (cancelled) {
+				return;
+			}
+			this.data = data;
+			this.imageData = imageData;
 			try {
 				// here is a race, we just live with.
 				if (!this.geoMapHelper.getDisplay().isDisposed()) {
 					this.geoMapHelper.getDisplay()
-							.asyncExec(tileUpdatedRunnable);
+							.asyncExec(tileLoadedRunnable);
 				}
 			} catch (SWTException e) {
 				// ignore
 			}
 		} catch (Exception e) {
-			// log.log(Level.SEVERE, "failed to load imagedata from url: " +
-			// tileUrl, e);
+			// log.log(Level.SEVERE, "failed to load imagedata for tile: " +
+			// tile, e);
 		}
 	}
 
-	public Image getImage(Display display) {
+	byte[] getData() {
+		return data;
+	}
+
+	ImageData getImageData() {
+		return imageData;
+	}
+
+	Image getImage() {
+		return image;
+	}
+
+	Image createImage(Display display) {
 		checkThread(display);
-		if (image == null && get() != null) {
-			image = new Image(display, get());
+		if (image == null && imageData != null) {
+			image = new Image(display, imageData);
 		}
 		return image;
 	}
 
+	long getTierSize(int tier) {
+		return tierSizes[tier];
+	}
+
+	void setTierSize(int tier, long size) {
+		tierSizes[tier] = size;
+	}
+
+	/**
+	 * Releases one form of this image, disposing the native image
+	 *
+	 * @param tier
+	 *            the tier of the form, see {@link TileCache}
+	 */
+	void release(int tier) {
+		switch (tier) {
+		case TileCache.COMPRESSED:
+			data = null;
+			break;
+		case TileCache.DECODED:
+			imageData = null;
+			break;
+		case TileCache.NATIVE:
+			dispose();
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Tells whether all forms of this image are released, while it is not
+	 * being loaded
+	 *
+	 * @return true if this image is empty
+	 */
+	boolean isEmpty() {
+		return !loading && data == null && imageData == null && image == null;
+	}
+
 	public void dispose() {
 		checkThread(geoMapHelper.getDisplay());
 		if (image != null) {
@@ -117,4 +207,4 @@ class AsyncImage extends AtomicReference<ImageData> implements Runnable {
 					"Wrong thread to pick up the image"); //$NON-NLS-1$
 		}
 	}
-}
\ No newline at end of file
+}
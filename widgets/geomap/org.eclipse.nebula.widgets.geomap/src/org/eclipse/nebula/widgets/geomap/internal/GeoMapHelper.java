@@ -13,16 +13,9 @@
 package org.eclipse.nebula.widgets.geomap.internal;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.nebula.widgets.geomap.OsmTileServer;
 import org.eclipse.nebula.widgets.geomap.TileServer;
@@ -72,14 +65,8 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 	private Point mapPosition = new Point(0, 0);
 	private int zoom;
 
-	AtomicLong zoomStamp = new AtomicLong();
-
 	private TileServer tileServer = OsmTileServer.TILESERVERS[0];
-	private int cacheSize;
-	// must be readable from AsyncImage
-	HashMap<TileRef, AsyncImage> cache;
-
-	private BlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>();
+	private TileCache cache;
 
 	private ThreadFactory threadFactory = r -> {
 		Thread thread = new Thread(r);
@@ -88,9 +75,8 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 		thread.setDaemon(true);
 		return thread;
 	};
-	ThreadPoolExecutor executor = new ThreadPoolExecutor(
-			DEFAULT_NUMBER_OF_IMAGEFETCHER_THREADS, 16, 2, TimeUnit.SECONDS,
-			workQueue, threadFactory);
+	private TileScheduler<AsyncImage> scheduler = new TileScheduler<>(
+			DEFAULT_NUMBER_OF_IMAGEFETCHER_THREADS, threadFactory);
 	private Color waitBackground, waitForeground;
 
 	/**
@@ -105,25 +91,13 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 	 *            initial map zoom
 	 * @param cacheSize
 	 *            initial cache size, eg number of tile-images that are kept in
-	 *            cache to prevent reloading from the network.
+	 *            cache to prevent reloading from the network. The memory used
+	 *            by the tiles is bounded separately, see {@link TileCache}.
 	 */
-	@SuppressWarnings("serial")
 	public GeoMapHelper(Display display, Point mapPosition, int zoom,
 			int cacheSize) {
 		this(display);
-		this.cacheSize = cacheSize;
-		this.cache = new LinkedHashMap<TileRef, AsyncImage>(cacheSize, 0.75f,
-				true) {
-			@Override
-			protected boolean removeEldestEntry(
-					Map.Entry<TileRef, AsyncImage> eldest) {
-				boolean remove = size() > GeoMapHelper.this.cacheSize;
-				if (remove) {
-					eldest.getValue().dispose();
-				}
-				return remove;
-			}
-		};
+		this.cache = new TileCache(scheduler, cacheSize);
 		waitBackground = new Color(display, 0x88, 0x88, 0x88);
 		waitForeground = new Color(display, 0x77, 0x77, 0x77);
 
@@ -148,6 +122,9 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 		long startTime = System.currentTimeMillis();
 		int tileCount = 0;
 
+		removeFromCache(scheduler.setViewport(zoom, mapPosition.x,
+				mapPosition.y, size.x, size.y));
+
 		int x0 = (int) Math.floor((double) mapPosition.x / TILE_SIZE);
 		int y0 = (int) Math.floor((double) mapPosition.y / TILE_SIZE);
 		int x1 = (int) Math.ceil(((double) mapPosition.x + size.x) / TILE_SIZE);
@@ -167,16 +144,94 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 			}
 			dy += TILE_SIZE;
 		}
+		prefetch(x0, y0, x1, y1, cache.getMaxTiles() - tileCount);
 
 		long endTime = System.currentTimeMillis();
 		for (InternalGeoMapListener listener : internalGeoMapListeners) {
 			listener.mapPainted(tileCount, endTime - startTime);
 		}
 		for (InternalGeoMapListener listener : internalGeoMapListeners) {
-			listener.tileCacheUpdated(cache.size(), this.cacheSize);
+			listener.tileCacheUpdated(cache.size(), cache.getMaxTiles());
+			listener.tileQueueUpdated(scheduler.getQueueSize(),
+					scheduler.getLoadingCount(),
+					scheduler.getAverageLatency());
+		}
+	}
+
+	private void removeFromCache(List<AsyncImage> images) {
+		if (images != null) {
+			for (AsyncImage image : images) {
+				if (cache.get(image.getTile()) == image) {
+					cache.remove(image.getTile());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Requests the tiles in the ring around the visible tiles and the tiles
+	 * under the viewport at the next zoom level, so they are ready when the
+	 * map is panned or zoomed in. The closest tiles are requested first.
+	 */
+	private void prefetch(int x0, int y0, int x1, int y1, int budget) {
+		if (budget <= 0) {
+			return;
+		}
+		int tileCount = 1 << zoom;
+		List<TileRef> tiles = new ArrayList<>();
+		for (int y = y0 - 1; y <= y1; y++) {
+			for (int x = x0 - 1; x <= x1; x++) {
+				if (x < x0 || x >= x1 || y < y0 || y >= y1) {
+					addPrefetchTile(tiles, x, y, zoom, tileCount);
+				}
+			}
+		}
+		if (zoom < getMaxZoom()) {
+			for (int y = 2 * y0; y < 2 * y1; y++) {
+				for (int x = 2 * x0; x < 2 * x1; x++) {
+					addPrefetchTile(tiles, x, y, zoom + 1, tileCount * 2);
+				}
+			}
+		}
+		if (tiles.isEmpty()) {
+			return;
+		}
+		final double centerX = (x0 + x1) / 2.0, centerY = (y0 + y1) / 2.0;
+		// tiles of the current zoom level first
+		Collections.sort(tiles,
+				(t1, t2) -> t1.z != t2.z ? t1.z - t2.z
+						: Double.compare(getDistance(t1, centerX, centerY),
+								getDistance(t2, centerX, centerY)));
+		for (int i = 0; i < tiles.size() && i < budget; i++) {
+			TileRef tileRef = tiles.get(i);
+			AsyncImage image = new AsyncImage(this, tileRef, tileServer);
+			cache.put(tileRef, image);
+			submit(image);
+		}
+	}
+
+	private void submit(AsyncImage image) {
+		image.submitted();
+		scheduler.submit(image);
+	}
+
+	private void addPrefetchTile(List<TileRef> tiles, int x, int y, int z,
+			int tileCount) {
+		if (x >= 0 && x < tileCount && y >= 0 && y < tileCount) {
+			TileRef tileRef = new TileRef(x, y, z);
+			if (!cache.containsKey(tileRef)) {
+				tiles.add(tileRef);
+			}
 		}
 	}
 
+	private double getDistance(TileRef tile, double centerX, double centerY) {
+		double scale = 1 << (tile.z - zoom);
+		double dx = (tile.x + 0.5) / scale - centerX;
+		double dy = (tile.y + 0.5) / scale - centerY;
+		return dx * dx + dy * dy;
+	}
+
 	void paintTile(GC gc, int dx, int dy, int x, int y) {
 		boolean DRAW_IMAGES = true;
 		boolean DEBUG = false;
@@ -192,20 +247,24 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 			TileRef tileRef = new TileRef(x, y, zoom);
 			AsyncImage image = cache.get(tileRef);
 			if (image == null) {
-				image = new AsyncImage(this, tileRef,
-						tileServer.getTileURL(tileRef));
+				image = new AsyncImage(this, tileRef, tileServer);
 				cache.put(tileRef, image);
+				submit(image);
 			}
-			Image swtImage = image.getImage(getDisplay());
+			Image swtImage = cache.getImage(image, getDisplay());
 			if (swtImage != null) {
 				gc.drawImage(swtImage, dx, dy);
 				imageDrawn = true;
 			} else {
+				if (!image.isLoading()) {
+					// the image data was evicted, decode it again
+					submit(image);
+				}
 				// reuse tile from lower zoom level, i.e. half the resolution
 				tileRef = new TileRef(x / 2, y / 2, zoom - 1);
 				image = cache.get(tileRef);
 				if (image != null) {
-					swtImage = image.getImage(getDisplay());
+					swtImage = cache.getFallbackImage(image, getDisplay());
 					if (swtImage != null) {
 						gc.drawImage(swtImage, x % 2 == 0 ? 0 : TILE_SIZE / 2,
 								y % 2 == 0 ? 0 : TILE_SIZE / 2, TILE_SIZE / 2,
@@ -242,6 +301,8 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 	 * Dispose internal data
 	 */
 	public void dispose() {
+		scheduler.dispose();
+		cache.clear();
 		waitBackground.dispose();
 		waitForeground.dispose();
 	}
@@ -265,6 +326,7 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 	 */
 	public void setTileServer(TileServer tileServer) {
 		this.tileServer = tileServer;
+		scheduler.clear();
 		cache.clear();
 	}
 
@@ -323,7 +385,6 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 	 */
 	@Override
 	public void setZoom(int zoom) {
-		zoomStamp.incrementAndGet();
 		this.zoom = Math.min(tileServer.getMaxZoom(), zoom);
 		int size = TILE_SIZE * (1 << zoom);
 		mapSize.x = size;
@@ -332,6 +393,20 @@ public class GeoMapHelper implements GeoMapPositioned, GeoMapHelperListener {
 
 	//
 
+	/**
+	 * Gets the cache of tiles, e.g. to set its limits or read its counters
+	 * 
+	 * @return the tile cache
+	 */
+	public TileCache getTileCache() {
+		return cache;
+	}
+
+	void tileLoaded(AsyncImage image) {
+		cache.loaded(image);
+		tileUpdated(image.getTile());
+	}
+
 	private List<GeoMapHelperListener> geoMapHelperListeners = new ArrayList<>();
 
 	@Override
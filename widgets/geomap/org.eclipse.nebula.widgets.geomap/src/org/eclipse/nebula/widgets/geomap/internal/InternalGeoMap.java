@@ -67,6 +67,15 @@ public class InternalGeoMap extends Canvas
 		addPaintListener(e -> InternalGeoMap.this.paintControl(e));
 	}
 
+	/**
+	 * Gets the cache of tiles, e.g. to set its limits or read its counters
+	 * 
+	 * @return the tile cache
+	 */
+	public TileCache getTileCache() {
+		return geoMapHelper.getTileCache();
+	}
+
 	@Override
 	public void tileUpdated(TileRef tileRef) {
 		if (!isDisposed()) {
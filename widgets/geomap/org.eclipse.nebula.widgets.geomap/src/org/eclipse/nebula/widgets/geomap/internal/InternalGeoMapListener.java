@@ -44,4 +44,19 @@ public interface InternalGeoMapListener {
 	 *            the size of the cache
 	 */
 	public void tileCacheUpdated(int used, int size);
+
+	/**
+	 * Notifies listener that the queue of tiles to load has been updated
+	 * 
+	 * @param queued
+	 *            the number of tiles waiting to be loaded
+	 * @param loading
+	 *            the number of tiles being loaded
+	 * @param latency
+	 *            the average time in milliseconds from requesting a tile until
+	 *            it is loaded
+	 */
+	public default void tileQueueUpdated(int queued, int loading,
+			long latency) {
+	}
 }
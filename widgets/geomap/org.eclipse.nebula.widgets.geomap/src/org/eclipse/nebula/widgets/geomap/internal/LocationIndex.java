@@ -0,0 +1,441 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+
+package org.eclipse.nebula.widgets.geomap.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.nebula.widgets.geomap.PointD;
+
+/**
+ * A quadtree over the locations of the elements of a
+ * {@link org.eclipse.nebula.widgets.geomap.jface.GeoMapViewer}, so
+ * painting and hit testing only visit the elements near the viewport or the
+ * cursor. Locations are kept in world coordinates, i.e. the web mercator
+ * projection scaled to [0, 1), which are independent of the zoom level.
+ * <p>
+ * Each node keeps the number of elements below it and the sum of their
+ * coordinates, so clusters of nearby elements can be found without visiting
+ * the elements themselves.
+ * </p>
+ */
+public class LocationIndex {
+
+	private static final int MAX_NODE_ENTRIES = 16;
+
+	// a depth of 30 is below one pixel at the highest zoom levels
+	private static final int MAX_DEPTH = 30;
+
+	/**
+	 * An indexed element
+	 */
+	public static final class Entry {
+
+		/**
+		 * The element
+		 */
+		public final Object element;
+
+		double x, y;
+		int order;
+		int stamp;
+
+		Entry(Object element) {
+			this.element = element;
+		}
+
+		/**
+		 * Gets the x coordinate of the element
+		 *
+		 * @return the x coordinate in world coordinates
+		 */
+		public double getX() {
+			return x;
+		}
+
+		/**
+		 * Gets the y coordinate of the element
+		 *
+		 * @return the y coordinate in world coordinates
+		 */
+		public double getY() {
+			return y;
+		}
+
+		/**
+		 * Gets the position of the element among the elements of the last
+		 * update
+		 *
+		 * @return the position
+		 */
+		public int getOrder() {
+			return order;
+		}
+	}
+
+	/**
+	 * An aggregation of nearby elements
+	 */
+	public static final class Cluster {
+
+		/**
+		 * The number of elements
+		 */
+		public final int count;
+
+		/**
+		 * The center of the elements in world coordinates
+		 */
+		public final double x, y;
+
+		/**
+		 * The element, if count is 1
+		 */
+		public final Entry entry;
+
+		Cluster(int count, double x, double y, Entry entry) {
+			this.count = count;
+			this.x = x;
+			this.y = y;
+			this.entry = entry;
+		}
+	}
+
+	private static final class Node {
+
+		final double x0, y0, size;
+		final int depth;
+		Node[] children;
+		List<Entry> entries = new ArrayList<>();
+		int count;
+		double sumX, sumY;
+
+		Node(double x0, double y0, double size, int depth) {
+			this.x0 = x0;
+			this.y0 = y0;
+			this.size = size;
+			this.depth = depth;
+		}
+
+		boolean intersects(double qx0, double qy0, double qx1, double qy1) {
+			return x0 <= qx1 && x0 + size >= qx0 && y0 <= qy1
+					&& y0 + size >= qy0;
+		}
+
+		Node getChild(double x, double y) {
+			double half = size / 2;
+			int i = (x >= x0 + half ? 1 : 0) + (y >= y0 + half ? 2 : 0);
+			return children[i];
+		}
+	}
+
+	private final Map<Object, Entry> entries = new HashMap<>();
+	private Node root = new Node(0, 0, 1, 0);
+	private int stamp;
+
+	/**
+	 * Converts a longitude to a world x coordinate
+	 *
+	 * @param lon
+	 *            the longitude
+	 * @return the x coordinate in [0, 1)
+	 */
+	public static double lon2world(double lon) {
+		return clamp((lon + 180) / 360);
+	}
+
+	/**
+	 * Converts a latitude to a world y coordinate, see
+	 * {@link org.eclipse.nebula.widgets.geomap.GeoMapUtil#lat2position(double, int)}
+	 *
+	 * @param lat
+	 *            the latitude
+	 * @return the y coordinate in [0, 1)
+	 */
+	public static double lat2world(double lat) {
+		double rad = Math.toRadians(lat);
+		return clamp(
+				(1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI)
+						/ 2);
+	}
+
+	private static double clamp(double d) {
+		if (Double.isNaN(d) || d < 0) {
+			return 0;
+		}
+		return Math.min(d, Math.nextDown(1.0));
+	}
+
+	/**
+	 * Gets the number of indexed elements
+	 *
+	 * @return the number of elements
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets the entry of an element
+	 *
+	 * @param element
+	 *            the element
+	 * @return the entry, or null if the element is not indexed
+	 */
+	public Entry get(Object element) {
+		return entries.get(element);
+	}
+
+	/**
+	 * Removes all elements
+	 */
+	public void clear() {
+		entries.clear();
+		root = new Node(0, 0, 1, 0);
+	}
+
+	/**
+	 * Updates the index to contain exactly the given elements. Only elements
+	 * that were added, moved or removed since the last update change the tree.
+	 *
+	 * @param elements
+	 *            the elements
+	 * @param locationProvider
+	 *            provides the longitude and latitude of each element,
+	 *            elements without location are not indexed
+	 */
+	public void update(Object[] elements,
+			Function<Object, PointD> locationProvider) {
+		stamp++;
+		for (int i = 0; i < elements.length; i++) {
+			Entry entry = update(elements[i], locationProvider);
+			if (entry != null) {
+				entry.order = i;
+				entry.stamp = stamp;
+			}
+		}
+		for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+			Entry entry = it.next();
+			if (entry.stamp != stamp) {
+				it.remove();
+				remove(root, entry);
+			}
+		}
+	}
+
+	/**
+	 * Updates the location of a single element
+	 *
+	 * @param element
+	 *            the element
+	 * @param locationProvider
+	 *            provides the longitude and latitude of the element
+	 * @return the entry of the element, or null if it has no location
+	 */
+	public Entry update(Object element,
+			Function<Object, PointD> locationProvider) {
+		PointD lonLat = locationProvider.apply(element);
+		Entry entry = entries.get(element);
+		if (lonLat == null) {
+			if (entry != null) {
+				entries.remove(element);
+				remove(root, entry);
+			}
+			return null;
+		}
+		double x = lon2world(lonLat.x), y = lat2world(lonLat.y);
+		if (entry == null) {
+			entry = new Entry(element);
+			entry.order = entries.size();
+			entry.stamp = stamp;
+			entries.put(element, entry);
+		} else if (entry.x == x && entry.y == y) {
+			return entry;
+		} else {
+			remove(root, entry);
+		}
+		entry.x = x;
+		entry.y = y;
+		insert(root, entry);
+		return entry;
+	}
+
+	private void insert(Node node, Entry entry) {
+		while (true) {
+			node.count++;
+			node.sumX += entry.x;
+			node.sumY += entry.y;
+			if (node.children == null) {
+				break;
+			}
+			node = node.getChild(entry.x, entry.y);
+		}
+		node.entries.add(entry);
+		if (node.entries.size() > MAX_NODE_ENTRIES && node.depth < MAX_DEPTH) {
+			split(node);
+		}
+	}
+
+	private void split(Node node) {
+		double half = node.size / 2;
+		node.children = new Node[] {
+				new Node(node.x0, node.y0, half, node.depth + 1),
+				new Node(node.x0 + half, node.y0, half, node.depth + 1),
+				new Node(node.x0, node.y0 + half, half, node.depth + 1),
+				new Node(node.x0 + half, node.y0 + half, half,
+						node.depth + 1) };
+		List<Entry> nodeEntries = node.entries;
+		node.entries = null;
+		for (Entry entry : nodeEntries) {
+			insert(node.getChild(entry.x, entry.y), entry);
+		}
+	}
+
+	private void remove(Node node, Entry entry) {
+		while (true) {
+			node.count--;
+			node.sumX -= entry.x;
+			node.sumY -= entry.y;
+			if (node.children == null) {
+				break;
+			}
+			if (node.count <= MAX_NODE_ENTRIES / 2) {
+				// collapse the subtree, the entry is removed below
+				List<Entry> collected = new ArrayList<>(node.count + 1);
+				collect(node, collected);
+				collected.remove(entry);
+				node.children = null;
+				node.entries = collected;
+				return;
+			}
+			node = node.getChild(entry.x, entry.y);
+		}
+		node.entries.remove(entry);
+	}
+
+	private static void collect(Node node, List<Entry> result) {
+		if (node.children == null) {
+			result.addAll(node.entries);
+		} else {
+			for (Node child : node.children) {
+				collect(child, result);
+			}
+		}
+	}
+
+	/**
+	 * Finds the elements inside a rectangle
+	 *
+	 * @param x0
+	 *            left edge in world coordinates
+	 * @param y0
+	 *            top edge in world coordinates
+	 * @param x1
+	 *            right edge in world coordinates
+	 * @param y1
+	 *            bottom edge in world coordinates
+	 * @param result
+	 *            the list to add the entries to
+	 */
+	public void query(double x0, double y0, double x1, double y1,
+			List<Entry> result) {
+		query(root, x0, y0, x1, y1, result);
+	}
+
+	private static void query(Node node, double x0, double y0, double x1,
+			double y1, List<Entry> result) {
+		if (node.count == 0 || !node.intersects(x0, y0, x1, y1)) {
+			return;
+		}
+		if (node.children == null) {
+			for (Entry entry : node.entries) {
+				if (entry.x >= x0 && entry.x <= x1 && entry.y >= y0
+						&& entry.y <= y1) {
+					result.add(entry);
+				}
+			}
+		} else {
+			for (Node child : node.children) {
+				query(child, x0, y0, x1, y1, result);
+			}
+		}
+	}
+
+	/**
+	 * Aggregates the elements inside a rectangle into clusters. The world is
+	 * divided into a grid of 2^depth by 2^depth cells and the elements of
+	 * each cell form one cluster.
+	 *
+	 * @param x0
+	 *            left edge in world coordinates
+	 * @param y0
+	 *            top edge in world coordinates
+	 * @param x1
+	 *            right edge in world coordinates
+	 * @param y1
+	 *            bottom edge in world coordinates
+	 * @param depth
+	 *            the depth of the grid
+	 * @param result
+	 *            the list to add the clusters to
+	 */
+	public void cluster(double x0, double y0, double x1, double y1,
+			int depth, List<Cluster> result) {
+		cluster(root, x0, y0, x1, y1, depth, result);
+	}
+
+	private static void cluster(Node node, double x0, double y0, double x1,
+			double y1, int depth, List<Cluster> result) {
+		if (node.count == 0 || !node.intersects(x0, y0, x1, y1)) {
+			return;
+		}
+		if (node.depth >= depth) {
+			Entry single = null;
+			if (node.count == 1) {
+				List<Entry> collected = new ArrayList<>(1);
+				collect(node, collected);
+				single = collected.get(0);
+			}
+			result.add(new Cluster(node.count, node.sumX / node.count,
+					node.sumY / node.count, single));
+		} else if (node.children == null) {
+			// a leaf above the grid, group its few entries by cell
+			double cells = 1 << Math.min(depth, MAX_DEPTH);
+			Map<Long, List<Entry>> groups = new HashMap<>();
+			for (Entry entry : node.entries) {
+				long key = (long) (entry.x * cells) << 32
+						| (long) (entry.y * cells);
+				List<Entry> group = groups.get(key);
+				if (group == null) {
+					group = new ArrayList<>(2);
+					groups.put(key, group);
+				}
+				group.add(entry);
+			}
+			for (List<Entry> group : groups.values()) {
+				double sumX = 0, sumY = 0;
+				for (Entry entry : group) {
+					sumX += entry.x;
+					sumY += entry.y;
+				}
+				result.add(new Cluster(group.size(), sumX / group.size(),
+						sumY / group.size(),
+						group.size() == 1 ? group.get(0) : null));
+			}
+		} else {
+			for (Node child : node.children) {
+				cluster(child, x0, y0, x1, y1, depth, result);
+			}
+		}
+	}
+}
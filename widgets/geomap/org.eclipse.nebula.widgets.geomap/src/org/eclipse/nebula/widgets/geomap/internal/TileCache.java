@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.nebula.widgets.geomap.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * The in-memory tile cache of a {@link GeoMapHelper}. A tile is kept in up to
+ * three forms, each in its own tier with its own limit in bytes: the
+ * compressed bytes as loaded from the tile server, the decoded
+ * <code>ImageData</code> and the native <code>Image</code>. Each tier evicts
+ * its least recently used tiles when it exceeds its limit, so a tile that
+ * lost its native image can be recreated from its image data, and a tile that
+ * lost its image data can be decoded again from its compressed bytes without
+ * loading it again. Native images are disposed as soon as they are evicted.
+ * <p>
+ * The number of tiles is bounded, too, including those that are still being
+ * loaded. The cache must only be used on the display thread.
+ * </p>
+ */
+public class TileCache {
+
+	/**
+	 * The tier of compressed bytes, e.g. png
+	 */
+	public static final int COMPRESSED = 0;
+
+	/**
+	 * The tier of decoded <code>ImageData</code>
+	 */
+	public static final int DECODED = 1;
+
+	/**
+	 * The tier of native <code>Image</code>s
+	 */
+	public static final int NATIVE = 2;
+
+	private static final long DEFAULT_COMPRESSED_LIMIT = 16 * 1024 * 1024;
+	private static final long DEFAULT_DECODED_LIMIT = 32 * 1024 * 1024;
+	private static final long DEFAULT_NATIVE_LIMIT = 64 * 1024 * 1024;
+
+	private class Tier {
+
+		private final int index;
+		private final LinkedHashMap<TileRef, AsyncImage> images = new LinkedHashMap<>(
+				64, 0.75f, true);
+		private long limit;
+		private long size;
+		private int evictions;
+
+		Tier(int index, long limit) {
+			this.index = index;
+			this.limit = limit;
+		}
+
+		void add(AsyncImage image, long bytes) {
+			remove(image);
+			// make room first, so the added tile is never evicted at once
+			evict(bytes);
+			images.put(image.getTile(), image);
+			image.setTierSize(index, bytes);
+			size += bytes;
+		}
+
+		void touch(AsyncImage image) {
+			images.get(image.getTile());
+		}
+
+		void remove(AsyncImage image) {
+			if (images.get(image.getTile()) == image) {
+				images.remove(image.getTile());
+				size -= image.getTierSize(index);
+				image.setTierSize(index, 0);
+			}
+		}
+
+		void evict(long room) {
+			Iterator<AsyncImage> it = images.values().iterator();
+			while (size + room > limit && it.hasNext()) {
+				AsyncImage image = it.next();
+				it.remove();
+				size -= image.getTierSize(index);
+				image.setTierSize(index, 0);
+				evictions++;
+				image.release(index);
+				if (image.isEmpty()) {
+					removeEntry(image);
+				}
+			}
+		}
+
+		void clear() {
+			for (AsyncImage image : images.values()) {
+				image.release(index);
+			}
+			images.clear();
+			size = 0;
+		}
+	}
+
+	private final TileScheduler<AsyncImage> scheduler;
+	private final Tier[] tiers = new Tier[] {
+			new Tier(COMPRESSED, DEFAULT_COMPRESSED_LIMIT),
+			new Tier(DECODED, DEFAULT_DECODED_LIMIT),
+			new Tier(NATIVE, DEFAULT_NATIVE_LIMIT) };
+
+	private final LinkedHashMap<TileRef, AsyncImage> entries;
+	private int maxTiles;
+
+	private int hits, misses;
+
+	/**
+	 * Initializes a TileCache
+	 *
+	 * @param scheduler
+	 *            the scheduler of the tiles being loaded, so they can be
+	 *            cancelled when evicted
+	 * @param maxTiles
+	 *            the maximum number of tiles
+	 */
+	TileCache(TileScheduler<AsyncImage> scheduler, int maxTiles) {
+		this.scheduler = scheduler;
+		this.maxTiles = maxTiles;
+		this.entries = new LinkedHashMap<>(maxTiles, 0.75f, true);
+	}
+
+	//
+
+	AsyncImage get(TileRef tile) {
+		return entries.get(tile);
+	}
+
+	boolean containsKey(TileRef tile) {
+		return entries.containsKey(tile);
+	}
+
+	void put(TileRef tile, AsyncImage image) {
+		AsyncImage old = entries.put(tile, image);
+		if (old != null && old != image) {
+			release(old);
+		}
+		if (entries.size() > maxTiles) {
+			Iterator<AsyncImage> it = entries.values().iterator();
+			while (entries.size() > maxTiles && it.hasNext()) {
+				AsyncImage eldest = it.next();
+				it.remove();
+				release(eldest);
+			}
+		}
+	}
+
+	void remove(TileRef tile) {
+		AsyncImage image = entries.remove(tile);
+		if (image != null) {
+			release(image);
+		}
+	}
+
+	private void removeEntry(AsyncImage image) {
+		if (entries.get(image.getTile()) == image) {
+			entries.remove(image.getTile());
+		}
+	}
+
+	private void release(AsyncImage image) {
+		scheduler.cancel(image);
+		for (Tier tier : tiers) {
+			tier.remove(image);
+			image.release(tier.index);
+		}
+	}
+
+	/**
+	 * Removes all tiles and disposes their native images
+	 */
+	public void clear() {
+		for (AsyncImage image : new ArrayList<>(entries.values())) {
+			scheduler.cancel(image);
+		}
+		entries.clear();
+		for (Tier tier : tiers) {
+			tier.clear();
+		}
+	}
+
+	/**
+	 * Gets the number of tiles in the cache, including those being loaded
+	 *
+	 * @return the number of tiles
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets the maximum number of tiles
+	 *
+	 * @return the maximum number of tiles
+	 */
+	public int getMaxTiles() {
+		return maxTiles;
+	}
+
+	/**
+	 * Sets the maximum number of tiles, including those being loaded
+	 *
+	 * @param maxTiles
+	 *            the maximum number of tiles
+	 */
+	public void setMaxTiles(int maxTiles) {
+		this.maxTiles = maxTiles;
+		Iterator<AsyncImage> it = entries.values().iterator();
+		while (entries.size() > maxTiles && it.hasNext()) {
+			AsyncImage eldest = it.next();
+			it.remove();
+			release(eldest);
+		}
+	}
+
+	//
+
+	/**
+	 * Called when a tile has been loaded or decoded, to account for its
+	 * compressed bytes and image data.
+	 */
+	void loaded(AsyncImage image) {
+		if (entries.get(image.getTile()) != image) {
+			// evicted while loading
+			image.release(COMPRESSED);
+			image.release(DECODED);
+			return;
+		}
+		byte[] data = image.getData();
+		if (data != null) {
+			tiers[COMPRESSED].add(image, data.length);
+		}
+		ImageData imageData = image.getImageData();
+		if (imageData != null) {
+			tiers[DECODED].add(image, getSize(imageData));
+		}
+	}
+
+	/**
+	 * Gets the native image of a tile, creating it from the image data if
+	 * needed, and counts a hit or a miss
+	 *
+	 * @param image
+	 *            the tile
+	 * @param display
+	 *            the display of the image
+	 * @return the native image, or null if the tile is not decoded
+	 */
+	Image getImage(AsyncImage image, Display display) {
+		Image swtImage = getFallbackImage(image, display);
+		if (swtImage != null) {
+			hits++;
+		} else {
+			misses++;
+		}
+		return swtImage;
+	}
+
+	/**
+	 * Gets the native image of a tile painted in place of a tile that is not
+	 * decoded, e.g. the tile of the lower zoom level. It is not counted as a
+	 * hit or miss, since the missing tile already was.
+	 *
+	 * @param image
+	 *            the tile
+	 * @param display
+	 *            the display of the image
+	 * @return the native image, or null if the tile is not decoded
+	 */
+	Image getFallbackImage(AsyncImage image, Display display) {
+		Image swtImage = image.getImage();
+		if (swtImage != null) {
+			tiers[NATIVE].touch(image);
+			return swtImage;
+		}
+		ImageData imageData = image.getImageData();
+		if (imageData == null) {
+			return null;
+		}
+		tiers[DECODED].touch(image);
+		swtImage = image.createImage(display);
+		tiers[NATIVE].add(image, (long) imageData.width * imageData.height * 4);
+		return swtImage;
+	}
+
+	private static long getSize(ImageData imageData) {
+		long size = imageData.data.length;
+		if (imageData.alphaData != null) {
+			size += imageData.alphaData.length;
+		}
+		if (imageData.maskData != null) {
+			size += imageData.maskData.length;
+		}
+		return size;
+	}
+
+	//
+
+	/**
+	 * Gets the limit of a tier
+	 *
+	 * @param tier
+	 *            the tier, one of {@link #COMPRESSED}, {@link #DECODED} and
+	 *            {@link #NATIVE}
+	 * @return the limit in bytes
+	 */
+	public long getLimit(int tier) {
+		return tiers[tier].limit;
+	}
+
+	/**
+	 * Sets the limit of a tier, evicting tiles if needed. The limit of the
+	 * native tier should be large enough for the visible tiles.
+	 *
+	 * @param tier
+	 *            the tier, one of {@link #COMPRESSED}, {@link #DECODED} and
+	 *            {@link #NATIVE}
+	 * @param limit
+	 *            the limit in bytes
+	 */
+	public void setLimit(int tier, long limit) {
+		tiers[tier].limit = limit;
+		tiers[tier].evict(0);
+	}
+
+	/**
+	 * Gets the estimated size of the tiles in a tier
+	 *
+	 * @param tier
+	 *            the tier, one of {@link #COMPRESSED}, {@link #DECODED} and
+	 *            {@link #NATIVE}
+	 * @return the size in bytes
+	 */
+	public long getSize(int tier) {
+		return tiers[tier].size;
+	}
+
+	/**
+	 * Gets the number of tiles evicted from a tier
+	 *
+	 * @param tier
+	 *            the tier, one of {@link #COMPRESSED}, {@link #DECODED} and
+	 *            {@link #NATIVE}
+	 * @return the number of evictions
+	 */
+	public int getEvictions(int tier) {
+		return tiers[tier].evictions;
+	}
+
+	/**
+	 * Gets the number of times a tile could be painted from the cache
+	 *
+	 * @return the number of hits
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of times a tile could not be painted, since it was not
+	 * loaded or decoded yet, whether or not the tile of the lower zoom level
+	 * was painted in its place
+	 *
+	 * @return the number of misses
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Resets the hit, miss and eviction counters
+	 */
+	public void resetStatistics() {
+		hits = 0;
+		misses = 0;
+		for (Tier tier : tiers) {
+			tier.evictions = 0;
+		}
+	}
+}
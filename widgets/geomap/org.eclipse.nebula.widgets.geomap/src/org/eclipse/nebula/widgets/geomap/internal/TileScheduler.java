@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+
+package org.eclipse.nebula.widgets.geomap.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Schedules the tile loads of a {@link GeoMapHelper}. Instead of loading tiles
+ * in the order they were requested, the image fetcher threads always pick the
+ * pending tile closest to the center of the viewport, tiles of the current
+ * zoom level before prefetched tiles of the next one. Pending tiles which are
+ * neither visible, nor in the ring around the viewport, nor under the
+ * viewport at the next zoom level are cancelled when the viewport changes.
+ * <p>
+ * The pending tiles are kept in a heap ordered by their priority, which is
+ * computed when a tile is submitted and again for all pending tiles when the
+ * viewport changes.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the tiles to load
+ */
+public class TileScheduler<T extends TileScheduler.Task> {
+
+	/**
+	 * A tile to load
+	 */
+	public interface Task extends Runnable {
+
+		/**
+		 * Gets the tile to load
+		 *
+		 * @return the tile
+		 */
+		TileRef getTile();
+
+		/**
+		 * Gets the time the tile was requested
+		 *
+		 * @return the time in milliseconds
+		 */
+		long getSubmitTime();
+
+		/**
+		 * Marks the tile as no longer needed
+		 */
+		void cancel();
+	}
+
+	/**
+	 * A pending tile in the heap. It is stale once the tile was taken,
+	 * cancelled or submitted again, and then skipped when it gets to the top.
+	 */
+	private static class Pending<T> implements Comparable<Pending<T>> {
+
+		private final T task;
+		private double priority;
+
+		Pending(T task, double priority) {
+			this.task = task;
+			this.priority = priority;
+		}
+
+		@Override
+		public int compareTo(Pending<T> other) {
+			return Double.compare(priority, other.priority);
+		}
+	}
+
+	private static final int TILE_SIZE = GeoMapHelper.TILE_SIZE;
+
+	private final int threadCount;
+	private final ThreadFactory threadFactory;
+	private final List<Thread> workers = new ArrayList<>();
+
+	// guarded by this
+	private final Map<TileRef, Pending<T>> pending = new HashMap<>();
+	private PriorityQueue<Pending<T>> queue = new PriorityQueue<>();
+	private int loading;
+	private boolean disposed;
+
+	// the viewport, guarded by this
+	private int zoom;
+	private double centerX, centerY;
+	private int x0, y0, x1, y1;
+
+	private volatile double averageLatency;
+
+	/**
+	 * Initializes a TileScheduler
+	 *
+	 * @param threadCount
+	 *            the number of image fetcher threads
+	 * @param threadFactory
+	 *            the factory for the image fetcher threads
+	 */
+	public TileScheduler(int threadCount, ThreadFactory threadFactory) {
+		this.threadCount = threadCount;
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * Sets the visible part of the map and cancels the pending tiles which are
+	 * no longer needed.
+	 *
+	 * @param zoom
+	 *            the zoom level
+	 * @param x
+	 *            left edge of the viewport in map coordinates
+	 * @param y
+	 *            top edge of the viewport in map coordinates
+	 * @param width
+	 *            width of the viewport
+	 * @param height
+	 *            height of the viewport
+	 * @return the cancelled tiles
+	 */
+	public synchronized List<T> setViewport(int zoom, int x, int y,
+			int width, int height) {
+		this.zoom = zoom;
+		centerX = x + width / 2.0;
+		centerY = y + height / 2.0;
+		x0 = (int) Math.floor((double) x / TILE_SIZE);
+		y0 = (int) Math.floor((double) y / TILE_SIZE);
+		x1 = (int) Math.ceil(((double) x + width) / TILE_SIZE);
+		y1 = (int) Math.ceil(((double) y + height) / TILE_SIZE);
+
+		List<T> cancelled = null;
+		for (Iterator<Pending<T>> it = pending.values().iterator(); it
+				.hasNext();) {
+			Pending<T> entry = it.next();
+			if (!isWanted(entry.task.getTile())) {
+				it.remove();
+				entry.task.cancel();
+				if (cancelled == null) {
+					cancelled = new ArrayList<>();
+				}
+				cancelled.add(entry.task);
+			} else {
+				entry.priority = getPriority(entry.task.getTile());
+			}
+		}
+		// the priorities changed, and stale entries are dropped
+		queue = new PriorityQueue<>(pending.values());
+		return cancelled;
+	}
+
+	/**
+	 * Tells whether a tile is visible, in the ring around the viewport or under
+	 * the viewport at the next zoom level
+	 *
+	 * @param tile
+	 *            the tile
+	 * @return true if the tile is wanted
+	 */
+	public synchronized boolean isWanted(TileRef tile) {
+		if (tile.z == zoom) {
+			return tile.x >= x0 - 1 && tile.x <= x1 && tile.y >= y0 - 1
+					&& tile.y <= y1;
+		} else if (tile.z == zoom + 1) {
+			return tile.x >= 2 * x0 && tile.x < 2 * x1 && tile.y >= 2 * y0
+					&& tile.y < 2 * y1;
+		}
+		return false;
+	}
+
+	// must hold the lock
+	private double getPriority(TileRef tile) {
+		double scale = tile.z >= zoom ? 1 << (tile.z - zoom)
+				: 1.0 / (1 << (zoom - tile.z));
+		double dx = (tile.x + 0.5) * TILE_SIZE / scale - centerX;
+		double dy = (tile.y + 0.5) * TILE_SIZE / scale - centerY;
+		double distance = Math.sqrt(dx * dx + dy * dy);
+		if (tile.z != zoom) {
+			// after all tiles of the current zoom level, including the ring
+			distance += (x1 - x0 + y1 - y0 + 2) * TILE_SIZE;
+		}
+		return distance;
+	}
+
+	/**
+	 * Adds a tile to load
+	 *
+	 * @param task
+	 *            the tile to load
+	 */
+	public synchronized void submit(T task) {
+		if (disposed) {
+			return;
+		}
+		Pending<T> entry = new Pending<>(task, getPriority(task.getTile()));
+		pending.put(task.getTile(), entry);
+		queue.add(entry);
+		if (workers.size() < Math.min(threadCount, pending.size() + loading)) {
+			Thread worker = threadFactory.newThread(new Runnable() {
+				@Override
+				public void run() {
+					work();
+				}
+			});
+			workers.add(worker);
+			worker.start();
+		}
+		notify();
+	}
+
+	private void work() {
+		while (true) {
+			T task = take();
+			if (task == null) {
+				return;
+			}
+			try {
+				task.run();
+			} finally {
+				long latency = System.currentTimeMillis()
+						- task.getSubmitTime();
+				synchronized (this) {
+					loading--;
+					// moving average over about 8 tiles
+					averageLatency += (latency - averageLatency) / 8.0;
+				}
+			}
+		}
+	}
+
+	private synchronized T take() {
+		while (!disposed && pending.isEmpty()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				return null;
+			}
+		}
+		if (disposed) {
+			return null;
+		}
+		Pending<T> best = queue.poll();
+		while (pending.get(best.task.getTile()) != best) {
+			best = queue.poll();
+		}
+		pending.remove(best.task.getTile());
+		loading++;
+		return best.task;
+	}
+
+	/**
+	 * Cancels a tile, e.g. because it was evicted from the cache
+	 *
+	 * @param task
+	 *            the tile
+	 */
+	public synchronized void cancel(T task) {
+		task.cancel();
+		Pending<T> entry = pending.get(task.getTile());
+		if (entry != null && entry.task == task) {
+			pending.remove(task.getTile());
+		}
+	}
+
+	/**
+	 * Cancels all pending tiles
+	 *
+	 * @return the cancelled tiles
+	 */
+	public synchronized List<T> clear() {
+		List<T> cancelled = new ArrayList<>(pending.size());
+		for (Pending<T> entry : pending.values()) {
+			entry.task.cancel();
+			cancelled.add(entry.task);
+		}
+		pending.clear();
+		queue.clear();
+		return cancelled;
+	}
+
+	/**
+	 * Gets the number of tiles waiting to be loaded
+	 *
+	 * @return the number of pending tiles
+	 */
+	public synchronized int getQueueSize() {
+		return pending.size();
+	}
+
+	/**
+	 * Gets the number of tiles being loaded
+	 *
+	 * @return the number of tiles
+	 */
+	public synchronized int getLoadingCount() {
+		return loading;
+	}
+
+	/**
+	 * Gets the average time from requesting a tile until it is loaded
+	 *
+	 * @return the latency in milliseconds
+	 */
+	public long getAverageLatency() {
+		return Math.round(averageLatency);
+	}
+
+	/**
+	 * Cancels all pending tiles and stops the image fetcher threads
+	 */
+	public synchronized void dispose() {
+		disposed = true;
+		clear();
+		notifyAll();
+	}
+}
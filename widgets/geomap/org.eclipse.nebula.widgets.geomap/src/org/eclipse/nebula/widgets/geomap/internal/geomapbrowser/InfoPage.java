@@ -17,6 +17,7 @@ import java.util.logging.Logger;
 import org.eclipse.nebula.widgets.geomap.GeoMap;
 import org.eclipse.nebula.widgets.geomap.GeoMapUtil;
 import org.eclipse.nebula.widgets.geomap.internal.InternalGeoMapListener;
+import org.eclipse.nebula.widgets.geomap.internal.TileCache;
 import org.eclipse.nebula.widgets.geomap.internal.TileRef;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.DisposeEvent;
@@ -99,6 +100,31 @@ public class InfoPage extends AbstractPage
 				return String.format("Usage: %3d / %3d ", tileCacheUsed,
 						tileCacheSize);
 			}
+		}, new Spec("Tile cache memory") {
+			@Override
+			public String computeValue() {
+				TileCache cache = geoMap.getTileCache();
+				return String.format("%d / %d / %d KB",
+						cache.getSize(TileCache.COMPRESSED) / 1024,
+						cache.getSize(TileCache.DECODED) / 1024,
+						cache.getSize(TileCache.NATIVE) / 1024);
+			}
+		}, new Spec("Tile cache hits") {
+			@Override
+			public String computeValue() {
+				TileCache cache = geoMap.getTileCache();
+				return String.format("Hits: %d, misses: %d, evictions: %d",
+						cache.getHits(), cache.getMisses(),
+						cache.getEvictions(TileCache.COMPRESSED)
+								+ cache.getEvictions(TileCache.DECODED)
+								+ cache.getEvictions(TileCache.NATIVE));
+			}
+		}, new Spec("Tile queue") {
+			@Override
+			public String computeValue() {
+				return String.format("Queued: %3d, loading: %d, latency: %d ms",
+						tileQueueSize, tileLoadingCount, tileLatency);
+			}
 		}, new Spec("Longitude/Latitude") {
 			@Override
 			public String computeValue() {
@@ -224,4 +250,20 @@ public class InfoPage extends AbstractPage
 		tileCacheUsed = used;
 		tileCacheSize = size;
 	}
+
+	private int tileQueueSize, tileLoadingCount;
+	private long tileLatency;
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.eclipse.nebula.widgets.geomap.internal.InternalGeoMapListener#
+	 * tileQueueUpdated(int, int, long)
+	 */
+	@Override
+	public void tileQueueUpdated(int queued, int loading, long latency) {
+		tileQueueSize = queued;
+		tileLoadingCount = loading;
+		tileLatency = latency;
+	}
 }
@@ -11,6 +11,11 @@
 
 package org.eclipse.nebula.widgets.geomap.jface;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
 import org.eclipse.jface.viewers.ContentViewer;
 import org.eclipse.jface.viewers.IBaseLabelProvider;
 import org.eclipse.jface.viewers.IContentProvider;
@@ -27,6 +32,7 @@ import org.eclipse.nebula.widgets.geomap.GeoMap;
 import org.eclipse.nebula.widgets.geomap.GeoMapUtil;
 import org.eclipse.nebula.widgets.geomap.PointD;
 import org.eclipse.nebula.widgets.geomap.internal.DefaultMouseHandler;
+import org.eclipse.nebula.widgets.geomap.internal.LocationIndex;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.DisposeEvent;
 import org.eclipse.swt.events.KeyAdapter;
@@ -39,6 +45,7 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 
 /**
@@ -134,6 +141,13 @@ public class GeoMapViewer extends ContentViewer {
 	 */
 	public void setLocationProvider(LocationProvider locationProvider) {
 		this.locationProvider = locationProvider;
+		indexValid = false;
+	}
+
+	@Override
+	public void setContentProvider(IContentProvider contentProvider) {
+		super.setContentProvider(contentProvider);
+		indexValid = false;
 	}
 
 	//
@@ -150,19 +164,181 @@ public class GeoMapViewer extends ContentViewer {
 				: null;
 	}
 
+	private final LocationIndex locationIndex = new LocationIndex();
+	private boolean indexValid = false;
+
+	/*
+	 * the largest distance from an element's position to the edge of its
+	 * image, used to find the elements whose image may overlap an area.
+	 * Computed from the images of the indexed elements when indexing them.
+	 */
+	private int imageExtent = 0;
+
+	private static final Comparator<LocationIndex.Entry> ORDER_COMPARATOR = (
+			e1, e2) -> Integer.compare(e1.getOrder(), e2.getOrder());
+
+	private LocationIndex getLocationIndex() {
+		if (!indexValid) {
+			Object[] elements = getElements();
+			imageExtent = 0;
+			if (elements == null || getLocationProvider() == null) {
+				locationIndex.clear();
+			} else {
+				LocationProvider locationProvider = getLocationProvider();
+				locationIndex.update(elements,
+						element -> getLonLat(element, locationProvider));
+				for (Object element : elements) {
+					if (locationIndex.get(element) != null) {
+						updateImageExtent(element);
+					}
+				}
+			}
+			indexValid = true;
+		}
+		return locationIndex;
+	}
+
+	private void updateImageExtent(Object element) {
+		IBaseLabelProvider labelProvider = getLabelProvider();
+		if (!(labelProvider instanceof ILabelProvider)) {
+			return;
+		}
+		Image image = ((ILabelProvider) labelProvider).getImage(element);
+		if (image == null) {
+			return;
+		}
+		Rectangle bounds = image.getBounds();
+		// the position of the element in the image
+		int x = 0, y = 0;
+		if (labelProvider instanceof IPinPointProvider) {
+			Point pinPoint = ((IPinPointProvider) labelProvider)
+					.getPinPoint(element);
+			if (pinPoint != null) {
+				x = pinPoint.x;
+				y = pinPoint.y;
+			}
+		}
+		imageExtent = Math.max(imageExtent,
+				Math.max(Math.max(Math.abs(x), Math.abs(bounds.width - x)),
+						Math.max(Math.abs(y), Math.abs(bounds.height - y))));
+	}
+
 	private Object doContents(GC gc, Rectangle contain, Object selection) {
-		Object[] elements = getElements();
-		if (elements != null && getLocationProvider() != null) {
-			for (Object element : elements) {
-				Object found = doContent(element, gc, contain, selection);
-				if (found != null) {
-					return found;
+		if (getLocationProvider() == null) {
+			return null;
+		}
+		LocationIndex index = getLocationIndex();
+		if (index.size() == 0) {
+			return null;
+		}
+		Rectangle area;
+		int margin;
+		if (contain != null) {
+			area = contain;
+			margin = imageExtent;
+		} else {
+			Point size = geoMap.getSize();
+			area = new Rectangle(0, 0, size.x, size.y);
+			margin = clipRule == CLIP_ON_ELEMENT_POSITION ? 0 : imageExtent;
+		}
+		// query in world coordinates, with a pixel of slack for rounding
+		Point mapPosition = geoMap.getMapPosition();
+		double worldSize = (double) TILE_SIZE * (1 << geoMap.getZoom());
+		double x0 = (mapPosition.x + area.x - margin - 1) / worldSize;
+		double y0 = (mapPosition.y + area.y - margin - 1) / worldSize;
+		double x1 = (mapPosition.x + area.x + area.width + margin + 1)
+				/ worldSize;
+		double y1 = (mapPosition.y + area.y + area.height + margin + 1)
+				/ worldSize;
+
+		List<LocationIndex.Entry> entries = new ArrayList<>();
+		if (clusterSize > 1) {
+			int depth = geoMap.getZoom() + 8
+					- (31 - Integer.numberOfLeadingZeros(clusterSize));
+			List<LocationIndex.Cluster> clusters = new ArrayList<>();
+			index.cluster(x0, y0, x1, y1, depth, clusters);
+			for (LocationIndex.Cluster cluster : clusters) {
+				if (cluster.entry != null) {
+					entries.add(cluster.entry);
+				} else if (gc != null) {
+					paintCluster(gc,
+							(int) Math.floor(cluster.x * worldSize)
+									- mapPosition.x,
+							(int) Math.floor(cluster.y * worldSize)
+									- mapPosition.y,
+							cluster.count);
 				}
 			}
+		} else {
+			index.query(x0, y0, x1, y1, entries);
+		}
+		// keep the order of the content provider, so overlapping images are
+		// painted and hit in the same order as without the index
+		Collections.sort(entries, ORDER_COMPARATOR);
+		for (LocationIndex.Entry entry : entries) {
+			Object found = doContent(entry.element, gc, contain, selection);
+			if (found != null) {
+				return found;
+			}
 		}
 		return null;
 	}
 
+	/* must be the same as GeoMapHelper's TILE_SIZE */
+	private static final int TILE_SIZE = 256;
+
+	private int clusterSize = 0;
+
+	/**
+	 * Sets the size of the clusters, i.e. the width and height in pixels of the
+	 * cells of a grid over the map. When set, the elements that fall in the
+	 * same cell are painted as a single cluster marker showing their number,
+	 * which cannot be selected. Since the grid is in pixels, the clusters break
+	 * up when zooming in.
+	 * 
+	 * @param clusterSize
+	 *            the size of the clusters, 0 for no clustering
+	 */
+	public void setClusterSize(int clusterSize) {
+		this.clusterSize = clusterSize;
+		geoMap.redraw();
+	}
+
+	/**
+	 * Gets the size of the clusters
+	 * 
+	 * @return the size of the clusters, 0 for no clustering
+	 */
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	/**
+	 * Paints the marker of a cluster of elements. Override to customize the
+	 * appearance of clusters.
+	 * 
+	 * @param gc
+	 *            the graphics context
+	 * @param x
+	 *            the x coordinate of the center of the elements
+	 * @param y
+	 *            the y coordinate of the center of the elements
+	 * @param count
+	 *            the number of elements in the cluster
+	 */
+	protected void paintCluster(GC gc, int x, int y, int count) {
+		String text = String.valueOf(count);
+		Point textSize = gc.textExtent(text);
+		int radius = Math.max(textSize.x, textSize.y) / 2 + 4;
+		Display display = geoMap.getDisplay();
+		gc.setBackground(display.getSystemColor(SWT.COLOR_LIST_SELECTION));
+		gc.fillOval(x - radius, y - radius, radius * 2, radius * 2);
+		gc.setForeground(
+				display.getSystemColor(SWT.COLOR_LIST_SELECTION_TEXT));
+		gc.drawOval(x - radius, y - radius, radius * 2, radius * 2);
+		gc.drawString(text, x - textSize.x / 2, y - textSize.y / 2, true);
+	}
+
 	/**
 	 * Gets the element found within the rectangle of the given position and
 	 * size
@@ -272,15 +448,21 @@ public class GeoMapViewer extends ContentViewer {
 		return null;
 	}
 
-	private Point getElementPosition(Object element, Point into,
-			boolean mapRelative) {
-		PointD lonLat = getLocationProvider().getLonLat(element);
+	static PointD getLonLat(Object element,
+			LocationProvider locationProvider) {
+		PointD lonLat = locationProvider.getLonLat(element);
 		if (lonLat == null) {
 			lonLat = element instanceof PointD ? (PointD) element
 					: element instanceof Located
 							? ((Located) element).getLonLat()
 							: null;
 		}
+		return lonLat;
+	}
+
+	private Point getElementPosition(Object element, Point into,
+			boolean mapRelative) {
+		PointD lonLat = getLonLat(element, getLocationProvider());
 		if (lonLat == null) {
 			return null;
 		}
@@ -322,6 +504,24 @@ public class GeoMapViewer extends ContentViewer {
 
 	@Override
 	public void refresh() {
+		indexValid = false;
+		geoMap.redraw();
+	}
+
+	/**
+	 * Refreshes the location of a single element, e.g. after it has been
+	 * moved, without refreshing the other elements
+	 * 
+	 * @param element
+	 *            the element
+	 */
+	public void refresh(Object element) {
+		LocationProvider locationProvider = getLocationProvider();
+		if (indexValid && locationProvider != null
+				&& locationIndex.update(element,
+						e -> getLonLat(e, locationProvider)) != null) {
+			updateImageExtent(element);
+		}
 		geoMap.redraw();
 	}
 
@@ -372,7 +572,7 @@ public class GeoMapViewer extends ContentViewer {
 
 	private void setSelection(Object selection) {
 		this.selection = selection;
-		refresh();
+		geoMap.redraw();
 		fireSelectionChanged(new SelectionChangedEvent(this,
 				new StructuredSelection(selection)));
 	}
@@ -484,7 +684,7 @@ public class GeoMapViewer extends ContentViewer {
 			if (isSelecting()) {
 				selectionOffset.x = e.x - selectionStart.x;
 				selectionOffset.y = e.y - selectionStart.y;
-				refresh();
+				geoMap.redraw();
 			} else {
 				super.mouseMove(e);
 			}
@@ -503,6 +703,7 @@ public class GeoMapViewer extends ContentViewer {
 				reveal(selection, checkButtons(e, getPanCenterButtons()));
 				selectionStart = null;
 				selectionOffset = null;
+				refresh(selection);
 			} else {
 				super.mouseUp(e);
 			}
@@ -0,0 +1,151 @@
+package org.eclipse.nebula.widgets.oscilloscope;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.nebula.widgets.oscilloscope.multichannel.Oscilloscope;
+import org.eclipse.nebula.widgets.oscilloscope.multichannel.OscilloscopeDispatcher;
+import org.eclipse.nebula.widgets.oscilloscope.multichannel.OscilloscopeScheduler;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OscilloscopeSchedulerTest {
+
+	private static class CountingDispatcher extends OscilloscopeDispatcher {
+
+		int beforeDraw;
+		int afterDraw;
+
+		CountingDispatcher(int channel, Oscilloscope oscilloscope) {
+			super(channel, oscilloscope);
+		}
+
+		@Override
+		public void hookBeforeDraw(Oscilloscope oscilloscope, int counter) {
+			beforeDraw++;
+			super.hookBeforeDraw(oscilloscope, counter);
+		}
+
+		@Override
+		public void hookAfterDraw(Oscilloscope oscilloscope, int counter) {
+			afterDraw++;
+			super.hookAfterDraw(oscilloscope, counter);
+		}
+	}
+
+	private Display display;
+	private Shell shell;
+	private OscilloscopeScheduler scheduler;
+
+	@Before
+	public void setUp() throws Exception {
+		display = Display.getDefault();
+		shell = new Shell(display);
+		shell.setLayout(new FillLayout());
+		shell.setSize(400, 300);
+		scheduler = new OscilloscopeScheduler(display);
+		scheduler.setFramesPerSecond(50);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		shell.dispose();
+	}
+
+	@Test
+	public void dispatchersShareFrames() {
+
+		Oscilloscope scope1 = new Oscilloscope(2, shell, 0);
+		Oscilloscope scope2 = new Oscilloscope(shell, 0);
+		shell.open();
+
+		CountingDispatcher dispatcher1 = new CountingDispatcher(0, scope1);
+		CountingDispatcher dispatcher2 = new CountingDispatcher(1, scope1);
+		CountingDispatcher dispatcher3 = new CountingDispatcher(0, scope2);
+		dispatcher1.dispatch(scheduler);
+		dispatcher2.dispatch(scheduler);
+		dispatcher3.dispatch(scheduler);
+
+		assertSame(scheduler, dispatcher1.getScheduler());
+		assertTrue(dispatcher1.isRunning());
+		assertEquals(3, scheduler.getDispatcherCount());
+
+		runFrames(10);
+
+		assertTrue(scheduler.getFrameCount() >= 10);
+		assertTrue(dispatcher1.beforeDraw > 0);
+		assertTrue(dispatcher3.beforeDraw > 0);
+		// both dispatchers of a scope are ticked in the same frames
+		assertEquals(dispatcher1.beforeDraw, dispatcher2.beforeDraw);
+		assertEquals(dispatcher1.beforeDraw, dispatcher1.afterDraw);
+		assertTrue(scope1.getFrameCount() > 0);
+		assertTrue(scope2.getFrameCount() > 0);
+	}
+
+	@Test
+	public void stopRemovesDispatcher() {
+
+		Oscilloscope scope = new Oscilloscope(shell, 0);
+		shell.open();
+
+		CountingDispatcher dispatcher = new CountingDispatcher(0, scope);
+		dispatcher.dispatch(scheduler);
+		runFrames(3);
+		dispatcher.stop();
+		// the next frame removes the dispatcher, the scheduler then stops ticking
+		runFrames(1);
+
+		assertEquals(0, scheduler.getDispatcherCount());
+		assertNull(dispatcher.getScheduler());
+		assertFalse(dispatcher.isRunning());
+		int beforeDraw = dispatcher.beforeDraw;
+
+		// the scheduler starts ticking again
+		dispatcher.dispatch(scheduler);
+		assertTrue(dispatcher.isRunning());
+		runFrames(3);
+		assertTrue(dispatcher.beforeDraw > beforeDraw);
+	}
+
+	@Test
+	public void unpaintedScopeKeepsRunning() {
+
+		Oscilloscope scope = new Oscilloscope(shell, 0);
+		shell.open();
+		runFrames(0);
+
+		// redraw requests are ignored, the scope is not painted any more
+		scope.setRedraw(false);
+		CountingDispatcher dispatcher = new CountingDispatcher(0, scope);
+		dispatcher.dispatch(scheduler);
+		runFrames(15);
+
+		assertTrue(scope.getDroppedFrames() > 0);
+		assertTrue(dispatcher.beforeDraw + " frames", dispatcher.beforeDraw >= 4);
+
+		scope.setRedraw(true);
+		long frameCount = scope.getFrameCount();
+		runFrames(5);
+		assertTrue(scope.getFrameCount() > frameCount);
+	}
+
+	private void runFrames(long frames) {
+		long target = scheduler.getFrameCount() + frames;
+		long end = System.currentTimeMillis() + 5000;
+		while (scheduler.getFrameCount() < target && System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				display.sleep();
+			}
+		}
+		while (display.readAndDispatch()) {
+			// paint the last frame
+		}
+	}
+}
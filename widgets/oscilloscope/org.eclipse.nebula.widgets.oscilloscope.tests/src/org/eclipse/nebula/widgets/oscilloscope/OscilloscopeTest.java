@@ -4,6 +4,7 @@ import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.assertFalse;
 import junit.framework.Assert;
 
+import org.eclipse.nebula.widgets.oscilloscope.multichannel.IntegerRingBuffer;
 import org.eclipse.nebula.widgets.oscilloscope.multichannel.Oscilloscope.IntegerFiFoCircularStack;
 import org.eclipse.swt.widgets.Shell;
 import org.junit.After;
@@ -158,4 +159,168 @@ public class OscilloscopeTest {
 
 	}
 
+	@Test
+	public void ringBufferTest() {
+
+		try {
+			new IntegerRingBuffer(1);
+		} catch (Exception e) {
+			IntegerRingBuffer buffer = new IntegerRingBuffer(5);
+			assertTrue(buffer.isEmpty());
+
+			for (int i = 0; i < 8; i++) {
+				buffer.offer(i);
+			}
+			assertTrue(buffer.isFull());
+			assertTrue(buffer.getLoad() == 5);
+			assertTrue(buffer.peek(-1) == 3);
+			for (int i = 3; i < 8; i++) {
+				assertTrue(buffer.poll(-1) == i);
+			}
+			assertTrue(buffer.isEmpty());
+			assertTrue(buffer.poll(-1) == -1);
+			return;
+		}
+
+		Assert.fail("should not be here");
+
+	}
+
+	@Test
+	public void ringBufferBulkTest() {
+
+		IntegerRingBuffer buffer = new IntegerRingBuffer(6);
+		int[] values = new int[20];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i;
+		}
+
+		buffer.offer(values, 2, 3);
+		assertTrue(buffer.getLoad() == 3);
+		buffer.offer(values, 10, 10);
+		assertTrue(buffer.getLoad() == 6);
+		for (int i = 14; i < 20; i++) {
+			assertTrue(buffer.poll(-1) == i);
+		}
+
+		buffer.offer(values, 0, 4);
+		buffer.setCapacity(3);
+		assertTrue(buffer.getLoad() == 3);
+		buffer.setCapacity(40);
+		assertTrue(buffer.getLoad() == 3);
+		for (int i = 1; i < 4; i++) {
+			assertTrue(buffer.poll(-1) == i);
+		}
+		assertTrue(buffer.isEmpty());
+
+	}
+
+	@Test
+	public void ringBufferConcurrentTest() throws InterruptedException {
+
+		final IntegerRingBuffer buffer = new IntegerRingBuffer(1000);
+		final int count = 1000000;
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				int[] values = new int[100];
+				for (int i = 0; i < count; i += values.length) {
+					for (int j = 0; j < values.length; j++) {
+						values[j] = i + j;
+					}
+					buffer.offer(values, 0, values.length);
+				}
+			}
+		};
+		producer.start();
+
+		int last = -1;
+		while (producer.isAlive() || !buffer.isEmpty()) {
+			int value = buffer.poll(-1);
+			if (value != -1) {
+				assertTrue(last + " before " + value, value > last);
+				last = value;
+			}
+		}
+		producer.join();
+		assertTrue(last == count - 1);
+
+	}
+
+	@Test
+	public void ringBufferConcurrentProducersTest() throws InterruptedException {
+
+		final int count = 100000;
+		final IntegerRingBuffer buffer = new IntegerRingBuffer(2 * count);
+		Thread[] producers = new Thread[2];
+		for (int p = 0; p < producers.length; p++) {
+			final int first = p * count;
+			producers[p] = new Thread() {
+				@Override
+				public void run() {
+					int[] values = new int[9];
+					for (int i = 0; i < count; i += values.length + 1) {
+						for (int j = 0; j < values.length; j++) {
+							values[j] = first + i + j;
+						}
+						buffer.offer(values, 0, values.length);
+						buffer.offer(first + i + values.length);
+					}
+				}
+			};
+			producers[p].start();
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+
+		// no value of one producer overwrote a value of the other
+		assertTrue(buffer.getLoad() + "", buffer.getLoad() == 2 * count);
+		int[] last = new int[] { -1, -1 };
+		int read = 0;
+		while (!buffer.isEmpty()) {
+			int value = buffer.poll(-1);
+			int p = value / count;
+			assertTrue(last[p] + " before " + value, value > last[p]);
+			last[p] = value;
+			read++;
+		}
+		assertTrue(read == 2 * count);
+
+	}
+
+	@Test
+	public void ringBufferGrowConcurrentTest() throws InterruptedException {
+
+		final IntegerRingBuffer buffer = new IntegerRingBuffer(2);
+		final int count = 1000000;
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 1; i <= count; i++) {
+					buffer.offer(i);
+				}
+			}
+		};
+		producer.start();
+
+		// values start at 1, so a slot that was never copied shows up as 0
+		int last = 0;
+		int capacity = 2;
+		while (producer.isAlive() || !buffer.isEmpty()) {
+			int value = buffer.poll(-1);
+			if (value != -1) {
+				assertTrue(last + " before " + value, value > last);
+				last = value;
+			}
+			if (capacity < 1 << 16) {
+				capacity++;
+				buffer.setCapacity(capacity);
+			}
+		}
+		producer.join();
+		assertTrue(last == count);
+
+	}
+
 }
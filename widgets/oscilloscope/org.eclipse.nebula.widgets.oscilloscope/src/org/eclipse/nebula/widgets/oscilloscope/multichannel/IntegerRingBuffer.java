@@ -0,0 +1,213 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the terms of
+ * the Eclipse Public License v1.0 which accompanies this distribution, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.oscilloscope.multichannel;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ring buffer of values that is read by one consumer thread without locking.
+ * Any number of producer threads may write, they take turns on the lock of the
+ * buffer which the consumer only takes to change the capacity. Like the
+ * {@link Oscilloscope.IntegerFiFoCircularStack} it will never overflow: if the
+ * producer writes more values than the capacity, the oldest values are dropped
+ * when the consumer reads.
+ * <p/>
+ * The producers call {@link #offer(int[], int, int)} or {@link #offer(int)},
+ * the consumer calls {@link #poll(int)}. Neither of them allocates memory.
+ * {@link #setCapacity(int)} and {@link #clear()} must be called by the
+ * consumer.
+ */
+public class IntegerRingBuffer {
+
+	/**
+	 * Total number of values ever written. Only changed by the producers.
+	 */
+	private final AtomicLong written = new AtomicLong();
+
+	/**
+	 * The value of {@link #written} after the write that is in progress. Set
+	 * by the producer before it touches the buffer, so the consumer can tell
+	 * if a value it has read was overwritten in the meantime.
+	 */
+	private final AtomicLong claimed = new AtomicLong();
+
+	/**
+	 * Total number of values ever read or skipped. Only changed by the
+	 * consumer.
+	 */
+	private final AtomicLong read = new AtomicLong();
+
+	private volatile AtomicIntegerArray buffer;
+
+	private volatile int capacity;
+
+	/**
+	 * Creates a ring buffer with the indicated capacity.
+	 *
+	 * @param capacity
+	 *            must be greater than 1
+	 */
+	public IntegerRingBuffer(int capacity) {
+		checkCapacity(capacity);
+		this.capacity = capacity;
+		buffer = new AtomicIntegerArray(storageSize(capacity));
+	}
+
+	private static void checkCapacity(int capacity) {
+		if (capacity <= 1) {
+			throw new RuntimeException("Buffer capacity must be > 1");
+		}
+	}
+
+	private static int storageSize(int capacity) {
+		return Integer.highestOneBit(capacity - 1) << 1;
+	}
+
+	/**
+	 * Drops all values. Must be called by the consumer.
+	 */
+	public void clear() {
+		read.lazySet(written.get());
+	}
+
+	/**
+	 * @return the maximum number of values that are kept.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of values that can be read.
+	 */
+	public int getLoad() {
+		long load = written.get() - read.get();
+		return (int) Math.min(load, capacity);
+	}
+
+	/**
+	 * @return true if there are no values to read
+	 */
+	public boolean isEmpty() {
+		return written.get() == read.get();
+	}
+
+	/**
+	 * @return true if the next value will push out the oldest value
+	 */
+	public boolean isFull() {
+		return getLoad() == capacity;
+	}
+
+	/**
+	 * Puts a value in the buffer. Must be called by a producer.
+	 *
+	 * @param value
+	 */
+	public synchronized void offer(int value) {
+		AtomicIntegerArray buffer = this.buffer;
+		long position = written.get();
+		claimed.set(position + 1);
+		buffer.lazySet((int) position & (buffer.length() - 1), value);
+		written.lazySet(position + 1);
+	}
+
+	/**
+	 * Puts a range of values in the buffer. If the range is larger than the
+	 * capacity only the last values of the range are stored. Must be called by
+	 * a producer.
+	 *
+	 * @param values
+	 * @param offset
+	 *            index of the first value to store
+	 * @param length
+	 *            number of values to store
+	 */
+	public synchronized void offer(int[] values, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > values.length) {
+			throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+		}
+		AtomicIntegerArray buffer = this.buffer;
+		int skip = Math.max(0, length - capacity);
+		long position = written.get() + skip;
+		long end = position + length - skip;
+		claimed.set(end);
+		int mask = buffer.length() - 1;
+		for (int i = offset + skip; position < end; i++, position++) {
+			buffer.lazySet((int) position & mask, values[i]);
+		}
+		written.lazySet(end);
+	}
+
+	/**
+	 * Returns the oldest value without removing it. Returns the supplied entry
+	 * if the buffer is empty. Must be called by the consumer.
+	 *
+	 * @param valueIfEmpty
+	 * @return int
+	 */
+	public int peek(int valueIfEmpty) {
+		return take(valueIfEmpty, false);
+	}
+
+	/**
+	 * Returns and removes the oldest value. Returns the supplied entry if the
+	 * buffer is empty. Must be called by the consumer.
+	 *
+	 * @param valueIfEmpty
+	 * @return int
+	 */
+	public int poll(int valueIfEmpty) {
+		return take(valueIfEmpty, true);
+	}
+
+	private int take(int valueIfEmpty, boolean remove) {
+		while (true) {
+			AtomicIntegerArray buffer = this.buffer;
+			long end = written.get();
+			long position = Math.max(read.get(), end - capacity);
+			if (position >= end) {
+				return valueIfEmpty;
+			}
+			int result = buffer.get((int) position & (buffer.length() - 1));
+			// The producer may have wrapped around while the value was read
+			if (claimed.get() - position <= buffer.length()) {
+				if (remove) {
+					read.lazySet(position + 1);
+				}
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Changes the capacity. The newest values that fit into the new capacity
+	 * are kept. Must be called by the consumer. Blocks the producers while the
+	 * values are copied if the storage has to grow.
+	 *
+	 * @param capacity
+	 *            must be greater than 1
+	 */
+	public synchronized void setCapacity(int capacity) {
+		checkCapacity(capacity);
+		AtomicIntegerArray oldBuffer = buffer;
+		if (capacity > oldBuffer.length()) {
+			AtomicIntegerArray newBuffer = new AtomicIntegerArray(storageSize(capacity));
+			long end = written.get();
+			long start = Math.max(read.get(), end - this.capacity);
+			for (long i = start; i < end; i++) {
+				newBuffer.set((int) i & (newBuffer.length() - 1), oldBuffer.get((int) i & (oldBuffer.length() - 1)));
+			}
+			read.lazySet(start);
+			buffer = newBuffer;
+		}
+		this.capacity = capacity;
+	}
+}
@@ -75,7 +75,7 @@ public class Oscilloscope extends Canvas {
 
 		private boolean percentage = false;
 		private int progression = PROGRESSION_DEFAULT;
-		private IntegerFiFoCircularStack stack;
+		private volatile IntegerRingBuffer stack;
 		private List<OscilloscopeStackAdapter> stackListeners;
 		private boolean steady;
 		/**
@@ -83,6 +83,17 @@ public class Oscilloscope extends Canvas {
 		 * tail of the graph.
 		 */
 		private int[] tail;
+
+		/**
+		 * The polylines of the part of the tail left of the cursor after
+		 * wrapping (line1) and the part right of it (line2). They are reused
+		 * for every paint, the unused ends are padded with the last point.
+		 */
+		private int[] line1;
+		private int[] line2;
+		private int line1Length;
+		private int line2Length;
+
 		private int tailFade = TAILFADE_PERCENTAGE;
 		private int tailSize;
 		private int width = DEFAULT_WIDTH;
@@ -330,6 +341,15 @@ public class Oscilloscope extends Canvas {
 
 	private int width;
 
+	// Frame metrics, see getFrameTime()
+	private static final int MAX_SKIPPED_FRAMES = 2;
+	private boolean framePending;
+	private int skippedFrames;
+	private long frameCount;
+	private long droppedFrames;
+	private long frameTime;
+	private long averageFrameTime;
+
 	/**
 	 * Creates a scope with one channel.
 	 * 
@@ -391,10 +411,12 @@ public class Oscilloscope extends Canvas {
 
 		addPaintListener(new PaintListener() {
 			public void paintControl(PaintEvent e) {
+				long start = System.nanoTime();
 				if (!paintBlock) {
 					Oscilloscope.this.paintControl(e);
 				}
 				paintBlock = false;
+				frameDone(System.nanoTime() - start);
 			}
 		});
 
@@ -430,72 +452,128 @@ public class Oscilloscope extends Canvas {
 	}
 
 	/**
-	 * This method calculates the progression of the line.
-	 * 
-	 * @return
+	 * This method calculates the progression of the line into the polylines of
+	 * the channel.
 	 */
-	private Object[] calculate(int channel) {
+	private void calculate(int channel) {
 
-		int c = channel;
+		Data data = chan[channel];
+		int tailSize = data.tailSize;
+		int splitPos = tailSize * 4;
 
-		int[] line1 = null;
-		int[] line2 = null;
-		int splitPos = 0;
+		if (data.line1 == null || data.line1.length != tailSize * 4) {
+			data.line1 = new int[tailSize * 4];
+			data.line2 = new int[tailSize * 4];
+		}
+		int[] line1 = data.line1;
+		int[] line2 = data.line2;
+		int[] tail = data.tail;
 
-		for (int progress = 0; progress < getProgression(c); progress++) {
+		for (int progress = 0; progress < getProgression(channel); progress++) {
 
-			if (chan[c].stack.isEmpty() && chan[c].stackListeners != null) {
-				notifyListeners(c);
+			if (data.stack.isEmpty() && data.stackListeners != null) {
+				notifyListeners(channel);
 			}
 
-			splitPos = chan[c].tailSize * 4;
-
-			if (!isSteady(c)) {
-				chan[c].cursor++;
+			if (!isSteady(channel)) {
+				data.cursor++;
 			}
-			if (chan[c].cursor >= chan[c].width) {
-				chan[c].cursor = 0;
+			if (data.cursor >= data.width) {
+				data.cursor = 0;
 			}
 
-			// Draw
-			int tailIndex = 1;
-			line1 = new int[chan[c].tailSize * 4];
-			line2 = new int[chan[c].tailSize * 4];
-
-			chan[c].tail[chan[c].tailSize] = transform(c, chan[c].width, chan[c].height, chan[c].stack.popNegate(0));
-
-			for (int i = 0; i < chan[c].tailSize; i++) {
-
-				int posx = chan[c].cursor - chan[c].tailSize + i;
-				int pos = i * 4;
-				if (posx < 0) {
-					posx += chan[c].width;
-					line1[pos] = posx - 1;
-
-					line1[pos + 1] = getBase(c) + (isSteady(c) ? 0 : chan[c].tail[tailIndex - 1]);
-					line1[pos + 2] = posx;
-					line1[pos + 3] = getBase(c) + (isSteady(c) ? 0 : chan[c].tail[tailIndex]);
-				}
+			tail[tailSize] = transform(channel, data.width, data.height, -data.stack.poll(0));
+
+			// Only the last step is drawn
+			if (progress == getProgression(channel) - 1) {
+				int base = getBase(channel);
+				boolean steady = isSteady(channel);
+				splitPos = tailSize * 4;
+				for (int i = 0; i < tailSize; i++) {
+
+					int posx = data.cursor - tailSize + i;
+					int pos = i * 4;
+					if (posx < 0) {
+						posx += data.width;
+						line1[pos] = posx - 1;
+						line1[pos + 1] = base + (steady ? 0 : tail[i]);
+						line1[pos + 2] = posx;
+						line1[pos + 3] = base + (steady ? 0 : tail[i + 1]);
+					}
 
-				else {
-					if (splitPos == chan[c].tailSize * 4) {
-						splitPos = pos;
+					else {
+						if (splitPos == tailSize * 4) {
+							splitPos = pos;
+						}
+						line2[pos] = posx - 1;
+						line2[pos + 1] = base + tail[i];
+						line2[pos + 2] = posx;
+						line2[pos + 3] = base + tail[i + 1];
 					}
-					line2[pos] = posx - 1;
-					line2[pos + 1] = getBase(c) + chan[c].tail[tailIndex - 1];
-					line2[pos + 2] = posx;
-					line2[pos + 3] = (getBase(c) + chan[c].tail[tailIndex]);
 				}
-				chan[c].tail[tailIndex - 1] = chan[c].tail[tailIndex++];
 			}
+			System.arraycopy(tail, 1, tail, 0, tailSize);
 		}
 
-		int[] l1 = new int[splitPos];
-		System.arraycopy(line1, 0, l1, 0, l1.length);
-		int[] l2 = new int[(chan[c].tailSize * 4) - splitPos];
-		System.arraycopy(line2, splitPos, l2, 0, l2.length);
+		// line2 is drawn from splitPos on, move it to the front
+		data.line1Length = splitPos;
+		data.line2Length = tailSize * 4 - splitPos;
+		if (splitPos > 0) {
+			System.arraycopy(line2, splitPos, line2, 0, data.line2Length);
+		}
+		pad(line1, data.line1Length);
+		pad(line2, data.line2Length);
+	}
 
-		return new Object[] { l1, l2 };
+	/**
+	 * Repeats the last point of the line up to the end of the array so the
+	 * whole array can be passed to {@link GC#drawPolyline(int[])}.
+	 */
+	private static void pad(int[] line, int length) {
+		if (length < 2) {
+			return;
+		}
+		int x = line[length - 2];
+		int y = line[length - 1];
+		for (int i = length; i < line.length; i += 2) {
+			line[i] = x;
+			line[i + 1] = y;
+		}
+	}
+
+	/**
+	 * Called by the {@link OscilloscopeScheduler} at the start of a frame.
+	 * 
+	 * @return false if the previous frame was not painted yet, the scope
+	 *         then skips this frame. A frame that is not painted within
+	 *         {@link #MAX_SKIPPED_FRAMES} frames is given up, e.g. when the
+	 *         redraw of the scope is turned off.
+	 */
+	boolean beginFrame() {
+		if (framePending && skippedFrames < MAX_SKIPPED_FRAMES) {
+			skippedFrames++;
+			droppedFrames++;
+			return false;
+		}
+		framePending = false;
+		return true;
+	}
+
+	/**
+	 * Called by the {@link OscilloscopeScheduler} to redraw the scope for a
+	 * frame.
+	 */
+	void requestFrame() {
+		framePending = isVisible();
+		skippedFrames = 0;
+		redraw();
+	}
+
+	private void frameDone(long duration) {
+		framePending = false;
+		frameCount++;
+		frameTime = duration;
+		averageFrameTime = averageFrameTime == 0 ? duration : (averageFrameTime * 7 + duration) / 8;
 	}
 
 	private void calculateBase(int channel) {
@@ -579,6 +657,44 @@ public class Oscilloscope extends Canvas {
 		return chan[channel].dispatcher;
 	}
 
+	/**
+	 * Returns the number of frames that this scope skipped because it had not
+	 * painted the previous frame of its {@link OscilloscopeScheduler} yet.
+	 * 
+	 * @return the number of dropped frames
+	 */
+	public long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/**
+	 * @return the number of times the scope was painted.
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Returns the time the last paint of the scope took.
+	 * 
+	 * @return the frame time in nanoseconds
+	 * @see #getAverageFrameTime()
+	 */
+	public long getFrameTime() {
+		return frameTime;
+	}
+
+	/**
+	 * Returns a moving average of the time a paint of the scope takes, where
+	 * the last paint has a weight of 1/8.
+	 * 
+	 * @return the average frame time in nanoseconds
+	 * @see #getFrameTime()
+	 */
+	public long getAverageFrameTime() {
+		return averageFrameTime;
+	}
+
 	/**
 	 * This method can be called outside of the UI thread.
 	 * 
@@ -704,14 +820,16 @@ public class Oscilloscope extends Canvas {
 		for (int c = 0; c < chan.length; c++) {
 
 			if (chan[c].tailSize <= 0) {
-				chan[c].stack.popNegate(0);
+				chan[c].stack.poll(0);
 				continue;
 			}
 
 			// Go calculate the line
-			Object[] result = calculate(c);
-			int[] l1 = (int[]) result[0];
-			int[] l2 = (int[]) result[1];
+			calculate(c);
+			int[] l1 = chan[c].line1;
+			int[] l2 = chan[c].line2;
+			int l1Length = chan[c].line1Length;
+			int l2Length = chan[c].line2Length;
 
 			// Draw it
 			GC gc = e.gc;
@@ -725,14 +843,14 @@ public class Oscilloscope extends Canvas {
 				gc.setAlpha(0);
 				double fade = 0;
 				double fadeOutStep = (double) 125 / (double) ((getTailSize(c) * (getTailFade(c)) / 100));
-				for (int i = 0; i < l1.length - 4;) {
+				for (int i = 0; i < l1Length - 4;) {
 					fade += (fadeOutStep / 2);
 					setAlpha(gc, fade);
 					gc.drawLine(l1[i], l1[i + 1], l1[i + 2], l1[i + 3]);
 					i += 2;
 				}
 
-				for (int i = 0; i < l2.length - 4;) {
+				for (int i = 0; i < l2Length - 4;) {
 					fade += (fadeOutStep / 2);
 					setAlpha(gc, fade);
 					gc.drawLine(l2[i], l2[i + 1], l2[i + 2], l2[i + 3]);
@@ -740,13 +858,17 @@ public class Oscilloscope extends Canvas {
 				}
 
 			} else {
-				gc.drawPolyline(l1);
-				gc.drawPolyline(l2);
+				if (l1Length > 0) {
+					gc.drawPolyline(l1);
+				}
+				if (l2Length > 0) {
+					gc.drawPolyline(l2);
+				}
 			}
 
 			// Connects the head with the tail
-			if (isConnect(c) && !isFade(c) && chan[c].originalTailSize == TAILSIZE_MAX && l1.length > 0 && l2.length > 0) {
-				gc.drawLine(l2[l2.length - 2], l2[l2.length - 1], l1[0], l1[1]);
+			if (isConnect(c) && !isFade(c) && chan[c].originalTailSize == TAILSIZE_MAX && l1Length > 0 && l2Length > 0) {
+				gc.drawLine(l2[l2Length - 2], l2[l2Length - 1], l1[0], l1[1]);
 			}
 		}
 	}
@@ -924,9 +1046,9 @@ public class Oscilloscope extends Canvas {
 
 			if (width > 1) {
 				if (chan[c].stack == null) {
-					chan[c].stack = new IntegerFiFoCircularStack(width);
+					chan[c].stack = new IntegerRingBuffer(width);
 				} else {
-					chan[c].stack = new IntegerFiFoCircularStack(width, chan[c].stack);
+					chan[c].stack.setCapacity(width);
 				}
 			}
 		}
@@ -1043,10 +1165,13 @@ public class Oscilloscope extends Canvas {
 	 * positive or negative value. This method will only accept values if the
 	 * width of the scope > 0. The values will be stored in a stack and popped
 	 * once a value is needed. The size of the stack is the width of the widget.
-	 * If you resize the widget, the old stack will be copied into a new stack
-	 * with the new capacity.
+	 * If you resize the widget, the newest values are kept in the stack with
+	 * the new capacity.
 	 * <p/>
-	 * This method can be called outside of the UI thread.
+	 * This method can be called outside of the UI thread, also by several
+	 * threads at once. The stack of each channel is an
+	 * {@link IntegerRingBuffer}, the threads setting values take turns on its
+	 * lock while the UI thread reads the values without locking.
 	 * 
 	 * @param channel
 	 * @param value
@@ -1057,9 +1182,7 @@ public class Oscilloscope extends Canvas {
 	 */
 	public void setValue(int channel, int value) {
 		if (width > 0) {
-			if (chan[channel].stack.capacity > 0) {
-				chan[channel].stack.push(value);
-			}
+			chan[channel].stack.offer(value);
 		}
 	}
 
@@ -1074,11 +1197,31 @@ public class Oscilloscope extends Canvas {
 	 * 
 	 * @see #setValue(int, int)
 	 */
-	public synchronized void setValues(int channel, int[] values) {
+	public void setValues(int channel, int[] values) {
+		setValues(channel, values, 0, values.length);
+	}
+
+	/**
+	 * Sets a range of values that will be drawn. The values are copied into the
+	 * stack of the channel without locking or allocating memory, so an
+	 * acquisition thread can pass its sample buffer directly. If the range is
+	 * larger than the stack only the newest values are kept. See
+	 * {@link #setValue(int, int)} for details.
+	 * <p/>
+	 * This method can be called outside of the UI thread.
+	 * 
+	 * @param channel
+	 * @param values
+	 * @param offset
+	 *            index of the first value
+	 * @param length
+	 *            number of values
+	 * 
+	 * @see #setValue(int, int)
+	 */
+	public void setValues(int channel, int[] values, int offset, int length) {
 		if (width > 0) {
-			for (int value : values) {
-				setValue(channel, value);
-			}
+			chan[channel].stack.offer(values, offset, length);
 		}
 	}
 
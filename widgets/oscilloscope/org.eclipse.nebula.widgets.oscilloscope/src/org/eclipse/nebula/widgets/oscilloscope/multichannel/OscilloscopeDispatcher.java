@@ -49,6 +49,10 @@ import org.eclipse.swt.widgets.Display;
  * If you want to speed up the scope, try overriding the
  * {@link #getProgression()} method. This will draw the scope this number of
  * times before actually painting.
+ * <p/>
+ * If many scopes are animated, start the dispatchers with
+ * {@link #dispatch(OscilloscopeScheduler)} so that they share one animation
+ * clock instead of each running their own timer.
  * 
  * @author Wim Jongman
  * 
@@ -166,10 +170,14 @@ public class OscilloscopeDispatcher {
 
 	private int channel = -1;
 
-	private boolean stop;
+	private volatile boolean stop;
 
 	private boolean isRunning;
 
+	private int pulse;
+
+	private OscilloscopeScheduler scheduler;
+
 	/**
 	 * @param channel
 	 * @see #getChannel()
@@ -238,23 +246,13 @@ public class OscilloscopeDispatcher {
 
 		Runnable runnable = new Runnable() {
 
-			private int pulse;
-
 			public void run() {
 				if (getOscilloscope().isDisposed())
 					return;
 
-				hookBeforeDraw(getOscilloscope(), this.pulse);
+				beforeFrame();
 				getOscilloscope().redraw();
-				hookAfterDraw(getOscilloscope(), this.pulse);
-				this.pulse++;
-
-				if (this.pulse >= getPulse()) {
-					if (getPulse() != OscilloscopeDispatcher.NO_PULSE) {
-						hookPulse(getOscilloscope(), this.pulse);
-					}
-					this.pulse = 0;
-				}
+				afterFrame();
 
 				if (!stop)
 					if (getDelayLoop() > 1) {
@@ -272,6 +270,83 @@ public class OscilloscopeDispatcher {
 
 	}
 
+	/**
+	 * This method will get the animation going on a shared
+	 * {@link OscilloscopeScheduler} instead of a private timer. All dispatchers
+	 * of the scheduler are ticked in the same frame and each scope is redrawn
+	 * once per frame, so many scopes do not flood the user interface thread.
+	 * The {@link #getDelayLoop()} is not used, the frame rate is set on the
+	 * scheduler. The hook methods are called in the same order as with
+	 * {@link #dispatch()}.
+	 * <p/>
+	 * This method is not meant to be overridden. Call {@link #stop()} to
+	 * remove the dispatcher from the scheduler.
+	 * 
+	 * @param scheduler
+	 *            the scheduler, for instance
+	 *            {@link OscilloscopeScheduler#getDefault(Display)}
+	 */
+	public synchronized void dispatch(OscilloscopeScheduler scheduler) {
+
+		if (isRunning) {
+			throw new RuntimeException("Scope is already running. Call stop() to stop the scope.");
+		}
+
+		isRunning = true;
+		stop = false;
+		this.scheduler = scheduler;
+
+		init();
+
+		scheduler.add(this);
+	}
+
+	/**
+	 * @return the scheduler that runs this dispatcher or null if it runs on
+	 *         its own timer or is not running.
+	 * @see #dispatch(OscilloscopeScheduler)
+	 */
+	public OscilloscopeScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Calls the hooks that come before the redraw.
+	 */
+	void beforeFrame() {
+		hookBeforeDraw(getOscilloscope(), pulse);
+	}
+
+	/**
+	 * Calls the hooks that come after the redraw and advances the pulse.
+	 */
+	void afterFrame() {
+		hookAfterDraw(getOscilloscope(), pulse);
+		pulse++;
+
+		if (pulse >= getPulse()) {
+			if (getPulse() != OscilloscopeDispatcher.NO_PULSE) {
+				hookPulse(getOscilloscope(), pulse);
+			}
+			pulse = 0;
+		}
+	}
+
+	/**
+	 * @return true if {@link #stop()} was called.
+	 */
+	boolean isStopped() {
+		return stop;
+	}
+
+	/**
+	 * Called by the scheduler after it has removed this dispatcher.
+	 */
+	void stopped() {
+		isRunning = false;
+		scheduler = null;
+	}
+
 	@Override
 	protected void finalize() throws Throwable {
 		if ((this.backgroundImage != null) && !this.backgroundImage.isDisposed()) {
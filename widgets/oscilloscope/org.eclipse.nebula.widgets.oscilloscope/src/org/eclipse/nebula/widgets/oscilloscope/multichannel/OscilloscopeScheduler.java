@@ -0,0 +1,231 @@
+/*******************************************************************************
+ *  Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * All rights reserved.
+ * This program and the accompanying materials are made available under the terms of
+ * the Eclipse Public License v1.0 which accompanies this distribution, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.oscilloscope.multichannel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A shared animation clock for {@link OscilloscopeDispatcher}s. Instead of
+ * every dispatcher running its own timer, the scheduler ticks all registered
+ * dispatchers in one frame at {@link #getFramesPerSecond()}:
+ * <ol>
+ * <li>the before draw hooks of all dispatchers are called,</li>
+ * <li>every scope is redrawn once, no matter how many dispatchers it has,</li>
+ * <li>the after draw and pulse hooks of all dispatchers are called.</li>
+ * </ol>
+ * Only one timer is pending at a time. If a frame takes longer than the frame
+ * period, the missed frames are dropped instead of queued. A scope that has not
+ * painted its previous frame yet is skipped in the next frame, at most twice in
+ * a row so that a scope that is not painted at all keeps running at a lower
+ * rate, see {@link Oscilloscope#getDroppedFrames()}.
+ * <p/>
+ * Dispatchers are added with
+ * {@link OscilloscopeDispatcher#dispatch(OscilloscopeScheduler)} and removed
+ * with {@link OscilloscopeDispatcher#stop()} or when their scope is disposed.
+ */
+public class OscilloscopeScheduler {
+
+	/**
+	 * The default number of frames per second.
+	 */
+	public static final int FRAMES_PER_SECOND_DEFAULT = 30;
+
+	private static final Map<Display, OscilloscopeScheduler> schedulers = new WeakHashMap<Display, OscilloscopeScheduler>();
+
+	/**
+	 * Returns the scheduler that is shared by all scopes of the display.
+	 * <p/>
+	 * This method can be called outside of the UI thread.
+	 *
+	 * @param display
+	 * @return the shared scheduler of the display
+	 */
+	public static synchronized OscilloscopeScheduler getDefault(Display display) {
+		OscilloscopeScheduler scheduler = schedulers.get(display);
+		if (scheduler == null) {
+			scheduler = new OscilloscopeScheduler(display);
+			schedulers.put(display, scheduler);
+		}
+		return scheduler;
+	}
+
+	private final Display display;
+
+	private final List<OscilloscopeDispatcher> dispatchers = new CopyOnWriteArrayList<OscilloscopeDispatcher>();
+
+	/**
+	 * The scopes that are drawn and the scopes that are skipped in the current
+	 * frame. Only used in the user interface thread.
+	 */
+	private final List<Oscilloscope> frameScopes = new ArrayList<Oscilloscope>();
+	private final List<Oscilloscope> skippedScopes = new ArrayList<Oscilloscope>();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private volatile int framesPerSecond = FRAMES_PER_SECOND_DEFAULT;
+
+	private long nextFrame;
+
+	private volatile long frameCount;
+
+	private volatile long droppedFrames;
+
+	private final Runnable start = new Runnable() {
+		public void run() {
+			nextFrame = System.nanoTime();
+			tick();
+		}
+	};
+
+	private final Runnable tick = new Runnable() {
+		public void run() {
+			tick();
+		}
+	};
+
+	/**
+	 * Creates a scheduler for the scopes of the supplied display. Use
+	 * {@link #getDefault(Display)} to share one scheduler between all scopes.
+	 *
+	 * @param display
+	 */
+	public OscilloscopeScheduler(Display display) {
+		this.display = display;
+	}
+
+	void add(OscilloscopeDispatcher dispatcher) {
+		if (!dispatchers.contains(dispatcher)) {
+			dispatchers.add(dispatcher);
+		}
+		if (scheduled.compareAndSet(false, true)) {
+			display.asyncExec(start);
+		}
+	}
+
+	/**
+	 * @return the number of frames that were ticked.
+	 */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * @return the number of frames that were not ticked because the previous
+	 *         frame took too long.
+	 */
+	public long getDroppedFrames() {
+		return droppedFrames;
+	}
+
+	/**
+	 * @return the target number of frames per second.
+	 */
+	public int getFramesPerSecond() {
+		return framesPerSecond;
+	}
+
+	/**
+	 * Sets the target number of frames per second. Values below 1 are ignored.
+	 * <p/>
+	 * This method can be called outside of the UI thread.
+	 *
+	 * @param framesPerSecond
+	 */
+	public void setFramesPerSecond(int framesPerSecond) {
+		if (framesPerSecond > 0) {
+			this.framesPerSecond = framesPerSecond;
+		}
+	}
+
+	/**
+	 * @return the number of running dispatchers.
+	 */
+	public int getDispatcherCount() {
+		return dispatchers.size();
+	}
+
+	private void tick() {
+		if (display.isDisposed()) {
+			return;
+		}
+
+		frame();
+		frameCount++;
+
+		if (dispatchers.isEmpty()) {
+			scheduled.set(false);
+			// A dispatcher may have been added after the check
+			if (dispatchers.isEmpty() || !scheduled.compareAndSet(false, true)) {
+				return;
+			}
+			nextFrame = System.nanoTime();
+		}
+
+		long period = 1000000000L / framesPerSecond;
+		long next = nextFrame + period;
+		long now = System.nanoTime();
+		if (now > next) {
+			long missed = (now - next) / period + 1;
+			droppedFrames += missed;
+			next += missed * period;
+		}
+		nextFrame = next;
+		display.timerExec((int) Math.max(1, (next - now + 999999) / 1000000), tick);
+	}
+
+	private void frame() {
+		frameScopes.clear();
+		skippedScopes.clear();
+
+		for (OscilloscopeDispatcher dispatcher : dispatchers) {
+			Oscilloscope scope = dispatcher.getOscilloscope();
+			if (dispatcher.isStopped() || scope == null || scope.isDisposed()) {
+				dispatchers.remove(dispatcher);
+				dispatcher.stopped();
+				continue;
+			}
+			if (!frameScopes.contains(scope) && !skippedScopes.contains(scope)) {
+				if (scope.beginFrame()) {
+					frameScopes.add(scope);
+				} else {
+					skippedScopes.add(scope);
+				}
+			}
+		}
+
+		for (OscilloscopeDispatcher dispatcher : dispatchers) {
+			if (frameScopes.contains(dispatcher.getOscilloscope())) {
+				dispatcher.beforeFrame();
+			}
+		}
+
+		for (int i = 0; i < frameScopes.size(); i++) {
+			Oscilloscope scope = frameScopes.get(i);
+			if (!scope.isDisposed()) {
+				scope.requestFrame();
+			}
+		}
+
+		for (OscilloscopeDispatcher dispatcher : dispatchers) {
+			if (frameScopes.contains(dispatcher.getOscilloscope())) {
+				dispatcher.afterFrame();
+			}
+		}
+
+		frameScopes.clear();
+		skippedScopes.clear();
+	}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.pagination.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.nebula.widgets.pagination.collections.CachedSortProcessor;
+import org.eclipse.nebula.widgets.pagination.collections.DefaultSortProcessor;
+import org.eclipse.nebula.widgets.pagination.collections.SortProcessor;
+import org.eclipse.swt.SWT;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link DefaultSortProcessor} and {@link CachedSortProcessor} test cases.
+ * 
+ */
+public class DefaultSortProcessorTestCase {
+
+	public static class Address {
+
+		private final String city;
+
+		public Address(String city) {
+			this.city = city;
+		}
+
+		public String getCity() {
+			return city;
+		}
+	}
+
+	public static class Person {
+
+		private final String name;
+		private final Address address;
+
+		public Person(String name, String city) {
+			this.name = name;
+			this.address = new Address(city);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Address getAddress() {
+			return address;
+		}
+	}
+
+	@Test
+	public void testSortByProperty() throws Exception {
+		List<Person> persons = createPersons();
+		DefaultSortProcessor.getInstance().sort(persons, "name", SWT.DOWN);
+		Assert.assertEquals("Angelo, Jean, Pascal, Zoe", display(persons));
+
+		DefaultSortProcessor.getInstance().sort(persons, "name", SWT.UP);
+		Assert.assertEquals("Zoe, Pascal, Jean, Angelo", display(persons));
+	}
+
+	@Test
+	public void testSortByNestedPropertyIsStable() throws Exception {
+		List<Person> persons = createPersons();
+		DefaultSortProcessor.getInstance().sort(persons, "address.city",
+				SWT.DOWN);
+		Assert.assertEquals("Pascal, Zoe, Angelo, Jean", display(persons));
+	}
+
+	@Test
+	public void testCachedSort() throws Exception {
+		final int[] sorts = { 0 };
+		SortProcessor processor = new CachedSortProcessor(new SortProcessor() {
+			public void sort(List<?> list, String sortPropertyName,
+					int sortDirection) {
+				sorts[0]++;
+				DefaultSortProcessor.getInstance().sort(list,
+						sortPropertyName, sortDirection);
+			}
+		});
+		List<Person> persons = createPersons();
+		processor.sort(persons, "name", SWT.DOWN);
+		processor.sort(persons, "name", SWT.DOWN);
+		Assert.assertEquals(1, sorts[0]);
+
+		processor.sort(persons, "name", SWT.UP);
+		Assert.assertEquals(2, sorts[0]);
+
+		persons.add(new Person("Bob", "Paris"));
+		processor.sort(persons, "name", SWT.UP);
+		Assert.assertEquals(3, sorts[0]);
+		Assert.assertEquals("Zoe, Pascal, Jean, Bob, Angelo", display(persons));
+	}
+
+	private static List<Person> createPersons() {
+		List<Person> persons = new ArrayList<Person>();
+		persons.add(new Person("Pascal", "Lille"));
+		persons.add(new Person("Angelo", "Paris"));
+		persons.add(new Person("Zoe", "Lille"));
+		persons.add(new Person("Jean", "Paris"));
+		return persons;
+	}
+
+	private static String display(List<Person> persons) {
+		StringBuilder result = new StringBuilder();
+		for (Person person : persons) {
+			if (result.length() > 0) {
+				result.append(", ");
+			}
+			result.append(person.getName());
+		}
+		return result.toString();
+	}
+}
@@ -52,6 +52,41 @@ public class BeanComparator implements Comparator {
 		return 0;
 	}
 
+	/**
+	 * Returns the key by which the given object is sorted: the object itself
+	 * if it is {@link Comparable}, the value of the sort property otherwise.
+	 * Sorting a list by keys extracted once per element with
+	 * {@link #compareSortKeys(Object, Object)} orders it as this comparator
+	 * does, unless it mixes {@link Comparable} and other objects.
+	 * 
+	 * @param o
+	 *            the object to sort
+	 * @return the sort key of the object.
+	 */
+	public Object getSortKey(Object o) {
+		if (o instanceof Comparable) {
+			return o;
+		}
+		return BeanUtils.getValue(o, sortPropertyName);
+	}
+
+	/**
+	 * Compares two keys returned by {@link #getSortKey(Object)}.
+	 * 
+	 * @param k1
+	 *            the first sort key
+	 * @param k2
+	 *            the second sort key
+	 * @return the comparison of the keys in the sort direction, 0 if they
+	 *         cannot be compared.
+	 */
+	public int compareSortKeys(Object k1, Object k2) {
+		if ((k1 instanceof Comparable) && (k2 instanceof Comparable)) {
+			return compare((Comparable) k1, (Comparable) k2);
+		}
+		return 0;
+	}
+
 	private int compare(Comparable c1, Comparable c2) {
 		if (sortDirection == SWT.UP) {
 			return c2.compareTo(c1);
@@ -19,13 +19,36 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utilities to retrieves values of POJO with the property name.
+ * <p>
+ * The read method of a property is looked up once per bean class and property
+ * name and then kept, as are the property names of nested property paths, so
+ * that retrieving a value (for instance when sorting a large list) doesn't
+ * introspect the bean class each time. Call {@link #clearCache()} to release
+ * the bean classes, as {@link Introspector#flushCaches()} does.
+ * </p>
  * 
  */
 public class BeanUtils {
 
+	/** the property accessors by property name, by bean class **/
+	private static final ConcurrentMap<Class<?>, ConcurrentMap<String, PropertyAccessor>> ACCESSORS = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, PropertyAccessor>>();
+
+	/** the property names of the nested property paths **/
+	private static final ConcurrentMap<String, String[]> PATHS = new ConcurrentHashMap<String, String[]>();
+
+	/**
+	 * Clears the cached property accessors.
+	 */
+	public static void clearCache() {
+		ACCESSORS.clear();
+		PATHS.clear();
+	}
+
 	/**
 	 * Returns the value of the given property for the given bean.
 	 * 
@@ -43,12 +66,15 @@ public class BeanUtils {
 			if (source == null) {
 				return null;
 			}
-			PropertyDescriptor propertyDescriptor = getPropertyDescriptor(
-					source.getClass(), property);
-			return getValue(source, propertyDescriptor);
+			return getPropertyAccessor(source.getClass(), property).getValue(
+					source);
 		}
 
-		String[] properies = property.split("[.]");
+		String[] properies = PATHS.get(property);
+		if (properies == null) {
+			properies = property.split("[.]");
+			PATHS.put(property, properies);
+		}
 		for (int i = 0; i < properies.length; i++) {
 			source = getValue(source, properies[i]);
 		}
@@ -56,35 +82,32 @@ public class BeanUtils {
 	}
 
 	/**
-	 * Returns the value of the given property for the given bean.
+	 * Returns the (cached) accessor of the given bean class and the given
+	 * property.
 	 * 
-	 * @param source
-	 *            the source bean
-	 * @param propertyDescriptor
-	 *            the property to retrieve
-	 * @return the contents of the given property for the given bean.
+	 * @param beanClass
+	 * @param propertyName
+	 * @return the accessor of the named property on the given bean class
 	 */
-	private static Object getValue(Object source,
-			PropertyDescriptor propertyDescriptor) {
-		try {
-			Method readMethod = propertyDescriptor.getReadMethod();
-			if (readMethod == null) {
-				throw new IllegalArgumentException(propertyDescriptor.getName()
-						+ " property does not have a read method."); //$NON-NLS-1$
-			}
-			if (!readMethod.isAccessible()) {
-				readMethod.setAccessible(true);
+	private static PropertyAccessor getPropertyAccessor(Class<?> beanClass,
+			String propertyName) {
+		ConcurrentMap<String, PropertyAccessor> accessors = ACCESSORS
+				.get(beanClass);
+		if (accessors == null) {
+			accessors = new ConcurrentHashMap<String, PropertyAccessor>();
+			ConcurrentMap<String, PropertyAccessor> existing = ACCESSORS
+					.putIfAbsent(beanClass, accessors);
+			if (existing != null) {
+				accessors = existing;
 			}
-			return readMethod.invoke(source, null);
-		} catch (InvocationTargetException e) {
-			/*
-			 * InvocationTargetException wraps any exception thrown by the
-			 * invoked method.
-			 */
-			throw new RuntimeException(e.getCause());
-		} catch (Exception e) {
-			return null;
 		}
+		PropertyAccessor accessor = accessors.get(propertyName);
+		if (accessor == null) {
+			accessor = new PropertyAccessor(getPropertyDescriptor(beanClass,
+					propertyName));
+			accessors.put(propertyName, accessor);
+		}
+		return accessor;
 	}
 
 	/**
@@ -164,4 +187,52 @@ public class BeanUtils {
 		}
 	}
 
+	/**
+	 * Read access to a property, resolved once from its
+	 * {@link PropertyDescriptor}.
+	 */
+	private static class PropertyAccessor {
+
+		/** the read method, null if the property cannot be read **/
+		private final Method readMethod;
+
+		PropertyAccessor(PropertyDescriptor propertyDescriptor) {
+			Method readMethod = propertyDescriptor != null ? propertyDescriptor
+					.getReadMethod() : null;
+			if (readMethod != null && !readMethod.isAccessible()) {
+				try {
+					readMethod.setAccessible(true);
+				} catch (SecurityException e) {
+					readMethod = null;
+				}
+			}
+			this.readMethod = readMethod;
+		}
+
+		/**
+		 * Returns the value of the property for the given bean.
+		 * 
+		 * @param source
+		 *            the source bean
+		 * @return the contents of the property for the given bean, null if
+		 *         it cannot be read.
+		 */
+		Object getValue(Object source) {
+			if (readMethod == null) {
+				return null;
+			}
+			try {
+				return readMethod.invoke(source, (Object[]) null);
+			} catch (InvocationTargetException e) {
+				/*
+				 * InvocationTargetException wraps any exception thrown by the
+				 * invoked method.
+				 */
+				throw new RuntimeException(e.getCause());
+			} catch (Exception e) {
+				return null;
+			}
+		}
+	}
+
 }
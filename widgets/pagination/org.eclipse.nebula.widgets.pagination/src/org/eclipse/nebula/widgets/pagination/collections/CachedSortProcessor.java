@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.pagination.collections;
+
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * {@link SortProcessor} which remembers the last list it sorted and doesn't
+ * sort it again while it is asked to sort the same list (with the same size)
+ * by the same property and direction, for instance when the pages of a sorted
+ * list are loaded one after the other.
+ * <p>
+ * The list is not watched: call {@link #reset()} when its elements or their
+ * sort property values change without changing its size.
+ * </p>
+ */
+public class CachedSortProcessor implements SortProcessor {
+
+	/** the processor which sorts the list **/
+	private final SortProcessor processor;
+
+	/** the last sorted list, its size and how it was sorted **/
+	private List<?> sortedList;
+	private int sortedSize;
+	private String sortedPropertyName;
+	private int sortedDirection = SWT.NONE;
+
+	public CachedSortProcessor() {
+		this(DefaultSortProcessor.getInstance());
+	}
+
+	public CachedSortProcessor(SortProcessor processor) {
+		this.processor = processor;
+	}
+
+	public void sort(List<?> list, String sortPropertyName, int sortDirection) {
+		if (list == sortedList
+				&& list.size() == sortedSize
+				&& sortDirection == sortedDirection
+				&& (sortPropertyName == null ? sortedPropertyName == null
+						: sortPropertyName.equals(sortedPropertyName))) {
+			return;
+		}
+		processor.sort(list, sortPropertyName, sortDirection);
+		sortedList = list;
+		sortedSize = list.size();
+		sortedPropertyName = sortPropertyName;
+		sortedDirection = sortDirection;
+	}
+
+	/**
+	 * Forgets the last sorted list so that it is sorted again next time.
+	 */
+	public void reset() {
+		sortedList = null;
+		sortedPropertyName = null;
+		sortedDirection = SWT.NONE;
+	}
+}
@@ -11,11 +11,18 @@
  *******************************************************************************/
 package org.eclipse.nebula.widgets.pagination.collections;
 
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Default implementation of sort.
+ * <p>
+ * The sort key of each element is retrieved once with
+ * {@link BeanComparator#getSortKey(Object)} before the elements are sorted by
+ * their keys, instead of being retrieved twice per comparison.
+ * </p>
  * 
  */
 public class DefaultSortProcessor implements SortProcessor {
@@ -30,8 +37,45 @@ public class DefaultSortProcessor implements SortProcessor {
 
 	}
 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public void sort(List<?> list, String sortPropertyName, int sortDirection) {
-		Collections.sort(list, new BeanComparator(sortPropertyName,
-				sortDirection));
+		final BeanComparator comparator = new BeanComparator(sortPropertyName,
+				sortDirection);
+
+		// decorate the elements with their sort key
+		Object[] elements = list.toArray();
+		SortEntry[] entries = new SortEntry[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			entries[i] = new SortEntry(elements[i],
+					comparator.getSortKey(elements[i]));
+		}
+
+		// sort them (stable, as Collections.sort)
+		Arrays.sort(entries, new Comparator<SortEntry>() {
+			public int compare(SortEntry e1, SortEntry e2) {
+				return comparator.compareSortKeys(e1.key, e2.key);
+			}
+		});
+
+		// and write the elements back in order
+		ListIterator iterator = list.listIterator();
+		for (int i = 0; i < entries.length; i++) {
+			iterator.next();
+			iterator.set(entries[i].element);
+		}
+	}
+
+	/**
+	 * An element of the sorted list with its sort key.
+	 */
+	private static class SortEntry {
+
+		final Object element;
+		final Object key;
+
+		SortEntry(Object element, Object key) {
+			this.element = element;
+			this.key = key;
+		}
 	}
 }
@@ -24,12 +24,23 @@ public class PageLoaderList implements IPageLoader<PageResult<?>> {
 
 	private List<?> items;
 
+	/** keeps the items sorted while only the page changes **/
+	private final CachedSortProcessor sortProcessor = new CachedSortProcessor();
+
 	public PageLoaderList(List<?> items) {
 		this.items = items;
 	}
 
+	/**
+	 * Sets the items. Also call this method when the items were modified in
+	 * place, so that they are sorted again.
+	 * 
+	 * @param items
+	 *            the items
+	 */
 	public void setItems(List<?> items) {
 		this.items = items;
+		sortProcessor.reset();
 	}
 
 	public List<?> getItems() {
@@ -37,7 +48,7 @@ public class PageLoaderList implements IPageLoader<PageResult<?>> {
 	}
 
 	public PageResult<?> loadPage(PageableController controller) {
-		return PageListHelper.createPage(items, controller);
+		return PageListHelper.createPage(items, controller, sortProcessor);
 	}
 
 }
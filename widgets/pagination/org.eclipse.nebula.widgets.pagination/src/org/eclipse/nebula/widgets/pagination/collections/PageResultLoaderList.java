@@ -24,12 +24,23 @@ public class PageResultLoaderList<T> implements IPageLoader<PageResult<T>> {
 
 	private List<T> items;
 
+	/** keeps the items sorted while only the page changes **/
+	private final CachedSortProcessor sortProcessor = new CachedSortProcessor();
+
 	public PageResultLoaderList(List<T> items) {
 		this.items = items;
 	}
 
+	/**
+	 * Sets the items. Also call this method when the items were modified in
+	 * place, so that they are sorted again.
+	 * 
+	 * @param items
+	 *            the items
+	 */
 	public void setItems(List<T> items) {
 		this.items = items;
+		sortProcessor.reset();
 	}
 
 	public List<T> getItems() {
@@ -37,7 +48,7 @@ public class PageResultLoaderList<T> implements IPageLoader<PageResult<T>> {
 	}
 
 	public PageResult<T> loadPage(PageableController controller) {
-		return PageListHelper.createPage(items, controller);
+		return PageListHelper.createPage(items, controller, sortProcessor);
 	}
 
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.nebula.paperclips.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.nebula.paperclips.core.internal.util.PaperClipsUtil;
+import org.eclipse.nebula.paperclips.core.internal.util.Util;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.printing.Printer;
+
+/**
+ * Lays out the pages of a print job on a background thread, so a user
+ * interface can show the first pages of a long document while the rest is
+ * still being laid out. The worker measures with its own GC on the printer
+ * device, and hands over the pages as they become ready through
+ * {@link #takePages()}.
+ * <p>
+ * The callback is invoked on the worker thread after each page and when the
+ * layout ends, and must therefore not touch any widgets directly. A user
+ * interface would typically post a runnable to the display thread which takes
+ * the new pages.
+ * <p>
+ * The printer must not be disposed until the worker has stopped, see
+ * {@link #dispose()}.
+ *
+ * @see PaperClips#getPageEnumeration(PrintJob, Printer, GC)
+ */
+public class PageLayoutWorker {
+	private final PrintJob printJob;
+	private final Printer printer;
+	private final Runnable callback;
+
+	private Thread thread;
+
+	// guarded by this
+	private final List pages = new ArrayList(); // List <PrintPiece>
+	private int pageCount = 0;
+	private boolean complete = false;
+	private boolean cancelled = false;
+	private Throwable error = null;
+
+	/**
+	 * Constructs a PageLayoutWorker.
+	 *
+	 * @param printJob
+	 *            the print job to lay out.
+	 * @param printer
+	 *            the printer device, which must not be disposed while the
+	 *            worker is running.
+	 * @param callback
+	 *            runnable which is invoked on the worker thread whenever pages
+	 *            are laid out, and when the layout ends. May be null.
+	 */
+	public PageLayoutWorker(PrintJob printJob, Printer printer,
+			Runnable callback) {
+		Util.notNull(printJob, printer);
+		this.printJob = printJob;
+		this.printer = printer;
+		this.callback = callback;
+	}
+
+	/**
+	 * Starts laying out pages on a background thread. Has no effect if the
+	 * worker was started already.
+	 */
+	public synchronized void start() {
+		if (thread != null)
+			return;
+		thread = new Thread(new Runnable() {
+			public void run() {
+				layout();
+			}
+		}, "PaperClips page layout: " + printJob.getName()); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void layout() {
+		GC gc = null;
+		try {
+			gc = new GC(printer);
+			gc.setAdvanced(true);
+			PageEnumeration enumeration = PaperClips.getPageEnumeration(
+					printJob, printer, gc);
+			while (!isCancelled() && enumeration.hasNext()) {
+				PrintPiece page = enumeration.nextPage();
+				if (page == null)
+					break;
+				if (!addPage(page)) {
+					page.dispose();
+					break;
+				}
+				notifyCallback();
+			}
+		} catch (RuntimeException e) {
+			setError(e);
+		} catch (Error e) {
+			setError(e);
+		} finally {
+			if (gc != null)
+				gc.dispose();
+			synchronized (this) {
+				complete = true;
+				notifyAll();
+			}
+			notifyCallback();
+		}
+	}
+
+	private synchronized boolean addPage(PrintPiece page) {
+		if (cancelled)
+			return false;
+		pages.add(page);
+		pageCount++;
+		return true;
+	}
+
+	private synchronized void setError(Throwable error) {
+		this.error = error;
+	}
+
+	private void notifyCallback() {
+		if (callback != null && !isCancelled())
+			callback.run();
+	}
+
+	/**
+	 * Returns the pages laid out since the last call, and hands over their
+	 * ownership to the caller, who is responsible for disposing them.
+	 *
+	 * @return the pages laid out since the last call. May be empty.
+	 */
+	public synchronized PrintPiece[] takePages() {
+		PrintPiece[] result = (PrintPiece[]) pages
+				.toArray(new PrintPiece[pages.size()]);
+		pages.clear();
+		return result;
+	}
+
+	/**
+	 * Returns the number of pages laid out so far, including the pages which
+	 * have been taken.
+	 *
+	 * @return the number of pages laid out so far.
+	 */
+	public synchronized int getPageCount() {
+		return pageCount;
+	}
+
+	/**
+	 * Returns whether the layout has ended, either because all pages were laid
+	 * out, the worker was cancelled or an error occurred.
+	 *
+	 * @return whether the layout has ended.
+	 */
+	public synchronized boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Returns whether the worker has been cancelled.
+	 *
+	 * @return whether the worker has been cancelled.
+	 */
+	public synchronized boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Returns the exception or error which ended the layout, if any.
+	 *
+	 * @return the exception or error which ended the layout, or null.
+	 */
+	public synchronized Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Cancels the layout and disposes the pages which have not been taken. The
+	 * worker stops after the page being laid out, without waiting for it.
+	 */
+	public void cancel() {
+		PrintPiece[] untaken;
+		synchronized (this) {
+			cancelled = true;
+			untaken = (PrintPiece[]) pages
+					.toArray(new PrintPiece[pages.size()]);
+			pages.clear();
+		}
+		PaperClipsUtil.dispose(untaken);
+	}
+
+	/**
+	 * Cancels the layout and waits until the worker has stopped, after which
+	 * the printer may be disposed.
+	 */
+	public void dispose() {
+		cancel();
+		Thread thread;
+		synchronized (this) {
+			thread = this.thread;
+		}
+		if (thread == null || thread == Thread.currentThread())
+			return;
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+}
@@ -12,8 +12,10 @@ package org.eclipse.nebula.paperclips.core.grid.internal;
 
 import org.eclipse.nebula.paperclips.core.PrintIterator;
 import org.eclipse.nebula.paperclips.core.grid.GridCell;
+import org.eclipse.nebula.paperclips.core.internal.util.PrintSizeStrategy;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
 
 public class GridCellIterator {
 	final int hAlignment;
@@ -21,11 +23,17 @@ public class GridCellIterator {
 	final PrintIterator target;
 	final int colspan;
 
+	// Measured once, and shared by all copies.
+	final Point minimumSize;
+	final Point preferredSize;
+
 	public GridCellIterator(GridCell cell, Device device, GC gc) {
 		this.hAlignment = cell.getHorizontalAlignment();
 		this.vAlignment = cell.getVerticalAlignment();
 		this.target = cell.getContent().iterator(device, gc);
 		this.colspan = cell.getColSpan();
+		this.minimumSize = target.minimumSize();
+		this.preferredSize = target.preferredSize();
 	}
 
 	private GridCellIterator(GridCellIterator that) {
@@ -33,6 +41,8 @@ public class GridCellIterator {
 		this.vAlignment = that.vAlignment;
 		this.target = that.target.copy();
 		this.colspan = that.colspan;
+		this.minimumSize = that.minimumSize;
+		this.preferredSize = that.preferredSize;
 	}
 
 	public int getHorizontalAlignment() {
@@ -51,6 +61,19 @@ public class GridCellIterator {
 		return colspan;
 	}
 
+	/**
+	 * Returns the size of the cell's content, as measured when the cell
+	 * iterator was created. The returned point must not be modified.
+	 * 
+	 * @param strategy
+	 *            the size strategy.
+	 * @return the minimum or preferred size of the cell's content.
+	 */
+	public Point computeSize(PrintSizeStrategy strategy) {
+		return strategy == PrintSizeStrategy.MINIMUM ? minimumSize
+				: preferredSize;
+	}
+
 	public GridCellIterator copy() {
 		return new GridCellIterator(this);
 	}
@@ -41,7 +41,7 @@ public class GridIterator implements PrintIterator {
 	final GridLookPainter look;
 
 	final GridCellIterator[][] header;
-	final GridCellIterator[][] body;
+	final GridCellIterator[][] body; // never modified, shared by all copies
 	final GridCellIterator[][] footer;
 
 	final boolean cellClippingEnabled;
@@ -55,6 +55,10 @@ public class GridIterator implements PrintIterator {
 	// This is the cursor!
 	private int row;
 
+	// The remaining content of the current row, if it was broken across pages.
+	// Otherwise null, and the row is taken from the body.
+	private GridCellIterator[] currentRow;
+
 	// Determines whether top edge of cell border is drawn open or closed for
 	// current row.
 	private boolean rowStarted;
@@ -75,8 +79,9 @@ public class GridIterator implements PrintIterator {
 
 		this.look = grid.getLook().getPainter(device, gc);
 
-		this.minimumColSizes = computeColumnSizes(PrintSizeStrategy.MINIMUM);
-		this.preferredColSizes = computeColumnSizes(PrintSizeStrategy.PREFERRED);
+		this.minimumColSizes = new int[columns.length];
+		this.preferredColSizes = new int[columns.length];
+		computeColumnSizes(minimumColSizes, preferredColSizes);
 
 		this.minimumSize = computeSize(PrintSizeStrategy.MINIMUM,
 				minimumColSizes);
@@ -84,6 +89,7 @@ public class GridIterator implements PrintIterator {
 				preferredColSizes);
 
 		row = 0;
+		currentRow = null;
 		rowStarted = false;
 	}
 
@@ -113,12 +119,12 @@ public class GridIterator implements PrintIterator {
 		this.columns = that.columns;
 		this.columnGroups = that.columnGroups;
 
-		this.header = that.header; // never directly modified, clone not
-		// necessary
-		this.body = cloneRows(that.body, that.row); // Only need to deep copy
-		// the unconsumed rows.
-		this.footer = that.footer; // never directly modified, clone not
-		// necessary
+		// Never directly modified, clone not necessary. The rows are cloned
+		// every time a row is laid out, and the partially consumed row is
+		// tracked by the cursor.
+		this.header = that.header;
+		this.body = that.body;
+		this.footer = that.footer;
 
 		this.cellClippingEnabled = that.cellClippingEnabled;
 
@@ -131,21 +137,10 @@ public class GridIterator implements PrintIterator {
 		this.preferredSize = that.preferredSize;
 
 		this.row = that.row;
+		this.currentRow = that.currentRow;
 		this.rowStarted = that.rowStarted;
 	}
 
-	private static GridCellIterator[][] cloneRows(GridCellIterator[][] rows,
-			int firstRow) {
-		GridCellIterator[][] result = (GridCellIterator[][]) rows.clone();
-		// Cloning the outer array is all that's necessary. The inner arrays
-		// (rows) are cloned every time a row
-		// is laid out, so all we have to do is make sure different
-		// GridIterators have distinct outer arrays.
-		// for ( int i = firstRow; i < result.length; i++ )
-		// result[i] = cloneRow( result[i] );
-		return result;
-	}
-
 	/**
 	 * Compute the size of a column, respecting the constraints of the
 	 * GridColumn.
@@ -153,9 +148,9 @@ public class GridIterator implements PrintIterator {
 	private int computeCellWidth(GridCellIterator entry, GridColumn col,
 			PrintSizeStrategy strategy) {
 		if (col.size == SWT.DEFAULT)
-			return strategy.computeSize(entry.getTarget()).x;
+			return entry.computeSize(strategy).x;
 		if (col.size == GridPrint.PREFERRED)
-			return entry.getTarget().preferredSize().x;
+			return entry.computeSize(PrintSizeStrategy.PREFERRED).x;
 		return Math.round(col.size * device.getDPI().x / 72f);
 	}
 
@@ -195,22 +190,42 @@ public class GridIterator implements PrintIterator {
 		return false;
 	}
 
-	private int[] computeColumnSizes(PrintSizeStrategy strategy) {
-		final int[] result = new int[columns.length];
+	/**
+	 * Computes the minimum and preferred column sizes in a single pass over the
+	 * cells. Cells spanning multiple columns can only be fitted once the
+	 * widths of all the other cells are known, so they are collected on the
+	 * way and adjusted for afterward.
+	 */
+	private void computeColumnSizes(int[] minimumSizes, int[] preferredSizes) {
 		final GridCellIterator[][] rows = aggregateHeaderBodyAndFooterCells();
+		final List spanningCells = new ArrayList(); // List <SpanningCell>
 
-		calculateExplicitlySizedColumnWidths(result);
+		calculateExplicitlySizedColumnWidths(minimumSizes);
+		calculateExplicitlySizedColumnWidths(preferredSizes);
 
-		calculateColumnWidthsForCellsSpanningOneColumn(result, rows, strategy);
+		calculateColumnWidthsForCellsSpanningOneColumn(minimumSizes,
+				preferredSizes, rows, spanningCells);
 
-		applyColumnGrouping(result);
+		applyColumnGrouping(minimumSizes);
+		applyColumnGrouping(preferredSizes);
 
-		calculateColumnWidthsForCellsSpanningMultipleColumns(result, rows,
-				strategy);
+		calculateColumnWidthsForCellsSpanningMultipleColumns(minimumSizes,
+				spanningCells, PrintSizeStrategy.MINIMUM);
+		calculateColumnWidthsForCellsSpanningMultipleColumns(preferredSizes,
+				spanningCells, PrintSizeStrategy.PREFERRED);
 
-		applyColumnGrouping(result);
+		applyColumnGrouping(minimumSizes);
+		applyColumnGrouping(preferredSizes);
+	}
 
-		return result;
+	private static class SpanningCell {
+		final GridCellIterator entry;
+		final int columnIndex;
+
+		SpanningCell(GridCellIterator entry, int columnIndex) {
+			this.entry = entry;
+			this.columnIndex = columnIndex;
+		}
 	}
 
 	private GridCellIterator[][] aggregateHeaderBodyAndFooterCells() {
@@ -231,41 +246,36 @@ public class GridIterator implements PrintIterator {
 	}
 
 	private void calculateColumnWidthsForCellsSpanningMultipleColumns(
-			final int[] colSizes, final GridCellIterator[][] rows,
+			final int[] colSizes, final List spanningCells,
 			final PrintSizeStrategy strategy) {
 		int horizontalSpacing = look.getMargins().getHorizontalSpacing();
 
-		for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
-			GridCellIterator[] row = rows[rowIndex];
-			int columnIndex = 0;
-			for (int cellIndex = 0; cellIndex < row.length; cellIndex++) {
-				GridCellIterator entry = row[cellIndex];
-				int colspan = entry.getColspan();
-				if (colspan > 1) {
-					int currentWidth = PaperClipsUtil.sum(colSizes,
-							columnIndex, colspan);
-
-					// Subtract column spacing so the weighted distribution of
-					// extra width stays proportional.
-					int minimumWidth = strategy.computeSize(entry.getTarget()).x
-							- horizontalSpacing * (colspan - 1);
-
-					if (currentWidth < minimumWidth) {
-						int extraWidth = minimumWidth - currentWidth;
-
-						int[] indices = getExpandableColumnIndices(columnIndex,
-								colspan);
-						int totalWidth = PaperClipsUtil.sumByIndex(colSizes,
-								indices);
-
-						if (totalWidth == 0)
-							resizeColumnsEqually(colSizes, extraWidth, indices);
-						else
-							resizeColumnsProportionateToCurrentSizes(colSizes,
-									indices, extraWidth, totalWidth);
-					}
-				}
-				columnIndex += colspan;
+		for (int i = 0; i < spanningCells.size(); i++) {
+			SpanningCell cell = (SpanningCell) spanningCells.get(i);
+			GridCellIterator entry = cell.entry;
+			int columnIndex = cell.columnIndex;
+			int colspan = entry.getColspan();
+
+			int currentWidth = PaperClipsUtil.sum(colSizes, columnIndex,
+					colspan);
+
+			// Subtract column spacing so the weighted distribution of
+			// extra width stays proportional.
+			int minimumWidth = entry.computeSize(strategy).x
+					- horizontalSpacing * (colspan - 1);
+
+			if (currentWidth < minimumWidth) {
+				int extraWidth = minimumWidth - currentWidth;
+
+				int[] indices = getExpandableColumnIndices(columnIndex,
+						colspan);
+				int totalWidth = PaperClipsUtil.sumByIndex(colSizes, indices);
+
+				if (totalWidth == 0)
+					resizeColumnsEqually(colSizes, extraWidth, indices);
+				else
+					resizeColumnsProportionateToCurrentSizes(colSizes,
+							indices, extraWidth, totalWidth);
 			}
 		}
 	}
@@ -301,18 +311,25 @@ public class GridIterator implements PrintIterator {
 		}
 	}
 
-	private void calculateColumnWidthsForCellsSpanningOneColumn(int[] colSizes,
-			GridCellIterator[][] rows, PrintSizeStrategy strategy) {
+	private void calculateColumnWidthsForCellsSpanningOneColumn(
+			int[] minimumSizes, int[] preferredSizes,
+			GridCellIterator[][] rows, List spanningCells) {
 		for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
 			GridCellIterator[] row = rows[rowIndex];
 			int col = 0;
 			for (int cellIndex = 0; cellIndex < row.length; cellIndex++) {
 				GridCellIterator entry = row[cellIndex];
 
-				// ignore explicitly sized cols
-				if (entry.getColspan() == 1 && !isExplicitSize(columns[col])) {
-					colSizes[col] = Math.max(colSizes[col],
-							computeCellWidth(entry, columns[col], strategy));
+				if (entry.getColspan() > 1) {
+					spanningCells.add(new SpanningCell(entry, col));
+				} else if (!isExplicitSize(columns[col])) {
+					// ignore explicitly sized cols
+					minimumSizes[col] = Math.max(minimumSizes[col],
+							computeCellWidth(entry, columns[col],
+									PrintSizeStrategy.MINIMUM));
+					preferredSizes[col] = Math.max(preferredSizes[col],
+							computeCellWidth(entry, columns[col],
+									PrintSizeStrategy.PREFERRED));
 				}
 				col += entry.getColspan();
 			}
@@ -467,7 +484,7 @@ public class GridIterator implements PrintIterator {
 				GridCellIterator entry = row[cellIndex];
 				// Find tallest cell in row.
 				rowHeight = Math.max(rowHeight,
-						strategy.computeSize(entry.getTarget()).y);
+						entry.computeSize(strategy).y);
 				col += entry.getColspan();
 			}
 			headerHeight += rowHeight;
@@ -484,7 +501,7 @@ public class GridIterator implements PrintIterator {
 				GridCellIterator entry = row[cellIndex];
 				// Find the greatest height of all cells' calculated sizes.
 				maxBodyRowHeight = Math.max(maxBodyRowHeight,
-						strategy.computeSize(entry.getTarget()).y);
+						entry.computeSize(strategy).y);
 				col += entry.getColspan();
 			}
 		}
@@ -506,7 +523,7 @@ public class GridIterator implements PrintIterator {
 				GridCellIterator entry = row[cellIndex];
 				// Find tallest cell in row.
 				rowHeight = Math.max(rowHeight,
-						strategy.computeSize(entry.getTarget()).y);
+						entry.computeSize(strategy).y);
 				col += entry.getColspan();
 			}
 			footerHeight += rowHeight;
@@ -522,6 +539,24 @@ public class GridIterator implements PrintIterator {
 		return new Point(preferredSize.x, preferredSize.y);
 	}
 
+	/**
+	 * Returns the minimum width of each column, in pixels.
+	 * 
+	 * @return the minimum width of each column.
+	 */
+	public int[] getMinimumColumnSizes() {
+		return (int[]) minimumColSizes.clone();
+	}
+
+	/**
+	 * Returns the preferred width of each column, in pixels.
+	 * 
+	 * @return the preferred width of each column.
+	 */
+	public int[] getPreferredColumnSizes() {
+		return (int[]) preferredColSizes.clone();
+	}
+
 	private Condition[] getShrinkableColumnConditions() {
 		/*
 		 * Disabled: new Condition() { public boolean satisfiedBy( int col ) {
@@ -943,14 +978,14 @@ public class GridIterator implements PrintIterator {
 		int y = 0;
 		List entries = new ArrayList();
 		while (hasNext()) {
-			GridCellIterator[] thisRow = cloneRow(body[row]);
+			GridCellIterator[] thisRow = cloneRow(getCurrentRow());
 			PrintPiece rowPiece = nextRow(thisRow, colSizes, height - y
 					- bodyBottomSpacingClosed, rowStarted);
 			boolean hasNext = hasNext(thisRow);
 
 			if ((cellClippingEnabled || entries.isEmpty())
 					&& (rowPiece == null || hasNext)) {
-				thisRow = cloneRow(body[row]);
+				thisRow = cloneRow(getCurrentRow());
 				rowPiece = nextRow(thisRow, colSizes, height - y
 						- bodyBottomSpacingOpen, true);
 				hasNext = true;
@@ -960,7 +995,7 @@ public class GridIterator implements PrintIterator {
 				break;
 
 			entries.add(new CompositeEntry(rowPiece, new Point(0, y)));
-			body[row] = thisRow;
+			currentRow = thisRow;
 
 			final int[] rowColSpans = new int[thisRow.length];
 			for (int cellIndex = 0; cellIndex < rowColSpans.length; cellIndex++)
@@ -976,6 +1011,7 @@ public class GridIterator implements PrintIterator {
 
 			y += rowHeight + rowSpacing;
 			row++;
+			currentRow = null;
 		}
 
 		if (entries.isEmpty())
@@ -984,6 +1020,10 @@ public class GridIterator implements PrintIterator {
 		return new CompositePiece(entries);
 	}
 
+	private GridCellIterator[] getCurrentRow() {
+		return currentRow == null ? body[row] : currentRow;
+	}
+
 	private static GridCellIterator[] cloneRow(GridCellIterator[] row) {
 		GridCellIterator[] result = (GridCellIterator[]) row.clone();
 		for (int i = 0; i < result.length; i++)
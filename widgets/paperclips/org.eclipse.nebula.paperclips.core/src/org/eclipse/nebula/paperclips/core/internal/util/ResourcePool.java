@@ -74,7 +74,7 @@ public class ResourcePool {
 	 *            FontData describing the required font.
 	 * @return a font for the passed in FontData.
 	 */
-	public Font getFont(FontData fontData) {
+	public synchronized Font getFont(FontData fontData) {
 		if (fontData == null)
 			return null;
 		notDisposed(device);
@@ -94,7 +94,7 @@ public class ResourcePool {
 	 *            RGB describing the required color.
 	 * @return a color for the passed in RGB.
 	 */
-	public Color getColor(RGB rgb) {
+	public synchronized Color getColor(RGB rgb) {
 		if (rgb == null)
 			return null;
 		notDisposed(device);
@@ -19,6 +19,7 @@ import org.eclipse.nebula.paperclips.core.PrintIterator;
 import org.eclipse.nebula.paperclips.core.PrintPiece;
 import org.eclipse.nebula.paperclips.core.internal.util.ResourcePool;
 import org.eclipse.nebula.paperclips.core.internal.util.Util;
+import org.eclipse.nebula.paperclips.core.text.internal.TextMetrics;
 import org.eclipse.nebula.paperclips.core.text.internal.TextPiece;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Device;
@@ -347,6 +348,7 @@ public class TextPrint implements Print {
 class TextIterator implements PrintIterator {
 	private final Device device;
 	private final GC gc;
+	private final TextMetrics metrics;
 
 	final String text;
 	final String[] lines;
@@ -363,8 +365,9 @@ class TextIterator implements PrintIterator {
 		this.gc = gc;
 
 		this.text = print.text;
-		this.lines = print.text.split("(\r)?\n"); //$NON-NLS-1$
 		this.style = print.style;
+		this.metrics = initMetrics();
+		this.lines = print.text.split("(\r)?\n"); //$NON-NLS-1$
 		this.wordSplitting = print.wordSplitting;
 		this.minimumSize = maxExtent(text.split("\\s")); //$NON-NLS-1$
 		this.preferredSize = maxExtent(lines);
@@ -376,6 +379,7 @@ class TextIterator implements PrintIterator {
 	TextIterator(TextIterator that) {
 		this.device = that.device;
 		this.gc = that.gc;
+		this.metrics = that.metrics;
 
 		this.text = that.text;
 		this.lines = that.lines;
@@ -415,11 +419,17 @@ class TextIterator implements PrintIterator {
 		if (nextLines.length == 0)
 			return null;
 
-		int maxWidth = maxExtent(nextLines).x;
+		int[] lineWidths = new int[nextLines.length];
+		int maxWidth = 0;
+		for (int i = 0; i < nextLines.length; i++) {
+			lineWidths[i] = metrics.stringWidth(gc, nextLines[i]);
+			maxWidth = Math.max(maxWidth, lineWidths[i]);
+		}
 		Point size = new Point(maxWidth, nextLines.length * lineHeight);
 		int ascent = fm.getAscent() + fm.getLeading();
 
-		return new TextPiece(device, style, nextLines, size, ascent);
+		return new TextPiece(device, style, nextLines, lineWidths, size,
+				ascent);
 	}
 
 	private Font initGC() {
@@ -434,6 +444,15 @@ class TextIterator implements PrintIterator {
 		gc.setFont(oldFont);
 	}
 
+	private TextMetrics initMetrics() {
+		Font oldFont = initGC();
+		try {
+			return TextMetrics.forFont(device, gc.getFont());
+		} finally {
+			restoreGC(oldFont);
+		}
+	}
+
 	private String[] nextLines(final int width, final int maxLines) {
 		List nextLines = new ArrayList(Math.min(lines.length, maxLines));
 
@@ -494,7 +513,8 @@ class TextIterator implements PrintIterator {
 
 			for (int i = 0; i < text.length; i++) {
 				String textPiece = text[i];
-				maxWidth = Math.max(maxWidth, gc.stringExtent(textPiece).x);
+				maxWidth = Math.max(maxWidth,
+						metrics.stringWidth(gc, textPiece));
 			}
 
 			return new Point(maxWidth, fm.getHeight());
@@ -504,37 +524,13 @@ class TextIterator implements PrintIterator {
 	}
 
 	private int findLineBreak(GC gc, String text, int width) {
-		// Offsets within the string
-		int loIndex = 0;
-		int hiIndex = text.length();
-
-		// Pixel width of entire string
-		int pixelWidth = gc.stringExtent(text).x;
-
 		// Does the whole string fit?
-		if (pixelWidth <= width)
+		if (metrics.stringWidth(gc, text) <= width)
 			// I'll take it
-			return hiIndex;
-
-		// Do a binary search to find the maximum characters that will fit
-		// within the given width.
-		while (loIndex < hiIndex) {
-			int midIndex = (loIndex + hiIndex + 1) / 2;
-			int midWidth = gc.stringExtent(text.substring(0, midIndex)).x;
-
-			if (midWidth < width)
-				// don't add 1, the next character could make it too big
-				loIndex = midIndex;
-			else if (midWidth > width)
-				// subtract 1, we already know midIndex makes it too big
-				hiIndex = midIndex - 1;
-			else {
-				// perfect fit
-				loIndex = hiIndex = midIndex;
-			}
-		}
+			return text.length();
 
-		return findWordBreak(text, loIndex);
+		// Find the maximum characters that will fit within the given width.
+		return findWordBreak(text, metrics.fit(gc, text, width));
 	}
 
 	int findWordBreak(String text, int maxLength) {
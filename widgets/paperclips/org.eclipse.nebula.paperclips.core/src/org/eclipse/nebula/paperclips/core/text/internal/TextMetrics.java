@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.nebula.paperclips.core.text.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.nebula.paperclips.core.internal.util.Util;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+
+/**
+ * Caches text measurements for a font on a graphics device. Glyph advance
+ * widths are kept in a table for the Latin-1 range and in a map for other
+ * characters, and the widths of whole strings are memoized in a bounded map.
+ * Since the cache is shared by all prints on the device, the repeated cell
+ * values of tabular reports are measured only once.
+ * <p>
+ * Measurements are taken on the GC passed in, which must be set to the font of
+ * this cache.
+ * <p>
+ * Fonts are looked up by their font data rather than by the Font objects,
+ * which hold on to their device. This way the weakly held device is not kept
+ * alive by its own cache entries, and fonts which are disposed and created
+ * again for each print share their measurements.
+ */
+public class TextMetrics {
+	private static final int MAX_STRING_WIDTHS = 4096;
+
+	private static Map devices = new WeakHashMap(); // Map <Device, Map <List
+													// <FontData>, TextMetrics>>
+
+	/**
+	 * Returns the text metrics of the given font on the given device.
+	 *
+	 * @param device
+	 *            the device.
+	 * @param font
+	 *            the font.
+	 * @return the text metrics of the given font on the given device.
+	 */
+	public synchronized static TextMetrics forFont(Device device, Font font) {
+		Util.notNull(device, font);
+
+		Map fonts = (Map) devices.get(device);
+		if (fonts == null) {
+			fonts = new HashMap();
+			devices.put(device, fonts);
+		}
+
+		Object key = Arrays.asList(font.getFontData());
+		TextMetrics metrics = (TextMetrics) fonts.get(key);
+		if (metrics == null) {
+			metrics = new TextMetrics();
+			fonts.put(key, metrics);
+		}
+		return metrics;
+	}
+
+	private final int[] latinWidths; // advance widths of chars below 256
+	private final Map charWidths; // Map <Character, Integer>
+	private final Map stringWidths; // Map <String, Integer>
+
+	private TextMetrics() {
+		this.latinWidths = new int[256];
+		for (int i = 0; i < latinWidths.length; i++)
+			latinWidths[i] = -1;
+		this.charWidths = new HashMap();
+		this.stringWidths = new LinkedHashMap(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry eldest) {
+				return size() > MAX_STRING_WIDTHS;
+			}
+		};
+	}
+
+	/**
+	 * Returns the advance width of the given character.
+	 *
+	 * @param gc
+	 *            the GC to measure on, set to the font of this cache.
+	 * @param ch
+	 *            the character.
+	 * @return the advance width of the given character.
+	 */
+	public synchronized int charWidth(GC gc, char ch) {
+		if (ch < latinWidths.length) {
+			int width = latinWidths[ch];
+			if (width < 0)
+				width = latinWidths[ch] = gc.getAdvanceWidth(ch);
+			return width;
+		}
+
+		Character key = new Character(ch);
+		Integer width = (Integer) charWidths.get(key);
+		if (width == null) {
+			width = new Integer(gc.getAdvanceWidth(ch));
+			charWidths.put(key, width);
+		}
+		return width.intValue();
+	}
+
+	/**
+	 * Returns the width of the given string, as measured by
+	 * {@link GC#stringExtent(String)}.
+	 *
+	 * @param gc
+	 *            the GC to measure on, set to the font of this cache.
+	 * @param text
+	 *            the string.
+	 * @return the width of the given string.
+	 */
+	public synchronized int stringWidth(GC gc, String text) {
+		Integer width = (Integer) stringWidths.get(text);
+		if (width == null) {
+			width = new Integer(gc.stringExtent(text).x);
+			stringWidths.put(text, width);
+		}
+		return width.intValue();
+	}
+
+	/**
+	 * Returns the number of leading characters of the given string that fit
+	 * within the given width. The candidate is found with a single scan over
+	 * the cumulative advance widths, and then corrected against
+	 * {@link GC#stringExtent(String)} so kerning and rounding are taken into
+	 * account.
+	 *
+	 * @param gc
+	 *            the GC to measure on, set to the font of this cache.
+	 * @param text
+	 *            the string.
+	 * @param width
+	 *            the available width.
+	 * @return the number of characters that fit within the given width.
+	 */
+	public int fit(GC gc, String text, int width) {
+		final int length = text.length();
+
+		int count = 0;
+		int x = 0;
+		while (count < length) {
+			int advance = charWidth(gc, text.charAt(count));
+			if (x + advance > width)
+				break;
+			x += advance;
+			count++;
+		}
+
+		// The advance widths are an estimate, only measure the boundary
+		while (count > 0
+				&& gc.stringExtent(text.substring(0, count)).x > width)
+			count--;
+		while (count < length
+				&& gc.stringExtent(text.substring(0, count + 1)).x <= width)
+			count++;
+
+		return count;
+	}
+}
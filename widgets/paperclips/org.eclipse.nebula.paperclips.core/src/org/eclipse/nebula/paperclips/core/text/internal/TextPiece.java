@@ -10,6 +10,7 @@
  */
 package org.eclipse.nebula.paperclips.core.text.internal;
 
+import org.eclipse.nebula.paperclips.core.PaperClips;
 import org.eclipse.nebula.paperclips.core.internal.util.ResourcePool;
 import org.eclipse.nebula.paperclips.core.internal.util.Util;
 import org.eclipse.nebula.paperclips.core.text.TextStyle;
@@ -24,6 +25,7 @@ import org.eclipse.swt.graphics.Point;
 public class TextPiece implements TextPrintPiece {
 	private final Point size;
 	private final String[] lines;
+	private final int[] lineWidths;
 	private final TextStyle style;
 	private final int ascent;
 
@@ -31,10 +33,23 @@ public class TextPiece implements TextPrintPiece {
 
 	public TextPiece(Device device, TextStyle style, String[] text, Point size,
 			int ascent) {
+		this(device, style, text, null, size, ascent);
+	}
+
+	/**
+	 * Constructs a TextPiece with the widths of the lines as measured during
+	 * layout, so they need not be measured again when painting.
+	 */
+	public TextPiece(Device device, TextStyle style, String[] text,
+			int[] lineWidths, Point size, int ascent) {
 		Util.notNull(device, size, style);
 		Util.noNulls(text);
+		if (lineWidths != null && lineWidths.length != text.length)
+			PaperClips.error(SWT.ERROR_INVALID_ARGUMENT,
+					"Line widths must match lines"); //$NON-NLS-1$
 		this.size = size;
 		this.lines = text;
+		this.lineWidths = lineWidths;
 		this.style = style;
 		this.ascent = ascent;
 
@@ -71,7 +86,8 @@ public class TextPiece implements TextPrintPiece {
 
 			for (int i = 0; i < lines.length; i++) {
 				String line = lines[i];
-				int lineWidth = gc.stringExtent(line).x;
+				int lineWidth = lineWidths == null ? gc.stringExtent(line).x
+						: lineWidths[i];
 				int offset = getHorzAlignmentOffset(align, lineWidth, width);
 
 				gc.drawString(lines[i], x + offset, y + lineHeight * i,
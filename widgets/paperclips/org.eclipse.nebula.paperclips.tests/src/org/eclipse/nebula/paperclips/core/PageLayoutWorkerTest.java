@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.nebula.paperclips.core;
+
+import junit.framework.TestCase;
+
+import org.eclipse.nebula.paperclips.core.grid.GridPrint;
+import org.eclipse.nebula.paperclips.core.internal.util.PaperClipsUtil;
+import org.eclipse.nebula.paperclips.core.text.TextPrint;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.printing.Printer;
+import org.eclipse.swt.printing.PrinterData;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests {@link PageLayoutWorker} against the default printer. The tests do
+ * nothing if no printer is installed.
+ */
+public class PageLayoutWorkerTest extends TestCase {
+	private static final long TIMEOUT = 30000;
+
+	private Printer printer;
+	private boolean dummyJob;
+
+	/**
+	 * A callback which blocks the worker thread after each page until it is
+	 * released.
+	 */
+	private static class Gate implements Runnable {
+		private int calls = 0;
+		private int released = 0;
+
+		public synchronized void run() {
+			calls++;
+			notifyAll();
+			while (released < calls) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+
+		synchronized void awaitCall(int call) throws InterruptedException {
+			long end = System.currentTimeMillis() + TIMEOUT;
+			while (calls < call && System.currentTimeMillis() < end)
+				wait(100);
+			assertTrue("callback " + call + " not invoked", calls >= call);
+		}
+
+		synchronized void release() {
+			released++;
+			notifyAll();
+		}
+
+		synchronized void releaseAll() {
+			released = Integer.MAX_VALUE;
+			notifyAll();
+		}
+
+		synchronized int getCalls() {
+			return calls;
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		// Workaround for SWT bug on GTK - force SWT to initialize
+		Display.getDefault();
+		PrinterData printerData = PaperClips.getDefaultPrinterData();
+		if (printerData != null)
+			printer = new Printer(printerData);
+	}
+
+	protected void tearDown() throws Exception {
+		if (printer != null) {
+			if (dummyJob)
+				PaperClips.endDummyJob(printer);
+			printer.dispose();
+		}
+		super.tearDown();
+	}
+
+	private PageLayoutWorker startWorker(PrintJob printJob, Runnable callback) {
+		PaperClips.startDummyJob(printer, printJob.getName());
+		dummyJob = true;
+		PageLayoutWorker worker = new PageLayoutWorker(printJob, printer,
+				callback);
+		worker.start();
+		return worker;
+	}
+
+	private static PrintJob createPrintJob() {
+		GridPrint grid = new GridPrint("d:g"); //$NON-NLS-1$
+		for (int i = 0; i < 300; i++)
+			grid.add(new TextPrint("Line " + i //$NON-NLS-1$
+					+ " of a document which takes several pages")); //$NON-NLS-1$
+		return new PrintJob("PageLayoutWorkerTest", grid); //$NON-NLS-1$
+	}
+
+	private static void awaitComplete(PageLayoutWorker worker)
+			throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!worker.isComplete() && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		assertTrue(worker.isComplete());
+	}
+
+	public void testSamePagesAsGetPages() throws InterruptedException {
+		if (printer == null)
+			return;
+		PrintJob printJob = createPrintJob();
+		PrintPiece[] expected = PaperClips.getPages(printJob, printer);
+		PaperClipsUtil.dispose(expected);
+		assertTrue(expected.length > 1);
+
+		Gate gate = new Gate();
+		gate.releaseAll();
+		PageLayoutWorker worker = startWorker(printJob, gate);
+		awaitComplete(worker);
+		PrintPiece[] pages = worker.takePages();
+		worker.dispose();
+		PaperClipsUtil.dispose(pages);
+
+		assertNull(worker.getError());
+		assertFalse(worker.isCancelled());
+		assertEquals(expected.length, worker.getPageCount());
+		assertEquals(expected.length, pages.length);
+		for (int i = 0; i < pages.length; i++)
+			assertEquals(expected[i].getSize(), pages[i].getSize());
+		// once per page, and once when the layout ended
+		assertEquals(expected.length + 1, gate.getCalls());
+	}
+
+	public void testTakePagesIsIncremental() throws InterruptedException {
+		if (printer == null)
+			return;
+		Gate gate = new Gate();
+		PageLayoutWorker worker = startWorker(createPrintJob(), gate);
+		try {
+			gate.awaitCall(1);
+			PrintPiece[] first = worker.takePages();
+			assertEquals(1, first.length);
+			assertEquals(0, worker.takePages().length);
+			PaperClipsUtil.dispose(first);
+
+			gate.release();
+			gate.awaitCall(2);
+			PrintPiece[] second = worker.takePages();
+			assertEquals(1, second.length);
+			assertEquals(2, worker.getPageCount());
+			PaperClipsUtil.dispose(second);
+
+			gate.releaseAll();
+			awaitComplete(worker);
+			PrintPiece[] rest = worker.takePages();
+			assertEquals(worker.getPageCount() - 2, rest.length);
+			PaperClipsUtil.dispose(rest);
+		} finally {
+			gate.releaseAll();
+			worker.dispose();
+		}
+	}
+
+	public void testCancelStopsAfterCurrentPage() throws InterruptedException {
+		if (printer == null)
+			return;
+		Gate gate = new Gate();
+		PageLayoutWorker worker = startWorker(createPrintJob(), gate);
+		try {
+			gate.awaitCall(1);
+			worker.cancel();
+			assertTrue(worker.isCancelled());
+			// the untaken page was disposed
+			assertEquals(0, worker.takePages().length);
+
+			gate.releaseAll();
+			awaitComplete(worker);
+			assertEquals(1, worker.getPageCount());
+			assertEquals(0, worker.takePages().length);
+			// no callback once cancelled
+			assertEquals(1, gate.getCalls());
+		} finally {
+			gate.releaseAll();
+			worker.dispose();
+		}
+	}
+
+	public void testDisposeJoinsWorker() throws InterruptedException {
+		if (printer == null)
+			return;
+		final Gate gate = new Gate();
+		PageLayoutWorker worker = startWorker(createPrintJob(), gate);
+		gate.awaitCall(1);
+		Thread releaser = new Thread() {
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					// release now
+				}
+				gate.releaseAll();
+			}
+		};
+		releaser.start();
+
+		// blocks until the worker has left the callback and disposed its GC
+		worker.dispose();
+		assertTrue(worker.isComplete());
+		assertTrue(worker.isCancelled());
+		assertEquals(1, worker.getPageCount());
+		releaser.join();
+	}
+
+	public void testError() throws InterruptedException {
+		if (printer == null)
+			return;
+		final RuntimeException failure = new IllegalStateException("failed"); //$NON-NLS-1$
+		Print print = new Print() {
+			public PrintIterator iterator(Device device, GC gc) {
+				throw failure;
+			}
+		};
+		Gate gate = new Gate();
+		gate.releaseAll();
+		PageLayoutWorker worker = startWorker(new PrintJob(
+				"PageLayoutWorkerTest", print), gate); //$NON-NLS-1$
+		awaitComplete(worker);
+		worker.dispose();
+
+		assertSame(failure, worker.getError());
+		assertEquals(0, worker.getPageCount());
+		assertEquals(0, worker.takePages().length);
+		// the callback learns that the layout ended
+		assertEquals(1, gate.getCalls());
+	}
+}
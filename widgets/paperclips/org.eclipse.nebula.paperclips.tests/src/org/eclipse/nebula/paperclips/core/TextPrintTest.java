@@ -14,9 +14,46 @@ import junit.framework.TestCase;
 
 import org.eclipse.nebula.paperclips.core.text.TextPrint;
 import org.eclipse.nebula.paperclips.core.text.TextStyle;
+import org.eclipse.nebula.paperclips.core.text.internal.TextMetrics;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
 
 public class TextPrintTest extends TestCase {
+	private static final String[] TEXTS = {
+			"",
+			"i",
+			"The quick brown fox jumps over the lazy dog",
+			"WWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWW",
+			"illillillillillillillillillillillillill",
+			"AVAVAVAV To Ta Te Wa Yo fi fl ffi",
+			"Gr\u00FC\u00DFe, \u00E9t\u00E9 \u00E0 c\u00F4t\u00E9 \u2014 \u03B1\u03B2\u03B3 \u0416\u0418\u0428",
+			"\ttabs\tand  double  spaces\t" };
+
+	private Display display;
+	private Image image;
+	private GC gc;
+	private Font font;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		display = Display.getDefault();
+		image = new Image(display, 1, 1);
+		gc = new GC(image);
+		font = new Font(display, "Sans", 10, SWT.NORMAL);
+		gc.setFont(font);
+	}
+
+	protected void tearDown() throws Exception {
+		gc.dispose();
+		image.dispose();
+		font.dispose();
+		super.tearDown();
+	}
+
 	public void testEquals() {
 		TextPrint text1 = new TextPrint("text");
 		TextPrint text2 = new TextPrint("text");
@@ -32,4 +69,89 @@ public class TextPrintTest extends TestCase {
 		text2.setWordSplitting(false);
 		assertEquals(text1, text2);
 	}
+
+	public void testStringWidth_matchesStringExtent() {
+		TextMetrics metrics = TextMetrics.forFont(display, font);
+		for (int i = 0; i < TEXTS.length; i++) {
+			String text = TEXTS[i];
+			assertEquals(text, gc.stringExtent(text).x, metrics.stringWidth(
+					gc, text));
+			// the memoized width
+			assertEquals(text, gc.stringExtent(text).x, metrics.stringWidth(
+					gc, text));
+		}
+	}
+
+	public void testFit_matchesBinarySearch() {
+		TextMetrics metrics = TextMetrics.forFont(display, font);
+		for (int i = 0; i < TEXTS.length; i++) {
+			String text = TEXTS[i];
+			int textWidth = gc.stringExtent(text).x;
+			for (int width = 0; width <= textWidth + 2; width++)
+				assertEquals(text + " in " + width, binarySearchFit(text,
+						width), metrics.fit(gc, text, width));
+		}
+	}
+
+	public void testFit_otherFonts() {
+		Font bold = new Font(display, "Serif", 13, SWT.BOLD | SWT.ITALIC);
+		try {
+			gc.setFont(bold);
+			TextMetrics metrics = TextMetrics.forFont(display, bold);
+			for (int i = 0; i < TEXTS.length; i++) {
+				String text = TEXTS[i];
+				int textWidth = gc.stringExtent(text).x;
+				for (int width = 0; width <= textWidth; width += 3)
+					assertEquals(text + " in " + width, binarySearchFit(text,
+							width), metrics.fit(gc, text, width));
+			}
+		} finally {
+			gc.setFont(font);
+			bold.dispose();
+		}
+	}
+
+	public void testForFont_sharedByFontData() {
+		TextMetrics metrics = TextMetrics.forFont(display, font);
+		FontData[] fontData = font.getFontData();
+		Font same = new Font(display, fontData);
+		try {
+			assertSame(metrics, TextMetrics.forFont(display, same));
+		} finally {
+			same.dispose();
+		}
+		Font other = new Font(display, fontData[0].getName(), fontData[0]
+				.getHeight() + 4, fontData[0].getStyle());
+		try {
+			assertNotSame(metrics, TextMetrics.forFont(display, other));
+		} finally {
+			other.dispose();
+		}
+	}
+
+	/**
+	 * The number of leading characters which fit within the given width, as
+	 * found before the text metrics were cached: a binary search of substring
+	 * extents.
+	 */
+	private int binarySearchFit(String text, int width) {
+		int loIndex = 0;
+		int hiIndex = text.length();
+
+		if (gc.stringExtent(text).x <= width)
+			return hiIndex;
+
+		while (loIndex < hiIndex) {
+			int midIndex = (loIndex + hiIndex + 1) / 2;
+			int midWidth = gc.stringExtent(text.substring(0, midIndex)).x;
+
+			if (midWidth < width)
+				loIndex = midIndex;
+			else if (midWidth > width)
+				hiIndex = midIndex - 1;
+			else
+				loIndex = hiIndex = midIndex;
+		}
+		return loIndex;
+	}
 }
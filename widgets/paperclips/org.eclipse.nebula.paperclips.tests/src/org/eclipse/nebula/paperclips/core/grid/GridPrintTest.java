@@ -10,16 +10,25 @@
  */
 package org.eclipse.nebula.paperclips.core.grid;
 
+import java.util.Random;
+
 import junit.framework.TestCase;
 
+import org.eclipse.nebula.paperclips.core.Print;
+import org.eclipse.nebula.paperclips.core.PrintIterator;
+import org.eclipse.nebula.paperclips.core.PrintPiece;
 import org.eclipse.nebula.paperclips.core.PrintStub;
 import org.eclipse.nebula.paperclips.core.grid.GridColumn;
 import org.eclipse.nebula.paperclips.core.grid.GridLook;
 import org.eclipse.nebula.paperclips.core.grid.GridLookPainter;
 import org.eclipse.nebula.paperclips.core.grid.GridPrint;
+import org.eclipse.nebula.paperclips.core.grid.internal.GridIterator;
 import org.eclipse.nebula.paperclips.core.internal.util.Util;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Display;
 
 public class GridPrintTest extends TestCase {
 	public void testConstructor_invalidArguments() {
@@ -89,6 +98,271 @@ public class GridPrintTest extends TestCase {
 		assertEquals(g1, g2);
 	}
 
+	public void testColumnSizes_singleColumnCells() {
+		GridPrint grid = new GridPrint("d, p, 36pt, d:g, p:g(2)",
+				new SpacingLook(3));
+		addRow(grid, new int[][] { { 10, 40 }, { 20, 30 }, { 50, 60 },
+				{ 5, 15 }, { 0, 25 } });
+		addRow(grid, new int[][] { { 30, 35 }, { 10, 70 }, { 80, 90 },
+				{ 12, 12 }, { 40, 45 } });
+		grid.addHeader(new SizedPrint(25, 50));
+		grid.addFooter(new SizedPrint(1, 2));
+		grid.addFooter(new SizedPrint(15, 100));
+
+		assertColumnSizes(grid);
+	}
+
+	public void testColumnSizes_spanningCells() {
+		GridPrint grid = new GridPrint("d, p, 20pt, d:g, p:g(3), d",
+				new SpacingLook(4));
+		addRow(grid, new int[][] { { 10, 20 }, { 15, 25 }, { 5, 5 },
+				{ 10, 30 }, { 5, 10 }, { 20, 40 } });
+		// wider than the columns it spans, weighted columns are widened first
+		grid.add(new SizedPrint(300, 500), 6);
+		// only default and preferred columns
+		grid.add(new SizedPrint(120, 200), 3);
+		grid.add(new SizedPrint(10, 400), GridPrint.REMAINDER);
+		// narrower than the columns it spans
+		grid.add(new SizedPrint(1, 1), 2);
+		grid.add(new SizedPrint(90, 180), 2);
+		grid.add(new SizedPrint(60, 70), 2);
+		grid.addHeader(new SizedPrint(50, 150), 2);
+		grid.addHeader(new SizedPrint(70, 90), 4);
+		grid.addFooter(new SizedPrint(0, 0), GridPrint.REMAINDER);
+
+		assertColumnSizes(grid);
+	}
+
+	public void testColumnSizes_spanningEmptyColumns() {
+		// the spanning cells are the only content, so the columns are resized
+		// equally
+		GridPrint grid = new GridPrint("d, p, d:g, d:g", new SpacingLook(2));
+		grid.add(new SizedPrint(101, 203), 2);
+		grid.add(new SizedPrint(55, 77), 2);
+		grid.add(new SizedPrint(31, 47), 3);
+		grid.add(new SizedPrint(0, 0));
+
+		assertColumnSizes(grid);
+	}
+
+	public void testColumnSizes_columnGroups() {
+		GridPrint grid = new GridPrint("d, p, d:g, 30pt, p, d",
+				new SpacingLook(5));
+		grid.setColumnGroups(new int[][] { { 0, 2 }, { 1, 4, 5 } });
+		addRow(grid, new int[][] { { 10, 20 }, { 15, 25 }, { 30, 35 },
+				{ 5, 5 }, { 40, 45 }, { 1, 90 } });
+		grid.add(new SizedPrint(200, 300), 3);
+		grid.add(new SizedPrint(150, 400), 3);
+		grid.add(new SizedPrint(20, 20), 2);
+		grid.add(new SizedPrint(250, 260), 4);
+		grid.addHeader(new SizedPrint(500, 600), GridPrint.REMAINDER);
+
+		assertColumnSizes(grid);
+	}
+
+	public void testColumnSizes_random() {
+		String[] specs = { "d", "p", "18pt", "d:g", "p:g", "d:g(3)", "1in" };
+		Random random = new Random(42);
+		for (int i = 0; i < 50; i++) {
+			int columnCount = 1 + random.nextInt(7);
+			GridColumn[] columns = new GridColumn[columnCount];
+			for (int col = 0; col < columnCount; col++)
+				columns[col] = GridColumn.parse(specs[random.nextInt(specs.length)]);
+
+			GridPrint grid = new GridPrint(columns, new SpacingLook(random
+					.nextInt(6)));
+			if (columnCount > 3 && random.nextBoolean())
+				grid.setColumnGroups(new int[][] { { 0, columnCount - 1 },
+						{ 1, 2 } });
+
+			// the next column of the header, body and footer rows
+			int[] positions = new int[3];
+			int cells = random.nextInt(40);
+			for (int cell = 0; cell < cells; cell++) {
+				int minimum = random.nextInt(150);
+				Print print = new SizedPrint(minimum, minimum
+						+ random.nextInt(150));
+				int section = random.nextInt(5);
+				section = section > 2 ? 1 : section;
+				int colspan = 1 + random.nextInt(columnCount
+						- positions[section]);
+				positions[section] = (positions[section] + colspan)
+						% columnCount;
+				if (section == 0)
+					grid.addHeader(print, colspan);
+				else if (section == 1)
+					grid.add(print, colspan);
+				else
+					grid.addFooter(print, colspan);
+			}
+
+			assertColumnSizes(grid);
+		}
+	}
+
+	private static void addRow(GridPrint grid, int[][] sizes) {
+		for (int i = 0; i < sizes.length; i++)
+			grid.add(new SizedPrint(sizes[i][0], sizes[i][1]));
+	}
+
+	/**
+	 * Asserts that the grid iterator computes the same minimum and preferred
+	 * column sizes as the algorithm which walked all the cells once for each
+	 * size strategy.
+	 */
+	private static void assertColumnSizes(GridPrint grid) {
+		Device device = Display.getDefault();
+		GridIterator iterator = (GridIterator) grid.iterator(device, null);
+
+		int horizontalSpacing = grid.getLook().getPainter(device, null)
+				.getMargins().getHorizontalSpacing();
+		int dpi = device.getDPI().x;
+		assertEquals(toString(computeColumnSizes(grid, dpi, horizontalSpacing,
+				false)), toString(iterator.getMinimumColumnSizes()));
+		assertEquals(toString(computeColumnSizes(grid, dpi, horizontalSpacing,
+				true)), toString(iterator.getPreferredColumnSizes()));
+	}
+
+	private static String toString(int[] sizes) {
+		StringBuffer result = new StringBuffer();
+		for (int i = 0; i < sizes.length; i++) {
+			if (i > 0)
+				result.append(", "); //$NON-NLS-1$
+			result.append(sizes[i]);
+		}
+		return result.toString();
+	}
+
+	private static int cellWidth(GridCell cell, boolean preferred) {
+		SizedPrint print = (SizedPrint) cell.getContent();
+		return preferred ? print.preferred : print.minimum;
+	}
+
+	private static GridCell[][] aggregateRows(GridPrint grid) {
+		GridCell[][] header = grid.getHeaderCells();
+		GridCell[][] body = grid.getBodyCells();
+		GridCell[][] footer = grid.getFooterCells();
+		GridCell[][] rows = new GridCell[body.length + header.length
+				+ footer.length][];
+		System.arraycopy(body, 0, rows, 0, body.length);
+		System.arraycopy(header, 0, rows, body.length, header.length);
+		System.arraycopy(footer, 0, rows, body.length + header.length,
+				footer.length);
+		return rows;
+	}
+
+	private static int[] computeColumnSizes(GridPrint grid, int dpi,
+			int horizontalSpacing, boolean preferred) {
+		GridColumn[] columns = grid.getColumns();
+		int[][] groups = grid.getColumnGroups();
+		GridCell[][] rows = aggregateRows(grid);
+		int[] result = new int[columns.length];
+
+		for (int col = 0; col < columns.length; col++)
+			if (columns[col].size > 0)
+				result[col] = Math.round(columns[col].size * dpi / 72f);
+
+		for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
+			int col = 0;
+			for (int cellIndex = 0; cellIndex < rows[rowIndex].length; cellIndex++) {
+				GridCell cell = rows[rowIndex][cellIndex];
+				GridColumn column = columns[col];
+				if (cell.getColSpan() == 1 && column.size <= 0)
+					result[col] = Math.max(result[col], cellWidth(cell,
+							preferred || column.size == GridPrint.PREFERRED));
+				col += cell.getColSpan();
+			}
+		}
+
+		applyColumnGroups(result, groups);
+
+		for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
+			int col = 0;
+			for (int cellIndex = 0; cellIndex < rows[rowIndex].length; cellIndex++) {
+				GridCell cell = rows[rowIndex][cellIndex];
+				int colspan = cell.getColSpan();
+				if (colspan > 1) {
+					int currentWidth = 0;
+					for (int i = col; i < col + colspan; i++)
+						currentWidth += result[i];
+					int minimumWidth = cellWidth(cell, preferred)
+							- horizontalSpacing * (colspan - 1);
+					if (currentWidth < minimumWidth)
+						expand(result, columns, groups, col, colspan,
+								minimumWidth - currentWidth);
+				}
+				col += colspan;
+			}
+		}
+
+		applyColumnGroups(result, groups);
+
+		return result;
+	}
+
+	private static void expand(int[] sizes, GridColumn[] columns,
+			int[][] groups, int firstColumn, int colspan, int extraWidth) {
+		int[] indices = new int[colspan];
+		int count = 0;
+		// weighted, then preferred, then default columns, ungrouped ones first
+		for (int condition = 0; condition < 6 && count == 0; condition++) {
+			boolean grouped = condition % 2 == 1;
+			for (int col = firstColumn; col < firstColumn + colspan; col++) {
+				GridColumn column = columns[col];
+				boolean matches;
+				if (condition < 2)
+					matches = column.weight > 0;
+				else if (condition < 4)
+					matches = column.size == GridPrint.PREFERRED;
+				else
+					matches = column.size == SWT.DEFAULT;
+				if (matches && isGrouped(groups, col) == grouped)
+					indices[count++] = col;
+			}
+		}
+
+		int totalWidth = 0;
+		for (int i = 0; i < count; i++)
+			totalWidth += sizes[indices[i]];
+
+		if (totalWidth == 0) {
+			// as before, the loop bound shrinks with the remaining columns
+			int expandable = count;
+			for (int i = 0; i < expandable; i++) {
+				int addedWidth = extraWidth / expandable;
+				sizes[indices[i]] = addedWidth;
+				extraWidth -= addedWidth;
+				expandable--;
+			}
+		} else {
+			for (int i = 0; i < count && totalWidth != 0 && extraWidth != 0; i++) {
+				int col = indices[i];
+				int addedWidth = (int) ((long) extraWidth * sizes[col] / totalWidth);
+				totalWidth -= sizes[col];
+				extraWidth -= addedWidth;
+				sizes[col] += addedWidth;
+			}
+		}
+	}
+
+	private static boolean isGrouped(int[][] groups, int col) {
+		for (int i = 0; i < groups.length; i++)
+			for (int j = 0; j < groups[i].length; j++)
+				if (groups[i][j] == col)
+					return true;
+		return false;
+	}
+
+	private static void applyColumnGroups(int[] sizes, int[][] groups) {
+		for (int i = 0; i < groups.length; i++) {
+			int maxSize = 0;
+			for (int j = 0; j < groups[i].length; j++)
+				maxSize = Math.max(maxSize, sizes[groups[i][j]]);
+			for (int j = 0; j < groups[i].length; j++)
+				sizes[groups[i][j]] = maxSize;
+		}
+	}
+
 	static class GridLookStub implements GridLook {
 		public boolean equals(Object obj) {
 			return Util.sameClass(this, obj);
@@ -98,4 +372,128 @@ public class GridPrintTest extends TestCase {
 			return null;
 		}
 	}
+
+	/**
+	 * A look without borders, with the given spacing between columns.
+	 */
+	static class SpacingLook implements GridLook {
+		final int spacing;
+
+		SpacingLook(int spacing) {
+			this.spacing = spacing;
+		}
+
+		public GridLookPainter getPainter(Device device, GC gc) {
+			return new GridLookPainter() {
+				public GridMargins getMargins() {
+					return new SpacingMargins(spacing);
+				}
+
+				public void paint(GC gc, int x, int y, int[] columns,
+						int[] headerRows, int[][] headerColSpans,
+						int firstRowIndex, boolean topOpen, int[] bodyRows,
+						int[][] bodyColSpans, boolean bottomOpen,
+						int[] footerRows, int[][] footerColSpans) {
+				}
+
+				public void dispose() {
+				}
+			};
+		}
+	}
+
+	static class SpacingMargins implements GridMargins {
+		final int spacing;
+
+		SpacingMargins(int spacing) {
+			this.spacing = spacing;
+		}
+
+		public int getLeft() {
+			return 0;
+		}
+
+		public int getHorizontalSpacing() {
+			return spacing;
+		}
+
+		public int getRight() {
+			return 0;
+		}
+
+		public int getHeaderTop() {
+			return 0;
+		}
+
+		public int getHeaderVerticalSpacing() {
+			return 0;
+		}
+
+		public int getBodyTop(boolean headerPresent, boolean open) {
+			return 0;
+		}
+
+		public int getBodyVerticalSpacing() {
+			return 0;
+		}
+
+		public int getBodyBottom(boolean footerPresent, boolean open) {
+			return 0;
+		}
+
+		public int getFooterVerticalSpacing() {
+			return 0;
+		}
+
+		public int getFooterBottom() {
+			return 0;
+		}
+	}
+
+	/**
+	 * A print with a fixed minimum and preferred width.
+	 */
+	static class SizedPrint implements Print {
+		final int minimum;
+		final int preferred;
+
+		SizedPrint(int minimum, int preferred) {
+			this.minimum = minimum;
+			this.preferred = preferred;
+		}
+
+		public PrintIterator iterator(Device device, GC gc) {
+			return new SizedIterator(minimum, preferred);
+		}
+	}
+
+	static class SizedIterator implements PrintIterator {
+		final int minimum;
+		final int preferred;
+
+		SizedIterator(int minimum, int preferred) {
+			this.minimum = minimum;
+			this.preferred = preferred;
+		}
+
+		public boolean hasNext() {
+			return true;
+		}
+
+		public PrintPiece next(int width, int height) {
+			return null;
+		}
+
+		public Point minimumSize() {
+			return new Point(minimum, 10);
+		}
+
+		public Point preferredSize() {
+			return new Point(preferred, 10);
+		}
+
+		public PrintIterator copy() {
+			return this;
+		}
+	}
 }
@@ -11,13 +11,16 @@
 package org.eclipse.nebula.paperclips.widgets;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.nebula.paperclips.core.PageEnumeration;
+import org.eclipse.nebula.paperclips.core.PageLayoutWorker;
 import org.eclipse.nebula.paperclips.core.PaperClips;
 import org.eclipse.nebula.paperclips.core.PrintJob;
 import org.eclipse.nebula.paperclips.core.PrintPiece;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
@@ -28,6 +31,7 @@ import org.eclipse.swt.printing.Printer;
 import org.eclipse.swt.printing.PrinterData;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 
@@ -56,6 +60,7 @@ public class PrintPreview extends Canvas {
 	private int horizontalPageCount = 1;
 	private int verticalPageCount = 1;
 	private boolean lazy = false;
+	private boolean backgroundLayout = false;
 
 	// The bounds of the paper on the printer device.
 	private Point paperSize = null;
@@ -63,6 +68,9 @@ public class PrintPreview extends Canvas {
 	private GC gc = null;
 
 	private PageEnumeration pageEnumeration = null;
+	private PageLayoutWorker layoutWorker = null;
+	private List stoppingWorkers = new ArrayList(); // List <PageLayoutWorker>
+	private Runnable backgroundLayoutCallback = null;
 	private List pages = null;
 	private Point pageDisplaySize = null;
 	private Point[] pageDisplayLocations = null;
@@ -193,6 +201,13 @@ public class PrintPreview extends Canvas {
 	 */
 	public boolean isPageLayoutComplete() {
 		checkWidget();
+		if (backgroundLayout) {
+			// check before taking the pages, so no page is left behind
+			boolean complete = layoutWorker != null
+					&& layoutWorker.isComplete();
+			fetchPages(ALL_PAGES);
+			return layoutWorker == null || complete;
+		}
 		fetchPages(horizontalPageCount * verticalPageCount);
 		return pageEnumeration == null || !pageEnumeration.hasNext();
 	}
@@ -366,34 +381,130 @@ public class PrintPreview extends Canvas {
 	}
 
 	/**
-	 * Begins lazy loading in the background, invoking the callback runnable
-	 * periodically as pages are laid out.
+	 * Returns whether pages are laid out on a background thread.
+	 * 
+	 * @return whether pages are laid out on a background thread.
+	 */
+	public boolean isBackgroundLayout() {
+		checkWidget();
+		return backgroundLayout;
+	}
+
+	/**
+	 * Sets whether pages are laid out on a background thread. When enabled,
+	 * the preview never waits for the layout: it displays the pages laid out
+	 * so far and redraws as more pages become ready, and
+	 * {@link #getPageCount()} grows as pages are laid out. The layout is
+	 * cancelled and started over when the print job or the printer changes.
+	 * 
+	 * @param backgroundLayout
+	 *            whether pages are laid out on a background thread.
+	 */
+	public void setBackgroundLayout(boolean backgroundLayout) {
+		checkWidget();
+		if (this.backgroundLayout != backgroundLayout) {
+			this.backgroundLayout = backgroundLayout;
+			disposePages();
+			redraw();
+		}
+	}
+
+	/**
+	 * Begins laying out pages on a background thread, invoking the callback
+	 * runnable on the user interface thread as pages are laid out, and once
+	 * more when the layout ends.
 	 * <p>
 	 * <b>NOTE:</b> This API is experimental and subject to change.
 	 * 
 	 * @param callback
 	 *            runnable that will be invoked periodically as pages are laid
 	 *            out.
+	 * @see #setBackgroundLayout(boolean)
 	 */
 	// TODO finalize experimental API
 	public void startBackgroundLayout(final Runnable callback) {
-		if (isPageLayoutComplete())
-			return;
+		checkWidget();
+		this.backgroundLayoutCallback = callback;
+		if (!backgroundLayout) {
+			if (isPageLayoutComplete())
+				return;
+			setBackgroundLayout(true);
+		}
+		fetchPages(ALL_PAGES);
+	}
 
-		final int DELAY = 10;
-		getDisplay().timerExec(DELAY, new Runnable() {
-			public void run() {
-				if (isDisposed())
+	private void fetchBackgroundPages() {
+		if (pages == null)
+			pages = new ArrayList();
+		if (layoutWorker == null) {
+			layoutWorker = new PageLayoutWorker(printJob, printer,
+					new LayoutCallback(getDisplay()));
+			layoutWorker.start();
+		}
+		boolean doRotate = orientationRequiresRotate();
+		PrintPiece[] newPages = layoutWorker.takePages();
+		for (int i = 0; i < newPages.length; i++) {
+			PrintPiece page = newPages[i];
+			if (doRotate)
+				page = new RotateClockwisePrintPiece(printer, page);
+			pages.add(page);
+		}
+	}
+
+	/**
+	 * Invoked by the layout worker on its own thread, posts a single pending
+	 * update to the user interface thread at a time.
+	 */
+	private class LayoutCallback implements Runnable {
+		private final Display display;
+		private boolean pending = false;
+
+		LayoutCallback(Display display) {
+			this.display = display;
+		}
+
+		public void run() {
+			synchronized (this) {
+				if (pending)
 					return;
-				if (!isPageLayoutComplete() && pages != null) {
-					fetchPages(pages.size() + 1);
-					if (!isPageLayoutComplete()) {
-						getDisplay().timerExec(DELAY, this);
-					}
-				}
-				callback.run();
+				pending = true;
 			}
-		});
+			try {
+				if (!display.isDisposed())
+					display.asyncExec(new Runnable() {
+						public void run() {
+							synchronized (LayoutCallback.this) {
+								pending = false;
+							}
+							publishBackgroundPages();
+						}
+					});
+			} catch (SWTException e) {
+				// display disposed in the meantime
+			}
+		}
+	}
+
+	private void publishBackgroundPages() {
+		if (isDisposed() || layoutWorker == null)
+			return;
+		PageLayoutWorker worker = layoutWorker;
+		int oldCount = pages == null ? 0 : pages.size();
+		fetchPages(ALL_PAGES);
+		int newCount = pages == null ? 0 : pages.size();
+		// redraw if any of the new pages is visible
+		if (newCount > oldCount
+				&& oldCount < pageIndex + horizontalPageCount
+						* verticalPageCount && newCount > pageIndex)
+			redraw();
+		if (backgroundLayoutCallback != null)
+			backgroundLayoutCallback.run();
+
+		Throwable error = worker.getError();
+		if (error instanceof RuntimeException)
+			throw (RuntimeException) error;
+		if (error instanceof Error)
+			throw (Error) error;
 	}
 
 	private void invalidatePageDisplayBounds() {
@@ -528,6 +639,10 @@ public class PrintPreview extends Canvas {
 	private void fetchPages(int endIndex) {
 		if (getPrintJob() == null || getPrinter() == null)
 			return;
+		if (backgroundLayout) {
+			fetchBackgroundPages();
+			return;
+		}
 		if (pageEnumeration == null) {
 			if (getGC() == null)
 				return;
@@ -741,6 +856,15 @@ public class PrintPreview extends Canvas {
 	}
 
 	private void disposePages() {
+		if (layoutWorker != null) {
+			// the worker stops after the page being laid out
+			layoutWorker.cancel();
+			for (Iterator it = stoppingWorkers.iterator(); it.hasNext();)
+				if (((PageLayoutWorker) it.next()).isComplete())
+					it.remove();
+			stoppingWorkers.add(layoutWorker);
+			layoutWorker = null;
+		}
 		if (pages != null) {
 			pageEnumeration = null;
 			for (int i = 0; i < pages.size(); i++)
@@ -753,6 +877,11 @@ public class PrintPreview extends Canvas {
 
 	private void disposePrinter() {
 		disposePages();
+		// wait until the cancelled workers no longer use the printer
+		for (Iterator it = stoppingWorkers.iterator(); it.hasNext();) {
+			((PageLayoutWorker) it.next()).dispose();
+			it.remove();
+		}
 		if (printer != null) {
 			disposeGC();
 			PaperClips.endDummyJob(printer);
@@ -129,6 +129,64 @@ public class TableComboTests {
 
 	}
 
+	/**
+	 * Ensures that a virtual {@link TableCombo} finds, selects and filters the
+	 * items of its content supplier.
+	 */
+	@Test
+	public void testVirtualContent() {
+
+		/*
+		 * GIVEN a virtual TableCombo with a large content and prefix filtering.
+		 */
+		final TableCombo tableCombo = new TableCombo(shell, SWT.VIRTUAL);
+		tableCombo.setLayoutData(new GridData(SWT.FILL, SWT.DEFAULT, true, false));
+		tableCombo.setContent(150000, index -> new String[] { "Item " + index });
+		tableCombo.setFilterMode(TableCombo.FILTER_PREFIX);
+		shell.open();
+
+		/*
+		 * WHEN an item is selected by its text
+		 */
+		tableCombo.setText("Item 12345");
+
+		/*
+		 * THEN the item is found and selected without filtering the items.
+		 */
+		assertEquals(150000, tableCombo.getItemCount());
+		assertEquals("Item 12345", tableCombo.getItem(12345));
+		assertEquals(12345, tableCombo.indexOf("Item 12345"));
+		assertEquals(12345, tableCombo.getSelectionIndex());
+		assertEquals(150000, tableCombo.getTable().getItemCount());
+
+		/*
+		 * WHEN the user types a prefix and then a longer one
+		 */
+		tableCombo.getTextControl().setText("Item 1234");
+		final int prefixRows = tableCombo.getTable().getItemCount();
+		tableCombo.getTextControl().setText("Item 12345");
+
+		/*
+		 * THEN the drop down only shows the items starting with the typed text.
+		 */
+		assertEquals(111, prefixRows);
+		assertEquals(11, tableCombo.getTable().getItemCount());
+		assertEquals("Item 12345", tableCombo.getTable().getItem(0).getText());
+		assertEquals("Item 123459", tableCombo.getTable().getItem(10).getText());
+
+		/*
+		 * WHEN an item that is filtered out is selected
+		 */
+		tableCombo.select(7);
+
+		/*
+		 * THEN the filter is cleared and the item is selected.
+		 */
+		assertEquals(150000, tableCombo.getTable().getItemCount());
+		assertEquals(7, tableCombo.getSelectionIndex());
+		assertEquals("Item 7", tableCombo.getText());
+	}
+
 	private TableCombo createTableCombo(final Composite parent, final int noOfColumns, final int noOfItems) {
 		final TableCombo result = new TableCombo(parent, SWT.NONE);
 		result.setLayoutData(new GridData(SWT.FILL, SWT.DEFAULT, true, false));
@@ -19,6 +19,10 @@
 package org.eclipse.nebula.widgets.tablecombo;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -70,12 +74,19 @@ import org.eclipse.swt.widgets.Widget;
  * columns of data in the "Drop Down" portion of the combo.
  * </p>
  * <p>
+ * A TableCombo created with the <code>VIRTUAL</code> style gets its items from
+ * a content supplier set with {@link #setContent(int, IntFunction)} instead of
+ * <code>TableItem</code>s, and only creates the items of the drop down that are
+ * shown. The items can then be filtered as the user types, see
+ * {@link #setFilterMode(int)}.
+ * </p>
+ * <p>
  * Special Note: Although this class is a subclass of <code>Composite</code>, it
  * does not make sense to add children to it, or set a layout on it.
  * </p>
  * <dl>
  * <dt><b>Styles:</b>
- * <dd>BORDER, READ_ONLY, FLAT</dd>
+ * <dd>BORDER, READ_ONLY, FLAT, VIRTUAL</dd>
  * <dt><b>Events:</b>
  * <dd>DefaultSelection, Modify, Selection, Verify</dd>
  * </dl>
@@ -83,6 +94,27 @@ import org.eclipse.swt.widgets.Widget;
  */
 
 public class TableCombo extends Composite {
+	/**
+	 * Filter mode in which typing in the text field does not filter the items
+	 * (the default).
+	 */
+	public static final int FILTER_NONE = 0;
+	/**
+	 * Filter mode in which the drop down only shows the items whose text starts
+	 * with the text typed in the text field, ignoring case.
+	 */
+	public static final int FILTER_PREFIX = 1;
+	/**
+	 * Filter mode in which the drop down only shows the items whose text contains
+	 * the text typed in the text field, ignoring case.
+	 */
+	public static final int FILTER_CONTAINS = 2;
+
+	/**
+	 * the number of longest texts measured to estimate the width of the content
+	 */
+	private static final int WIDTH_SAMPLE_SIZE = 64;
+
 	private Shell popup;
 	private Button arrow;
 	private Label selectedImage;
@@ -104,6 +136,21 @@ public class TableCombo extends Composite {
 	private boolean closePupupAfterSelection = true;
 	private boolean selectOnEnter = true;
 	private boolean updateTextWithinSelection = true;
+	private boolean updatingText = false;
+
+	// virtual content and the caches derived from it
+	private IntFunction<String[]> contentSupplier;
+	private int contentCount;
+	private String[] displayTexts;
+	private int displayTextsColumn = -1;
+	private String[] filterTexts;
+	private Map<String, Integer> textIndex;
+	private int cachedMaxTextWidth = -1;
+
+	// the content indices of the table rows if filtered, null otherwise
+	private int filterMode = FILTER_NONE;
+	private String filter = "";
+	private int[] filteredRows;
 
 	/**
 	 * Constructs a new instance of this class given its parent and a style value
@@ -136,6 +183,7 @@ public class TableCombo extends Composite {
 	 * @see SWT#BORDER
 	 * @see SWT#READ_ONLY
 	 * @see SWT#FLAT
+	 * @see SWT#VIRTUAL
 	 * @see Widget#getStyle()
 	 */
 	public TableCombo(final Composite parent, int style) {
@@ -278,7 +326,8 @@ public class TableCombo extends Composite {
 	 * @return
 	 */
 	private static int checkStyle(final int style) {
-		final int mask = SWT.BORDER | SWT.READ_ONLY | SWT.FLAT | SWT.LEFT_TO_RIGHT | SWT.RIGHT_TO_LEFT;
+		final int mask = SWT.BORDER | SWT.READ_ONLY | SWT.FLAT | SWT.VIRTUAL | SWT.LEFT_TO_RIGHT
+				| SWT.RIGHT_TO_LEFT;
 		return SWT.NO_FOCUS | style & mask;
 	}
 
@@ -577,26 +626,31 @@ public class TableCombo extends Composite {
 			overallWidth = wHint;
 			overallHeight = hHint;
 		} else {
-			final TableItem[] tableItems = table.getItems();
-
 			final GC gc = new GC(text);
 			final int spacer = gc.stringExtent(" ").x; //$NON-NLS-1$
 			int maxTextWidth = gc.stringExtent(text.getText()).x;
-			final int colIndex = getDisplayColumnIndex();
 			int maxImageHeight = 0;
-			int currTextWidth = 0;
 
-			// calculate the maximum text width and image height.
-			for (final TableItem tableItem : tableItems) {
-				currTextWidth = gc.stringExtent(tableItem.getText(colIndex)).x;
+			if (contentSupplier != null) {
+				// virtual content has no images and is too large to be measured.
+				maxTextWidth = Math.max(getMaxDisplayTextWidth(gc), maxTextWidth);
+			} else {
+				final TableItem[] tableItems = table.getItems();
+				final int colIndex = getDisplayColumnIndex();
+				int currTextWidth = 0;
+
+				// calculate the maximum text width and image height.
+				for (final TableItem tableItem : tableItems) {
+					currTextWidth = gc.stringExtent(tableItem.getText(colIndex)).x;
+
+					// take image into account if there is one for the tableitem.
+					if (tableItem.getImage() != null) {
+						currTextWidth += tableItem.getImage().getBounds().width;
+						maxImageHeight = Math.max(tableItem.getImage().getBounds().height, maxImageHeight);
+					}
 
-				// take image into account if there is one for the tableitem.
-				if (tableItem.getImage() != null) {
-					currTextWidth += tableItem.getImage().getBounds().width;
-					maxImageHeight = Math.max(tableItem.getImage().getBounds().height, maxImageHeight);
+					maxTextWidth = Math.max(currTextWidth, maxTextWidth);
 				}
-
-				maxTextWidth = Math.max(currTextWidth, maxTextWidth);
 			}
 
 			gc.dispose();
@@ -650,7 +704,7 @@ public class TableCombo extends Composite {
 		popup = new Shell(getShell(), SWT.NO_TRIM | SWT.ON_TOP);
 
 		// create table
-		table = new Table(popup, SWT.SINGLE | SWT.FULL_SELECTION);
+		table = new Table(popup, SWT.SINGLE | SWT.FULL_SELECTION | getStyle() & SWT.VIRTUAL);
 
 		if (font != null) {
 			table.setFont(font);
@@ -670,7 +724,7 @@ public class TableCombo extends Composite {
 
 		// add table listeners
 		final int[] tableEvents = { SWT.MouseUp, SWT.Selection, SWT.Traverse, SWT.KeyDown, SWT.KeyUp, SWT.FocusIn,
-				SWT.Dispose };
+				SWT.Dispose, SWT.SetData };
 		for (final int tableEvent : tableEvents) {
 			table.addListener(tableEvent, listener);
 		}
@@ -916,6 +970,12 @@ public class TableCombo extends Composite {
 	 */
 	public String getItem(final int index) {
 		checkWidget();
+		if (contentSupplier != null) {
+			if (index < 0 || index >= contentCount) {
+				SWT.error(SWT.ERROR_INVALID_RANGE);
+			}
+			return getDisplayText(index);
+		}
 		return table.getItem(index).getText(getDisplayColumnIndex());
 	}
 
@@ -934,7 +994,7 @@ public class TableCombo extends Composite {
 	 */
 	public int getItemCount() {
 		checkWidget();
-		return table.getItemCount();
+		return contentSupplier != null ? contentCount : table.getItemCount();
 	}
 
 	/**
@@ -977,6 +1037,10 @@ public class TableCombo extends Composite {
 	public String[] getItems() {
 		checkWidget();
 
+		if (contentSupplier != null) {
+			return getDisplayTexts().clone();
+		}
+
 		// get a list of the table items.
 		final TableItem[] tableItems = table.getItems();
 
@@ -1032,7 +1096,7 @@ public class TableCombo extends Composite {
 	 */
 	public int getSelectionIndex() {
 		checkWidget();
-		return table.getSelectionIndex();
+		return toContentIndex(table.getSelectionIndex());
 	}
 
 	/**
@@ -1183,6 +1247,11 @@ public class TableCombo extends Composite {
 			SWT.error(SWT.ERROR_NULL_ARGUMENT);
 		}
 
+		if (contentSupplier != null) {
+			final Integer index = getTextIndex().get(string);
+			return index == null ? -1 : index;
+		}
+
 		// get a list of the table items.
 		final TableItem[] tableItems = table.getItems();
 
@@ -1228,6 +1297,24 @@ public class TableCombo extends Composite {
 			SWT.error(SWT.ERROR_NULL_ARGUMENT);
 		}
 
+		if (contentSupplier != null) {
+			// the index has the first occurrence, only scan if it is before start.
+			final Integer first = getTextIndex().get(string);
+			if (first == null) {
+				return -1;
+			}
+			if (first >= start) {
+				return first;
+			}
+			final String[] texts = getDisplayTexts();
+			for (int index = start; index < contentCount; index++) {
+				if (string.equals(texts[index])) {
+					return index;
+				}
+			}
+			return -1;
+		}
+
 		// get a list of the table items.
 		final TableItem[] tableItems = table.getItems();
 
@@ -1486,6 +1573,16 @@ public class TableCombo extends Composite {
 			handleFocus(SWT.FocusIn);
 			break;
 		}
+		case SWT.SetData: {
+			if (contentSupplier == null) {
+				return;
+			}
+			final String[] texts = contentSupplier.apply(toContentIndex(event.index));
+			if (texts != null) {
+				((TableItem) event.item).setText(texts);
+			}
+			break;
+		}
 		case SWT.MouseUp: {
 			if (event.button != 1) {
 				return;
@@ -1822,18 +1919,39 @@ public class TableCombo extends Composite {
 			return;
 		}
 
-		if (0 <= index && index < table.getItemCount()) {
+		if (0 <= index && index < getItemCount()) {
 			if (index != getSelectionIndex()) {
 
+				// show the item if it was filtered out.
+				int row = toTableRow(index);
+				if (row == -1) {
+					filterItems("");
+					row = index;
+				}
+
 				// refresh the text field and image label
-				refreshText(index);
+				refreshText(row);
 
 				// select the row in the table.
-				table.setSelection(index);
+				table.setSelection(row);
 			}
 		}
 	}
 
+	/**
+	 * Selects the given zero-relative row of the drop down table, which is the
+	 * index of the item unless the items are filtered.
+	 *
+	 * @param row
+	 *            the table row to select
+	 */
+	private void selectRow(final int row) {
+		if (0 <= row && row < table.getItemCount() && row != table.getSelectionIndex()) {
+			refreshText(row);
+			table.setSelection(row);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1919,6 +2037,7 @@ public class TableCombo extends Composite {
 	public void setFont(final Font font) {
 		super.setFont(font);
 		this.font = font;
+		cachedMaxTextWidth = -1;
 		text.setFont(font);
 		table.setFont(font);
 		internalLayout(true, true);
@@ -2326,6 +2445,99 @@ public class TableCombo extends Composite {
 		closePupupAfterSelection = closePopupAfterSelection;
 	}
 
+	/**
+	 * Sets the content of a receiver created with the <code>VIRTUAL</code> style.
+	 * <p>
+	 * The supplier is called with the zero-relative index of an item and returns
+	 * the texts of its columns. It is called when an item of the drop down is shown
+	 * and, once for every item, when the items are searched, filtered or measured;
+	 * so it should be fast and must keep returning the same texts until the
+	 * content is set again. Call this method again when the content changes.
+	 * </p>
+	 *
+	 * @param itemCount
+	 *            the number of items
+	 * @param supplier
+	 *            the supplier of the column texts of an item
+	 *
+	 * @exception IllegalArgumentException
+	 *                <ul>
+	 *                <li>ERROR_NULL_ARGUMENT - if the supplier is null</li>
+	 *                <li>ERROR_INVALID_ARGUMENT - if the receiver was not created
+	 *                with the <code>VIRTUAL</code> style</li>
+	 *                </ul>
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *                disposed</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS - if not called from the
+	 *                thread that created the receiver</li>
+	 *                </ul>
+	 */
+	public void setContent(final int itemCount, final IntFunction<String[]> supplier) {
+		checkWidget();
+		if (supplier == null) {
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		}
+		if ((table.getStyle() & SWT.VIRTUAL) == 0) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+
+		contentSupplier = supplier;
+		contentCount = Math.max(0, itemCount);
+		displayTexts = null;
+		filterTexts = null;
+		textIndex = null;
+		cachedMaxTextWidth = -1;
+		filteredRows = null;
+		filter = "";
+
+		table.deselectAll();
+		table.setItemCount(contentCount);
+		table.clearAll();
+	}
+
+	/**
+	 * Sets how the items of a receiver with content set by
+	 * {@link #setContent(int, IntFunction)} are filtered when the user types in
+	 * the text field: one of {@link #FILTER_NONE} (the default),
+	 * {@link #FILTER_PREFIX} or {@link #FILTER_CONTAINS}. Each key stroke narrows
+	 * the rows of the drop down that matched the previous text if it can, and the
+	 * rows are only recreated when they are shown.
+	 *
+	 * @param filterMode
+	 *            the new filter mode
+	 */
+	public void setFilterMode(final int filterMode) {
+		checkWidget();
+		if (filterMode == this.filterMode) {
+			return;
+		}
+		this.filterMode = filterMode;
+
+		// the current rows are not a superset of the rows matching another mode
+		final boolean filtered = filteredRows != null;
+		filteredRows = null;
+		filter = "";
+		if (filtered) {
+			table.deselectAll();
+			table.setItemCount(contentCount);
+			table.clearAll();
+		}
+		filterItems(text.getText());
+	}
+
+	/**
+	 * Returns how the items are filtered when the user types in the text field.
+	 *
+	 * @return one of {@link #FILTER_NONE}, {@link #FILTER_PREFIX} or
+	 *         {@link #FILTER_CONTAINS}
+	 */
+	public int getFilterMode() {
+		checkWidget();
+		return filterMode;
+	}
+
 	/**
 	 * returns the column index of the TableColumn to be displayed when selected.
 	 *
@@ -2336,6 +2548,186 @@ public class TableCombo extends Composite {
 		return displayColumnIndex <= table.getColumnCount() - 1 ? displayColumnIndex : 0;
 	}
 
+	/**
+	 * returns the display text of the given column texts from the content
+	 * supplier.
+	 */
+	private static String getDisplayText(final String[] texts, final int colIndex) {
+		if (texts == null || colIndex >= texts.length || texts[colIndex] == null) {
+			return ""; //$NON-NLS-1$
+		}
+		return texts[colIndex];
+	}
+
+	/**
+	 * returns the display text of the item at the given content index.
+	 */
+	private String getDisplayText(final int index) {
+		final int colIndex = getDisplayColumnIndex();
+		if (displayTexts != null && displayTextsColumn == colIndex) {
+			return displayTexts[index];
+		}
+		return getDisplayText(contentSupplier.apply(index), colIndex);
+	}
+
+	/**
+	 * returns the display texts of all items of the content, which are fetched
+	 * from the content supplier once and then kept until the content or the
+	 * display column changes.
+	 */
+	private String[] getDisplayTexts() {
+		final int colIndex = getDisplayColumnIndex();
+		if (displayTexts == null || displayTextsColumn != colIndex) {
+			final String[] texts = new String[contentCount];
+			for (int index = 0; index < contentCount; index++) {
+				texts[index] = getDisplayText(contentSupplier.apply(index), colIndex);
+			}
+			displayTexts = texts;
+			displayTextsColumn = colIndex;
+			filterTexts = null;
+			textIndex = null;
+			cachedMaxTextWidth = -1;
+		}
+		return displayTexts;
+	}
+
+	/**
+	 * returns the lower case display texts of all items of the content.
+	 */
+	private String[] getFilterTexts() {
+		final String[] texts = getDisplayTexts();
+		if (filterTexts == null) {
+			filterTexts = new String[texts.length];
+			for (int index = 0; index < texts.length; index++) {
+				filterTexts[index] = texts[index].toLowerCase();
+			}
+		}
+		return filterTexts;
+	}
+
+	/**
+	 * returns the index of the first item with each display text of the content.
+	 */
+	private Map<String, Integer> getTextIndex() {
+		final String[] texts = getDisplayTexts();
+		if (textIndex == null) {
+			textIndex = new HashMap<>(texts.length * 4 / 3 + 1);
+			for (int index = 0; index < texts.length; index++) {
+				textIndex.putIfAbsent(texts[index], index);
+			}
+		}
+		return textIndex;
+	}
+
+	/**
+	 * returns the width of the widest display text of the content. Measuring every
+	 * text is too slow for a large content, so only the longest texts are measured
+	 * and the result is kept until the content, the display column or the font
+	 * changes.
+	 */
+	private int getMaxDisplayTextWidth(final GC gc) {
+		final String[] texts = getDisplayTexts();
+		if (cachedMaxTextWidth == -1) {
+			final String[] sample = new String[Math.min(WIDTH_SAMPLE_SIZE, texts.length)];
+			int count = 0;
+			int shortest = 0;
+			for (final String candidate : texts) {
+				if (count < sample.length) {
+					sample[count++] = candidate;
+				} else if (candidate.length() > sample[shortest].length()) {
+					sample[shortest] = candidate;
+				} else {
+					continue;
+				}
+				if (count == sample.length) {
+					shortest = 0;
+					for (int index = 1; index < sample.length; index++) {
+						if (sample[index].length() < sample[shortest].length()) {
+							shortest = index;
+						}
+					}
+				}
+			}
+
+			int maxTextWidth = 0;
+			for (final String candidate : sample) {
+				maxTextWidth = Math.max(gc.stringExtent(candidate).x, maxTextWidth);
+			}
+			cachedMaxTextWidth = maxTextWidth;
+		}
+		return cachedMaxTextWidth;
+	}
+
+	/**
+	 * Shows only the items of the content that match the given text in the drop
+	 * down. When the text only extends the previous one, just the rows that
+	 * matched it are checked again.
+	 *
+	 * @param newFilter
+	 *            the text typed by the user
+	 */
+	private void filterItems(final String newFilter) {
+		if (contentSupplier == null || filterMode == FILTER_NONE) {
+			return;
+		}
+
+		final String key = newFilter.toLowerCase();
+		if (key.isEmpty()) {
+			if (filteredRows != null) {
+				filteredRows = null;
+				filter = "";
+				table.setItemCount(contentCount);
+				table.clearAll();
+			}
+			return;
+		}
+		if (filteredRows != null && key.equals(filter)) {
+			return;
+		}
+
+		// a longer prefix (or a text containing the previous one) can only match
+		// a subset of the rows that are shown.
+		final boolean narrow = filteredRows != null
+				&& (filterMode == FILTER_PREFIX ? key.startsWith(filter) : key.contains(filter));
+		final String[] texts = getFilterTexts();
+		final int candidates = narrow ? filteredRows.length : contentCount;
+		final int[] rows = new int[candidates];
+		int count = 0;
+		for (int candidate = 0; candidate < candidates; candidate++) {
+			final int index = narrow ? filteredRows[candidate] : candidate;
+			if (filterMode == FILTER_PREFIX ? texts[index].startsWith(key) : texts[index].contains(key)) {
+				rows[count++] = index;
+			}
+		}
+
+		filteredRows = Arrays.copyOf(rows, count);
+		filter = key;
+		table.setItemCount(count);
+		table.clearAll();
+	}
+
+	/**
+	 * returns the content index of the item in the given table row.
+	 */
+	private int toContentIndex(final int row) {
+		if (row == -1 || filteredRows == null) {
+			return row;
+		}
+		return filteredRows[row];
+	}
+
+	/**
+	 * returns the table row of the item at the given content index, or -1 if the
+	 * item is filtered out.
+	 */
+	private int toTableRow(final int index) {
+		if (filteredRows == null) {
+			return index;
+		}
+		final int row = Arrays.binarySearch(filteredRows, index);
+		return row < 0 ? -1 : row;
+	}
+
 	/*
 	 * Return the lowercase of the first non-'&' character following an '&'
 	 * character in the given string. If there are no '&' characters in the given
@@ -2364,6 +2756,9 @@ public class TableCombo extends Composite {
 
 	/**
 	 * Refreshes the label control with the selected object's details.
+	 *
+	 * @param index
+	 *            the table row of the selected object
 	 */
 	private void refreshText(final int index) {
 
@@ -2396,7 +2791,13 @@ public class TableCombo extends Composite {
 
 		// set the label text.
 		if (updateTextWithinSelection) {
-			text.setText(tableItem.getText(colIndexToUse));
+			// a selected text does not filter the items
+			updatingText = true;
+			try {
+				text.setText(tableItem.getText(colIndexToUse));
+			} finally {
+				updatingText = false;
+			}
 		}
 		text.selectAll();
 	}
@@ -2509,9 +2910,9 @@ public class TableCombo extends Composite {
 
 				final int oldIndex = table.getSelectionIndex();
 				if (event.keyCode == SWT.ARROW_UP) {
-					select(Math.max(oldIndex - 1, 0));
+					selectRow(Math.max(oldIndex - 1, 0));
 				} else {
-					select(Math.min(oldIndex + 1, getItemCount() - 1));
+					selectRow(Math.min(oldIndex + 1, table.getItemCount() - 1));
 				}
 				if (oldIndex != table.getSelectionIndex()) {
 					final Event e = new Event();
@@ -2524,8 +2925,6 @@ public class TableCombo extends Composite {
 				}
 			}
 
-			// Further work : Need to add support for incremental search in
-			// pop up list as characters typed in text widget
 			break;
 		}
 		case SWT.KeyUp: {
@@ -2546,6 +2945,9 @@ public class TableCombo extends Composite {
 		}
 		case SWT.Modify: {
 			table.deselectAll();
+			if (!updatingText) {
+				filterItems(text.getText());
+			}
 			final Event e = new Event();
 			e.time = event.time;
 			notifyListeners(SWT.Modify, e);
@@ -2634,9 +3036,9 @@ public class TableCombo extends Composite {
 				event.doit = false;
 				final int oldIndex = table.getSelectionIndex();
 				if (event.count > 0) {
-					select(Math.max(oldIndex - 1, 0));
+					selectRow(Math.max(oldIndex - 1, 0));
 				} else {
-					select(Math.min(oldIndex + 1, getItemCount() - 1));
+					selectRow(Math.min(oldIndex + 1, table.getItemCount() - 1));
 				}
 				if (oldIndex != table.getSelectionIndex()) {
 					final Event e = new Event();
@@ -10,14 +10,22 @@
 *******************************************************************************/
 package org.eclipse.nebula.widgets.treemapper.tests;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.draw2d.ColorConstants;
+import org.eclipse.draw2d.IFigure;
 import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.nebula.widgets.treemapper.ISemanticTreeMapperSupport;
 import org.eclipse.nebula.widgets.treemapper.TreeMapper;
 import org.eclipse.nebula.widgets.treemapper.TreeMapperUIConfigProvider;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Tree;
 import org.junit.Test;
 
 /**
@@ -26,6 +34,27 @@ import org.junit.Test;
  */
 public class ProgrammaticTest {
 
+	/**
+	 * Gives access to the figures of the links
+	 */
+	private static class TestTreeMapper extends TreeMapper<String, String, String> {
+
+		public TestTreeMapper(Composite parent, ISemanticTreeMapperSupport<String, String, String> semanticSupport,
+				TreeMapperUIConfigProvider uiConfig) {
+			super(parent, semanticSupport, uiConfig);
+		}
+
+		private List<IFigure> getLinkFigures() {
+			List<IFigure> res = new ArrayList<IFigure>();
+			for (Object child : getLinkRootFigure().getChildren()) {
+				res.add((IFigure) child);
+			}
+			return res;
+		}
+	}
+
+	private TestTreeMapper mapper;
+
 	/**
 	 * @param treeContent
 	 * @param mappings
@@ -37,7 +66,7 @@ public class ProgrammaticTest {
 			@Override
 			public Composite createDialogArea(Composite parent) {
 				Composite res = (Composite)super.createDialogArea(parent);
-				TreeMapper<String, String, String> mapper = new TreeMapper<String, String, String>(
+				mapper = new TestTreeMapper(
 						parent,
 						new ObjectSemanticSupport(),
 						new TreeMapperUIConfigProvider(ColorConstants.blue, 2, ColorConstants.darkBlue, 4));
@@ -69,4 +98,53 @@ public class ProgrammaticTest {
 		dialog.close();
 	}
 
+	@Test
+	public void testManyMappings() {
+		final String[] treeContent = new String[5000];
+		for (int i = 0; i < treeContent.length; i++) {
+			treeContent[i] = "item" + i;
+		}
+		Dialog dialog = openMapperDialog(treeContent, treeContent);
+		processEvents();
+		List<IFigure> figures = mapper.getLinkFigures();
+		// only the links of the visible rows are drawn
+		assertTrue(countVisible(figures) > 0);
+		assertTrue(figures.size() < treeContent.length);
+		
+		// refreshing keeps the figures
+		mapper.refresh();
+		processEvents();
+		assertTrue(mapper.getLinkFigures().containsAll(figures));
+		
+		// links scrolled out are hidden
+		Tree leftTree = mapper.getLeftTreeViewer().getTree();
+		Tree rightTree = mapper.getRightTreeViewer().getTree();
+		leftTree.setTopItem(leftTree.getItem(4000));
+		rightTree.setTopItem(rightTree.getItem(4000));
+		processEvents();
+		for (IFigure figure : figures) {
+			assertFalse(figure.isVisible());
+		}
+		assertTrue(countVisible(mapper.getLinkFigures()) > 0);
+		dialog.close();
+	}
+
+	private void processEvents() {
+		mapper.getLeftTreeViewer().getTree().update();
+		mapper.getRightTreeViewer().getTree().update();
+		while (Display.getDefault().readAndDispatch()) {
+			// paint the trees, which draws the links
+		}
+	}
+
+	private static int countVisible(List<IFigure> figures) {
+		int res = 0;
+		for (IFigure figure : figures) {
+			if (figure.isVisible()) {
+				res++;
+			}
+		}
+		return res;
+	}
+
 }
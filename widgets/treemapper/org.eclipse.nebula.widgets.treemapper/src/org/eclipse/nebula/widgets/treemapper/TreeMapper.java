@@ -13,11 +13,15 @@ package org.eclipse.nebula.widgets.treemapper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -44,6 +48,7 @@ import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.nebula.widgets.treemapper.internal.LinkFigure;
+import org.eclipse.nebula.widgets.treemapper.internal.LinkIndex;
 import org.eclipse.nebula.widgets.treemapper.internal.Messages;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.SashForm;
@@ -64,7 +69,9 @@ import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
 
 /**
  * A TreeMapper is a composite viewer the creates 2 {@link TreeViewer} (left and right)
@@ -102,7 +109,44 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 	private M selectedMapping;
 	private ISemanticTreeMapperSupport<M, L, R> semanticSupport;
 	private IFigure warningFigure;
+	private Map<M, MappingEnds> mappingsToEnds;
+	private List<M> links;
+	private Anchor[] leftLinkAnchors;
+	private Anchor[] rightLinkAnchors;
+	private boolean[] bundledLinks;
+	private LinkIndex linkIndex;
+	private Set<LinkFigure> shownFigures = new HashSet<LinkFigure>();
 
+	/**
+	 * The tree elements a mapping links, as resolved by the {@link ISemanticTreeMapperSupport}
+	 */
+	private class MappingEnds {
+		private final L left;
+		private final R right;
+
+		private MappingEnds(L left, R right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * Where the link to a tree element is drawn: the item of the element, or of its
+	 * collapsed ancestor if the element is not visible. The y is relative to the first
+	 * row of the tree, so it does not change when the tree scrolls.
+	 */
+	private static class Anchor {
+		private final TreeItem item;
+		private final boolean visible;
+		private final int y;
+
+		private Anchor(TreeItem item, boolean visible, int origin) {
+			this.item = item;
+			this.visible = visible;
+			org.eclipse.swt.graphics.Rectangle bounds = item.getBounds();
+			this.y = bounds.y + bounds.height / 2 - origin;
+		}
+	}
 	
 	public TreeMapper(Composite parent, ISemanticTreeMapperSupport<M, L, R> semanticSupport, TreeMapperUIConfigProvider uiConfig) {
 		this.uiConfig = uiConfig;
@@ -111,6 +155,7 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 		control.setLayout(new FillLayout());
 		// left
 		leftTreeViewer = new TreeViewer(control);
+		leftTreeViewer.setUseHashlookup(true);
 		//center
 		linkCanvas = new Canvas(control, SWT.NONE);
 		linkCanvas.setLayout(new FillLayout());
@@ -121,9 +166,11 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 		linkSystem.setContents(linkRootFigure);
 		// right
 		rightTreeViewer = new TreeViewer(control);
+		rightTreeViewer.setUseHashlookup(true);
 		
 		figuresToMappings = new HashMap<LinkFigure, M>();
 		mappingsToFigures = new HashMap<M, LinkFigure>();
+		mappingsToEnds = new HashMap<M, MappingEnds>();
 		
 		// Resize
 		ControlListener resizeListener = new ControlListener() {
@@ -175,7 +222,9 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 	
 	/**
 	 * Set the content providers for both trees.
-	 * Both tree provides MUST HAVE their {@link ITreeContentProvider#getParent(Object)} method implemeneted.
+	 * Both tree provides MUST HAVE their {@link ITreeContentProvider#getParent(Object)} method implemeneted,
+	 * it is used to find the collapsed ancestor a mapping is drawn to. Tree items are looked up by
+	 * element, so elements MUST HAVE consistent equals and hashCode methods.
 	 * @param leftContentProvider An {@link ITreeContentProvider} that node are instances of the <b>L<b> type parameter.
 	 * @param rightTreeContentProvider An {@link ITreeContentProvider} that node are instances of the <b>R<b> type parameter.
 	 */
@@ -199,7 +248,11 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 	 * and {@link INewMappingListener} to track the creation of mapping.
 	 */
 	public void setInput(Object leftTreeInput, Object rightTreeInput, List<M> mappings) {
-		clearFigures();
+		if ((leftTreeInput != null && leftTreeInput != leftTreeViewer.getInput())
+				|| (rightTreeInput != null && rightTreeInput != rightTreeViewer.getInput())) {
+			// mappings may link other elements of the new input
+			mappingsToEnds.clear();
+		}
 		if (leftTreeInput != null) {
 			leftTreeViewer.setInput(leftTreeInput);
 		}
@@ -208,39 +261,130 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 		}
 		if (mappings != null) {
 			this.mappings = mappings;
-			canvasNeedRedraw = true;
 		} else {
 			this.mappings = new ArrayList<M>();
 		}
-		// Synchronize tree and viewers for mappings:
-		// Expand left and right items of mappings, and then restore
-		// tree to previous state
-		for (M mapping : this.mappings) {
-			L leftItem = semanticSupport.resolveLeftItem(mapping);
-			leftTreeViewer.expandToLevel(leftItem, 0);
-			R rightItem = semanticSupport.resolveRightItem(mapping);
-			rightTreeViewer.expandToLevel(rightItem, 0);
-		}
-
+		canvasNeedRedraw = true;
 	}
 
 	/**
 	 * DO NOT USE IN CODE. Prefer setting "canvasNeedsRedraw" field to true to
 	 * avoid useless operations.
+	 * Link figures are kept between redraws and only moved when the rows of their
+	 * items moved. Mappings are only indexed again when the trees changed, a scroll
+	 * only looks up the links crossing the visible rows: links whose ends are both above
+	 * or both below the visible rows are hidden, and their figures are not created
+	 * until they get visible.
 	 * @param mappings
 	 */
 	private void redrawMappings() {
 		if (this.mappings == null) {
 			return;
 		}
+		if (canvasNeedRedraw || linkIndex == null) {
+			indexMappings();
+		}
+		
+		Tree leftTree = leftTreeViewer.getTree();
+		Tree rightTree = rightTreeViewer.getTree();
+		int leftOrigin = getOrigin(leftTree);
+		int rightOrigin = getOrigin(rightTree);
+		int width = linkRootFigure.getBounds().width;
+		BitSet visibleLinks = linkIndex.getVisibleLinks(
+				-leftOrigin, leftTree.getClientArea().height - leftOrigin,
+				-rightOrigin, rightTree.getClientArea().height - rightOrigin);
+		Set<LinkFigure> figures = new HashSet<LinkFigure>();
+		for (int i = visibleLinks.nextSetBit(0); i >= 0; i = visibleLinks.nextSetBit(i + 1)) {
+			M mapping = links.get(i);
+			if (bundledLinks[i] && mapping != selectedMapping) {
+				continue;
+			}
+			LinkFigure figure = getFigure(mapping);
+			figure.setLeftPoint(0, leftLinkAnchors[i].y + leftOrigin);
+			figure.setLeftMappingVisible(leftLinkAnchors[i].visible);
+			figure.setRightPoint(width, rightLinkAnchors[i].y + rightOrigin);
+			figure.setRightMappingVisible(rightLinkAnchors[i].visible);
+			figure.setVisible(true);
+			figures.add(figure);
+		}
+		for (LinkFigure figure : shownFigures) {
+			if (!figures.contains(figure)) {
+				figure.setVisible(false);
+			}
+		}
+		shownFigures = figures;
+	}
+
+	/**
+	 * Finds where the links of all mappings are drawn, and removes the figures of the
+	 * mappings removed from the list. Mappings drawn between the same items, where one
+	 * of them stands for a collapsed subtree, are drawn as a single link.
+	 */
+	private void indexMappings() {
+		Map<Object, Anchor> leftAnchors = new HashMap<Object, Anchor>();
+		Map<Object, Anchor> rightAnchors = new HashMap<Object, Anchor>();
+		int leftOrigin = getOrigin(leftTreeViewer.getTree());
+		int rightOrigin = getOrigin(rightTreeViewer.getTree());
+		Set<List<TreeItem>> bundles = new HashSet<List<TreeItem>>();
+		Set<M> indexedMappings = new HashSet<M>();
+		List<M> newLinks = new ArrayList<M>();
+		List<Anchor> lefts = new ArrayList<Anchor>();
+		List<Anchor> rights = new ArrayList<Anchor>();
+		List<Boolean> bundled = new ArrayList<Boolean>();
 		
 		boolean everythingOK = true;
 		for (M mapping : this.mappings) {
-			everythingOK &= drawMapping(mapping);
-			if (mapping == selectedMapping) {
-				LinkFigure newSelectedFigure = mappingsToFigures.get(mapping);
-				applySelectedMappingFeedback(newSelectedFigure);
-				selectedFigure = newSelectedFigure;
+			indexedMappings.add(mapping);
+			MappingEnds ends = getEnds(mapping);
+			Anchor leftAnchor = getAnchor(leftTreeViewer, ends.left, leftAnchors, leftOrigin);
+			if (leftAnchor == null) {
+				Policy.getLog().log(
+						new Status(IStatus.ERROR,
+								"org.eclipse.nebula.widgets.treemapper",
+								"Could not find left entry of mapping " + mapping.toString() + " in left treeViewer."));
+				everythingOK = false;
+				continue;
+			}
+			Anchor rightAnchor = getAnchor(rightTreeViewer, ends.right, rightAnchors, rightOrigin);
+			if (rightAnchor == null) {
+				Policy.getLog().log(
+						new Status(IStatus.ERROR,
+								"org.eclipse.nebula.widgets.treemapper",
+								"Could not find right entry of mapping " + mapping.toString() + " in right treeViewer."));
+				everythingOK = false;
+				continue;
+			}
+			newLinks.add(mapping);
+			lefts.add(leftAnchor);
+			rights.add(rightAnchor);
+			bundled.add((!leftAnchor.visible || !rightAnchor.visible)
+					&& !bundles.add(Arrays.asList(leftAnchor.item, rightAnchor.item)));
+		}
+		
+		links = newLinks;
+		leftLinkAnchors = lefts.toArray(new Anchor[lefts.size()]);
+		rightLinkAnchors = rights.toArray(new Anchor[rights.size()]);
+		bundledLinks = new boolean[bundled.size()];
+		int[] leftYs = new int[links.size()];
+		int[] rightYs = new int[links.size()];
+		for (int i = 0; i < leftYs.length; i++) {
+			bundledLinks[i] = bundled.get(i);
+			leftYs[i] = leftLinkAnchors[i].y;
+			rightYs[i] = rightLinkAnchors[i].y;
+		}
+		linkIndex = new LinkIndex(leftYs, rightYs);
+		
+		// mappings removed from the list since last redraw
+		mappingsToEnds.keySet().retainAll(indexedMappings);
+		if (indexedMappings.size() != mappingsToFigures.size()) {
+			for (Iterator<Entry<M, LinkFigure>> it = mappingsToFigures.entrySet().iterator(); it.hasNext(); ) {
+				Entry<M, LinkFigure> entry = it.next();
+				if (!indexedMappings.contains(entry.getKey())) {
+					entry.getValue().deleteFromParent();
+					figuresToMappings.remove(entry.getValue());
+					shownFigures.remove(entry.getValue());
+					it.remove();
+				}
 			}
 		}
 		if (everythingOK && warningFigure != null) {
@@ -252,6 +396,77 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 		}
 	}
 
+	/**
+	 * @param tree
+	 * @return the y of the first row of the tree, which is negative once the tree scrolled
+	 */
+	private static int getOrigin(Tree tree) {
+		if (tree.getItemCount() == 0) {
+			return 0;
+		}
+		return tree.getItem(0).getBounds().y;
+	}
+
+	/**
+	 * @param mapping
+	 * @return the tree elements linked by the mapping, resolved once per input
+	 */
+	private MappingEnds getEnds(M mapping) {
+		MappingEnds ends = mappingsToEnds.get(mapping);
+		if (ends == null) {
+			ends = new MappingEnds(semanticSupport.resolveLeftItem(mapping), semanticSupport.resolveRightItem(mapping));
+			mappingsToEnds.put(mapping, ends);
+		}
+		return ends;
+	}
+
+	/**
+	 * Finds where a link to an element is drawn. Items of collapsed subtrees may not
+	 * be created yet, so the first ancestor having an item is used, and then its top-most
+	 * collapsed ancestor.
+	 * @param treeViewer
+	 * @param element
+	 * @param anchors the anchors already found in this redraw
+	 * @param origin the y of the first row of the tree
+	 * @return the anchor of the element, or null if neither the element nor any of its
+	 * ancestors is in the tree
+	 */
+	private Anchor getAnchor(TreeViewer treeViewer, Object element, Map<Object, Anchor> anchors, int origin) {
+		if (anchors.containsKey(element)) {
+			return anchors.get(element);
+		}
+		ITreeContentProvider contentProvider = (ITreeContentProvider) treeViewer.getContentProvider();
+		boolean visible = true;
+		TreeItem treeItem = null;
+		Object current = element;
+		while (current != null) {
+			Widget widget = treeViewer.testFindItem(current);
+			if (widget instanceof TreeItem) {
+				treeItem = (TreeItem) widget;
+				break;
+			} else if (widget != null) {
+				// reached the input
+				break;
+			}
+			visible = false;
+			current = contentProvider.getParent(current);
+		}
+		Anchor anchor = null;
+		if (treeItem != null) {
+			TreeItem lastVisibleTreeItem = treeItem;
+			while (treeItem.getParentItem() != null) {
+				if (!treeItem.getParentItem().getExpanded()) {
+					lastVisibleTreeItem = treeItem.getParentItem();
+					visible = false;
+				}
+				treeItem = treeItem.getParentItem();
+			}
+			anchor = new Anchor(lastVisibleTreeItem, visible, origin);
+		}
+		anchors.put(element, anchor);
+		return anchor;
+	}
+
 	/**
 	 * @return a newly created figure to alert the end-user of an inconsistency in the widget
 	 */
@@ -318,7 +533,7 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 		if (newMapping != null) {
 			mappings.add(newMapping);
 			refresh();
-			drawMapping(newMapping);
+			redrawMappings();
 			for (INewMappingListener<M> listener : creationListeners) {
 				listener.mappingCreated(newMapping);
 			}
@@ -326,66 +541,18 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 	}
 
 	/**
-	 * Draw a mapping and returns whether the operation is successful or not.
-	 * If not, a message is logged to help in debugging.
-	 * @param leftItem
-	 * @param rightItem
-	 * @return true is successful, false if an issue occured
+	 * Returns the figure of a mapping, which is created the first time the mapping
+	 * is drawn and then kept until the mapping is removed.
+	 * @param mapping
+	 * @return the figure of the mapping
 	 */
-	private boolean drawMapping(final M mapping) {
+	private LinkFigure getFigure(final M mapping) {
 		LinkFigure previousFigure = mappingsToFigures.get(mapping);
 		if (previousFigure != null) {
-			previousFigure.deleteFromParent();
-			mappingsToFigures.remove(mapping);
-			figuresToMappings.remove(previousFigure);
+			return previousFigure;
 		}
 		
 		final LinkFigure arrowFigure = new LinkFigure(linkRootFigure);
-		
-		{
-			boolean leftItemVisible = true;
-			TreeItem leftTreeItem = (TreeItem) leftTreeViewer.testFindItem(semanticSupport.resolveLeftItem(mapping));
-			if (leftTreeItem == null) {
-				Policy.getLog().log(
-						new Status(IStatus.ERROR,
-								"org.eclipse.nebula.widgets.treemapper",
-								"Could not find left entry of mapping " + mapping.toString() + " in left treeViewer."));
-				return false;
-			}
-			TreeItem lastVisibleLeftTreeItem = leftTreeItem;
-			while (leftTreeItem.getParentItem() != null) {
-				if (!leftTreeItem.getParentItem().getExpanded()) {
-					lastVisibleLeftTreeItem = leftTreeItem.getParentItem();
-					leftItemVisible = false;
-				}
-				leftTreeItem = leftTreeItem.getParentItem();
-			}
-			arrowFigure.setLeftPoint(0, lastVisibleLeftTreeItem.getBounds().y + lastVisibleLeftTreeItem.getBounds().height / 2);
-			arrowFigure.setLeftMappingVisible(leftItemVisible);
-		}
-		
-		{
-			boolean rightItemVisible = true;
-			TreeItem rightTreeItem = (TreeItem) rightTreeViewer.testFindItem(semanticSupport.resolveRightItem(mapping));
-			if (rightTreeItem == null) {
-				Policy.getLog().log(
-						new Status(IStatus.ERROR,
-								"org.eclipse.nebula.widgets.treemapper",
-								"Could not find right entry of mapping " + mapping.toString() + " in right treeViewer."));
-				return false;
-			}
-			TreeItem lastVisibleRightTreeItem = rightTreeItem;
-			while (rightTreeItem.getParentItem() != null) {
-				if (!rightTreeItem.getParentItem().getExpanded()) {
-					lastVisibleRightTreeItem = rightTreeItem.getParentItem();
-					rightItemVisible = false;
-				}
-				rightTreeItem = rightTreeItem.getParentItem();
-			}
-			arrowFigure.setRightPoint(linkRootFigure.getBounds().width, lastVisibleRightTreeItem.getBounds().y + rightTreeItem.getBounds().height / 2);
-			arrowFigure.setRightMappingVisible(rightItemVisible);
-		}
-		
 		arrowFigure.setLineWidth(uiConfig.getDefaultArrowWidth());
 		arrowFigure.seLineColor(uiConfig.getDefaultMappingColor());
 		arrowFigure.addMouseListener(new MouseListener() {
@@ -419,11 +586,17 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 			}
 			
 		});
+		if (mapping == selectedMapping) {
+			applySelectedMappingFeedback(arrowFigure);
+			selectedFigure = arrowFigure;
+		}
 		// store it
 		figuresToMappings.put(arrowFigure, mapping);
 		mappingsToFigures.put(mapping, arrowFigure);
+		// hidden by next redraw unless it is visible
+		shownFigures.add(arrowFigure);
 	
-		return true;
+		return arrowFigure;
 	}
 
 	/**
@@ -499,7 +672,8 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 			fireMouseExited(selectedMapping, mappingsToFigures.get(selectedMapping));
 		} else {
 			M mapping = (M) strSelection.getFirstElement();
-			fireMappingSelection(mapping, mappingsToFigures.get(mapping));
+			// figures of links never drawn are not created yet
+			fireMappingSelection(mapping, getFigure(mapping));
 		}
 	}
 	
@@ -599,6 +773,13 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 		return rightTreeViewer;
 	}
 
+	/**
+	 * @return the figure the links between both trees are drawn on
+	 */
+	protected IFigure getLinkRootFigure() {
+		return linkRootFigure;
+	}
+
 	
 	/**
 	 * Refresh the widget by resetting the setInput value
@@ -614,15 +795,4 @@ public class TreeMapper<M, L, R> implements ISelectionProvider {
 		control.layout(true);
 	}
 
-	/**
-	 * 
-	 */
-	private void clearFigures() {
-		for (Entry<M, LinkFigure> entry : mappingsToFigures.entrySet()) {
-			entry.getValue().deleteFromParent();
-		}
-		mappingsToFigures.clear();
-		figuresToMappings.clear();
-	}
-
 }
@@ -47,6 +47,9 @@ public class LinkFigure {
 	 * @param j 
 	 */
 	public void setLeftPoint(int x, int y) {
+		if (leftPoint != null && leftPoint.x == x && leftPoint.y == y) {
+			return;
+		}
 		leftPoint = new Point(x, y);
 		updateFigures();
 	}
@@ -56,6 +59,9 @@ public class LinkFigure {
 	 * @param j 
 	 */
 	public void setRightPoint(int x, int y) {
+		if (rightPoint != null && rightPoint.x == x && rightPoint.y == y) {
+			return;
+		}
 		rightPoint = new Point(x, y);
 		updateFigures();
 	}
@@ -64,10 +70,9 @@ public class LinkFigure {
 	 * @param leftItemVisible
 	 */
 	public void setLeftMappingVisible(boolean leftItemVisible) {
-		if (leftItemVisible) {
-			leftLine.setLineStyle(SWT.LINE_SOLID);
-		} else {
-			leftLine.setLineStyle(SWT.LINE_DASH);
+		int lineStyle = leftItemVisible ? SWT.LINE_SOLID : SWT.LINE_DASH;
+		if (leftLine.getLineStyle() != lineStyle) {
+			leftLine.setLineStyle(lineStyle);
 		}
 	}
 
@@ -97,10 +102,21 @@ public class LinkFigure {
 	 * @param rightItemVisible
 	 */
 	public void setRightMappingVisible(boolean rightItemVisible) {
-		if (rightItemVisible) {
-			rightLine.setLineStyle(SWT.LINE_SOLID);
-		} else {
-			rightLine.setLineStyle(SWT.LINE_DASH);
+		int lineStyle = rightItemVisible ? SWT.LINE_SOLID : SWT.LINE_DASH;
+		if (rightLine.getLineStyle() != lineStyle) {
+			rightLine.setLineStyle(lineStyle);
+		}
+	}
+
+	/**
+	 * Shows or hides the link, e.g. when it is off-screen or drawn by
+	 * another link
+	 * @param visible
+	 */
+	public void setVisible(boolean visible) {
+		if (leftLine.isVisible() != visible) {
+			leftLine.setVisible(visible);
+			rightLine.setVisible(visible);
 		}
 	}
 
@@ -0,0 +1,155 @@
+/*******************************************************************************
+* Copyright (c) 2026 Contributors to the Eclipse Foundation.
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*******************************************************************************/
+package org.eclipse.nebula.widgets.treemapper.internal;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Finds the links crossing the visible rows of both trees without visiting
+ * every link. Links are given by the y of their ends in the contents of each
+ * tree, so the index stays valid while the trees scroll.
+ */
+public class LinkIndex {
+
+	private final int[] leftYs;
+	private final int[] rightYs;
+	/** link indices sorted by left y */
+	private final int[] byLeft;
+	/** link indices sorted by right y */
+	private final int[] byRight;
+	/** greatest and smallest right y of the links of each node, over byLeft */
+	private final int[] maxRightYs;
+	private final int[] minRightYs;
+
+	/**
+	 * @param leftYs the y of the left end of each link
+	 * @param rightYs the y of the right end of each link
+	 */
+	public LinkIndex(int[] leftYs, int[] rightYs) {
+		this.leftYs = leftYs;
+		this.rightYs = rightYs;
+		this.byLeft = sort(leftYs);
+		this.byRight = sort(rightYs);
+		int size = Math.max(1, 4 * leftYs.length);
+		this.maxRightYs = new int[size];
+		this.minRightYs = new int[size];
+		if (leftYs.length > 0) {
+			build(1, 0, leftYs.length - 1);
+		}
+	}
+
+	/**
+	 * A link is visible unless both its ends are above, or both below,
+	 * the visible rows.
+	 * @param leftTop
+	 * @param leftBottom
+	 * @param rightTop
+	 * @param rightBottom
+	 * @return the indices of the visible links
+	 */
+	public BitSet getVisibleLinks(int leftTop, int leftBottom, int rightTop, int rightBottom) {
+		BitSet res = new BitSet(leftYs.length);
+		int leftFrom = lowerBound(byLeft, leftYs, leftTop);
+		int leftTo = lowerBound(byLeft, leftYs, leftBottom + 1);
+		for (int i = leftFrom; i < leftTo; i++) {
+			res.set(byLeft[i]);
+		}
+		int rightFrom = lowerBound(byRight, rightYs, rightTop);
+		int rightTo = lowerBound(byRight, rightYs, rightBottom + 1);
+		for (int i = rightFrom; i < rightTo; i++) {
+			res.set(byRight[i]);
+		}
+		// links crossing all visible rows
+		if (leftFrom > 0) {
+			collectAbove(1, 0, leftYs.length - 1, leftFrom - 1, rightBottom, res);
+		}
+		if (leftTo < leftYs.length) {
+			collectBelow(1, 0, leftYs.length - 1, leftTo, rightTop, res);
+		}
+		return res;
+	}
+
+	private void build(int node, int from, int to) {
+		if (from == to) {
+			maxRightYs[node] = rightYs[byLeft[from]];
+			minRightYs[node] = maxRightYs[node];
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		build(2 * node, from, middle);
+		build(2 * node + 1, middle + 1, to);
+		maxRightYs[node] = Math.max(maxRightYs[2 * node], maxRightYs[2 * node + 1]);
+		minRightYs[node] = Math.min(minRightYs[2 * node], minRightYs[2 * node + 1]);
+	}
+
+	/**
+	 * Collects the links among byLeft[0..last] whose right y is greater than rightBottom
+	 */
+	private void collectAbove(int node, int from, int to, int last, int rightBottom, BitSet res) {
+		if (from > last || maxRightYs[node] <= rightBottom) {
+			return;
+		}
+		if (from == to) {
+			res.set(byLeft[from]);
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		collectAbove(2 * node, from, middle, last, rightBottom, res);
+		collectAbove(2 * node + 1, middle + 1, to, last, rightBottom, res);
+	}
+
+	/**
+	 * Collects the links among byLeft[first..] whose right y is lower than rightTop
+	 */
+	private void collectBelow(int node, int from, int to, int first, int rightTop, BitSet res) {
+		if (to < first || minRightYs[node] >= rightTop) {
+			return;
+		}
+		if (from == to) {
+			res.set(byLeft[from]);
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		collectBelow(2 * node, from, middle, first, rightTop, res);
+		collectBelow(2 * node + 1, middle + 1, to, first, rightTop, res);
+	}
+
+	/**
+	 * @return the indices of the links ordered by the given y
+	 */
+	private static int[] sort(int[] ys) {
+		long[] keys = new long[ys.length];
+		for (int i = 0; i < ys.length; i++) {
+			keys[i] = ((long) ys[i] << 32) | i;
+		}
+		Arrays.sort(keys);
+		int[] res = new int[ys.length];
+		for (int i = 0; i < ys.length; i++) {
+			res[i] = (int) keys[i];
+		}
+		return res;
+	}
+
+	/**
+	 * @return the first position in order whose y is not lower than y
+	 */
+	private static int lowerBound(int[] order, int[] ys, int y) {
+		int low = 0;
+		int high = order.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (ys[order[middle]] < y) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+}
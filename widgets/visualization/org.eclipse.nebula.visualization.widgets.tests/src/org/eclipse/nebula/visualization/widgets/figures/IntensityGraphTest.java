@@ -75,7 +75,7 @@ public class IntensityGraphTest extends AbstractWidgetTest {
 		String[] myProps = new String[] { "colorMap", "cropBottom", "cropLeft",
 				"cropRight", "cropTop", "dataArray", "dataHeight", "dataWidth",
 				"max", "min", "runMode", "showRamp", "colorDepth", "inRGBMode",
-				"singleLineProfiling" };
+				"singleLineProfiling", "imagePyramidEnabled", "imagePyramidFilter" };
 
 		return concatenateStringArrays(superProps, myProps);
 	}
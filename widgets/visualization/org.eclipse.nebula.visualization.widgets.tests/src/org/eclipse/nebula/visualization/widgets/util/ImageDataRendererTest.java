@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.nebula.visualization.widgets.datadefinition.ColorMap;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ColorMap.PredefinedColorMap;
+import org.eclipse.nebula.visualization.widgets.datadefinition.DoubleArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IntArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ShortArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.figures.IntensityGraphFigure.ColorDepth;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Test;
+
+/**JUnit test for {@link ImageDataRenderer}, which must paint the same pixels as
+ * {@link ImageData#setPixel(int, int, int)} based rendering.
+ */
+public class ImageDataRendererTest {
+
+	private static final int WIDTH = 300;
+	private static final int HEIGHT = 250;
+
+	private static short[] createShortData() {
+		short[] data = new short[WIDTH * HEIGHT];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (short) (i * 37);
+		return data;
+	}
+
+	private static double[] createDoubleData() {
+		double[] data = new double[WIDTH * HEIGHT];
+		for (int i = 0; i < data.length; i++)
+			data[i] = Math.sin(i / 100.0);
+		return data;
+	}
+
+	/**Reference implementation of the color map rendering.
+	 */
+	private static ImageData drawReference(ColorMap colorMap, IPrimaryArrayWrapper data,
+			double max, double min, double unsignedOffset, int width, int height) {
+		int[] pixels = colorMap.getPixelLookupTable();
+		ImageData imageData = new ImageData(width, height, 24, colorMap.getPalette());
+		int x_ratio = (int) ((WIDTH << 16) / width) + 1;
+		int y_ratio = (int) ((HEIGHT << 16) / height) + 1;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int sx = width == WIDTH ? x : (x * x_ratio) >> 16;
+				int sy = height == HEIGHT ? y : (y * y_ratio) >> 16;
+				double value = data.get(sy * WIDTH + sx);
+				if (value < 0)
+					value += unsignedOffset;
+				int index = (int) ((value - min) / (max - min) * 255);
+				if (index < 0)
+					index = 0;
+				else if (index > 255)
+					index = 255;
+				imageData.setPixel(x, y, pixels[index]);
+			}
+		}
+		return imageData;
+	}
+
+	private static void assertSamePixels(ImageData expected, ImageData actual) {
+		assertEquals(expected.width, actual.width);
+		assertEquals(expected.height, actual.height);
+		for (int y = 0; y < expected.height; y++)
+			for (int x = 0; x < expected.width; x++)
+				assertEquals("pixel (" + x + ", " + y + ")",
+						expected.getPixel(x, y), actual.getPixel(x, y));
+	}
+
+	@Test
+	public void testShortLookupTable() {
+		ColorMap colorMap = new ColorMap(PredefinedColorMap.JET, true, true);
+		ShortArrayWrapper data = new ShortArrayWrapper(createShortData());
+		ImageData actual = colorMap.drawImage(data, WIDTH, HEIGHT, 20000, -20000, null, false);
+		assertSamePixels(drawReference(colorMap, data, 20000, -20000, 0, WIDTH, HEIGHT), actual);
+	}
+
+	@Test
+	public void testUnsignedShortLookupTable() {
+		ColorMap colorMap = new ColorMap(PredefinedColorMap.ColorSpectrum, true, true);
+		ShortArrayWrapper data = new ShortArrayWrapper(createShortData());
+		ImageData actual = colorMap.drawImage(data, WIDTH, HEIGHT, 65535, 0, 16, null, false);
+		assertSamePixels(drawReference(colorMap, data, 65535, 0, 65536, WIDTH, HEIGHT), actual);
+	}
+
+	@Test
+	public void testShrink() {
+		ColorMap colorMap = new ColorMap(PredefinedColorMap.Hot, true, true);
+		DoubleArrayWrapper data = new DoubleArrayWrapper(createDoubleData());
+		ImageData actual = new ImageData(123, 77, 24, colorMap.getPalette());
+		colorMap.drawImage(data, WIDTH, HEIGHT, 1, -1, actual, true);
+		assertSamePixels(drawReference(colorMap, data, 1, -1, 0, 123, 77), actual);
+	}
+
+	@Test
+	public void testRGB() {
+		short[] data = new short[WIDTH * HEIGHT * 3];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (short) (i % 65536);
+		PaletteData palette = new PaletteData(0xff, 0xff00, 0xff0000);
+		ImageData actual = new ImageData(WIDTH, HEIGHT, 24, palette);
+		ImageDataRenderer.renderRGB(new ShortArrayWrapper(data), WIDTH, HEIGHT, 0, 0,
+				ColorDepth.LOWER8BIT, 0, actual, false);
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				int i = (y * WIDTH + x) * 3;
+				RGB rgb = new RGB(data[i] & 0xFF, data[i + 1] & 0xFF, data[i + 2] & 0xFF);
+				assertEquals(palette.getPixel(rgb), actual.getPixel(x, y));
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRGBOutOfRange() {
+		int[] data = new int[] { 0, 256, 0 };
+		ImageDataRenderer.renderRGB(new IntArrayWrapper(data), 1, 1, 0, 0, ColorDepth.BIT8, 0,
+				new ImageData(1, 1, 24, new PaletteData(0xff, 0xff00, 0xff0000)), false);
+	}
+}
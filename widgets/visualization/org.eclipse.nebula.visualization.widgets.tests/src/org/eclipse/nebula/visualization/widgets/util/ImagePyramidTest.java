@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.nebula.visualization.widgets.datadefinition.ColorMap;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ColorMap.PredefinedColorMap;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IntArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.StridedArrayWrapper;
+import org.eclipse.swt.graphics.ImageData;
+import org.junit.Test;
+
+/**JUnit test for {@link ImagePyramid} and {@link ImageTileCache}.
+ */
+public class ImagePyramidTest {
+
+	private static final int WIDTH = 701;
+	private static final int HEIGHT = 533;
+
+	private static IntArrayWrapper createData() {
+		int[] data = new int[WIDTH * HEIGHT];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (i * 7919) % 1000;
+		return new IntArrayWrapper(data);
+	}
+
+	@Test
+	public void testLevels() {
+		IntArrayWrapper data = createData();
+		ImagePyramid boxPyramid = new ImagePyramid(ImagePyramid.Filter.BOX);
+		ImagePyramid maxPyramid = new ImagePyramid(ImagePyramid.Filter.MAX);
+		boxPyramid.setData(data, WIDTH, HEIGHT, 0);
+		maxPyramid.setData(data, WIDTH, HEIGHT, 0);
+		assertEquals(351, boxPyramid.getLevelWidth(1));
+		assertEquals(267, boxPyramid.getLevelHeight(1));
+		IPrimaryArrayWrapper box = boxPyramid.getLevel(1);
+		IPrimaryArrayWrapper max = maxPyramid.getLevel(1);
+		for (int y = 0; y < 267; y++) {
+			for (int x = 0; x < 351; x++) {
+				double sum = 0, maximum = Double.NEGATIVE_INFINITY;
+				int count = 0;
+				for (int sy = 2 * y; sy < Math.min(HEIGHT, 2 * y + 2); sy++)
+					for (int sx = 2 * x; sx < Math.min(WIDTH, 2 * x + 2); sx++) {
+						double v = data.get(sy * WIDTH + sx);
+						sum += v;
+						maximum = Math.max(maximum, v);
+						count++;
+					}
+				assertEquals(sum / count, box.get(y * 351 + x), 1e-3);
+				assertEquals(maximum, max.get(y * 351 + x), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testSelectLevel() {
+		ImagePyramid pyramid = new ImagePyramid(ImagePyramid.Filter.BOX);
+		pyramid.setData(createData(), WIDTH, HEIGHT, 0);
+		assertEquals(0, pyramid.selectLevel(WIDTH, HEIGHT, 600, 400));
+		assertEquals(1, pyramid.selectLevel(WIDTH, HEIGHT, 300, 200));
+		assertEquals(2, pyramid.selectLevel(WIDTH, HEIGHT, 100, 100));
+	}
+
+	@Test
+	public void testTileCache() {
+		ImagePyramid pyramid = new ImagePyramid(ImagePyramid.Filter.BOX);
+		pyramid.setData(createData(), WIDTH, HEIGHT, 0);
+		ColorMap colorMap = new ColorMap(PredefinedColorMap.JET, true, true);
+		ImageTileCache cache = new ImageTileCache(16);
+		int x = 100, y = 30, width = 220, height = 200;
+		ImageData actual = cache.drawImage(pyramid, 1, x, y, width, height, colorMap, 999, 0, null);
+		int levelWidth = pyramid.getLevelWidth(1);
+		ImageData expected = colorMap.drawImage(new StridedArrayWrapper(pyramid.getLevel(1),
+				y * levelWidth + x, width, levelWidth, height), width, height, 999, 0, null, false);
+		for (int j = 0; j < height; j++)
+			for (int i = 0; i < width; i++)
+				assertEquals(expected.getPixel(i, j), actual.getPixel(i, j));
+		assertEquals(2, cache.size());
+
+		cache.drawImage(pyramid, 1, x, y, width, height, colorMap, 500, 0, null);
+		assertEquals(2, cache.size());
+		colorMap.setPredefinedColorMap(PredefinedColorMap.Hot);
+		cache.drawImage(pyramid, 1, 0, 0, 10, 10, colorMap, 500, 0, null);
+		assertEquals(1, cache.size());
+	}
+}
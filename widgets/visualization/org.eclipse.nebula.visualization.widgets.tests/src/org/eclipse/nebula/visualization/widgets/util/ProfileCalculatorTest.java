@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ROIStatistics;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ShortArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.StridedArrayWrapper;
+import org.junit.Test;
+
+/**JUnit test for {@link ProfileCalculator} on cropped views of the data.
+ */
+public class ProfileCalculatorTest {
+
+	private static final int WIDTH = 400;
+	private static final int HEIGHT = 300;
+
+	private static final double DELTA = 1e-6;
+
+	private static ShortArrayWrapper createData() {
+		short[] data = new short[WIDTH * HEIGHT];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (short) (i * 31);
+		return new ShortArrayWrapper(data);
+	}
+
+	@Test
+	public void testStridedView() {
+		ShortArrayWrapper data = createData();
+		StridedArrayWrapper view = new StridedArrayWrapper(data, 10 * WIDTH + 5, 20, WIDTH, 7);
+		assertEquals(20 * 7, view.getSize());
+		for (int y = 0; y < 7; y++)
+			for (int x = 0; x < 20; x++)
+				assertEquals(data.get((y + 10) * WIDTH + x + 5), view.get(y * 20 + x), 0);
+	}
+
+	@Test
+	public void testProfilesAndStatistics() {
+		ShortArrayWrapper data = createData();
+		int left = 7, top = 3, width = 350, height = 280;
+		IPrimaryArrayWrapper view = new StridedArrayWrapper(data, top * WIDTH + left, width, WIDTH, height);
+		Rectangle roi = new Rectangle(20, 30, 40, 50);
+		double[] xProfile = new double[width];
+		double[] yProfile = new double[height];
+		ROIStatistics statistics = ProfileCalculator.calculate(view, width, height, false, 16,
+				xProfile, yProfile, new Rectangle[] { roi })[0];
+
+		double[] expectedX = new double[width];
+		double[] expectedY = new double[height];
+		double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double v = view.get(y * width + x);
+				if (v < 0)
+					v += 65536;
+				expectedX[x] += v / height;
+				expectedY[y] += v / width;
+				if (x >= roi.x && x < roi.x + roi.width && y >= roi.y && y < roi.y + roi.height) {
+					min = Math.min(min, v);
+					max = Math.max(max, v);
+					sum += v;
+				}
+			}
+		}
+		for (int x = 0; x < width; x++)
+			assertEquals(expectedX[x], xProfile[x], DELTA);
+		for (int y = 0; y < height; y++)
+			assertEquals(expectedY[y], yProfile[y], DELTA);
+		assertEquals(roi.width * roi.height, statistics.getCount());
+		assertEquals(min, statistics.getMin(), 0);
+		assertEquals(max, statistics.getMax(), 0);
+		assertEquals(sum, statistics.getSum(), DELTA);
+		assertEquals(sum / statistics.getCount(), statistics.getMean(), DELTA);
+	}
+
+	@Test
+	public void testRegionOutsideData() {
+		ROIStatistics statistics = ProfileCalculator.calculate(createData(), WIDTH, HEIGHT, false, 0,
+				null, null, new Rectangle[] { new Rectangle(WIDTH + 1, 0, 10, 10) })[0];
+		assertEquals(0, statistics.getCount());
+		assertEquals(Double.NaN, statistics.getMean(), 0);
+	}
+}
@@ -10,6 +10,7 @@ package org.eclipse.nebula.visualization.widgets.datadefinition;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 
+import org.eclipse.nebula.visualization.widgets.util.ImageDataRenderer;
 import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.PaletteData;
 import org.eclipse.swt.graphics.RGB;
@@ -83,6 +84,11 @@ public class ColorMap {
 	private boolean interpolate;	
 	private RGB[] colorsLookupTable;
 	private int[] pixelLookupTable;
+	private int[] rawPixelLookupTable;
+	private int rawLookupBits;
+	private double rawLookupMax;
+	private double rawLookupMin;
+	private int rawLookupUnsignedBits;
 	private PaletteData palette = new PaletteData(0xff, 0xff00, 0xff0000);
 	private double colorMapMin;
 	private double colorMapMax;
@@ -140,6 +146,7 @@ public class ColorMap {
 	 */
 	public void setInterpolate(boolean interpolate) {
 		this.interpolate = interpolate;
+		colorsLookupTable = null;
 	}
 
 
@@ -191,6 +198,25 @@ public class ColorMap {
 	 */
 	public ImageData drawImage(IPrimaryArrayWrapper dataArray, 
 			int dataWidth, int dataHeight, double max, double min, ImageData imageData, boolean shrink){
+		return drawImage(dataArray, dataWidth, dataHeight, max, min, 0, imageData, shrink);
+	}
+
+	/**Calculate the image data from source data based on the color map.
+	 * The pixels are written straight into the image data buffer, see {@link ImageDataRenderer}.
+	 * @param dataArray the source data
+	 * @param dataWidth number of columns of dataArray; This will be the width of image data.
+	 * @param dataHeight number of rows of dataArray; This will be the height of image data.
+	 * @param max the upper limit of the data in dataArray
+	 * @param min the lower limit of the data in dataArray
+	 * @param unsignedBits if larger than 0, negative values in dataArray are treated as
+	 * unsigned values of this many bits.
+	 * @param imageData the imageData to be filled. null if a new instance should be created.
+	 * @param shrink true if area size of image data is smaller than dataWidth*dataHeight. If this is true, it will use
+	 * the nearest neighbor iamge scaling algorithm as described at http://tech-algorithm.com/articles/nearest-neighbor-image-scaling/.
+	 * @return the image data. null if dataWidth or dataHeight is less than 1.
+	 */
+	public ImageData drawImage(IPrimaryArrayWrapper dataArray, int dataWidth, int dataHeight,
+			double max, double min, int unsignedBits, ImageData imageData, boolean shrink){
 		if(dataWidth <1 || dataHeight < 1 || dataWidth *dataHeight > dataArray.getSize()|| dataWidth * dataHeight < 0)
 			return null;
 		if(imageData == null)
@@ -202,47 +228,9 @@ public class ColorMap {
 			min = colorMapMin;
 			max = colorMapMax;
 		}
-			if(shrink){				
-				int height = imageData.height;
-				int width = imageData.width;
-				    // EDIT: added +1 to account for an early rounding problem
-				    int x_ratio = (int)((dataWidth<<16)/width) +1;
-				    int y_ratio = (int)((dataHeight<<16)/height) +1;
-				    //int x_ratio = (int)((w1<<16)/w2) ;
-				    //int y_ratio = (int)((h1<<16)/h2) ;
-				    int x2, y2 ;
-				    for (int i=0;i<height;i++) {
-				        for (int j=0;j<width;j++) {
-				            x2 = ((j*x_ratio)>>16) ;
-				            y2 = ((i*y_ratio)>>16) ;
-				            int index = (int) ((dataArray.get(y2 * dataWidth + x2) - min) / (max - min) * 255);
-							if (index < 0)
-								index = 0;
-							else if (index > 255)
-								index = 255;
-							int pixel = pixelLookupTable[index];
-				            imageData.setPixel(j,i,pixel); ;
-				        }                
-				    }  
-				
-					
-			}else{
-				for (int y = 0; y < dataHeight; y++) {
-					for (int x = 0; x < dataWidth; x++) {
-						// the index of the value in the color table array
-						int index = (int) ((dataArray.get(y * dataWidth + x) - min) / (max - min) * 255);
-						if (index < 0)
-							index = 0;
-						else if (index > 255)
-							index = 255;
-						int pixel = pixelLookupTable[index];
-						imageData.setPixel(x, y, pixel);
-					}
-				}
-			}
-				
-			
-			return imageData;
+		ImageDataRenderer.renderColorMap(this, dataArray, dataWidth, dataHeight,
+				max, min, unsignedBits, imageData, shrink);
+		return imageData;
 	}
 		
 	/**Calculate the image data from source data based on the color map.
@@ -321,6 +309,7 @@ public class ColorMap {
 			
 			colorsLookupTable = new RGB[256];
 			pixelLookupTable = new int[256];
+			rawPixelLookupTable = null;
 			for(int k=0; k<256; k++){				
 				colorsLookupTable[k] = getValueRGB(colorTupleArray, keyArray, autoScale? k/255.0 : colorMapMin + k*(colorMapMax-colorMapMin)/255.0);
 				pixelLookupTable[k] = palette.getPixel(colorsLookupTable[k]);
@@ -330,6 +319,56 @@ public class ColorMap {
 		return colorsLookupTable;
 	}
 	
+	/**Get the pixels of {@link #getColorsLookupTable()} in the palette of this color map.
+	 * @return an array of 256 pixels corresponding to the value from min to max
+	 */
+	public int[] getPixelLookupTable() {
+		if(colorsLookupTable == null)
+			getColorsLookupTable();
+		return pixelLookupTable;
+	}
+
+	/**Get a lookup table which maps every value of a signed 8 or 16 bit integer directly
+	 * to its pixel, so no scaling has to be done per pixel. The value v is found at index
+	 * <code>v - Byte.MIN_VALUE</code> or <code>v - Short.MIN_VALUE</code> respectively.
+	 * The table is cached until the color map or the requested range changes.
+	 * @param bits 8 or 16
+	 * @param max the upper limit of the data
+	 * @param min the lower limit of the data
+	 * @param unsignedBits if larger than 0, negative values are treated as unsigned values of
+	 * this many bits.
+	 * @return the lookup table with 2^bits entries.
+	 */
+	public int[] getRawPixelLookupTable(int bits, double max, double min, int unsignedBits) {
+		if(bits != 8 && bits != 16)
+			throw new IllegalArgumentException("Only 8 or 16 bit lookup tables are supported.");
+		int[] pixels = getPixelLookupTable();
+		if(rawPixelLookupTable != null && rawLookupBits == bits && rawLookupMax == max
+				&& rawLookupMin == min && rawLookupUnsignedBits == unsignedBits)
+			return rawPixelLookupTable;
+		int size = 1 << bits;
+		int lowest = -(size >> 1);
+		double offset = unsignedBits > 0 ? Math.pow(2, unsignedBits) : 0;
+		int[] table = new int[size];
+		for(int i=0; i<size; i++){
+			double value = lowest + i;
+			if(value < 0)
+				value += offset;
+			int index = (int) ((value - min) / (max - min) * 255);
+			if (index < 0)
+				index = 0;
+			else if (index > 255)
+				index = 255;
+			table[i] = pixels[index];
+		}
+		rawPixelLookupTable = table;
+		rawLookupBits = bits;
+		rawLookupMax = max;
+		rawLookupMin = min;
+		rawLookupUnsignedBits = unsignedBits;
+		return table;
+	}
+
 	public PaletteData getPalette() {
 		return palette;
 	}
@@ -24,6 +24,13 @@ public class DoubleArrayWrapper implements IPrimaryArrayWrapper {
 	public void setData(double[] data) {
 		this.data = data;
 	}
+
+	/**
+	 * @return the wrapped array.
+	 */
+	public double[] getData() {
+		return data;
+	}
 	
 	public double get(int i) {
 		return data[i];
@@ -24,6 +24,13 @@ public class IntArrayWrapper implements IPrimaryArrayWrapper {
 	public void setData(int[] data) {
 		this.data = data;
 	}
+
+	/**
+	 * @return the wrapped array.
+	 */
+	public int[] getData() {
+		return data;
+	}
 	
 	public double get(int i) {
 		return data[i];
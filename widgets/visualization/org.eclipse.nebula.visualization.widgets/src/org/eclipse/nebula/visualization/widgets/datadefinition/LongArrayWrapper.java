@@ -24,6 +24,13 @@ public class LongArrayWrapper implements IPrimaryArrayWrapper {
 	public void setData(long[] data) {
 		this.data = data;
 	}
+
+	/**
+	 * @return the wrapped array.
+	 */
+	public long[] getData() {
+		return data;
+	}
 	
 	public double get(int i) {
 		return data[i];
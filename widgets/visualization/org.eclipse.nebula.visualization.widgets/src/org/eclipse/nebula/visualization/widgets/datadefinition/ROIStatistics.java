@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.datadefinition;
+
+/**Statistics of the values inside a region of interest.
+ */
+public class ROIStatistics {
+
+	/**
+	 * Statistics of a region which does not contain any value.
+	 */
+	public static final ROIStatistics EMPTY = new ROIStatistics(Double.NaN, Double.NaN, 0, 0);
+
+	private final double min;
+	private final double max;
+	private final double sum;
+	private final int count;
+
+	public ROIStatistics(double min, double max, double sum, int count) {
+		this.min = min;
+		this.max = max;
+		this.sum = sum;
+		this.count = count;
+	}
+
+	/**
+	 * @return the smallest value, NaN if the region is empty.
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the largest value, NaN if the region is empty.
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the sum of all values.
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return the number of values.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the mean of all values, NaN if the region is empty.
+	 */
+	public double getMean() {
+		return count == 0 ? Double.NaN : sum / count;
+	}
+
+	@Override
+	public String toString() {
+		return "min=" + min + ", max=" + max + ", mean=" + getMean() + ", sum=" + sum; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
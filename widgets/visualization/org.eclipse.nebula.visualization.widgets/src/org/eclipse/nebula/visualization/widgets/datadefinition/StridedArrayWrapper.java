@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.datadefinition;
+
+/**A view on a rectangular region of a two dimensional array which is stored row by row
+ * in another wrapper. Nothing is copied, so the view reflects later changes of the
+ * underlying array.
+ */
+public class StridedArrayWrapper implements IPrimaryArrayWrapper {
+
+	private final IPrimaryArrayWrapper source;
+	private final int offset;
+	private final int rowLength;
+	private final int rowStride;
+	private final int rows;
+
+	/**
+	 * @param source the wrapper of the whole array.
+	 * @param offset index of the first element of the view in source.
+	 * @param rowLength number of elements of each row of the view.
+	 * @param rowStride number of elements between the starts of two rows in source.
+	 * @param rows number of rows of the view.
+	 */
+	public StridedArrayWrapper(IPrimaryArrayWrapper source, int offset, int rowLength,
+			int rowStride, int rows) {
+		if (offset < 0 || rowLength < 0 || rows < 0 || rowStride < rowLength)
+			throw new IllegalArgumentException();
+		this.source = source;
+		this.offset = offset;
+		this.rowLength = rowLength;
+		this.rowStride = rowStride;
+		this.rows = rows;
+	}
+
+	public double get(int i) {
+		int row = i / rowLength;
+		return source.get(offset + row * rowStride + i - row * rowLength);
+	}
+
+	public int getSize() {
+		return rowLength * rows;
+	}
+
+	/**
+	 * @return the wrapper of the whole array.
+	 */
+	public IPrimaryArrayWrapper getSource() {
+		return source;
+	}
+
+	/**
+	 * @return index of the first element of the view in source.
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @return number of elements of each row of the view.
+	 */
+	public int getRowLength() {
+		return rowLength;
+	}
+
+	/**
+	 * @return number of elements between the starts of two rows in source.
+	 */
+	public int getRowStride() {
+		return rowStride;
+	}
+
+	/**
+	 * @return number of rows of the view.
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+}
@@ -24,6 +24,7 @@ import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PrecisionPoint;
 import org.eclipse.draw2d.geometry.PrecisionRectangle;
 import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ROIStatistics;
 import org.eclipse.nebula.visualization.widgets.figures.IntensityGraphFigure;
 import org.eclipse.nebula.visualization.widgets.figures.IntensityGraphFigure.GraphArea;
 import org.eclipse.nebula.visualization.widgets.figures.IntensityGraphFigure.ICroppedDataSizeListener;
@@ -299,6 +300,7 @@ public class ROIFigure extends Figure {
 		private IROIInfoProvider roiInfoProvider;
 		private String name;
 		private IntensityGraphFigure intensityGraphFigure;
+		private ROIStatistics statistics = ROIStatistics.EMPTY;
 				
 		
 		/**Constructor of ROI figure.
@@ -441,6 +443,7 @@ public class ROIFigure extends Figure {
 					roiDataBounds.height =1;
 				roiGeoBounds = getGeoBoundsFromROI(roiDataBounds);
 			}
+			statistics = intensityGraphFigure.calculateROIStatistics(roiDataBounds);
 			updateChildrenBounds();
 		}
 		
@@ -451,6 +454,7 @@ public class ROIFigure extends Figure {
 			if(roiDataBounds == null)
 				roiDataBounds = new PrecisionRectangle();
 			roiDataBounds.setBounds(xIndex, yIndex, width, height);		
+			statistics = intensityGraphFigure.calculateROIStatistics(roiDataBounds);
 			updateROIGeoBounds();
 			updateChildrenBounds();
 		}
@@ -511,6 +515,32 @@ public class ROIFigure extends Figure {
 			return new PrecisionRectangle(lt.preciseX()-getBounds().x, lt.preciseY()-getBounds().y, rb.preciseX() - lt.preciseX(), rb.preciseY() - lt.preciseY());			
 		}
 
+		/**
+		 * @return a copy of the data index bounds of ROI based on whole data array. null if
+		 * the bounds have not been set yet.
+		 */
+		public Rectangle getROIDataBounds() {
+			return roiDataBounds == null ? null : roiDataBounds.getCopy();
+		}
+
+		/**
+		 * @return the statistics of the values inside the ROI, updated whenever the data or
+		 * the ROI changes.
+		 */
+		public ROIStatistics getStatistics() {
+			return statistics;
+		}
+
+		/**Set the statistics of the values inside the ROI. This is called by the
+		 * intensity graph whenever the data changes.
+		 * @param statistics the new statistics.
+		 */
+		public void setStatistics(ROIStatistics statistics) {
+			this.statistics = statistics;
+			if(roiInfoProvider!=null)
+				repaint();
+		}
+
 		public void setROIColor(Color roiColor) {
 			roiRectFigure.setForegroundColor(roiColor);
 		}
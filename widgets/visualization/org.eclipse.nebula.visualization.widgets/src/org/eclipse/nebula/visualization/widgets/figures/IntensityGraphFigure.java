@@ -39,10 +39,16 @@ import org.eclipse.nebula.visualization.widgets.datadefinition.FloatArrayWrapper
 import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
 import org.eclipse.nebula.visualization.widgets.datadefinition.IntArrayWrapper;
 import org.eclipse.nebula.visualization.widgets.datadefinition.LongArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ROIStatistics;
 import org.eclipse.nebula.visualization.widgets.datadefinition.ShortArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.StridedArrayWrapper;
 import org.eclipse.nebula.visualization.widgets.datadefinition.ColorMap.PredefinedColorMap;
 import org.eclipse.nebula.visualization.widgets.figureparts.ColorMapRamp;
 import org.eclipse.nebula.visualization.widgets.figureparts.ROIFigure;
+import org.eclipse.nebula.visualization.widgets.util.ImageDataRenderer;
+import org.eclipse.nebula.visualization.widgets.util.ImagePyramid;
+import org.eclipse.nebula.visualization.widgets.util.ImageTileCache;
+import org.eclipse.nebula.visualization.widgets.util.ProfileCalculator;
 import org.eclipse.nebula.visualization.xygraph.figures.Axis;
 import org.eclipse.nebula.visualization.xygraph.linearscale.Range;
 import org.eclipse.nebula.visualization.xygraph.util.SWTConstants;
@@ -305,8 +311,7 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 			inDefaultPosition = false;
 			if(updatedCrossDataIndex){
 				crossDataIndex = graphArea.getDataLocation(crossX, crossY);			
-				if(croppedDataArray != null)
-					fireProfileDataChanged(croppedDataArray, croppedDataWidth, croppedDataHeight);
+				fireProfileDataChanged();
 			}
 			hLine.setPoints(new PointList(new int[]{bounds.x,crossY, bounds.width+bounds.x, crossY}));
 			vLine.setPoints(new PointList(new int[]{crossX, bounds.y, crossX, bounds.y + bounds.height}));
@@ -353,40 +358,46 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		}
 		
 		
+		/**Crop the data array without copying it.
+		 * @return a view on the cropped region of the data array, or the data array itself
+		 * if nothing is cropped.
+		 */
 		private synchronized IPrimaryArrayWrapper cropDataArray(int left, int right, int top, int bottom){
 			if((left != 0 || right != 0 || top != 0 || bottom != 0) &&
 					(dataWidth - left - right) * (dataHeight - top-bottom) >0){
-				int i=0;
-				if((dataWidth - left - right) * (dataHeight - top - bottom) > MAX_ARRAY_SIZE)
-					return dataArray;
-				double[] result = null;
-				if (inRGBMode) {
-					result = new double[(dataWidth - left - right)
-							* (dataHeight - top - bottom)*3];
-					for (int y = top; y < (dataHeight - bottom); y++) {
-						for (int x = left; x < (dataWidth - right); x++) {
-							int p=y * dataWidth*3 + x*3;
-							result[i] = dataArray.get(p);
-							result[i+1]=dataArray.get(p+1);
-							result[i+2]=dataArray.get(p+2);
-							i+=3;
-						}
-					}
-				} else {
-					result = new double[(dataWidth - left - right)
-							* (dataHeight - top - bottom)];
-					for (int y = top; y < (dataHeight - bottom); y++) {
-						for (int x = left; x < (dataWidth - right); x++) {
-							result[i++] = dataArray.get(y * dataWidth + x);
-						}
-					}
-				}				
-				return new DoubleArrayWrapper(result);
+				int channels = inRGBMode ? 3 : 1;
+				return new StridedArrayWrapper(dataArray, (top * dataWidth + left) * channels,
+						(dataWidth - left - right) * channels, dataWidth * channels, dataHeight - top - bottom);
 			}else
 				return dataArray;			
 		}
 		
 		
+		/**Draw the cropped data from the closest level of the image pyramid which still
+		 * has the resolution of the client area, reusing the cached tiles of that level.
+		 * @param clientArea the client area
+		 * @return the image data of the cropped region at the resolution of the level.
+		 */
+		private ImageData drawPyramidImage(Rectangle clientArea){
+			if(pyramidDirty){
+				imagePyramid.setData(dataArray, dataWidth, dataHeight, unsignedBits);
+				pyramidDirty = false;
+			}
+			int level = imagePyramid.selectLevel(croppedDataWidth, croppedDataHeight,
+					clientArea.width, clientArea.height);
+			int scale = 1 << level;
+			// round all edges of the crop alike, so the level shows the same region as the data
+			int left = (cropLeft + scale / 2) / scale;
+			int top = (cropTop + scale / 2) / scale;
+			int right = Math.min((dataWidth - cropRight + scale / 2) / scale, imagePyramid.getLevelWidth(level));
+			int bottom = Math.min((dataHeight - cropBottom + scale / 2) / scale, imagePyramid.getLevelHeight(level));
+			if(right <= left || bottom <= top)
+				return null;
+			bufferedImageData = tileCache.drawImage(imagePyramid, level, left, top,
+					right - left, bottom - top, colorMap, max, min, bufferedImageData);
+			return bufferedImageData;
+		}
+		
 		/**Get data index location on cropped data array from geometry location.
 		 * @param x x much be inside graph area.
 		 * @param y y much be inside graph area
@@ -450,47 +461,52 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 				if(dataWidth - cropLeft - cropRight < 0 || dataHeight - cropTop - cropBottom < 0)
 					return;
 				
-				croppedDataArray = cropDataArray(cropLeft, cropRight, cropTop, cropBottom);
+				rawCroppedDataArray = cropDataArray(cropLeft, cropRight, cropTop, cropBottom);
+				croppedDataArray = rawCroppedDataArray;
 
 				if(unsignedBits > 0) {
 					croppedDataArray = new UnsignedPrimitiveArrayWrapper(croppedDataArray, unsignedBits);
 				}
 
-				fireProfileDataChanged(croppedDataArray, croppedDataWidth, croppedDataHeight);
+				fireProfileDataChanged();
 //				for(ROIFigure roiFigure : roiMap.values()){
 //					roiFigure.fireROIUpdated();
 //				}
-				boolean shrink= false;
-				if(clientArea.width*clientArea.height < croppedDataHeight * croppedDataWidth){
-					shrink = true;
-				}
+				ImageData imageData = null;
+				if(imagePyramid != null && !inRGBMode){
+					imageData = drawPyramidImage(clientArea);
+				}else{
+					boolean shrink= false;
+					if(clientArea.width*clientArea.height < croppedDataHeight * croppedDataWidth){
+						shrink = true;
+					}
 				
 				
-				if(shrink){
-					if(bufferedImageData == null || bufferedImageData.width != clientArea.width 
-							|| bufferedImageData.height !=clientArea.height){
-						bufferedImageData = new ImageData(clientArea.width, clientArea.height, 24, colorMap.getPalette());
-					}					
-				}else if(bufferedImageData == null || bufferedImageData.width != croppedDataWidth
-						|| bufferedImageData.height !=croppedDataHeight)
-					bufferedImageData = new ImageData(croppedDataWidth, croppedDataHeight, 24, colorMap.getPalette());
+					if(shrink){
+						if(bufferedImageData == null || bufferedImageData.width != clientArea.width 
+								|| bufferedImageData.height !=clientArea.height){
+							bufferedImageData = new ImageData(clientArea.width, clientArea.height, 24, colorMap.getPalette());
+						}					
+					}else if(bufferedImageData == null || bufferedImageData.width != croppedDataWidth
+							|| bufferedImageData.height !=croppedDataHeight)
+						bufferedImageData = new ImageData(croppedDataWidth, croppedDataHeight, 24, colorMap.getPalette());
 
 					
-				ImageData imageData = null;
-				if(inRGBMode)
-					try {
-						imageData = drawRGBImage(croppedDataArray,
-								croppedDataWidth, croppedDataHeight,
-								max, min, bufferedImageData, shrink);
-					} catch (IllegalArgumentException e) {
-						graphics.drawText("Drawing Exception: RGB value is not between 0 and 255." +
-					"\nPlease check if the data or color depth is correct.",
-								clientArea.getLocation());
-					}
-				else
-					imageData = colorMap.drawImage(croppedDataArray,
-								croppedDataWidth, croppedDataHeight,
-								max, min, bufferedImageData, shrink);		
+					if(inRGBMode)
+						try {
+							imageData = drawRGBImage(rawCroppedDataArray,
+									croppedDataWidth, croppedDataHeight,
+									max, min, bufferedImageData, shrink);
+						} catch (IllegalArgumentException e) {
+							graphics.drawText("Drawing Exception: RGB value is not between 0 and 255." +
+						"\nPlease check if the data or color depth is correct.",
+									clientArea.getLocation());
+						}
+					else
+						imageData = colorMap.drawImage(rawCroppedDataArray,
+									croppedDataWidth, croppedDataHeight,
+									max, min, unsignedBits, bufferedImageData, shrink);
+				}
 
 				if(imageData == null)
 					return;
@@ -666,6 +682,10 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 	private IPrimaryArrayWrapper dataArray;
 	
 	private IPrimaryArrayWrapper croppedDataArray;
+	/**
+	 * The cropped data array before negative values are treated as unsigned.
+	 */
+	private IPrimaryArrayWrapper rawCroppedDataArray;
 	private int croppedDataWidth, croppedDataHeight;
 	private double max, min;
 	
@@ -709,10 +729,22 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 	private ColorDepth colorDepth = ColorDepth.BIT8;
 	
 	private PaletteData palette = new PaletteData(0xff, 0xff00, 0xff0000);
+	// true if a subclass calculates the RGB pixels itself, see calcRGBPixel()
+	private final boolean rgbPixelOverridden = isRGBPixelOverridden();
 	private Boolean savedShowRamp;
 	
 	private boolean isSingleLineProfiling = false;
 	
+	/**
+	 * Maximum number of rendered tiles kept for the image pyramid, about 48MB.
+	 */
+	private static final int MAX_CACHED_TILES = 256;
+	
+	private ImagePyramid.Filter imagePyramidFilter = ImagePyramid.Filter.BOX;
+	private ImagePyramid imagePyramid;
+	private ImageTileCache tileCache;
+	private boolean pyramidDirty;
+	
 	private Color roiColor = ColorConstants.cyan;
 	
 	public IntensityGraphFigure() {
@@ -791,62 +823,26 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		}
 	}
 
-	private double[] calculateXProfileData(IPrimaryArrayWrapper data, int dw, int dh){
+	private double[] calculateXProfileData(int dw){
 		double[] output = new double[dw];
-		if(isSingleLineProfiling()){
-			Point dataloc = graphArea.getDataLocation(graphArea.crossHair.crossX, 
-					graphArea.crossHair.crossY);
-			for(int i=0; i<dw; i++){
-				if(inRGBMode){
-					int index = dataloc.y*dw*3 + i*3;
-					output[i] = (data.get(index) + data.get(index + 1) + data
-							.get(index + 2)) / 3;
-				}else
-					output[i] = data.get(dataloc.y*dw + i);
-			}
-			
-		}else {
-			for (int i = 0; i < dw; i++) {
-				for (int j = 0; j < dh; j++)
-					if (inRGBMode) {
-						int index = j * dw * 3 + i * 3;
-						output[i] += (data.get(index) + data.get(index + 1) + data
-								.get(index + 2)) / 3;
-					} else
-						output[i] += data.get(j * dw + i);
-				output[i] /= dh;
-			}
-		}
-		
+		Point dataloc = graphArea.getDataLocation(graphArea.crossHair.crossX, 
+				graphArea.crossHair.crossY);
+		ProfileCalculator.readRow(rawCroppedDataArray, dw, dataloc.y, inRGBMode, unsignedBits, output);
 		return output;
 	}
 
 	private double[] calculateYProfileData(IPrimaryArrayWrapper data, int dw,
 			int dh) {
 		double[] output = new double[dh];
-		if (isSingleLineProfiling()) {
-			Point dataloc = graphArea.getDataLocation(graphArea.crossHair.crossX, 
-					graphArea.crossHair.crossY);
-			for (int i = 0; i < dh; i++) {
-				if (inRGBMode) {
-					int index = dataloc.x *3 + i*dw* 3;
-					output[i] = (data.get(index) + data.get(index + 1) + data
-							.get(index + 2)) / 3;
-				} else
-					output[i] = data.get(dataloc.x + i*dw);
-			}
-
-		} else {
-			for (int i = 0; i < dh; i++) {
-				for (int j = 0; j < dw; j++)
-					if (inRGBMode) {
-						int index = i * dw * 3 + j * 3;
-						output[i] += (data.get(index) + data.get(index + 1) + data
-								.get(index + 2)) / 3;
-					} else
-						output[i] += data.get(i * dw + j);
-				output[i] /= dw;
-			}
+		Point dataloc = graphArea.getDataLocation(graphArea.crossHair.crossX, 
+				graphArea.crossHair.crossY);
+		for (int i = 0; i < dh; i++) {
+			if (inRGBMode) {
+				int index = dataloc.x *3 + i*dw* 3;
+				output[i] = (data.get(index) + data.get(index + 1) + data
+						.get(index + 2)) / 3;
+			} else
+				output[i] = data.get(dataloc.x + i*dw);
 		}
 		return output;
 	}
@@ -856,9 +852,12 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 			bufferedImage.dispose();
 			bufferedImage = null;
 		}
+		if(tileCache != null)
+			tileCache.clear();
 	}
 	
 	/**Calculate the image data from source RGB data array [RGBRGBRGB...].
+	 * Negative values are treated as unsigned if {@link #getUnsignedBits()} is larger than 0.
 	 * @param dataArray the source data in RGB mode.
 	 * @param dataWidth number of columns of dataArray; This will be the width of image data.
 	 * @param dataHeight number of rows of dataArray; This will be the height of image data.
@@ -868,6 +867,7 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 	 * @param shrink true if area size of image data is smaller than dataWidth*dataHeight. If this is true, it will use
 	 * the nearest neighbor iamge scaling algorithm as described at http://tech-algorithm.com/articles/nearest-neighbor-image-scaling/.
 	 * @return the image data. null if dataWidth or dataHeight is less than 1 or larger than the data array.
+	 * If a subclass overrides {@link #calcRGBPixel(IPrimaryArrayWrapper, double, double, int)}, each pixel is calculated by it.
 	 */
 	private ImageData drawRGBImage(IPrimaryArrayWrapper dataArray,
 			int dataWidth, int dataHeight, double max, double min,
@@ -878,6 +878,11 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 			return null;
 		if (imageData == null)
 			imageData = new ImageData(dataWidth, dataHeight, 24, palette);
+		if (!rgbPixelOverridden) {
+			ImageDataRenderer.renderRGB(dataArray, dataWidth, dataHeight, max, min,
+					colorDepth, unsignedBits, imageData, shrink);
+			return imageData;
+		}
 
 		if (shrink) {
 			int height = imageData.height;
@@ -885,8 +890,6 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 			// EDIT: added +1 to account for an early rounding problem
 			int x_ratio = (int) ((dataWidth << 16) / width) + 1;
 			int y_ratio = (int) ((dataHeight << 16) / height) + 1;
-			// int x_ratio = (int)((w1<<16)/w2) ;
-			// int y_ratio = (int)((h1<<16)/h2) ;
 			int x2, y2;
 			for (int i = 0; i < height; i++) {
 				for (int j = 0; j < width; j++) {
@@ -895,15 +898,13 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 					int index = y2 * dataWidth * 3 + x2 * 3;
 					int pixel = calcRGBPixel(dataArray, max, min, index);
 					imageData.setPixel(j, i, pixel);
-					
 				}
 			}
-
 		} else {
 			for (int y = 0; y < dataHeight; y++) {
 				for (int x = 0; x < dataWidth; x++) {
 					// the index of the value in the color table array
-					int index = y * dataWidth * 3 + x * 3;					
+					int index = y * dataWidth * 3 + x * 3;
 					int pixel = calcRGBPixel(dataArray, max, min, index);
 					imageData.setPixel(x, y, pixel);
 				}
@@ -911,6 +912,22 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		}
 		return imageData;
 	}
+
+	/**
+	 * @return true if a subclass overrides {@link #calcRGBPixel(IPrimaryArrayWrapper, double, double, int)}, the
+	 *         image is then drawn pixel by pixel instead of through the lookup tables of {@link ImageDataRenderer}.
+	 */
+	private boolean isRGBPixelOverridden() {
+		for (Class<?> c = getClass(); c != IntensityGraphFigure.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("calcRGBPixel", IPrimaryArrayWrapper.class, double.class, double.class, int.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not declared by this class
+			}
+		}
+		return false;
+	}
 	/**
 	 * @param dataArray
 	 * @param max
@@ -960,19 +977,65 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		return pixel;
 	}
 
-	private synchronized void fireProfileDataChanged(final IPrimaryArrayWrapper data,
-			final int dw, final int dh) {
-		if (profileListeners.size() <= 0)
+	/**Calculate the profiles and the statistics of all ROIs in one pass over the cropped
+	 * data, then notify the profile listeners.
+	 */
+	private synchronized void fireProfileDataChanged() {
+		if (rawCroppedDataArray == null || (profileListeners.size() <= 0 && roiMap.isEmpty()))
 			return;
-
-		double[] xProfileData = calculateXProfileData(data, dw, dh);
-		double[] yProfileData = calculateYProfileData(data, dw, dh);
+		int dw = croppedDataWidth;
+		int dh = croppedDataHeight;
+		if (dw <= 0 || dh <= 0 || rawCroppedDataArray.getSize() < dw * dh * (inRGBMode ? 3 : 1))
+			return;
+		ROIFigure[] rois = roiMap.values().toArray(new ROIFigure[roiMap.size()]);
+		Rectangle[] regions = new Rectangle[rois.length];
+		for (int i = 0; i < rois.length; i++)
+			regions[i] = getCroppedROIBounds(rois[i].getROIDataBounds());
+
+		double[] xProfileData = null;
+		double[] yProfileData = null;
+		if (profileListeners.size() > 0) {
+			if (isSingleLineProfiling()) {
+				xProfileData = calculateXProfileData(dw);
+				yProfileData = calculateYProfileData(croppedDataArray, dw, dh);
+			} else {
+				xProfileData = new double[dw];
+				yProfileData = new double[dh];
+			}
+		}
+		if (rois.length > 0 || (xProfileData != null && !isSingleLineProfiling())) {
+			ROIStatistics[] statistics = ProfileCalculator.calculate(rawCroppedDataArray, dw, dh, inRGBMode,
+					unsignedBits, isSingleLineProfiling() ? null : xProfileData,
+					isSingleLineProfiling() ? null : yProfileData, regions);
+			for (int i = 0; i < rois.length; i++)
+				rois[i].setStatistics(statistics[i]);
+		}
 		for (IProfileDataChangeLisenter lisenter : profileListeners)
 			lisenter.profileDataChanged(xProfileData, yProfileData,
 					xAxis.getRange(), yAxis.getRange());
 	}
 
-	
+	/**Calculate the statistics of the values inside a region of interest. Only the part of
+	 * the region which is inside the cropped data is taken into account.
+	 * @param roiDataBounds the region in data index coordinates of the whole data array.
+	 * @return the statistics of the region.
+	 */
+	public synchronized ROIStatistics calculateROIStatistics(Rectangle roiDataBounds) {
+		if (rawCroppedDataArray == null || roiDataBounds == null
+				|| rawCroppedDataArray.getSize() < croppedDataWidth * croppedDataHeight * (inRGBMode ? 3 : 1))
+			return ROIStatistics.EMPTY;
+		return ProfileCalculator.calculate(rawCroppedDataArray, croppedDataWidth, croppedDataHeight,
+				inRGBMode, unsignedBits, null, null,
+				new Rectangle[] { getCroppedROIBounds(roiDataBounds) })[0];
+	}
+
+	private Rectangle getCroppedROIBounds(Rectangle roiDataBounds) {
+		if (roiDataBounds == null)
+			return new Rectangle();
+		return new Rectangle(roiDataBounds.x - cropLeft, roiDataBounds.y - cropTop,
+				roiDataBounds.width, roiDataBounds.height);
+	}
+
 	/**
 	 * @return the colorMap
 	 */
@@ -1376,7 +1439,9 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 	public synchronized final void setDataArray(IPrimaryArrayWrapper dataWrapper){
 		dataArray = dataWrapper;
 		croppedDataArray = null;
+		rawCroppedDataArray = null;
 		dataDirty = true;
+		pyramidDirty = true;
 		graphArea.repaint();
 	}
 
@@ -1391,6 +1456,7 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		this.dataHeight = dataHeight;
 		updateCroppedDataSize();
 		dataDirty = true;
+		pyramidDirty = true;
 		repaint();
 	}
 
@@ -1406,6 +1472,7 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		this.dataWidth = dataWidth;
 		updateCroppedDataSize();
 		dataDirty = true;
+		pyramidDirty = true;
 		repaint();
 	}
 
@@ -1473,6 +1540,7 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		if (bits > 1023)
 			throw new IllegalArgumentException("The value given is higher than 1023!");
 		this.unsignedBits = bits;
+		pyramidDirty = true;
 	}
 
 
@@ -1573,6 +1641,58 @@ public class IntensityGraphFigure extends Figure implements Introspectable {
 		dataDirty = true;
 		repaint();
 	}
+	/**
+	 * @return true if the image is drawn from a multi-resolution pyramid of the data.
+	 */
+	public boolean isImagePyramidEnabled() {
+		return imagePyramid != null;
+	}
+	
+	/**Draw the image from a multi-resolution pyramid of the data. Each painted level is
+	 * built once per frame, and rendered tiles are cached so that zooming and panning
+	 * only render the newly visible tiles. This is recommended for frames which are much
+	 * larger than the graph area. It has no effect in RGB mode.
+	 * @param enabled true to use the image pyramid.
+	 */
+	public synchronized void setImagePyramidEnabled(boolean enabled) {
+		if(isImagePyramidEnabled() == enabled)
+			return;
+		if(enabled){
+			imagePyramid = new ImagePyramid(imagePyramidFilter);
+			tileCache = new ImageTileCache(MAX_CACHED_TILES);
+			pyramidDirty = true;
+		}else{
+			imagePyramid = null;
+			tileCache = null;
+		}
+		dataDirty = true;
+		repaint();
+	}
+	
+	/**
+	 * @return the filter used to build the levels of the image pyramid.
+	 */
+	public ImagePyramid.Filter getImagePyramidFilter() {
+		return imagePyramidFilter;
+	}
+	
+	/**Set the filter used to build the levels of the image pyramid.
+	 * {@link ImagePyramid.Filter#MAX} keeps single bright pixels visible when zoomed out.
+	 * @param filter the filter.
+	 */
+	public synchronized void setImagePyramidFilter(ImagePyramid.Filter filter) {
+		if(filter == null || filter == imagePyramidFilter)
+			return;
+		imagePyramidFilter = filter;
+		if(isImagePyramidEnabled()){
+			imagePyramid = new ImagePyramid(filter);
+			tileCache.clear();
+			pyramidDirty = true;
+			dataDirty = true;
+			repaint();
+		}
+	}
+	
 	/**If it is profiling on single pixel.
 	 * @return the isSinglePixelProfiling
 	 */
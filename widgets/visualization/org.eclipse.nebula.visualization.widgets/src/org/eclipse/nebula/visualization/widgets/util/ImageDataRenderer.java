@@ -0,0 +1,525 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.nebula.visualization.widgets.datadefinition.ByteArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ColorMap;
+import org.eclipse.nebula.visualization.widgets.datadefinition.DoubleArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.FloatArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IntArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.LongArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ShortArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.StridedArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.figures.IntensityGraphFigure.ColorDepth;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+
+/**Renders data arrays into {@link ImageData}. A whole row of pixels is calculated
+ * at once by a loop specialized for the type of the wrapped array, and 24 bit image
+ * data is written straight into {@link ImageData#data} instead of going through
+ * {@link ImageData#setPixel(int, int, int)}. 8 and 16 bit data is mapped to pixels
+ * by the raw lookup tables of {@link ColorMap}. Views created by {@link StridedArrayWrapper}
+ * are read from the underlying array directly. Large images are split into bands of
+ * rows which are rendered in parallel on the common fork-join pool.
+ */
+public final class ImageDataRenderer {
+
+	/**
+	 * Images with less pixels than this are rendered in the calling thread.
+	 */
+	private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+	/**
+	 * Minimum number of rows rendered by one task.
+	 */
+	private static final int MIN_ROWS_PER_TASK = 8;
+
+	private ImageDataRenderer() {
+	}
+
+	/**Render data through a color map.
+	 * @param colorMap the color map.
+	 * @param dataArray the source data
+	 * @param dataWidth number of columns of dataArray.
+	 * @param dataHeight number of rows of dataArray.
+	 * @param max the upper limit of the data, already resolved by the color map.
+	 * @param min the lower limit of the data, already resolved by the color map.
+	 * @param unsignedBits if larger than 0, negative values are treated as unsigned values of this many bits.
+	 * @param imageData the image data to be filled.
+	 * @param shrink true if the image data is smaller than the data and must be sampled with nearest neighbor.
+	 */
+	public static void renderColorMap(ColorMap colorMap, IPrimaryArrayWrapper dataArray,
+			int dataWidth, int dataHeight, double max, double min, int unsignedBits,
+			ImageData imageData, boolean shrink) {
+		int offset = 0;
+		int rowStride = dataWidth;
+		if (dataArray instanceof StridedArrayWrapper) {
+			StridedArrayWrapper view = (StridedArrayWrapper) dataArray;
+			offset = view.getOffset();
+			rowStride = view.getRowStride();
+			dataArray = view.getSource();
+		}
+		PixelSource source;
+		if (dataArray instanceof ShortArrayWrapper) {
+			source = new ShortLookupSource(((ShortArrayWrapper) dataArray).getData(),
+					colorMap.getRawPixelLookupTable(16, max, min, unsignedBits));
+		} else if (dataArray instanceof ByteArrayWrapper) {
+			source = new ByteLookupSource(((ByteArrayWrapper) dataArray).getData(),
+					colorMap.getRawPixelLookupTable(8, max, min, unsignedBits));
+		} else {
+			ScaledPixels scaled = new ScaledPixels(colorMap.getPixelLookupTable(), max, min, unsignedBits);
+			if (dataArray instanceof IntArrayWrapper)
+				source = new IntScaledSource(((IntArrayWrapper) dataArray).getData(), scaled);
+			else if (dataArray instanceof DoubleArrayWrapper)
+				source = new DoubleScaledSource(((DoubleArrayWrapper) dataArray).getData(), scaled);
+			else if (dataArray instanceof FloatArrayWrapper)
+				source = new FloatScaledSource(((FloatArrayWrapper) dataArray).getData(), scaled);
+			else if (dataArray instanceof LongArrayWrapper)
+				source = new LongScaledSource(((LongArrayWrapper) dataArray).getData(), scaled);
+			else
+				source = new GenericScaledSource(dataArray, scaled);
+		}
+		render(source, 1, offset, rowStride, dataWidth, dataHeight, imageData, shrink);
+	}
+
+	/**Render data in RGB mode [RGBRGBRGB...], where the color of each pixel comes from the
+	 * data directly.
+	 * @param dataArray the source data in RGB mode.
+	 * @param dataWidth number of columns of dataArray.
+	 * @param dataHeight number of rows of dataArray.
+	 * @param max the upper limit of the data, used if colorDepth is {@link ColorDepth#SCALE}.
+	 * @param min the lower limit of the data, used if colorDepth is {@link ColorDepth#SCALE}.
+	 * @param colorDepth the color depth of the data.
+	 * @param unsignedBits if larger than 0, negative values are treated as unsigned values of this many bits.
+	 * @param imageData the image data to be filled.
+	 * @param shrink true if the image data is smaller than the data and must be sampled with nearest neighbor.
+	 * @throws IllegalArgumentException if a converted color component is not between 0 and 255.
+	 */
+	public static void renderRGB(IPrimaryArrayWrapper dataArray, int dataWidth, int dataHeight,
+			double max, double min, ColorDepth colorDepth, int unsignedBits,
+			ImageData imageData, boolean shrink) {
+		int offset = 0;
+		int rowStride = dataWidth * 3;
+		if (dataArray instanceof StridedArrayWrapper) {
+			StridedArrayWrapper view = (StridedArrayWrapper) dataArray;
+			offset = view.getOffset();
+			rowStride = view.getRowStride();
+			dataArray = view.getSource();
+		}
+		RGBPixels rgb = new RGBPixels(imageData.palette, colorDepth, max, min, unsignedBits);
+		PixelSource source;
+		if (dataArray instanceof ShortArrayWrapper)
+			source = new ShortRGBSource(((ShortArrayWrapper) dataArray).getData(), rgb);
+		else if (dataArray instanceof ByteArrayWrapper)
+			source = new ByteRGBSource(((ByteArrayWrapper) dataArray).getData(), rgb);
+		else if (dataArray instanceof IntArrayWrapper)
+			source = new IntRGBSource(((IntArrayWrapper) dataArray).getData(), rgb);
+		else if (dataArray instanceof DoubleArrayWrapper)
+			source = new DoubleRGBSource(((DoubleArrayWrapper) dataArray).getData(), rgb);
+		else
+			source = new GenericRGBSource(dataArray, rgb);
+		render(source, 3, offset, rowStride, dataWidth, dataHeight, imageData, shrink);
+	}
+
+	private static void render(PixelSource source, int channels, int offset, int rowStride,
+			int dataWidth, int dataHeight, ImageData imageData, boolean shrink) {
+		int width = shrink ? imageData.width : dataWidth;
+		int height = shrink ? imageData.height : dataHeight;
+		int[] columns = new int[width];
+		int[] rows = new int[height];
+		if (shrink) {
+			// EDIT: added +1 to account for an early rounding problem
+			int x_ratio = (int) ((dataWidth << 16) / width) + 1;
+			int y_ratio = (int) ((dataHeight << 16) / height) + 1;
+			for (int j = 0; j < width; j++)
+				columns[j] = ((j * x_ratio) >> 16) * channels;
+			for (int i = 0; i < height; i++)
+				rows[i] = offset + ((i * y_ratio) >> 16) * rowStride;
+		} else {
+			for (int j = 0; j < width; j++)
+				columns[j] = j * channels;
+			for (int i = 0; i < height; i++)
+				rows[i] = offset + i * rowStride;
+		}
+		if (width * height < PARALLEL_THRESHOLD) {
+			new RenderTask(source, imageData, rows, columns, 0, height, height).compute();
+		} else {
+			int parallelism = ForkJoinPool.getCommonPoolParallelism();
+			int grain = Math.max(MIN_ROWS_PER_TASK, height / (parallelism * 4));
+			ForkJoinPool.commonPool().invoke(
+					new RenderTask(source, imageData, rows, columns, 0, height, grain));
+		}
+	}
+
+	/**
+	 * Renders a band of rows, splitting it up until it has no more than grain rows.
+	 */
+	private static final class RenderTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PixelSource source;
+		private final ImageData imageData;
+		private final int[] rows;
+		private final int[] columns;
+		private final int from, to, grain;
+
+		RenderTask(PixelSource source, ImageData imageData, int[] rows, int[] columns,
+				int from, int to, int grain) {
+			this.source = source;
+			this.imageData = imageData;
+			this.rows = rows;
+			this.columns = columns;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RenderTask(source, imageData, rows, columns, from, middle, grain),
+						new RenderTask(source, imageData, rows, columns, middle, to, grain));
+				return;
+			}
+			int[] pixels = new int[columns.length];
+			for (int y = from; y < to; y++) {
+				source.fillRow(rows[y], columns, pixels);
+				writeRow(imageData, y, pixels);
+			}
+		}
+	}
+
+	private static void writeRow(ImageData imageData, int y, int[] pixels) {
+		if (imageData.depth != 24) {
+			imageData.setPixels(0, y, pixels.length, pixels, 0);
+			return;
+		}
+		byte[] data = imageData.data;
+		int index = y * imageData.bytesPerLine;
+		for (int x = 0; x < pixels.length; x++) {
+			int pixel = pixels[x];
+			data[index] = (byte) (pixel >> 16);
+			data[index + 1] = (byte) (pixel >> 8);
+			data[index + 2] = (byte) pixel;
+			index += 3;
+		}
+	}
+
+	/**
+	 * Calculates the pixels of one row of the image.
+	 */
+	private static abstract class PixelSource {
+		/**
+		 * @param rowOffset index of the first element of the source row.
+		 * @param columns offset of the source element of each pixel relative to the row.
+		 * @param pixels receives the pixels of the row.
+		 */
+		abstract void fillRow(int rowOffset, int[] columns, int[] pixels);
+	}
+
+	private static final class ShortLookupSource extends PixelSource {
+		private final short[] data;
+		private final int[] lookupTable;
+
+		ShortLookupSource(short[] data, int[] lookupTable) {
+			this.data = data;
+			this.lookupTable = lookupTable;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++)
+				pixels[x] = lookupTable[data[rowOffset + columns[x]] - Short.MIN_VALUE];
+		}
+	}
+
+	private static final class ByteLookupSource extends PixelSource {
+		private final byte[] data;
+		private final int[] lookupTable;
+
+		ByteLookupSource(byte[] data, int[] lookupTable) {
+			this.data = data;
+			this.lookupTable = lookupTable;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++)
+				pixels[x] = lookupTable[data[rowOffset + columns[x]] - Byte.MIN_VALUE];
+		}
+	}
+
+	/**
+	 * Maps a value to the pixel of the 256 entries color map lookup table.
+	 */
+	private static final class ScaledPixels {
+		private final int[] lookupTable;
+		private final double min, range, unsignedOffset;
+
+		ScaledPixels(int[] lookupTable, double max, double min, int unsignedBits) {
+			this.lookupTable = lookupTable;
+			this.min = min;
+			this.range = max - min;
+			this.unsignedOffset = unsignedBits > 0 ? Math.pow(2, unsignedBits) : 0;
+		}
+
+		int pixel(double value) {
+			if (value < 0)
+				value += unsignedOffset;
+			int index = (int) ((value - min) / range * 255);
+			if (index < 0)
+				index = 0;
+			else if (index > 255)
+				index = 255;
+			return lookupTable[index];
+		}
+	}
+
+	private static final class IntScaledSource extends PixelSource {
+		private final int[] data;
+		private final ScaledPixels scaled;
+
+		IntScaledSource(int[] data, ScaledPixels scaled) {
+			this.data = data;
+			this.scaled = scaled;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++)
+				pixels[x] = scaled.pixel(data[rowOffset + columns[x]]);
+		}
+	}
+
+	private static final class LongScaledSource extends PixelSource {
+		private final long[] data;
+		private final ScaledPixels scaled;
+
+		LongScaledSource(long[] data, ScaledPixels scaled) {
+			this.data = data;
+			this.scaled = scaled;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++)
+				pixels[x] = scaled.pixel(data[rowOffset + columns[x]]);
+		}
+	}
+
+	private static final class FloatScaledSource extends PixelSource {
+		private final float[] data;
+		private final ScaledPixels scaled;
+
+		FloatScaledSource(float[] data, ScaledPixels scaled) {
+			this.data = data;
+			this.scaled = scaled;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++)
+				pixels[x] = scaled.pixel(data[rowOffset + columns[x]]);
+		}
+	}
+
+	private static final class DoubleScaledSource extends PixelSource {
+		private final double[] data;
+		private final ScaledPixels scaled;
+
+		DoubleScaledSource(double[] data, ScaledPixels scaled) {
+			this.data = data;
+			this.scaled = scaled;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++)
+				pixels[x] = scaled.pixel(data[rowOffset + columns[x]]);
+		}
+	}
+
+	private static final class GenericScaledSource extends PixelSource {
+		private final IPrimaryArrayWrapper data;
+		private final ScaledPixels scaled;
+
+		GenericScaledSource(IPrimaryArrayWrapper data, ScaledPixels scaled) {
+			this.data = data;
+			this.scaled = scaled;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++)
+				pixels[x] = scaled.pixel(data.get(rowOffset + columns[x]));
+		}
+	}
+
+	/**
+	 * Converts red, green and blue values to a pixel according to the color depth.
+	 */
+	private static final class RGBPixels {
+		private final int redShift, greenShift, blueShift;
+		private final int redMask, greenMask, blueMask;
+		private final boolean scale;
+		private final int shift, mask;
+		private final double min, range, unsignedOffset;
+
+		RGBPixels(PaletteData palette, ColorDepth colorDepth, double max, double min, int unsignedBits) {
+			redShift = palette.redShift;
+			greenShift = palette.greenShift;
+			blueShift = palette.blueShift;
+			redMask = palette.redMask;
+			greenMask = palette.greenMask;
+			blueMask = palette.blueMask;
+			this.min = min;
+			this.range = max - min;
+			this.unsignedOffset = unsignedBits > 0 ? Math.pow(2, unsignedBits) : 0;
+			scale = colorDepth == ColorDepth.SCALE;
+			switch (colorDepth) {
+			case BIT16:
+				shift = 8;
+				mask = -1;
+				break;
+			case BIT24:
+				shift = 16;
+				mask = -1;
+				break;
+			case BIT30:
+				shift = 22;
+				mask = -1;
+				break;
+			case LOWER8BIT:
+				shift = 0;
+				mask = 0xFF;
+				break;
+			case BIT8:
+			case SCALE:
+			default:
+				shift = 0;
+				mask = -1;
+				break;
+			}
+		}
+
+		private int component(double value) {
+			if (value < 0)
+				value += unsignedOffset;
+			int c = scale ? (int) ((value - min) / range * 255) : ((int) value >> shift) & mask;
+			if (c < 0 || c > 255)
+				throw new IllegalArgumentException("RGB value is not between 0 and 255: " + c);
+			return c;
+		}
+
+		private static int shift(int c, int shift) {
+			return shift < 0 ? c << -shift : c >>> shift;
+		}
+
+		int pixel(double red, double green, double blue) {
+			return (shift(component(red), redShift) & redMask)
+					| (shift(component(green), greenShift) & greenMask)
+					| (shift(component(blue), blueShift) & blueMask);
+		}
+	}
+
+	private static final class ShortRGBSource extends PixelSource {
+		private final short[] data;
+		private final RGBPixels rgb;
+
+		ShortRGBSource(short[] data, RGBPixels rgb) {
+			this.data = data;
+			this.rgb = rgb;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++) {
+				int i = rowOffset + columns[x];
+				pixels[x] = rgb.pixel(data[i], data[i + 1], data[i + 2]);
+			}
+		}
+	}
+
+	private static final class ByteRGBSource extends PixelSource {
+		private final byte[] data;
+		private final RGBPixels rgb;
+
+		ByteRGBSource(byte[] data, RGBPixels rgb) {
+			this.data = data;
+			this.rgb = rgb;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++) {
+				int i = rowOffset + columns[x];
+				pixels[x] = rgb.pixel(data[i], data[i + 1], data[i + 2]);
+			}
+		}
+	}
+
+	private static final class IntRGBSource extends PixelSource {
+		private final int[] data;
+		private final RGBPixels rgb;
+
+		IntRGBSource(int[] data, RGBPixels rgb) {
+			this.data = data;
+			this.rgb = rgb;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++) {
+				int i = rowOffset + columns[x];
+				pixels[x] = rgb.pixel(data[i], data[i + 1], data[i + 2]);
+			}
+		}
+	}
+
+	private static final class DoubleRGBSource extends PixelSource {
+		private final double[] data;
+		private final RGBPixels rgb;
+
+		DoubleRGBSource(double[] data, RGBPixels rgb) {
+			this.data = data;
+			this.rgb = rgb;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++) {
+				int i = rowOffset + columns[x];
+				pixels[x] = rgb.pixel(data[i], data[i + 1], data[i + 2]);
+			}
+		}
+	}
+
+	private static final class GenericRGBSource extends PixelSource {
+		private final IPrimaryArrayWrapper data;
+		private final RGBPixels rgb;
+
+		GenericRGBSource(IPrimaryArrayWrapper data, RGBPixels rgb) {
+			this.data = data;
+			this.rgb = rgb;
+		}
+
+		@Override
+		void fillRow(int rowOffset, int[] columns, int[] pixels) {
+			for (int x = 0; x < pixels.length; x++) {
+				int i = rowOffset + columns[x];
+				pixels[x] = rgb.pixel(data.get(i), data.get(i + 1), data.get(i + 2));
+			}
+		}
+	}
+}
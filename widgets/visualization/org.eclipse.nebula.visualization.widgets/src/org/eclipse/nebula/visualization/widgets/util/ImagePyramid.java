@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.nebula.visualization.widgets.datadefinition.FloatArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+
+/**A multi-resolution pyramid of a two dimensional data array. Level 0 is the data
+ * itself, each further level has half the width and height of the level below it.
+ * Levels are built one after another from the level below when they are first
+ * requested, so a new frame only costs the levels which are actually painted.
+ * The arrays of the levels are reused for following frames of the same size.
+ */
+public class ImagePyramid {
+
+	/**
+	 * How the 2x2 values of a level are combined into one value of the next level.
+	 */
+	public enum Filter {
+		/**
+		 * The mean of the values.
+		 */
+		BOX,
+		/**
+		 * The maximum of the values, which keeps single bright pixels visible.
+		 */
+		MAX
+	}
+
+	/**
+	 * Levels are not built below this size.
+	 */
+	private static final int MIN_LEVEL_SIZE = 16;
+
+	private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+	private static final int MIN_ROWS_PER_TASK = 16;
+
+	private final Filter filter;
+	private IPrimaryArrayWrapper data;
+	private int width, height;
+	private int unsignedBits;
+	private int stamp;
+
+	/**
+	 * The levels above level 0. Only the first builtLevels of them are valid.
+	 */
+	private final List<float[]> levels = new ArrayList<float[]>();
+	private int builtLevels;
+
+	public ImagePyramid(Filter filter) {
+		this.filter = filter;
+	}
+
+	/**Set a new frame. All levels above 0 become invalid.
+	 * @param data the data of level 0.
+	 * @param width number of columns of data.
+	 * @param height number of rows of data.
+	 * @param unsignedBits if larger than 0, negative values are treated as unsigned values of this many bits.
+	 */
+	public synchronized void setData(IPrimaryArrayWrapper data, int width, int height, int unsignedBits) {
+		if (width != this.width || height != this.height)
+			levels.clear();
+		this.data = data;
+		this.width = width;
+		this.height = height;
+		this.unsignedBits = unsignedBits;
+		builtLevels = 0;
+		stamp++;
+	}
+
+	/**
+	 * @return a number which changes whenever a new frame is set.
+	 */
+	public synchronized int getStamp() {
+		return stamp;
+	}
+
+	/**
+	 * @return the filter used to build the levels.
+	 */
+	public Filter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * @return the number of levels including level 0.
+	 */
+	public synchronized int getLevelCount() {
+		int count = 1;
+		while (Math.min(getLevelWidth(count), getLevelHeight(count)) >= MIN_LEVEL_SIZE)
+			count++;
+		return count;
+	}
+
+	/**
+	 * @param level the level
+	 * @return number of columns of the level.
+	 */
+	public synchronized int getLevelWidth(int level) {
+		return (width + (1 << level) - 1) >> level;
+	}
+
+	/**
+	 * @param level the level
+	 * @return number of rows of the level.
+	 */
+	public synchronized int getLevelHeight(int level) {
+		return (height + (1 << level) - 1) >> level;
+	}
+
+	/**Choose the coarsest level which still has at least the resolution needed to show
+	 * a region of the data on an area of the screen.
+	 * @param regionWidth width of the region at level 0.
+	 * @param regionHeight height of the region at level 0.
+	 * @param areaWidth width of the area on screen.
+	 * @param areaHeight height of the area on screen.
+	 * @return the level.
+	 */
+	public synchronized int selectLevel(int regionWidth, int regionHeight, int areaWidth, int areaHeight) {
+		int level = 0;
+		int count = getLevelCount();
+		while (level + 1 < count && (regionWidth >> (level + 1)) >= areaWidth
+				&& (regionHeight >> (level + 1)) >= areaHeight)
+			level++;
+		return level;
+	}
+
+	/**
+	 * @param level the level.
+	 * @return unsigned bits to be used for the data of the level. Values of levels above 0
+	 * have been converted already.
+	 */
+	public synchronized int getUnsignedBits(int level) {
+		return level == 0 ? unsignedBits : 0;
+	}
+
+	/**Get the data of a level, building it and the levels below it if needed.
+	 * @param level the level.
+	 * @return the data of the level, stored row by row.
+	 */
+	public synchronized IPrimaryArrayWrapper getLevel(int level) {
+		if (level < 0 || level >= getLevelCount())
+			throw new IllegalArgumentException("No such level: " + level);
+		if (level == 0)
+			return data;
+		while (builtLevels < level) {
+			int next = builtLevels + 1;
+			int w = getLevelWidth(next);
+			int h = getLevelHeight(next);
+			if (levels.size() < next)
+				levels.add(new float[w * h]);
+			float[] target = levels.get(next - 1);
+			RowReader reader = next == 1 ? RowReader.create(data, width, false, unsignedBits)
+					: RowReader.create(new FloatArrayWrapper(levels.get(next - 2)), getLevelWidth(next - 1), false, 0);
+			Reduction reduction = new Reduction(reader, getLevelWidth(next - 1), getLevelHeight(next - 1),
+					target, w, 0, h, h);
+			if (w * h * 4 < PARALLEL_THRESHOLD) {
+				reduction.compute();
+			} else {
+				reduction.grain = Math.max(MIN_ROWS_PER_TASK, h / (ForkJoinPool.getCommonPoolParallelism() * 4));
+				ForkJoinPool.commonPool().invoke(reduction);
+			}
+			builtLevels = next;
+		}
+		return new FloatArrayWrapper(levels.get(level - 1));
+	}
+
+	/**
+	 * Builds a band of rows of a level from the level below it.
+	 */
+	private final class Reduction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RowReader reader;
+		private final int sourceWidth, sourceHeight;
+		private final float[] target;
+		private final int width;
+		private final int from, to;
+		int grain;
+
+		Reduction(RowReader reader, int sourceWidth, int sourceHeight, float[] target, int width,
+				int from, int to, int grain) {
+			this.reader = reader;
+			this.sourceWidth = sourceWidth;
+			this.sourceHeight = sourceHeight;
+			this.target = target;
+			this.width = width;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Reduction(reader, sourceWidth, sourceHeight, target, width, from, middle, grain),
+						new Reduction(reader, sourceWidth, sourceHeight, target, width, middle, to, grain));
+				return;
+			}
+			double[] upper = new double[sourceWidth];
+			double[] lower = new double[sourceWidth];
+			boolean max = filter == Filter.MAX;
+			for (int y = from; y < to; y++) {
+				reader.read(2 * y, upper);
+				boolean twoRows = 2 * y + 1 < sourceHeight;
+				if (twoRows)
+					reader.read(2 * y + 1, lower);
+				int index = y * width;
+				for (int x = 0; x < width; x++) {
+					int sx = 2 * x;
+					boolean twoColumns = sx + 1 < sourceWidth;
+					double value;
+					if (max) {
+						value = upper[sx];
+						if (twoColumns)
+							value = Math.max(value, upper[sx + 1]);
+						if (twoRows) {
+							value = Math.max(value, lower[sx]);
+							if (twoColumns)
+								value = Math.max(value, lower[sx + 1]);
+						}
+					} else {
+						double sum = upper[sx];
+						int count = 1;
+						if (twoColumns) {
+							sum += upper[sx + 1];
+							count++;
+						}
+						if (twoRows) {
+							sum += lower[sx];
+							count++;
+							if (twoColumns) {
+								sum += lower[sx + 1];
+								count++;
+							}
+						}
+						value = sum / count;
+					}
+					target[index + x] = (float) value;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.nebula.visualization.widgets.datadefinition.ColorMap;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.StridedArrayWrapper;
+import org.eclipse.swt.graphics.ImageData;
+
+/**A least recently used cache of color mapped tiles of the levels of an {@link ImagePyramid}.
+ * Panning or zooming only renders the tiles which were not visible before, the rest of
+ * the visible region is copied from the cache. All tiles are dropped when the frame of
+ * the pyramid, the color map or the range of the color map changes.
+ */
+public class ImageTileCache {
+
+	/**
+	 * Width and height of a tile.
+	 */
+	public static final int TILE_SIZE = 256;
+
+	private final Map<Long, ImageData> tiles;
+
+	private int pyramidStamp = -1;
+	private ColorMap colorMap;
+	private int[] pixelLookupTable;
+	private double max, min;
+
+	/**
+	 * @param maxTiles the maximum number of tiles kept in the cache. Each tile takes
+	 * TILE_SIZE*TILE_SIZE*3 bytes.
+	 */
+	public ImageTileCache(final int maxTiles) {
+		tiles = new LinkedHashMap<Long, ImageData>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, ImageData> eldest) {
+				return size() > maxTiles;
+			}
+		};
+	}
+
+	/**
+	 * Drop all tiles.
+	 */
+	public synchronized void clear() {
+		tiles.clear();
+		colorMap = null;
+		pixelLookupTable = null;
+	}
+
+	/**
+	 * @return the number of tiles in the cache.
+	 */
+	public synchronized int size() {
+		return tiles.size();
+	}
+
+	/**Render a region of a level of the pyramid, using cached tiles where possible.
+	 * @param pyramid the pyramid.
+	 * @param level the level.
+	 * @param x first column of the region in level coordinates.
+	 * @param y first row of the region in level coordinates.
+	 * @param width width of the region.
+	 * @param height height of the region.
+	 * @param colorMap the color map.
+	 * @param max the upper limit of the data.
+	 * @param min the lower limit of the data.
+	 * @param imageData the image data to be filled, it is used only if it has the size of the
+	 * region. null if a new instance should be created.
+	 * @return the image data of the region.
+	 */
+	public synchronized ImageData drawImage(ImagePyramid pyramid, int level, int x, int y,
+			int width, int height, ColorMap colorMap, double max, double min, ImageData imageData) {
+		validate(pyramid, colorMap, max, min);
+		if (imageData == null || imageData.width != width || imageData.height != height
+				|| imageData.depth != 24)
+			imageData = new ImageData(width, height, 24, colorMap.getPalette());
+		int firstColumn = x / TILE_SIZE, lastColumn = (x + width - 1) / TILE_SIZE;
+		int firstRow = y / TILE_SIZE, lastRow = (y + height - 1) / TILE_SIZE;
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				ImageData tile = getTile(pyramid, level, column, row, colorMap, max, min);
+				int tileX = column * TILE_SIZE, tileY = row * TILE_SIZE;
+				int left = Math.max(x, tileX), right = Math.min(x + width, tileX + tile.width);
+				int top = Math.max(y, tileY), bottom = Math.min(y + height, tileY + tile.height);
+				for (int ty = top; ty < bottom; ty++) {
+					System.arraycopy(tile.data, (ty - tileY) * tile.bytesPerLine + (left - tileX) * 3,
+							imageData.data, (ty - y) * imageData.bytesPerLine + (left - x) * 3,
+							(right - left) * 3);
+				}
+			}
+		}
+		return imageData;
+	}
+
+	private void validate(ImagePyramid pyramid, ColorMap colorMap, double max, double min) {
+		int[] lookupTable = colorMap.getPixelLookupTable();
+		if (pyramid.getStamp() != pyramidStamp || colorMap != this.colorMap
+				|| lookupTable != pixelLookupTable || max != this.max || min != this.min) {
+			tiles.clear();
+			pyramidStamp = pyramid.getStamp();
+			this.colorMap = colorMap;
+			pixelLookupTable = lookupTable;
+			this.max = max;
+			this.min = min;
+		}
+	}
+
+	private ImageData getTile(ImagePyramid pyramid, int level, int column, int row,
+			ColorMap colorMap, double max, double min) {
+		Long key = Long.valueOf(((long) level << 48) | ((long) row << 24) | column);
+		ImageData tile = tiles.get(key);
+		if (tile == null) {
+			int levelWidth = pyramid.getLevelWidth(level);
+			int levelHeight = pyramid.getLevelHeight(level);
+			int tileX = column * TILE_SIZE, tileY = row * TILE_SIZE;
+			int width = Math.min(TILE_SIZE, levelWidth - tileX);
+			int height = Math.min(TILE_SIZE, levelHeight - tileY);
+			IPrimaryArrayWrapper view = new StridedArrayWrapper(pyramid.getLevel(level),
+					tileY * levelWidth + tileX, width, levelWidth, height);
+			tile = colorMap.drawImage(view, width, height, max, min,
+					pyramid.getUnsignedBits(level), null, false);
+			tiles.put(key, tile);
+		}
+		return tile;
+	}
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ROIStatistics;
+import org.eclipse.nebula.visualization.widgets.datadefinition.StridedArrayWrapper;
+
+/**Calculates the x and y profiles of a two dimensional data array and the statistics
+ * of regions inside it in one pass over the data. Each row is read by a {@link RowReader},
+ * so views created by {@link StridedArrayWrapper} are read from the underlying primitive
+ * array directly. Large arrays are split into bands of rows
+ * which are processed in parallel on the common fork-join pool.
+ */
+public final class ProfileCalculator {
+
+	/**
+	 * Arrays with less values than this are processed in the calling thread.
+	 */
+	private static final int PARALLEL_THRESHOLD = 256 * 256;
+
+	private static final int MIN_ROWS_PER_TASK = 16;
+
+	private ProfileCalculator() {
+	}
+
+	/**Calculate the profiles and region statistics.
+	 * @param data the data array, or a view on it.
+	 * @param width number of columns of data.
+	 * @param height number of rows of data.
+	 * @param rgb true if data is in RGB mode, the value of a pixel is then the mean of its three components.
+	 * @param unsignedBits if larger than 0, negative values are treated as unsigned values of this many bits.
+	 * @param xProfile receives the mean of each column. Must have width elements. Can be null.
+	 * @param yProfile receives the mean of each row. Must have height elements. Can be null.
+	 * @param regions regions in data index coordinates. Parts outside of the data are ignored. Can be null.
+	 * @return the statistics of each region.
+	 */
+	public static ROIStatistics[] calculate(IPrimaryArrayWrapper data, int width, int height,
+			boolean rgb, int unsignedBits, double[] xProfile, double[] yProfile, Rectangle[] regions) {
+		int[][] bounds = new int[regions == null ? 0 : regions.length][];
+		for (int i = 0; i < bounds.length; i++) {
+			Rectangle r = regions[i];
+			bounds[i] = new int[] { Math.max(0, r.x), Math.max(0, r.y),
+					Math.min(width, r.x + r.width), Math.min(height, r.y + r.height) };
+		}
+		RowReader reader = RowReader.create(data, width, rgb, unsignedBits);
+		Band band = new Band(reader, width, bounds, xProfile != null || yProfile != null,
+				yProfile, 0, height, height);
+		Accumulator result;
+		if (width * height < PARALLEL_THRESHOLD || height < 2 * MIN_ROWS_PER_TASK) {
+			result = band.compute();
+		} else {
+			band.grain = Math.max(MIN_ROWS_PER_TASK,
+					height / (ForkJoinPool.getCommonPoolParallelism() * 4));
+			result = ForkJoinPool.commonPool().invoke(band);
+		}
+		if (xProfile != null)
+			for (int x = 0; x < width; x++)
+				xProfile[x] = result.columnSums[x] / height;
+		if (yProfile != null)
+			for (int y = 0; y < height; y++)
+				yProfile[y] /= width;
+		ROIStatistics[] statistics = new ROIStatistics[bounds.length];
+		for (int i = 0; i < bounds.length; i++)
+			statistics[i] = result.counts[i] == 0 ? ROIStatistics.EMPTY
+					: new ROIStatistics(result.mins[i], result.maxs[i], result.sums[i], result.counts[i]);
+		return statistics;
+	}
+
+	/**Read one row of a data array.
+	 * @param data the data array, or a view on it.
+	 * @param width number of columns of data.
+	 * @param row the row to read.
+	 * @param rgb true if data is in RGB mode.
+	 * @param unsignedBits if larger than 0, negative values are treated as unsigned values of this many bits.
+	 * @param values receives the width values of the row.
+	 */
+	public static void readRow(IPrimaryArrayWrapper data, int width, int row, boolean rgb,
+			int unsignedBits, double[] values) {
+		RowReader.create(data, width, rgb, unsignedBits).read(row, values);
+	}
+
+	private static final class Accumulator {
+		final double[] columnSums;
+		final double[] mins, maxs, sums;
+		final int[] counts;
+
+		Accumulator(int width, int regions) {
+			columnSums = new double[width];
+			mins = new double[regions];
+			maxs = new double[regions];
+			sums = new double[regions];
+			counts = new int[regions];
+			for (int i = 0; i < regions; i++) {
+				mins[i] = Double.POSITIVE_INFINITY;
+				maxs[i] = Double.NEGATIVE_INFINITY;
+			}
+		}
+
+		void add(Accumulator other) {
+			for (int x = 0; x < columnSums.length; x++)
+				columnSums[x] += other.columnSums[x];
+			for (int i = 0; i < counts.length; i++) {
+				mins[i] = Math.min(mins[i], other.mins[i]);
+				maxs[i] = Math.max(maxs[i], other.maxs[i]);
+				sums[i] += other.sums[i];
+				counts[i] += other.counts[i];
+			}
+		}
+	}
+
+	/**
+	 * Processes a band of rows, splitting it up until it has no more than grain rows.
+	 */
+	private static final class Band extends RecursiveTask<Accumulator> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RowReader reader;
+		private final int width;
+		private final int[][] regions;
+		private final boolean profiles;
+		private final double[] rowSums;
+		private final int from, to;
+		int grain;
+
+		Band(RowReader reader, int width, int[][] regions, boolean profiles, double[] rowSums,
+				int from, int to, int grain) {
+			this.reader = reader;
+			this.width = width;
+			this.regions = regions;
+			this.profiles = profiles;
+			this.rowSums = rowSums;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected Accumulator compute() {
+			if (to - from > grain) {
+				int middle = (from + to) >>> 1;
+				Band second = new Band(reader, width, regions, profiles, rowSums, middle, to, grain);
+				second.fork();
+				Accumulator result = new Band(reader, width, regions, profiles, rowSums, from, middle, grain)
+						.compute();
+				result.add(second.join());
+				return result;
+			}
+			Accumulator result = new Accumulator(width, regions.length);
+			double[] columnSums = result.columnSums;
+			double[] values = new double[width];
+			for (int y = from; y < to; y++) {
+				if (!profiles && !inRegion(y))
+					continue;
+				reader.read(y, values);
+				double rowSum = 0;
+				for (int x = 0; x < width; x++) {
+					double v = values[x];
+					rowSum += v;
+					columnSums[x] += v;
+				}
+				if (rowSums != null)
+					rowSums[y] = rowSum;
+				for (int i = 0; i < regions.length; i++) {
+					int[] r = regions[i];
+					if (y < r[1] || y >= r[3] || r[0] >= r[2])
+						continue;
+					double min = result.mins[i], max = result.maxs[i], sum = 0;
+					for (int x = r[0]; x < r[2]; x++) {
+						double v = values[x];
+						if (v < min)
+							min = v;
+						if (v > max)
+							max = v;
+						sum += v;
+					}
+					result.mins[i] = min;
+					result.maxs[i] = max;
+					result.sums[i] += sum;
+					result.counts[i] += r[2] - r[0];
+				}
+			}
+			return result;
+		}
+
+		private boolean inRegion(int y) {
+			for (int[] r : regions)
+				if (y >= r[1] && y < r[3])
+					return true;
+			return false;
+		}
+	}
+}
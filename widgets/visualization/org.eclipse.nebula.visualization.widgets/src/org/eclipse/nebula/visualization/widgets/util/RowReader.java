@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.eclipse.nebula.visualization.widgets.util;
+
+import org.eclipse.nebula.visualization.widgets.datadefinition.ByteArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.DoubleArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.FloatArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IPrimaryArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.IntArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.ShortArrayWrapper;
+import org.eclipse.nebula.visualization.widgets.datadefinition.StridedArrayWrapper;
+
+/**Reads rows of values from the array behind a wrapper with a loop specialized for the
+ * type of the array. Views created by {@link StridedArrayWrapper} are read from the
+ * underlying array directly.
+ */
+abstract class RowReader {
+	final int offset, rowStride, width;
+	final boolean rgb;
+	final double unsignedOffset;
+
+	RowReader(int offset, int rowStride, int width, boolean rgb, int unsignedBits) {
+		this.offset = offset;
+		this.rowStride = rowStride;
+		this.width = width;
+		this.rgb = rgb;
+		this.unsignedOffset = unsignedBits > 0 ? Math.pow(2, unsignedBits) : 0;
+	}
+
+	static RowReader create(IPrimaryArrayWrapper data, int width, boolean rgb, int unsignedBits) {
+		int offset = 0;
+		int rowStride = rgb ? width * 3 : width;
+		if (data instanceof StridedArrayWrapper) {
+			StridedArrayWrapper view = (StridedArrayWrapper) data;
+			offset = view.getOffset();
+			rowStride = view.getRowStride();
+			data = view.getSource();
+		}
+		if (data instanceof ShortArrayWrapper)
+			return new ShortReader(((ShortArrayWrapper) data).getData(), offset, rowStride, width, rgb, unsignedBits);
+		if (data instanceof IntArrayWrapper)
+			return new IntReader(((IntArrayWrapper) data).getData(), offset, rowStride, width, rgb, unsignedBits);
+		if (data instanceof ByteArrayWrapper)
+			return new ByteReader(((ByteArrayWrapper) data).getData(), offset, rowStride, width, rgb, unsignedBits);
+		if (data instanceof FloatArrayWrapper)
+			return new FloatReader(((FloatArrayWrapper) data).getData(), offset, rowStride, width, rgb, unsignedBits);
+		if (data instanceof DoubleArrayWrapper)
+			return new DoubleReader(((DoubleArrayWrapper) data).getData(), offset, rowStride, width, rgb, unsignedBits);
+		return new GenericReader(data, offset, rowStride, width, rgb, unsignedBits);
+	}
+
+	final double unsigned(double v) {
+		return v < 0 ? v + unsignedOffset : v;
+	}
+
+	/**
+	 * Put the values of the row into values. In RGB mode, the value is the mean of the
+	 * three components.
+	 */
+	abstract void read(int row, double[] values);
+
+	private static final class ShortReader extends RowReader {
+		private final short[] data;
+
+		ShortReader(short[] data, int offset, int rowStride, int width, boolean rgb, int unsignedBits) {
+			super(offset, rowStride, width, rgb, unsignedBits);
+			this.data = data;
+		}
+
+		@Override
+		void read(int row, double[] values) {
+			int i = offset + row * rowStride;
+			if (rgb)
+				for (int x = 0; x < width; x++, i += 3)
+					values[x] = (unsigned(data[i]) + unsigned(data[i + 1]) + unsigned(data[i + 2])) / 3;
+			else
+				for (int x = 0; x < width; x++)
+					values[x] = unsigned(data[i++]);
+		}
+	}
+
+	private static final class IntReader extends RowReader {
+		private final int[] data;
+
+		IntReader(int[] data, int offset, int rowStride, int width, boolean rgb, int unsignedBits) {
+			super(offset, rowStride, width, rgb, unsignedBits);
+			this.data = data;
+		}
+
+		@Override
+		void read(int row, double[] values) {
+			int i = offset + row * rowStride;
+			if (rgb)
+				for (int x = 0; x < width; x++, i += 3)
+					values[x] = (unsigned(data[i]) + unsigned(data[i + 1]) + unsigned(data[i + 2])) / 3;
+			else
+				for (int x = 0; x < width; x++)
+					values[x] = unsigned(data[i++]);
+		}
+	}
+
+	private static final class ByteReader extends RowReader {
+		private final byte[] data;
+
+		ByteReader(byte[] data, int offset, int rowStride, int width, boolean rgb, int unsignedBits) {
+			super(offset, rowStride, width, rgb, unsignedBits);
+			this.data = data;
+		}
+
+		@Override
+		void read(int row, double[] values) {
+			int i = offset + row * rowStride;
+			if (rgb)
+				for (int x = 0; x < width; x++, i += 3)
+					values[x] = (unsigned(data[i]) + unsigned(data[i + 1]) + unsigned(data[i + 2])) / 3;
+			else
+				for (int x = 0; x < width; x++)
+					values[x] = unsigned(data[i++]);
+		}
+	}
+
+	private static final class FloatReader extends RowReader {
+		private final float[] data;
+
+		FloatReader(float[] data, int offset, int rowStride, int width, boolean rgb, int unsignedBits) {
+			super(offset, rowStride, width, rgb, unsignedBits);
+			this.data = data;
+		}
+
+		@Override
+		void read(int row, double[] values) {
+			int i = offset + row * rowStride;
+			if (rgb)
+				for (int x = 0; x < width; x++, i += 3)
+					values[x] = (unsigned(data[i]) + unsigned(data[i + 1]) + unsigned(data[i + 2])) / 3;
+			else
+				for (int x = 0; x < width; x++)
+					values[x] = unsigned(data[i++]);
+		}
+	}
+
+	private static final class DoubleReader extends RowReader {
+		private final double[] data;
+
+		DoubleReader(double[] data, int offset, int rowStride, int width, boolean rgb, int unsignedBits) {
+			super(offset, rowStride, width, rgb, unsignedBits);
+			this.data = data;
+		}
+
+		@Override
+		void read(int row, double[] values) {
+			int i = offset + row * rowStride;
+			if (rgb)
+				for (int x = 0; x < width; x++, i += 3)
+					values[x] = (unsigned(data[i]) + unsigned(data[i + 1]) + unsigned(data[i + 2])) / 3;
+			else
+				for (int x = 0; x < width; x++)
+					values[x] = unsigned(data[i++]);
+		}
+	}
+
+	private static final class GenericReader extends RowReader {
+		private final IPrimaryArrayWrapper data;
+
+		GenericReader(IPrimaryArrayWrapper data, int offset, int rowStride, int width, boolean rgb, int unsignedBits) {
+			super(offset, rowStride, width, rgb, unsignedBits);
+			this.data = data;
+		}
+
+		@Override
+		void read(int row, double[] values) {
+			int i = offset + row * rowStride;
+			if (rgb)
+				for (int x = 0; x < width; x++, i += 3)
+					values[x] = (unsigned(data.get(i)) + unsigned(data.get(i + 1)) + unsigned(data.get(i + 2))) / 3;
+			else
+				for (int x = 0; x < width; x++)
+					values[x] = unsigned(data.get(i++));
+		}
+	}
+}
@@ -47,7 +47,7 @@ public class ColumnData {
    }
 
    public String getXml(boolean visibleColumnsOnly) {
-      StringBuffer sb = new StringBuffer();
+      StringBuilder sb = new StringBuilder(columns.size() * 160);
       for (XViewerColumn xCol : columns) {
          if (!visibleColumnsOnly || (visibleColumnsOnly && xCol.isShow())) {
             sb.append(xCol.toXml());
@@ -61,27 +61,27 @@ public class ColumnFilterData {
    }
 
    public String getXml() {
-      StringBuffer sb = new StringBuffer();
+      StringBuilder sb = new StringBuilder();
       for (String colId : getColIds()) {
-         StringBuffer innerSb = new StringBuffer();
-         innerSb.append(XmlUtil.addTagData(COLUMN_ID_TAG, colId));
+         sb.append("<" + COLUMN_FILTER_TAG + ">"); //$NON-NLS-1$ //$NON-NLS-2$
+         XmlUtil.addTagData(sb, COLUMN_ID_TAG, colId);
          String filterText = colIdToFilterText.get(colId);
          if (Strings.isValid(filterText)) {
-            innerSb.append(XmlUtil.addTagData(FILTER_TEXT_TAG, filterText));
+            XmlUtil.addTagData(sb, FILTER_TEXT_TAG, filterText);
          }
          ColumnDateFilter dateFilter = colIdToDateFilter.get(colId);
          if (dateFilter != null) {
-            innerSb.append(XmlUtil.addTagData(DATE_FILTER_TYPE_TAG, dateFilter.getType().name()));
+            XmlUtil.addTagData(sb, DATE_FILTER_TYPE_TAG, dateFilter.getType().name());
             Date date1 = dateFilter.getDate1();
             if (date1 != null) {
-               innerSb.append(XmlUtil.addTagData(DATE1_FILTER_TAG, String.valueOf(date1.getTime())));
+               XmlUtil.addTagData(sb, DATE1_FILTER_TAG, String.valueOf(date1.getTime()));
             }
             Date date2 = dateFilter.getDate2();
             if (date2 != null) {
-               innerSb.append(XmlUtil.addTagData(DATE2_FILTER_TAG, String.valueOf(date2.getTime())));
+               XmlUtil.addTagData(sb, DATE2_FILTER_TAG, String.valueOf(date2.getTime()));
             }
          }
-         sb.append(XmlUtil.addTagData(COLUMN_FILTER_TAG, innerSb.toString()));
+         sb.append("</" + COLUMN_FILTER_TAG + ">"); //$NON-NLS-1$ //$NON-NLS-2$
       }
       return sb.toString();
    }
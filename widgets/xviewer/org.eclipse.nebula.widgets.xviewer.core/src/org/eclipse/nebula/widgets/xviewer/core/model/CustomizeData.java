@@ -10,6 +10,9 @@
  *******************************************************************************/
 package org.eclipse.nebula.widgets.xviewer.core.model;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.eclipse.nebula.widgets.xviewer.core.util.XViewerUtil;
@@ -55,13 +58,51 @@ public class CustomizeData implements Comparable<CustomizeData> {
       setFromXml(xml);
    }
 
+   /**
+    * @return a copy that shares no mutable state with this customization, made without parsing the xml again
+    */
+   public CustomizeData copy() {
+      CustomizeData custData = new CustomizeData();
+      custData.guid = guid;
+      custData.name = name;
+      custData.nameSpace = nameSpace;
+      custData.personal = personal;
+      List<XViewerColumn> columns = new ArrayList<XViewerColumn>(columnData.getColumns().size());
+      for (XViewerColumn xCol : columnData.getColumns()) {
+         XViewerColumn newXCol = xCol.copy();
+         newXCol.setSortForward(xCol.isSortForward());
+         columns.add(newXCol);
+      }
+      custData.getColumnData().setColumns(columns);
+      List<String> sortingIds = sortingData.getSortingIds();
+      custData.getSortingData().setSortingNames(sortingIds.toArray(new String[sortingIds.size()]));
+      custData.getFilterData().setFilterText(filterData.getFilterText(), filterData.isRegularExpression());
+      for (String colId : columnFilterData.getColIds()) {
+         String filterText = columnFilterData.getFilterText(colId);
+         if (filterText != null) {
+            custData.getColumnFilterData().setFilterText(colId, filterText);
+         }
+         ColumnDateFilter dateFilter = columnFilterData.getDateFilter(colId);
+         if (dateFilter != null) {
+            custData.getColumnFilterData().setDateFilter(colId, dateFilter.getType(), copy(dateFilter.getDate1()),
+               copy(dateFilter.getDate2()));
+         }
+      }
+      return custData;
+   }
+
+   private static Date copy(Date date) {
+      return date != null ? new Date(date.getTime()) : null;
+   }
+
    public void resetGuid() {
       guid = XViewerUtil.generateGuidStr();
    }
 
    public String getXml(boolean visibleColumnsOnly) {
-      StringBuffer sb = new StringBuffer(
-         "<XTreeProperties name=\"" + name + "\" namespace=\"" + nameSpace + "\" guid=\"" + guid + "\">"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+      StringBuilder sb = new StringBuilder(256 + columnData.getColumns().size() * 160);
+      sb.append("<XTreeProperties name=\"").append(name).append("\" namespace=\"").append(nameSpace).append( //$NON-NLS-1$ //$NON-NLS-2$
+         "\" guid=\"").append(guid).append("\">"); //$NON-NLS-1$ //$NON-NLS-2$
       sb.append(sortingData.getXml());
       sb.append(filterData.getXml());
       sb.append(columnFilterData.getXml());
@@ -78,10 +78,10 @@ public class SortingData {
    }
 
    public String getXml() {
-      StringBuffer sb = new StringBuffer("<" + XTREESORTER_TAG + ">"); //$NON-NLS-1$ //$NON-NLS-2$
+      StringBuilder sb = new StringBuilder("<" + XTREESORTER_TAG + ">"); //$NON-NLS-1$ //$NON-NLS-2$
       // NOTE: Sorting direction is stored as part of the column data
       for (String item : sortingIds) {
-         sb.append(XmlUtil.addTagData(COL_NAME_TAG, item));
+         XmlUtil.addTagData(sb, COL_NAME_TAG, item);
       }
       sb.append("</" + XTREESORTER_TAG + ">"); //$NON-NLS-1$ //$NON-NLS-2$
       return sb.toString();
@@ -109,13 +109,14 @@ public class XViewerColumn {
    public final static String XTREECOLUMN_TAG = "xCol";
 
    public String toXml() {
-      StringBuffer sb = new StringBuffer("<" + XTREECOLUMN_TAG + ">");
-      sb.append(XmlUtil.addTagData(ID, id));
-      sb.append(XmlUtil.addTagData(NAME, name));
-      sb.append(XmlUtil.addTagData(WIDTH, width + ""));
-      sb.append(XmlUtil.addTagData(ALIGN, getAlignStoreName(align)));
-      sb.append(XmlUtil.addTagData(SORT_FORWARD, sortForward + ""));
-      sb.append(XmlUtil.addTagData(SHOW, show + ""));
+      StringBuilder sb = new StringBuilder(160);
+      sb.append("<" + XTREECOLUMN_TAG + ">");
+      XmlUtil.addTagData(sb, ID, id);
+      XmlUtil.addTagData(sb, NAME, name);
+      XmlUtil.addTagData(sb, WIDTH, String.valueOf(width));
+      XmlUtil.addTagData(sb, ALIGN, getAlignStoreName(align));
+      XmlUtil.addTagData(sb, SORT_FORWARD, String.valueOf(sortForward));
+      XmlUtil.addTagData(sb, SHOW, String.valueOf(show));
       sb.append("</" + XTREECOLUMN_TAG + ">");
       return sb.toString();
    }
@@ -12,17 +12,26 @@ package org.eclipse.nebula.widgets.xviewer.core.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
+ * Tag data is located with indexOf rather than a regular expression per lookup, and the patterns still needed are
+ * compiled once.
+ *
  * @author Donald G. Dunne
  */
 public class XmlUtil {
 
+   private static final Pattern ROOT_TAG_PATTERN =
+      Pattern.compile("^[\r\n \t]*<.*?>[\r\n \t]*<(.*?)>", Pattern.MULTILINE | Pattern.DOTALL);
+   private static final Map<String, Pattern> nameValuePatterns = new ConcurrentHashMap<String, Pattern>();
+
    public static String getRootTag(String xmlStr) {
       Matcher m;
-      m = Pattern.compile("^[\r\n \t]*<.*?>[\r\n \t]*<(.*?)>", Pattern.MULTILINE | Pattern.DOTALL).matcher(xmlStr);
+      m = ROOT_TAG_PATTERN.matcher(xmlStr);
       if (m.find()) {
          return m.group(1);
       }
@@ -40,6 +49,13 @@ public class XmlUtil {
       return addTagData(elementName, data ? "true" : "false", false);
    }
 
+   /**
+    * Appends <elementName>data</elementName> NOTE: data is not sent through AXml.textToXml
+    */
+   public static void addTagData(StringBuilder sb, String elementName, String data) {
+      sb.append('<').append(elementName).append('>').append(data).append("</").append(elementName).append('>');
+   }
+
    public static String addTagData(String elementName, String data, boolean newLine) {
       String str = "<" + elementName + ">" + data + "</" + elementName + ">";
       if (newLine) {
@@ -58,9 +74,13 @@ public class XmlUtil {
     */
    public static String[] getNameValue(String xmlRoot, String xmlStr) {
       String[] strs = new String[] {"", ""};
-      Matcher m;
-      m = Pattern.compile("<" + xmlRoot + " name=\"(.*?)\" value=\"(.*?)\" />",
-         Pattern.MULTILINE | Pattern.DOTALL).matcher(xmlStr);
+      Pattern pattern = nameValuePatterns.get(xmlRoot);
+      if (pattern == null) {
+         pattern = Pattern.compile("<" + xmlRoot + " name=\"(.*?)\" value=\"(.*?)\" />",
+            Pattern.MULTILINE | Pattern.DOTALL);
+         nameValuePatterns.put(xmlRoot, pattern);
+      }
+      Matcher m = pattern.matcher(xmlStr);
       if (m.find()) {
          strs[0] = m.group(1);
          strs[1] = m.group(2);
@@ -74,39 +94,59 @@ public class XmlUtil {
 
    public static String[] getTagDataArray(String xmlStr, String xmlRoot) {
       List<String> data = new ArrayList<String>();
-      Matcher m;
-      m = Pattern.compile("<" + xmlRoot + ">(.*?)</" + xmlRoot + ">", Pattern.MULTILINE | Pattern.DOTALL).matcher(
-         xmlStr);
-      while (m.find()) {
-         data.add(xmlToText(m.group(1)));
+      String startTag = "<" + xmlRoot + ">";
+      String endTag = "</" + xmlRoot + ">";
+      int start = xmlStr.indexOf(startTag);
+      while (start >= 0) {
+         int end = xmlStr.indexOf(endTag, start + startTag.length());
+         if (end < 0) {
+            break;
+         }
+         data.add(xmlToText(xmlStr.substring(start + startTag.length(), end)));
+         start = xmlStr.indexOf(startTag, end + endTag.length());
       }
       return data.toArray(new String[data.size()]);
    }
 
+   /**
+    * @return the raw data between the first <xmlRoot> and </xmlRoot> in xmlStr, or null if there is none
+    */
+   private static String getFirstTagData(String xmlStr, String xmlRoot) {
+      String startTag = "<" + xmlRoot + ">";
+      int start = xmlStr.indexOf(startTag);
+      if (start >= 0) {
+         int end = xmlStr.indexOf("</" + xmlRoot + ">", start + startTag.length());
+         if (end >= 0) {
+            return xmlStr.substring(start + startTag.length(), end);
+         }
+      }
+      return null;
+   }
+
    /**
     * Returns data between <xmlRoot> and </xmlRoot> from xmlStr
     */
    public static String getTagData(String xmlStr, String xmlRoot) {
-      String tags[] = getTagDataArray(xmlStr, xmlRoot);
-      if (tags.length > 0) {
-         return tags[0];
+      String data = getFirstTagData(xmlStr, xmlRoot);
+      if (data != null) {
+         return xmlToText(data);
       }
       return "";
    }
 
    public static int getTagIntData(String xmlStr, String xmlRoot) {
-      String tags[] = getTagDataArray(xmlStr, xmlRoot);
-      if (tags.length > 0) {
-         String intStr = tags[0];
+      String data = getFirstTagData(xmlStr, xmlRoot);
+      if (data != null) {
+         String intStr = xmlToText(data);
          return (Integer.valueOf(intStr)).intValue();
       }
       return 0;
    }
 
    public static Boolean getTagBooleanData(String xmlStr, String xmlRoot) {
-      String tags[] = getTagDataArray(xmlStr, xmlRoot);
-      if (tags.length > 0) {
-         String intStr = tags[0];
+      String data = getFirstTagData(xmlStr, xmlRoot);
+      if (data != null) {
+         String intStr = xmlToText(data);
          return (intStr.equals("true") ? true : false);
       }
       return false;
@@ -122,13 +162,32 @@ public class XmlUtil {
       if (text == null || text.equals("")) {
          return "";
       }
-      String str = text;
-      str = str.replaceAll("&", "&amp;");
-      str = str.replaceAll(">", "&gt;");
-      str = str.replaceAll("<", "&lt;");
-      str = str.replaceAll("'", "&apos;");
-      str = str.replaceAll("\"", "&quot;");
-      return str;
+      StringBuilder sb = null;
+      for (int i = 0; i < text.length(); i++) {
+         char ch = text.charAt(i);
+         String entity = null;
+         if (ch == '&') {
+            entity = "&amp;";
+         } else if (ch == '>') {
+            entity = "&gt;";
+         } else if (ch == '<') {
+            entity = "&lt;";
+         } else if (ch == '\'') {
+            entity = "&apos;";
+         } else if (ch == '"') {
+            entity = "&quot;";
+         }
+         if (entity != null) {
+            if (sb == null) {
+               sb = new StringBuilder(text.length() + 16);
+               sb.append(text, 0, i);
+            }
+            sb.append(entity);
+         } else if (sb != null) {
+            sb.append(ch);
+         }
+      }
+      return sb == null ? text : sb.toString();
    }
 
    /**
@@ -139,13 +198,40 @@ public class XmlUtil {
       if (xml == null || xml.equals("")) {
          return "";
       }
-      String str = xml;
-      str = str.replaceAll("&gt;", ">");
-      str = str.replaceAll("&lt;", "<");
-      str = str.replaceAll("&apos;", "'");
-      str = str.replaceAll("&quot;", "\"");
-      str = str.replaceAll("&amp;", "&");
-      return str;
+      int amp = xml.indexOf('&');
+      if (amp < 0) {
+         return xml;
+      }
+      StringBuilder sb = new StringBuilder(xml.length());
+      sb.append(xml, 0, amp);
+      for (int i = amp; i < xml.length(); i++) {
+         char ch = xml.charAt(i);
+         if (ch == '&') {
+            if (xml.startsWith("&gt;", i)) {
+               sb.append('>');
+               i += 3;
+               continue;
+            } else if (xml.startsWith("&lt;", i)) {
+               sb.append('<');
+               i += 3;
+               continue;
+            } else if (xml.startsWith("&apos;", i)) {
+               sb.append('\'');
+               i += 5;
+               continue;
+            } else if (xml.startsWith("&quot;", i)) {
+               sb.append('"');
+               i += 5;
+               continue;
+            } else if (xml.startsWith("&amp;", i)) {
+               sb.append('&');
+               i += 4;
+               continue;
+            }
+         }
+         sb.append(ch);
+      }
+      return sb.toString();
    }
 
 }
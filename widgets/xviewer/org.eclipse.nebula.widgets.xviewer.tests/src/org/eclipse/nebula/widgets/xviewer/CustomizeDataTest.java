@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.Arrays;
+import java.util.Date;
+import org.eclipse.nebula.widgets.xviewer.core.model.CustomizeData;
+import org.eclipse.nebula.widgets.xviewer.core.model.DateRangeType;
+import org.eclipse.nebula.widgets.xviewer.core.model.SortDataType;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerAlign;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that a {@link CustomizeData} is stored and parsed again without changes, and that its copies are independent.
+ */
+public class CustomizeDataTest {
+
+   static CustomizeData createCustData(String name) {
+      CustomizeData custData = new CustomizeData();
+      custData.setName(name);
+      custData.setNameSpace("xviewer.tests");
+      XViewerColumn nameCol =
+         new XViewerColumn("xviewer.tests.name", "Name", 120, XViewerAlign.Left, true, SortDataType.String, false, null);
+      XViewerColumn dateCol =
+         new XViewerColumn("xviewer.tests.date", "Date", 80, XViewerAlign.Center, false, SortDataType.Date, false, null);
+      dateCol.setSortForward(false);
+      XViewerColumn sizeCol =
+         new XViewerColumn("xviewer.tests.size", "Size", 60, XViewerAlign.Right, true, SortDataType.Integer, false, null);
+      custData.getColumnData().setColumns(Arrays.asList(nameCol, dateCol, sizeCol));
+      custData.getSortingData().setSortingNames(dateCol.getId(), nameCol.getId());
+      custData.getFilterData().setFilterText("a.*b", true);
+      custData.getColumnFilterData().setFilterText(nameCol.getId(), "x");
+      custData.getColumnFilterData().setDateFilter(dateCol.getId(), DateRangeType.Between_Dates, new Date(1000),
+         new Date(2000));
+      return custData;
+   }
+
+   @Test
+   public void testXmlRoundTrip() {
+      CustomizeData custData = createCustData("Round trip");
+      String xml = custData.getXml(false);
+
+      CustomizeData parsed = new CustomizeData(xml);
+      Assert.assertEquals(xml, parsed.getXml(false));
+      Assert.assertEquals(custData.getGuid(), parsed.getGuid());
+      Assert.assertEquals("Round trip", parsed.getName());
+      Assert.assertEquals("xviewer.tests", parsed.getNameSpace());
+      Assert.assertEquals(3, parsed.getColumnData().getColumns().size());
+      XViewerColumn dateCol = parsed.getColumnData().getXColumn("xviewer.tests.date");
+      Assert.assertEquals("Date", dateCol.getName());
+      Assert.assertEquals(80, dateCol.getWidth());
+      Assert.assertEquals(XViewerAlign.Center, dateCol.getAlign());
+      Assert.assertFalse(dateCol.isShow());
+      Assert.assertFalse(dateCol.isSortForward());
+      Assert.assertEquals(Arrays.asList("xviewer.tests.date", "xviewer.tests.name"),
+         parsed.getSortingData().getSortingIds());
+      Assert.assertEquals("a.*b", parsed.getFilterData().getFilterText());
+      Assert.assertTrue(parsed.getFilterData().isRegularExpression());
+      Assert.assertEquals("x", parsed.getColumnFilterData().getFilterText("xviewer.tests.name"));
+      Assert.assertEquals(new Date(2000), parsed.getColumnFilterData().getDateFilter("xviewer.tests.date").getDate2());
+
+      // only the visible columns
+      CustomizeData visible = new CustomizeData(custData.getXml(true));
+      Assert.assertEquals(2, visible.getColumnData().getColumns().size());
+      Assert.assertNull(visible.getColumnData().getXColumn("xviewer.tests.date"));
+   }
+
+   @Test
+   public void testCopy() {
+      CustomizeData custData = new CustomizeData(createCustData("Original").getXml(false));
+      String xml = custData.getXml(false);
+
+      CustomizeData copy = custData.copy();
+      Assert.assertEquals(xml, copy.getXml(false));
+      Assert.assertEquals(custData, copy);
+
+      copy.setName("Changed");
+      copy.getColumnData().getColumns().get(0).setWidth(1);
+      copy.getColumnData().getXColumn("xviewer.tests.date").setSortForward(true);
+      copy.getSortingData().setSortingNames("xviewer.tests.size");
+      copy.getFilterData().setFilterText("other", false);
+      copy.getColumnFilterData().clear();
+      Assert.assertEquals(xml, custData.getXml(false));
+   }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import org.eclipse.nebula.widgets.xviewer.core.model.CustomizeData;
+import org.eclipse.nebula.widgets.xviewer.customize.FileStoreCustomizations;
+import org.eclipse.nebula.widgets.xviewer.util.internal.FileUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link FileStoreCustomizations} reparses a customization after it was saved, deleted or changed by another
+ * process, and that callers never share the parsed customizations.
+ */
+public class FileStoreCustomizationsTest {
+
+   private static final String PREFIX = "tests_";
+   private static final String POSTFIX = ".xml";
+   private static final String DEFAULT_FILENAME = "tests_default.txt";
+
+   private File directory;
+
+   @Before
+   public void setUp() throws IOException {
+      directory = File.createTempFile("customizations", "");
+      directory.delete();
+      directory.mkdirs();
+   }
+
+   @After
+   public void tearDown() {
+      File[] files = directory.listFiles();
+      if (files != null) {
+         for (File file : files) {
+            file.delete();
+         }
+      }
+      directory.delete();
+   }
+
+   private FileStoreCustomizations createStore() {
+      return new FileStoreCustomizations(directory, PREFIX, POSTFIX, DEFAULT_FILENAME,
+         CustomizeDataTest.createCustData("Default").getXml(false));
+   }
+
+   private File getFile(CustomizeData custData) {
+      return new File(directory, PREFIX + custData.getGuid() + POSTFIX);
+   }
+
+   private static CustomizeData getOnly(FileStoreCustomizations store) throws Exception {
+      List<CustomizeData> custDatas = store.getSavedCustDatas();
+      Assert.assertEquals(1, custDatas.size());
+      return custDatas.get(0);
+   }
+
+   @Test
+   public void testSaveAndLoad() throws Exception {
+      FileStoreCustomizations store = createStore();
+      Assert.assertTrue(store.getSavedCustDatas().isEmpty());
+      CustomizeData custData = CustomizeDataTest.createCustData("Saved");
+      store.saveCustomization(custData);
+
+      Assert.assertEquals(custData.getXml(true), getOnly(store).getXml(true));
+      // other viewers of the table see it, too
+      Assert.assertEquals(custData.getXml(true), getOnly(createStore()).getXml(true));
+   }
+
+   @Test
+   public void testReturnsCopies() throws Exception {
+      FileStoreCustomizations store = createStore();
+      CustomizeData custData = CustomizeDataTest.createCustData("Saved");
+      store.saveCustomization(custData);
+      store.setUserDefaultCustData(custData, true);
+
+      CustomizeData loaded = getOnly(store);
+      String xml = loaded.getXml(false);
+      loaded.setName("Changed");
+      loaded.getColumnData().getColumns().get(0).setWidth(1);
+      loaded.getSortingData().setFromXml("");
+      CustomizeData userDefault = store.getUserDefaultCustData();
+      Assert.assertNotSame(loaded, userDefault);
+      userDefault.getFilterData().setFilterText("changed", false);
+
+      Assert.assertEquals(xml, getOnly(store).getXml(false));
+      Assert.assertEquals(xml, getOnly(createStore()).getXml(false));
+      Assert.assertEquals(xml, store.getUserDefaultCustData().getXml(false));
+   }
+
+   @Test
+   public void testSaveInvalidates() throws Exception {
+      FileStoreCustomizations store = createStore();
+      CustomizeData custData = CustomizeDataTest.createCustData("First");
+      store.saveCustomization(custData);
+      Assert.assertEquals("First", getOnly(store).getName());
+
+      // saved again right away, so the modification time and length may not change
+      custData.setName("Other");
+      store.saveCustomization(custData);
+      Assert.assertEquals("Other", getOnly(store).getName());
+   }
+
+   @Test
+   public void testDeleteInvalidates() throws Exception {
+      FileStoreCustomizations store = createStore();
+      CustomizeData custData = CustomizeDataTest.createCustData("Deleted");
+      store.saveCustomization(custData);
+      Assert.assertEquals(1, store.getSavedCustDatas().size());
+
+      store.deleteCustomization(custData);
+      Assert.assertTrue(store.getSavedCustDatas().isEmpty());
+      Assert.assertTrue(createStore().getSavedCustDatas().isEmpty());
+   }
+
+   @Test
+   public void testExternalModification() throws Exception {
+      FileStoreCustomizations store = createStore();
+      CustomizeData custData = CustomizeDataTest.createCustData("Before");
+      store.saveCustomization(custData);
+      Assert.assertEquals("Before", getOnly(store).getName());
+
+      // another process rewrites the file
+      File file = getFile(custData);
+      long lastModified = file.lastModified();
+      custData.setName("After");
+      FileUtil.writeStringToFile(custData.getXml(true), file);
+      file.setLastModified(lastModified + 2000);
+      Assert.assertEquals("After", getOnly(store).getName());
+
+      // and removes it
+      file.delete();
+      Assert.assertTrue(store.getSavedCustDatas().isEmpty());
+   }
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jface.viewers.ILabelProviderListener;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.nebula.widgets.xviewer.core.model.SortDataType;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerAlign;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
+import org.eclipse.swt.graphics.Image;
+
+/**
+ * Creates XViewers of {@link Node}s with a name column and a pre-computed value column, for the tests of the work the
+ * viewer does in the background.
+ */
+public class TestXViewerFactory extends XViewerFactory {
+
+   public static final String NAMESPACE = "xviewer.tests";
+
+   public static final XViewerColumn NAME_COLUMN =
+      new XViewerColumn(NAMESPACE + ".name", "Name", 100, XViewerAlign.Left, true, SortDataType.String, false, null);
+
+   /**
+    * An element of the tree
+    */
+   public static class Node {
+      final long id;
+      final String name;
+      final List<Node> children = new ArrayList<Node>();
+
+      public Node(long id, String name, Node... children) {
+         this.id = id;
+         this.name = name;
+         Collections.addAll(this.children, children);
+      }
+
+      @Override
+      public String toString() {
+         return name;
+      }
+   }
+
+   /**
+    * Records how its values were populated. Shared by the copies of a column.
+    */
+   public static class Statistics {
+      final List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<Integer>());
+      final AtomicInteger active = new AtomicInteger();
+      volatile int maxActive = 0;
+      /** if set, populating waits until it is counted down */
+      volatile CountDownLatch gate;
+      final CountDownLatch started = new CountDownLatch(1);
+   }
+
+   /**
+    * Pre-computes "value &lt;id&gt;" for each node
+    */
+   public static class ValueColumn extends XViewerColumn implements IXViewerPreComputedColumn {
+
+      final Statistics statistics;
+
+      public ValueColumn(Statistics statistics) {
+         super(NAMESPACE + ".value", "Value", 100, XViewerAlign.Left, true, SortDataType.String, false, null);
+         this.statistics = statistics;
+      }
+
+      @Override
+      public ValueColumn copy() {
+         ValueColumn newXCol = new ValueColumn(statistics);
+         super.copy(this, newXCol);
+         return newXCol;
+      }
+
+      @Override
+      public Long getKey(Object obj) {
+         return ((Node) obj).id;
+      }
+
+      @Override
+      public void populateCachedValues(Collection<?> objects, Map<Long, String> preComputedValueMap) {
+         int active = statistics.active.incrementAndGet();
+         statistics.maxActive = Math.max(statistics.maxActive, active);
+         statistics.chunkSizes.add(objects.size());
+         statistics.started.countDown();
+         try {
+            CountDownLatch gate = statistics.gate;
+            if (gate != null) {
+               gate.await(5, TimeUnit.SECONDS);
+            }
+            for (Object obj : objects) {
+               preComputedValueMap.put(getKey(obj), "value " + ((Node) obj).id);
+            }
+         } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+         } finally {
+            statistics.active.decrementAndGet();
+         }
+      }
+
+      @Override
+      public String getText(Object obj, Long key, String cachedValue) {
+         return cachedValue;
+      }
+   }
+
+   public static class NodeContentProvider implements ITreeContentProvider {
+
+      @Override
+      public Object[] getElements(Object inputElement) {
+         return ((Collection<?>) inputElement).toArray();
+      }
+
+      @Override
+      public Object[] getChildren(Object parentElement) {
+         return ((Node) parentElement).children.toArray();
+      }
+
+      @Override
+      public Object getParent(Object element) {
+         return null;
+      }
+
+      @Override
+      public boolean hasChildren(Object element) {
+         return !((Node) element).children.isEmpty();
+      }
+
+      @Override
+      public void dispose() {
+         // do nothing
+      }
+
+      @Override
+      public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+         // do nothing
+      }
+   }
+
+   public static class NodeLabelProvider extends XViewerLabelProvider {
+
+      public NodeLabelProvider(XViewer viewer) {
+         super(viewer);
+      }
+
+      @Override
+      public Image getColumnImage(Object element, XViewerColumn xCol, int columnIndex) {
+         return null;
+      }
+
+      @Override
+      public String getColumnText(Object element, XViewerColumn xCol, int columnIndex) {
+         if (xCol.equals(NAME_COLUMN)) {
+            return ((Node) element).name;
+         }
+         return "";
+      }
+
+      @Override
+      public void addListener(ILabelProviderListener listener) {
+         // do nothing
+      }
+
+      @Override
+      public void dispose() {
+         // do nothing
+      }
+
+      @Override
+      public boolean isLabelProperty(Object element, String property) {
+         return false;
+      }
+
+      @Override
+      public void removeListener(ILabelProviderListener listener) {
+         // do nothing
+      }
+   }
+
+   public TestXViewerFactory(Statistics statistics) {
+      super(NAMESPACE);
+      registerColumns(NAME_COLUMN, new ValueColumn(statistics));
+   }
+
+   @Override
+   public boolean isAdmin() {
+      return false;
+   }
+
+   @Override
+   public boolean isFilterUiAvailable() {
+      return false;
+   }
+
+   @Override
+   public boolean isSearchUiAvailable() {
+      return false;
+   }
+
+   @Override
+   public boolean isHeaderBarAvailable() {
+      return false;
+   }
+
+   @Override
+   public boolean isLoadedStatusLabelAvailable() {
+      return false;
+   }
+
+   /**
+    * @return the copy of the value column shown by the viewer
+    */
+   public static ValueColumn getValueColumn(XViewer xViewer) {
+      for (XViewerColumn xCol : xViewer.getCustomizeMgr().getCurrentVisibleTableColumns()) {
+         if (xCol instanceof ValueColumn) {
+            return (ValueColumn) xCol;
+         }
+      }
+      return null;
+   }
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.nebula.widgets.xviewer.TestXViewerFactory.Node;
+import org.eclipse.nebula.widgets.xviewer.TestXViewerFactory.Statistics;
+import org.eclipse.nebula.widgets.xviewer.TestXViewerFactory.ValueColumn;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link XViewerPreComputer} populates the pre-computed columns in chunks, keeps the values already computed
+ * when incremental and stops when canceled.
+ */
+public class XViewerPreComputerTest {
+
+   private Display display;
+   private Shell shell;
+   private XViewer xViewer;
+   private final Statistics statistics = new Statistics();
+
+   @Before
+   public void setUp() {
+      display = Display.getDefault();
+      shell = new Shell(display);
+      xViewer = new XViewer(shell, SWT.MULTI | SWT.FULL_SELECTION, new TestXViewerFactory(statistics));
+      xViewer.setContentProvider(new TestXViewerFactory.NodeContentProvider());
+      xViewer.setLabelProvider(new TestXViewerFactory.NodeLabelProvider(xViewer));
+   }
+
+   @After
+   public void tearDown() {
+      shell.dispose();
+   }
+
+   private static List<Object> createNodes(int count) {
+      List<Object> nodes = new ArrayList<Object>(count);
+      for (int i = 0; i < count; i++) {
+         nodes.add(new Node(i, "node " + i));
+      }
+      return nodes;
+   }
+
+   @Test
+   public void testChunks() {
+      int count = 2 * XViewerPreComputer.CHUNK_SIZE + 500;
+      XViewerPreComputer computer = new XViewerPreComputer(xViewer, createNodes(count), false);
+      Assert.assertSame(shell.getDisplay(), computer.getDisplay());
+
+      ValueColumn column = TestXViewerFactory.getValueColumn(xViewer);
+      Assert.assertTrue(computer.isPending(column));
+      computer.run(new NullProgressMonitor());
+
+      Assert.assertFalse(computer.isPending(column));
+      Assert.assertFalse(computer.isCancelled());
+      Assert.assertEquals(
+         Arrays.asList(XViewerPreComputer.CHUNK_SIZE, XViewerPreComputer.CHUNK_SIZE, 500), statistics.chunkSizes);
+      // the chunks of a column are computed one after another
+      Assert.assertEquals(1, statistics.maxActive);
+      Map<Long, String> values = column.getPreComputedValueMap();
+      Assert.assertEquals(count, values.size());
+      for (long i = 0; i < count; i++) {
+         Assert.assertEquals("value " + i, values.get(i));
+      }
+   }
+
+   @Test
+   public void testIncremental() {
+      new XViewerPreComputer(xViewer, createNodes(100), false).run(new NullProgressMonitor());
+      Map<Long, String> oldValues = TestXViewerFactory.getValueColumn(xViewer).getPreComputedValueMap();
+      statistics.chunkSizes.clear();
+
+      new XViewerPreComputer(xViewer, createNodes(150), true).run(new NullProgressMonitor());
+
+      // only the new nodes are populated, into a new map
+      Assert.assertEquals(Arrays.asList(50), statistics.chunkSizes);
+      Map<Long, String> values = TestXViewerFactory.getValueColumn(xViewer).getPreComputedValueMap();
+      Assert.assertNotSame(oldValues, values);
+      Assert.assertEquals(100, oldValues.size());
+      Assert.assertEquals(150, values.size());
+      for (long i = 0; i < 150; i++) {
+         Assert.assertEquals("value " + i, values.get(i));
+      }
+   }
+
+   @Test
+   public void testCancel() throws InterruptedException {
+      statistics.gate = new CountDownLatch(1);
+      XViewerPreComputer computer =
+         new XViewerPreComputer(xViewer, createNodes(3 * XViewerPreComputer.CHUNK_SIZE), false);
+      ValueColumn column = TestXViewerFactory.getValueColumn(xViewer);
+      computer.run(new NullProgressMonitor() {
+
+         @Override
+         public boolean isCanceled() {
+            // cancel while the first chunk is computed
+            return statistics.started.getCount() == 0;
+         }
+      });
+      Assert.assertTrue(computer.isCancelled());
+      Assert.assertFalse(computer.isPending(column));
+
+      statistics.gate.countDown();
+      long end = System.currentTimeMillis() + 5000;
+      while (statistics.active.get() > 0 && System.currentTimeMillis() < end) {
+         Thread.sleep(10);
+      }
+      // the chunk computed when canceled is dropped, and no other chunk is started
+      Thread.sleep(100);
+      Assert.assertEquals(1, statistics.chunkSizes.size());
+      Assert.assertTrue(column.getPreComputedValueMap().isEmpty());
+   }
+}
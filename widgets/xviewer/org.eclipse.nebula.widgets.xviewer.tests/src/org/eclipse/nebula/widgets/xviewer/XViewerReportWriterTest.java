@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.nebula.widgets.xviewer.TestXViewerFactory.Node;
+import org.eclipse.nebula.widgets.xviewer.TestXViewerFactory.Statistics;
+import org.eclipse.nebula.widgets.xviewer.XViewerReportWriter.Format;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the rows {@link XViewerReportWriter} writes for the expanded elements of a viewer.
+ */
+public class XViewerReportWriterTest {
+
+   private Shell shell;
+   private XViewer xViewer;
+
+   @Before
+   public void setUp() {
+      shell = new Shell(Display.getDefault());
+      xViewer = new XViewer(shell, SWT.MULTI | SWT.FULL_SELECTION, new TestXViewerFactory(new Statistics()));
+      xViewer.setContentProvider(new TestXViewerFactory.NodeContentProvider());
+      xViewer.setLabelProvider(new TestXViewerFactory.NodeLabelProvider(xViewer));
+      xViewer.setForcePend(true);
+
+      Node grandChild = new Node(4, "Grand \"child\"");
+      Node second = new Node(3, "Alpha, second", grandChild);
+      Node alpha = new Node(1, "Alpha", new Node(2, "Alpha child"), second);
+      Node beta = new Node(5, "Beta <b>", new Node(6, "Beta child"));
+      List<Object> input = new ArrayList<Object>();
+      input.add(alpha);
+      input.add(beta);
+      xViewer.setInputXViewer(input);
+      xViewer.setExpandedState(alpha, true);
+      xViewer.setExpandedState(second, true);
+   }
+
+   @After
+   public void tearDown() {
+      shell.dispose();
+   }
+
+   private String write(Format format) throws IOException {
+      StringWriter writer = new StringWriter();
+      Assert.assertTrue(new XViewerReportWriter(xViewer, format, "Report").write(writer, new NullProgressMonitor()));
+      return writer.toString();
+   }
+
+   @Test
+   public void testCsv() throws IOException {
+      // children are not indented, so the values can be read back as they are shown
+      Assert.assertEquals("Name,Value\r\n" + //
+         "Alpha,value 1\r\n" + //
+         "Alpha child,value 2\r\n" + //
+         "\"Alpha, second\",value 3\r\n" + //
+         "\"Grand \"\"child\"\"\",value 4\r\n" + //
+         "Beta <b>,value 5\r\n", write(Format.CSV));
+   }
+
+   @Test
+   public void testHtml() throws IOException {
+      String html = write(Format.HTML);
+      Assert.assertTrue(html.startsWith("<html><body>"));
+      Assert.assertTrue(html.endsWith("</body></html>"));
+      Assert.assertTrue(html.contains(">Alpha<"));
+      Assert.assertTrue(html.contains(">&nbsp;&nbsp;&nbsp;&nbsp;Alpha child<"));
+      Assert.assertTrue(html.contains(">&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;Grand &quot;child&quot;<"));
+      Assert.assertTrue(html.contains(">Beta &lt;b&gt;<"));
+      Assert.assertTrue(html.contains(">value 4<"));
+      // collapsed
+      Assert.assertFalse(html.contains("Beta child"));
+   }
+
+   @Test
+   public void testCanceled() throws IOException {
+      NullProgressMonitor monitor = new NullProgressMonitor();
+      monitor.setCanceled(true);
+      Assert.assertFalse(new XViewerReportWriter(xViewer, Format.CSV, "Report").write(new StringWriter(), monitor));
+   }
+
+   @Test
+   public void testGetFormat() {
+      Assert.assertEquals(Format.CSV, XViewerReportWriter.getFormat("report.CSV"));
+      Assert.assertEquals(Format.HTML, XViewerReportWriter.getFormat("report.html"));
+      Assert.assertEquals(Format.HTML, XViewerReportWriter.getFormat("report"));
+   }
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.nebula.widgets.xviewer.core.model.SortDataType;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerAlign;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares the order of {@link XViewerSortKeys} with the pairwise comparison {@link XViewerSorter} sorted with before.
+ */
+public class XViewerSortKeysTest {
+
+   /**
+    * A row of cell texts and backing data, one per column
+    */
+   private static class Row {
+      final String[] texts;
+      final Object[] data;
+
+      Row(String[] texts, Object[] data) {
+         this.texts = texts;
+         this.data = data;
+      }
+
+      @Override
+      public String toString() {
+         return Arrays.toString(texts) + Arrays.toString(data);
+      }
+   }
+
+   private static class RowLabelProvider implements IXViewerLabelProvider {
+
+      @Override
+      public String getColumnText(Object element, int columnIndex) {
+         return ((Row) element).texts[columnIndex];
+      }
+
+      @Override
+      public String getColumnText(Object element, XViewerColumn xCol, int columnIndex) {
+         return getColumnText(element, columnIndex);
+      }
+
+      @Override
+      public XViewerColumn getTreeColumnOffIndex(int columnIndex) {
+         return null;
+      }
+
+      @Override
+      public int getColumnGradient(Object element, XViewerColumn xCol, int columnIndex) {
+         return 0;
+      }
+
+      @Override
+      public Object getBackingData(Object element, XViewerColumn xViewerColumn, int columnIndex) {
+         return ((Row) element).data[columnIndex];
+      }
+
+      @Override
+      public void clearXViewerColumnIndexCache() {
+         // do nothing
+      }
+   }
+
+   /**
+    * The default sorter, giving access to its text comparator
+    */
+   private static class Sorter extends XViewerSorter {
+
+      Sorter() {
+         super(null);
+      }
+
+      @SuppressWarnings("unchecked")
+      Comparator<Object> getTextComparator() {
+         return (Comparator<Object>) (Comparator<?>) getComparator();
+      }
+   }
+
+   private final Sorter sorter = new Sorter();
+
+   @Test
+   public void testString() throws Exception {
+      assertSameOrder(column(SortDataType.String, true), "b", "a", "B", "", null, "ä", "a b", "10", "9");
+      assertSameOrder(column(SortDataType.String, false), "b", "a", "B", "", null, "ä", "a b", "10", "9");
+   }
+
+   @Test
+   public void testInteger() throws Exception {
+      assertSameOrder(column(SortDataType.Integer, true), "10", "9", "x", "y", "-1", null, "", "2147483648", "9");
+      assertSameOrder(column(SortDataType.Integer, false), "10", "9", "x", "y", "-1", null, "", "2147483648", "9");
+   }
+
+   @Test
+   public void testLong() throws Exception {
+      assertSameOrder(column(SortDataType.Long, true), "10", "9", "x", "-1", null, "9223372036854775807", "1.5");
+   }
+
+   @Test
+   public void testFloat() throws Exception {
+      assertSameOrder(column(SortDataType.Float, true), "1.5", "abc", "1e3", "-0.5", null, "", "1.50", "Abc");
+   }
+
+   @Test
+   public void testPercent() throws Exception {
+      assertSameOrder(column(SortDataType.Percent, true), "0", "100", "50", "x", null, "150", "-5", "1");
+      assertSameOrder(column(SortDataType.Percent, false), "0", "100", "50", "x", null, "150", "-5", "1");
+   }
+
+   @Test
+   public void testParagraphNumber() throws Exception {
+      assertSameOrder(column(SortDataType.Paragraph_Number, true), "1.2", "1.10", "1.a", "2", null, "1.2.1", "1.b",
+         "10", "1..2");
+   }
+
+   @Test
+   public void testDate() throws Exception {
+      XViewerColumn column = column(SortDataType.Date, true);
+      List<Row> rows = new ArrayList<Row>();
+      rows.add(row("a", new Date(1000)));
+      rows.add(row("b", new Date(5)));
+      rows.add(row("c", null));
+      rows.add(row(null, new Date(7)));
+      rows.add(row("d", new Date(1000)));
+      rows.add(row("e", null));
+      assertSameOrder(Arrays.asList(column), rows);
+   }
+
+   @Test
+   public void testDateWithOtherData() throws Exception {
+      XViewerColumn column = column(SortDataType.Date, true);
+      Row date = row("a", new Date(1000));
+      Row other = row("b", "not a date");
+      Row none = row("c", null);
+      XViewerSortKeys keys = createKeys(Arrays.asList(column), date, other, none);
+      // the pairwise comparison sorted other data after the dates and the cells without data
+      Assert.assertEquals(1, oldCompare(Arrays.asList(column), other, date, 0));
+      Assert.assertEquals(1, oldCompare(Arrays.asList(column), other, none, 0));
+      Assert.assertTrue(keys.compare(1, 0) > 0);
+      Assert.assertTrue(keys.compare(0, 1) < 0);
+      Assert.assertTrue(keys.compare(1, 2) > 0);
+      Assert.assertTrue(keys.compare(2, 0) < 0);
+   }
+
+   @Test
+   public void testMultipleColumns() throws Exception {
+      List<XViewerColumn> columns =
+         Arrays.asList(column(SortDataType.Integer, true), column(SortDataType.String, false),
+            column(SortDataType.Float, true));
+      String[] ints = new String[] {"1", "2", null, "x"};
+      String[] strings = new String[] {"a", "B", null};
+      String[] floats = new String[] {"0.5", "-1", "z"};
+      List<Row> rows = new ArrayList<Row>();
+      for (String i : ints) {
+         for (String s : strings) {
+            for (String f : floats) {
+               rows.add(new Row(new String[] {i, s, f}, new Object[3]));
+            }
+         }
+      }
+      assertSameOrder(columns, rows);
+   }
+
+   @Test
+   public void testSortKeysExtractable() {
+      Assert.assertTrue(sorter.isSortKeysExtractable());
+      Assert.assertFalse(new XViewerSorter(null) {
+         @Override
+         public int getCompareForFloat(String float1, String float2) {
+            return 0;
+         }
+      }.isSortKeysExtractable());
+      Assert.assertFalse(new XViewerSorter(null) {
+         @Override
+         public int getCompareForDate(Date date1, Date date2) {
+            return 0;
+         }
+      }.isSortKeysExtractable());
+      Assert.assertFalse(new XViewerSorter(null) {
+         @Override
+         public int paragraphNumberCompare(String s1, String s2) {
+            return 0;
+         }
+      }.isSortKeysExtractable());
+      Assert.assertFalse(new XViewerSorter(null) {
+         @Override
+         public int getCompareBasedOnDirection(XViewerColumn sortXCol, int compareInt, Viewer viewer, Object o1, Object o2, int sortXColIndex) {
+            return 0;
+         }
+      }.isSortKeysExtractable());
+      Assert.assertFalse(new XViewerSorter(null) {
+         @Override
+         public int compare(Viewer viewer, Object o1, Object o2) {
+            return 0;
+         }
+      }.isSortKeysExtractable());
+   }
+
+   private static XViewerColumn column(SortDataType sortDataType, boolean forward) {
+      XViewerColumn column =
+         new XViewerColumn("col" + sortDataType, sortDataType.name(), 100, XViewerAlign.Left, true, sortDataType,
+            false, null);
+      column.setSortForward(forward);
+      return column;
+   }
+
+   private static Row row(String text, Object data) {
+      return new Row(new String[] {text}, new Object[] {data});
+   }
+
+   private void assertSameOrder(XViewerColumn column, String... texts) throws Exception {
+      List<Row> rows = new ArrayList<Row>();
+      for (String text : texts) {
+         rows.add(row(text, null));
+      }
+      assertSameOrder(Arrays.asList(column), rows);
+   }
+
+   private void assertSameOrder(List<XViewerColumn> columns, List<Row> rows) throws Exception {
+      XViewerSortKeys keys = createKeys(columns, rows.toArray(new Row[rows.size()]));
+      for (int i = 0; i < rows.size(); i++) {
+         for (int j = 0; j < rows.size(); j++) {
+            int expected = Integer.signum(oldCompare(columns, rows.get(i), rows.get(j), 0));
+            // two cells without text were not equal in either order
+            if (expected != 0 && expected == Integer.signum(oldCompare(columns, rows.get(j), rows.get(i), 0))) {
+               continue;
+            }
+            int actual = Integer.signum(keys.compare(i, j));
+            Assert.assertEquals(rows.get(i) + " <> " + rows.get(j), expected, actual);
+         }
+      }
+   }
+
+   private XViewerSortKeys createKeys(List<XViewerColumn> columns, Row... rows) throws Exception {
+      int[] columnNums = new int[columns.size()];
+      for (int i = 0; i < columnNums.length; i++) {
+         columnNums[i] = i;
+      }
+      return new XViewerSortKeys(new RowLabelProvider(), sorter.getTextComparator(), columns, columnNums, rows);
+   }
+
+   /**
+    * {@link XViewerSorter#compare(Viewer, Object, Object, int)} without the viewer
+    */
+   private int oldCompare(List<XViewerColumn> columns, Row row1, Row row2, int index) {
+      XViewerColumn sortXCol = columns.get(index);
+      String o1Str = row1.texts[index];
+      String o2Str = row2.texts[index];
+      int compareInt;
+      if (o1Str == null) {
+         compareInt = -1;
+      } else if (o2Str == null) {
+         compareInt = 1;
+      } else if (sortXCol.getSortDataType() == SortDataType.Date) {
+         compareInt = sorter.getCompareForDate(o1Str, row1.data[index], o2Str, row2.data[index]);
+      } else if (sortXCol.getSortDataType() == SortDataType.Percent) {
+         compareInt = sorter.getCompareForPercent(o1Str, o2Str);
+      } else if (sortXCol.getSortDataType() == SortDataType.Float) {
+         compareInt = sorter.getCompareForFloat(o1Str, o2Str);
+      } else if (sortXCol.getSortDataType() == SortDataType.Integer) {
+         compareInt = sorter.getCompareForInteger(o1Str, o2Str);
+      } else if (sortXCol.getSortDataType() == SortDataType.Long) {
+         compareInt = sorter.getCompareForLong(o1Str, o2Str);
+      } else if (sortXCol.getSortDataType() == SortDataType.Paragraph_Number) {
+         compareInt = sorter.paragraphNumberCompare(o1Str, o2Str);
+      } else {
+         compareInt = sorter.getTextComparator().compare(o1Str, o2Str);
+      }
+      int returnInt = (sortXCol.isSortForward() ? 1 : -1) * compareInt;
+      if (returnInt == 0 && columns.size() > index + 1) {
+         returnInt = oldCompare(columns, row1, row2, index + 1);
+      }
+      return returnInt;
+   }
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.regex.Pattern;
+import org.eclipse.nebula.widgets.xviewer.XViewerTextFilter.ColumnTextCondition;
+import org.eclipse.nebula.widgets.xviewer.XViewerTextFilter.TextCondition;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares the compiled conditions of {@link XViewerTextFilter} with the regular expressions the filters were matched
+ * with before.
+ */
+public class XViewerTextFilterTest {
+
+   private static final String[] CELLS = new String[] {
+      null,
+      "",
+      "abc",
+      "ABC",
+      "xAbCx",
+      "ab",
+      "a.c",
+      "b",
+      "a\nbc",
+      "abc\n",
+      "\n",
+      "Äbc",
+      "äbc"};
+
+   private static final String[] COLUMN_FILTERS =
+      new String[] {"", "abc", "ABC", "b", "a.c", "!", "!abc", "!B", "!a.c", "!x", "(abc)", "(!abc)", "(!)"};
+
+   private static final String[] TEXT_FILTERS = new String[] {"abc", "ABC", "b", "a.c", "ä"};
+
+   private static final String[] REGULAR_EXPRESSIONS = new String[] {"a.c", "^ab", "B$", "b\\nc|^$", "ä"};
+
+   @Test
+   public void testColumnFilter() {
+      for (String filter : COLUMN_FILTERS) {
+         ColumnTextCondition condition = createColumnCondition(filter);
+         Pattern pattern = createColumnPattern(filter);
+         for (String cell : CELLS) {
+            boolean expected = cell == null || pattern.matcher(cell).find();
+            Assert.assertEquals("filter " + filter + ", cell " + cell, expected, condition.matches(fold(cell)));
+         }
+      }
+   }
+
+   @Test
+   public void testNegatedEmptyColumnFilter() {
+      ColumnTextCondition condition = createColumnCondition("!");
+      Assert.assertTrue(condition.matches(""));
+      Assert.assertTrue(condition.matches(null));
+      Assert.assertFalse(condition.matches("abc"));
+      Assert.assertFalse(condition.matches(" "));
+   }
+
+   @Test
+   public void testTextFilter() {
+      for (String filter : TEXT_FILTERS) {
+         TextCondition condition = createTextCondition(filter, false);
+         Pattern pattern = Pattern.compile(filter, Pattern.LITERAL | Pattern.CASE_INSENSITIVE);
+         for (String cell : CELLS) {
+            boolean expected = cell != null && pattern.matcher(cell).find();
+            Assert.assertEquals("filter " + filter + ", cell " + cell, expected, condition.matchesCell(fold(cell)));
+         }
+      }
+   }
+
+   @Test
+   public void testRegularExpressionFilter() {
+      for (String filter : REGULAR_EXPRESSIONS) {
+         TextCondition condition = createTextCondition(filter, true);
+         Pattern pattern = Pattern.compile(filter, Pattern.CASE_INSENSITIVE);
+         for (String cell : CELLS) {
+            boolean expected = cell != null && pattern.matcher(cell).find();
+            Assert.assertEquals("filter " + filter + ", cell " + cell, expected, condition.matchesCell(cell));
+         }
+      }
+   }
+
+   /**
+    * A narrowing filter may only reject rows the previous filter rejected too, otherwise rows would stay hidden
+    */
+   @Test
+   public void testNarrowing() {
+      for (String oldFilter : COLUMN_FILTERS) {
+         for (String newFilter : COLUMN_FILTERS) {
+            ColumnTextCondition oldCondition = createColumnCondition(oldFilter);
+            ColumnTextCondition newCondition = createColumnCondition(newFilter);
+            if (newCondition.implies(oldCondition)) {
+               for (String cell : CELLS) {
+                  if (newCondition.matches(fold(cell))) {
+                     Assert.assertTrue(oldFilter + " -> " + newFilter + ", cell " + cell,
+                        oldCondition.matches(fold(cell)));
+                  }
+               }
+            }
+         }
+      }
+      for (String oldFilter : TEXT_FILTERS) {
+         for (String newFilter : TEXT_FILTERS) {
+            TextCondition oldCondition = createTextCondition(oldFilter, false);
+            TextCondition newCondition = createTextCondition(newFilter, false);
+            if (newCondition.implies(oldCondition)) {
+               for (String cell : CELLS) {
+                  if (newCondition.matchesCell(fold(cell))) {
+                     Assert.assertTrue(oldFilter + " -> " + newFilter + ", cell " + cell,
+                        oldCondition.matchesCell(fold(cell)));
+                  }
+               }
+            }
+         }
+      }
+      Assert.assertTrue(createColumnCondition("abcd").implies(createColumnCondition("abc")));
+      Assert.assertFalse(createColumnCondition("abc").implies(createColumnCondition("abcd")));
+      Assert.assertFalse(createColumnCondition("!abcd").implies(createColumnCondition("!abc")));
+      Assert.assertFalse(createColumnCondition("!").implies(createColumnCondition("")));
+      Assert.assertTrue(createTextCondition("Abcd", false).implies(createTextCondition("aBC", false)));
+      Assert.assertFalse(createTextCondition("abcd", true).implies(createTextCondition("abc", true)));
+   }
+
+   private static String fold(String text) {
+      return text == null ? null : XViewerFilterCache.foldCase(text);
+   }
+
+   private static String unwrap(String filter) {
+      return filter.matches("^\\(.*\\)$") ? filter.substring(1, filter.length() - 1) : filter;
+   }
+
+   private static ColumnTextCondition createColumnCondition(String filter) {
+      String text = unwrap(filter);
+      boolean isNot = text.startsWith("!");
+      return new ColumnTextCondition("col", isNot ? text.substring(1) : text, isNot, createColumnPattern(filter));
+   }
+
+   /**
+    * The pattern a column filter was compiled to before the filters were compiled into conditions
+    */
+   private static Pattern createColumnPattern(String filter) {
+      String text = unwrap(filter);
+      boolean isNot = text.startsWith("!");
+      if (isNot) {
+         text = text.replaceFirst("^!", "");
+      }
+      text = Pattern.quote(text);
+      if (isNot) {
+         return Pattern.compile("^(.(?<!" + text + "))*$", Pattern.CASE_INSENSITIVE);
+      }
+      return Pattern.compile(text, Pattern.CASE_INSENSITIVE);
+   }
+
+   private static TextCondition createTextCondition(String filter, boolean regularExpression) {
+      int flags = Pattern.CASE_INSENSITIVE;
+      if (!regularExpression) {
+         flags = Pattern.LITERAL | flags;
+      }
+      return new TextCondition(filter, regularExpression, Pattern.compile(filter, flags));
+   }
+}
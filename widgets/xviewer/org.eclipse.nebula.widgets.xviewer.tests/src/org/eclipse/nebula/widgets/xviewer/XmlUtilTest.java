@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.eclipse.nebula.widgets.xviewer.core.util.XmlUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the tag data and entity handling of {@link XmlUtil} the stored customizations are read with, and compares it
+ * with the regular expressions it replaced.
+ */
+public class XmlUtilTest {
+
+   /**
+    * The tag data as the regular expression the parser replaced found it
+    */
+   private static String[] regexTagDataArray(String xmlStr, String xmlRoot) {
+      List<String> data = new ArrayList<String>();
+      Matcher m = Pattern.compile("<" + xmlRoot + ">(.*?)</" + xmlRoot + ">", Pattern.MULTILINE | Pattern.DOTALL).matcher(
+         xmlStr);
+      while (m.find()) {
+         data.add(regexXmlToText(m.group(1)));
+      }
+      return data.toArray(new String[data.size()]);
+   }
+
+   private static String regexTextToXml(String text) {
+      if (text == null || text.equals("")) {
+         return "";
+      }
+      String str = text;
+      str = str.replaceAll("&", "&amp;");
+      str = str.replaceAll(">", "&gt;");
+      str = str.replaceAll("<", "&lt;");
+      str = str.replaceAll("'", "&apos;");
+      str = str.replaceAll("\"", "&quot;");
+      return str;
+   }
+
+   private static String regexXmlToText(String xml) {
+      if (xml == null || xml.equals("")) {
+         return "";
+      }
+      String str = xml;
+      str = str.replaceAll("&gt;", ">");
+      str = str.replaceAll("&lt;", "<");
+      str = str.replaceAll("&apos;", "'");
+      str = str.replaceAll("&quot;", "\"");
+      str = str.replaceAll("&amp;", "&");
+      return str;
+   }
+
+   @Test
+   public void testTextToXml() {
+      Assert.assertEquals("a &lt;b&gt; &amp;&amp; &apos;c&apos; &quot;d&quot;", XmlUtil.textToXml("a <b> && 'c' \"d\""));
+      Assert.assertEquals("&amp;gt;", XmlUtil.textToXml("&gt;"));
+      Assert.assertEquals("", XmlUtil.textToXml(null));
+      Assert.assertEquals("", XmlUtil.textToXml(""));
+      String plain = "no entities";
+      Assert.assertSame(plain, XmlUtil.textToXml(plain));
+   }
+
+   @Test
+   public void testXmlToText() {
+      Assert.assertEquals("a <b> && 'c' \"d\"", XmlUtil.xmlToText("a &lt;b&gt; &amp;&amp; &apos;c&apos; &quot;d&quot;"));
+      // an escaped entity is unescaped once
+      Assert.assertEquals("&gt;", XmlUtil.xmlToText("&amp;gt;"));
+      Assert.assertEquals("&amp;", XmlUtil.xmlToText("&amp;amp;"));
+      // unknown and incomplete entities are kept
+      Assert.assertEquals("&nbsp; & &amp &g", XmlUtil.xmlToText("&nbsp; & &amp &g"));
+      Assert.assertEquals("", XmlUtil.xmlToText(null));
+   }
+
+   @Test
+   public void testEntityRoundTrip() {
+      String[] texts = new String[] {"&gt;", "&amp;gt;", "<tag>", "a & b", "'\"'", "&&&;;", "&lt;&quot;"};
+      for (String text : texts) {
+         Assert.assertEquals(text, XmlUtil.xmlToText(XmlUtil.textToXml(text)));
+      }
+   }
+
+   @Test
+   public void testFirstTag() {
+      String xml = "<a>1</a><b>x</b><a>2</a>";
+      Assert.assertEquals("1", XmlUtil.getTagData(xml, "a"));
+      Assert.assertEquals(1, XmlUtil.getTagIntData(xml, "a"));
+      Assert.assertArrayEquals(new String[] {"1", "2"}, XmlUtil.getTagDataArray(xml, "a"));
+      Assert.assertEquals("x", XmlUtil.getTagData(xml, "b"));
+      Assert.assertEquals("", XmlUtil.getTagData(xml, "c"));
+      Assert.assertEquals(0, XmlUtil.getTagIntData(xml, "c"));
+      Assert.assertFalse(XmlUtil.getTagBooleanData(xml, "c"));
+      Assert.assertTrue(XmlUtil.getTagBooleanData("<show>true</show>", "show"));
+      Assert.assertEquals("a&b", XmlUtil.getTagData("<a>a&amp;b</a>", "a"));
+   }
+
+   @Test
+   public void testNestedTags() {
+      Assert.assertEquals("<b>x</b>", XmlUtil.getTagData("<a><b>x</b></a>", "a"));
+      // the first end tag closes, as with the reluctant regular expression
+      Assert.assertEquals("1<a>2", XmlUtil.getTagData("<a>1<a>2</a>3</a>", "a"));
+      Assert.assertArrayEquals(new String[] {"1<a>2"}, XmlUtil.getTagDataArray("<a>1<a>2</a>3</a>", "a"));
+      // a tag whose name starts with the other one's
+      Assert.assertEquals("y", XmlUtil.getTagData("<ab>x</ab><a>y</a>", "a"));
+      Assert.assertEquals("a\nb", XmlUtil.getTagData("<a>a\nb</a>", "a"));
+   }
+
+   @Test
+   public void testUnclosedTags() {
+      Assert.assertEquals("", XmlUtil.getTagData("<a>1", "a"));
+      Assert.assertEquals("", XmlUtil.getTagData("1</a>", "a"));
+      Assert.assertArrayEquals(new String[] {"1"}, XmlUtil.getTagDataArray("<a>1</a><a>2", "a"));
+      Assert.assertArrayEquals(new String[] {"1"}, XmlUtil.getTagDataArray("<a>1</a></a>", "a"));
+      Assert.assertArrayEquals(new String[0], XmlUtil.getTagDataArray("", "a"));
+   }
+
+   @Test
+   public void testSameAsRegex() {
+      Random random = new Random(4711);
+      String[] parts = new String[] {"<a>", "</a>", "<b>", "</b>", "&", "amp;", "gt;", "lt;", "&quot;", "&apos;",
+         "'", "\"", "<", ">", "x", "\n", ";"};
+      for (int i = 0; i < 5000; i++) {
+         StringBuilder sb = new StringBuilder();
+         int length = random.nextInt(20);
+         for (int j = 0; j < length; j++) {
+            sb.append(parts[random.nextInt(parts.length)]);
+         }
+         String str = sb.toString();
+         Assert.assertEquals(str, regexTextToXml(str), XmlUtil.textToXml(str));
+         Assert.assertEquals(str, regexXmlToText(str), XmlUtil.xmlToText(str));
+         Assert.assertArrayEquals(str, regexTagDataArray(str, "a"), XmlUtil.getTagDataArray(str, "a"));
+         String[] tags = regexTagDataArray(str, "a");
+         Assert.assertEquals(str, tags.length > 0 ? tags[0] : "", XmlUtil.getTagData(str, "a"));
+      }
+   }
+}
@@ -10,11 +10,26 @@
  *******************************************************************************/
 package org.eclipse.nebula.widgets.xviewer.tests;
 
+import org.eclipse.nebula.widgets.xviewer.CustomizeDataTest;
+import org.eclipse.nebula.widgets.xviewer.FileStoreCustomizationsTest;
+import org.eclipse.nebula.widgets.xviewer.XViewerPreComputerTest;
+import org.eclipse.nebula.widgets.xviewer.XViewerReportWriterTest;
+import org.eclipse.nebula.widgets.xviewer.XViewerSortKeysTest;
+import org.eclipse.nebula.widgets.xviewer.XViewerTextFilterTest;
+import org.eclipse.nebula.widgets.xviewer.XmlUtilTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({DummyTest.class})
+@Suite.SuiteClasses({
+   DummyTest.class,
+   XViewerSortKeysTest.class,
+   XViewerTextFilterTest.class,
+   XViewerPreComputerTest.class,
+   XViewerReportWriterTest.class,
+   XmlUtilTest.class,
+   CustomizeDataTest.class,
+   FileStoreCustomizationsTest.class})
 public class AllXViewerTestSuite {
    // do nothing
 }
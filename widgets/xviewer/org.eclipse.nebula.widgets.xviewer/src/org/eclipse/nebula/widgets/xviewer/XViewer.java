@@ -14,14 +14,13 @@ package org.eclipse.nebula.widgets.xviewer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
@@ -36,6 +35,7 @@ import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.ViewerCell;
+import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jface.viewers.ViewerRow;
 import org.eclipse.jface.viewers.ViewerSorter;
 import org.eclipse.nebula.widgets.xviewer.action.TableCustomizationAction;
@@ -102,6 +102,8 @@ public class XViewer extends TreeViewer {
    private static final Map<Composite, Composite> parentToTopComposites = new HashMap<Composite, Composite>();
    private boolean debugLoading = "true".equals(System.getProperty("DebugLoading"));
    private final Map<String, Long> preComputeElapsedTime = new HashMap<String, Long>();
+   private XViewerPreComputer preComputer = null;
+   private boolean preComputeRefreshPosted = false;
 
    public XViewer(Composite parent, int style, IXViewerFactory xViewerFactory) {
       this(parent, style, xViewerFactory, false, false);
@@ -324,7 +326,7 @@ public class XViewer extends TreeViewer {
    }
 
    private List<Object> getInputObjects(Object input) {
-      List<Object> objects = new LinkedList<Object>();
+      List<Object> objects = new ArrayList<Object>();
       if (input instanceof Collection) {
          Collection<?> collection = (Collection<?>) input;
          for (Object obj : collection) {
@@ -344,23 +346,43 @@ public class XViewer extends TreeViewer {
    }
 
    public void refreshColumnsWithPreCompute(final Object input) {
+      refreshColumnsWithPreCompute(input, false);
+   }
+
+   /**
+    * Computes the values of the visible IXViewerPreComputedColumns in the background and loads the input. The other
+    * columns are shown right away, and each pre-computed column is refreshed as soon as its values are ready. A refresh
+    * still running is canceled.
+    *
+    * @param incremental true to keep the values already computed for objects of the input and only compute the missing
+    * ones, e.g. after columns were added; false to compute all values again
+    */
+   public void refreshColumnsWithPreCompute(final Object input, boolean incremental) {
       final List<Object> inputObjects = getInputObjects(input);
       final XViewer xViewer = this;
       this.loading = true;
+      if (preComputer != null) {
+         preComputer.cancel();
+         preComputer = null;
+      }
 
       if (!inputObjects.isEmpty()) {
+         final XViewerPreComputer computer = new XViewerPreComputer(this, inputObjects, incremental);
+         preComputer = computer;
          if (forcePend) {
-            performPreCompute(inputObjects);
+            computer.run(new NullProgressMonitor());
+            preComputer = null;
             performLoad(inputObjects, xViewer);
          } else {
+            superInputChanged(input);
             Job job = new Job("Refreshing Columns") {
 
                @Override
                protected IStatus run(IProgressMonitor monitor) {
                   ElapsedTime time = new ElapsedTime("performPreCompute");
-                  performPreCompute(inputObjects);
+                  computer.run(monitor);
                   time.end(Units.SEC);
-                  return Status.OK_STATUS;
+                  return computer.isCancelled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
                }
 
             };
@@ -369,12 +391,16 @@ public class XViewer extends TreeViewer {
 
                @Override
                public void done(IJobChangeEvent event) {
-                  Display.getDefault().asyncExec(new Runnable() {
+                  Display display = computer.getDisplay();
+                  if (display.isDisposed()) {
+                     return;
+                  }
+                  display.asyncExec(new Runnable() {
 
                      @Override
                      public void run() {
                         ElapsedTime time = new ElapsedTime("performLoad");
-                        performLoad(input, xViewer);
+                        preComputeDone(computer);
                         time.end(Units.SEC);
                      }
 
@@ -386,35 +412,63 @@ public class XViewer extends TreeViewer {
       }
    }
 
-   private void performPreCompute(final List<Object> inputObjects) {
-      List<XViewerColumn> currentVisibleTableColumns = getCustomizeMgr().getCurrentVisibleTableColumns();
-      for (XViewerColumn column : currentVisibleTableColumns) {
-         if (column instanceof IXViewerPreComputedColumn) {
-            IXViewerPreComputedColumn preComputedColumn = (IXViewerPreComputedColumn) column;
-            if (column.getPreComputedValueMap() == null) {
-               column.setPreComputedValueMap(new HashMap<Long, String>(inputObjects.size()));
-            } else {
-               column.getPreComputedValueMap().clear();
+   /**
+    * Called by the XViewerPreComputer as each column is done, refreshes the viewer once per batch of columns done
+    */
+   void preComputedColumnDone(final XViewerPreComputer computer) {
+      synchronized (this) {
+         if (preComputeRefreshPosted) {
+            return;
+         }
+         preComputeRefreshPosted = true;
+      }
+      Display display = computer.getDisplay();
+      if (display.isDisposed()) {
+         return;
+      }
+      display.asyncExec(new Runnable() {
+
+         @Override
+         public void run() {
+            synchronized (XViewer.this) {
+               preComputeRefreshPosted = false;
             }
-            if (!inputObjects.isEmpty()) {
-               try {
-                  Long startTime = isDebugLoading() ? (new Date()).getTime() : 0L;
-                  preComputedColumn.populateCachedValues(inputObjects, column.getPreComputedValueMap());
-                  if (isDebugLoading()) {
-                     Long elapsedTime = preComputeElapsedTime.get("PRE - " + column.getName());
-                     if (elapsedTime == null) {
-                        elapsedTime = (new Date()).getTime() - startTime;
-                     } else {
-                        elapsedTime += (new Date()).getTime() - startTime;
-                     }
-                     preComputeElapsedTime.put("PRE - " + column.getName(), elapsedTime);
-                  }
-               } catch (Exception ex) {
-                  XViewerLog.log(Activator.class, Level.SEVERE,
-                     String.format("Error performing pre-compute for column %s", column), ex);
-               }
+            if (preComputer == computer && getTree() != null && !getTree().isDisposed()) {
+               refresh();
             }
          }
+
+      });
+   }
+
+   private void preComputeDone(XViewerPreComputer computer) {
+      if (preComputer != computer) {
+         // superseded by another refresh
+         return;
+      }
+      preComputer = null;
+      if (getTree() != null && !getTree().isDisposed()) {
+         if (computer.isCancelled()) {
+            // show the columns that were not computed
+            refresh();
+         }
+         loading = false;
+         updateStatusLabel();
+      }
+   }
+
+   /**
+    * @return true if the values of the column are still being computed in the background
+    */
+   boolean isPreComputePending(XViewerColumn column) {
+      return preComputer != null && preComputer.isPending(column);
+   }
+
+   void addPreComputeElapsedTime(XViewerColumn column, long elapsedTime) {
+      synchronized (preComputeElapsedTime) {
+         Long totalTime = preComputeElapsedTime.get("PRE - " + column.getName());
+         preComputeElapsedTime.put("PRE - " + column.getName(),
+            totalTime == null ? elapsedTime : totalTime + elapsedTime);
       }
    }
 
@@ -622,16 +676,42 @@ public class XViewer extends TreeViewer {
 
    @Override
    public void refresh(Object element, boolean updateLabels) {
+      refreshFilterCache(element);
       super.refresh(element, updateLabels);
       updateStatusLabel();
    }
 
    @Override
    public void refresh(Object element) {
+      refreshFilterCache(element);
       super.refresh(element);
       updateStatusLabel();
    }
 
+   @Override
+   protected void inputChanged(Object input, Object oldInput) {
+      refreshFilterCache(null);
+      super.inputChanged(input, oldInput);
+   }
+
+   /**
+    * @return the children of the element as shown: filtered and sorted, whether or not their items were created
+    */
+   Object[] getShownChildren(Object parent) {
+      return getSortedChildren(parent);
+   }
+
+   /**
+    * Drops the cell values cached by the text filters for the element, or all elements if null
+    */
+   private void refreshFilterCache(Object element) {
+      for (ViewerFilter filter : getFilters()) {
+         if (filter instanceof XViewerTextFilter) {
+            ((XViewerTextFilter) filter).refreshing(element);
+         }
+      }
+   }
+
    /**
     * Override this to add information to the status string. eg. extra filters etc.
     */
@@ -865,6 +945,7 @@ public class XViewer extends TreeViewer {
     * after columns compute their input in the background.
     */
    public void refreshColumn(String columnId) {
+      refreshFilterCache(null);
       Pair<XViewerColumn, Integer> column = getCustomizeMgr().getColumnNumFromXViewerColumn(columnId);
       IBaseLabelProvider baseLabelProvider = getLabelProvider();
       if (baseLabelProvider instanceof XViewerLabelProvider) {
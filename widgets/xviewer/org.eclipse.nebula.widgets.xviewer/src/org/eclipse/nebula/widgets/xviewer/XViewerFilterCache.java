@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.nebula.widgets.xviewer.core.util.Strings;
+
+/**
+ * The cell values used by {@link XViewerTextFilter}, extracted from the label provider once per element and column
+ * instead of once per filter pass. Each column gets a slot by its id, so the values stay valid when columns are moved,
+ * hidden or shown. Besides the text, the case folded text and the parsed date of a cell are kept.<br>
+ * <br>
+ * The values of an element are dropped when the element is refreshed, and all values when the viewer is refreshed or
+ * gets a new input. Only accessed from the display thread.
+ */
+class XViewerFilterCache {
+
+   /**
+    * Date of a cell without text
+    */
+   static final long NO_TEXT = Long.MIN_VALUE;
+
+   /**
+    * Date of a cell whose text is not a date
+    */
+   static final long NOT_PARSED = Long.MIN_VALUE + 1;
+
+   private static final long NOT_LOADED = Long.MIN_VALUE + 2;
+   private static final String NOT_LOADED_TEXT = new String();
+
+   /**
+    * The cached values of an element
+    */
+   static class Row {
+      String[] texts;
+      String[] foldedTexts;
+      long[] dates;
+
+      /**
+       * The generation of the last filter which rejected the element
+       */
+      int rejected = -1;
+
+      Row(int slots) {
+         texts = new String[slots];
+         foldedTexts = new String[slots];
+         dates = new long[slots];
+         clear(0);
+      }
+
+      void ensureSlot(int slot) {
+         if (slot >= texts.length) {
+            int length = texts.length;
+            String[] newTexts = new String[slot + 1];
+            System.arraycopy(texts, 0, newTexts, 0, length);
+            texts = newTexts;
+            String[] newFoldedTexts = new String[slot + 1];
+            System.arraycopy(foldedTexts, 0, newFoldedTexts, 0, length);
+            foldedTexts = newFoldedTexts;
+            long[] newDates = new long[slot + 1];
+            System.arraycopy(dates, 0, newDates, 0, length);
+            dates = newDates;
+            clear(length);
+         }
+      }
+
+      private void clear(int from) {
+         for (int i = from; i < texts.length; i++) {
+            texts[i] = NOT_LOADED_TEXT;
+            foldedTexts[i] = NOT_LOADED_TEXT;
+            dates[i] = NOT_LOADED;
+         }
+      }
+   }
+
+   private final XViewer xViewer;
+   private final Map<String, Integer> colIdToSlot = new HashMap<String, Integer>();
+   private final Map<Object, Row> rows = new HashMap<Object, Row>();
+
+   XViewerFilterCache(XViewer xViewer) {
+      this.xViewer = xViewer;
+   }
+
+   int getSlot(String colId) {
+      Integer slot = colIdToSlot.get(colId);
+      if (slot == null) {
+         slot = colIdToSlot.size();
+         colIdToSlot.put(colId, slot);
+      }
+      return slot;
+   }
+
+   Row getRow(Object element) {
+      Row row = rows.get(element);
+      if (row == null) {
+         row = new Row(colIdToSlot.size());
+         rows.put(element, row);
+      }
+      return row;
+   }
+
+   String getText(Row row, Object element, int slot, int columnNum) {
+      row.ensureSlot(slot);
+      String text = row.texts[slot];
+      if (text == NOT_LOADED_TEXT) {
+         text = xViewer.getColumnText(element, columnNum);
+         row.texts[slot] = text;
+      }
+      return text;
+   }
+
+   /**
+    * @return the text of the cell with US-ASCII letters in lower case, which is how {@link java.util.regex.Pattern}
+    * matches with CASE_INSENSITIVE
+    */
+   String getFoldedText(Row row, Object element, int slot, int columnNum) {
+      row.ensureSlot(slot);
+      String foldedText = row.foldedTexts[slot];
+      if (foldedText == NOT_LOADED_TEXT) {
+         String text = getText(row, element, slot, columnNum);
+         foldedText = text == null ? null : foldCase(text);
+         row.foldedTexts[slot] = foldedText;
+      }
+      return foldedText;
+   }
+
+   /**
+    * @return the date shown in the cell in milliseconds, {@link #NO_TEXT} or {@link #NOT_PARSED}
+    */
+   long getDate(Row row, Object element, int slot, int columnNum) {
+      row.ensureSlot(slot);
+      long date = row.dates[slot];
+      if (date == NOT_LOADED) {
+         String text = getText(row, element, slot, columnNum);
+         if (!Strings.isValid(text)) {
+            date = NO_TEXT;
+         } else {
+            Date cellDate = XViewerSorter.parseDatePair(text, "").getFirst();
+            date = cellDate == null ? NOT_PARSED : cellDate.getTime();
+         }
+         row.dates[slot] = date;
+      }
+      return date;
+   }
+
+   void invalidate(Object element) {
+      rows.remove(element);
+   }
+
+   void clear() {
+      rows.clear();
+   }
+
+   static String foldCase(String text) {
+      for (int i = 0; i < text.length(); i++) {
+         char ch = text.charAt(i);
+         if (ch >= 'A' && ch <= 'Z') {
+            char[] chars = text.toCharArray();
+            for (int j = i; j < chars.length; j++) {
+               if (chars[j] >= 'A' && chars[j] <= 'Z') {
+                  chars[j] = (char) (chars[j] + ('a' - 'A'));
+               }
+            }
+            return new String(chars);
+         }
+      }
+      return text;
+   }
+}
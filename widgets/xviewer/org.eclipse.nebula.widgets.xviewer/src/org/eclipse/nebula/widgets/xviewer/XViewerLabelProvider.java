@@ -86,6 +86,10 @@ public abstract class XViewerLabelProvider implements ITableLabelProvider, ITabl
          }
          // Check if Pre Computed column
          if (xViewerColumn instanceof IXViewerPreComputedColumn) {
+            if (viewer.isPreComputePending(xViewerColumn)) {
+               // Still being computed in the background, the column is refreshed once its values are ready
+               return "";
+            }
             IXViewerPreComputedColumn preComputedColumn = (IXViewerPreComputedColumn) xViewerColumn;
             Long key = preComputedColumn.getKey(element);
             String cachedValue = xViewerColumn.getPreComputedValue(key);
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
+import org.eclipse.nebula.widgets.xviewer.util.internal.XViewerLog;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Populates the values of the visible {@link IXViewerPreComputedColumn}s of an {@link XViewer}. The columns are
+ * computed concurrently on a bounded pool shared by all viewers. Each column processes the input in chunks, so a
+ * refresh can be canceled between chunks and its progress reported per column, and each column is published to the
+ * viewer as soon as its values are ready.<br>
+ * <br>
+ * The chunks of one column are computed one after another, so populateCachedValues is never called concurrently for
+ * the same column. Each chunk is populated into a map of its own and then merged into the column's value map, which is
+ * synchronized since the label provider may read it meanwhile.
+ */
+class XViewerPreComputer {
+
+   static final int CHUNK_SIZE = 2000;
+
+   private static final int POOL_SIZE = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+   private static ExecutorService pool;
+
+   private static synchronized ExecutorService getPool() {
+      if (pool == null) {
+         ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+               new ThreadFactory() {
+                  private final AtomicInteger count = new AtomicInteger();
+
+                  @Override
+                  public Thread newThread(Runnable runnable) {
+                     Thread thread = new Thread(runnable, "XViewer Pre-Compute " + count.incrementAndGet());
+                     thread.setDaemon(true);
+                     return thread;
+                  }
+               });
+         executor.allowCoreThreadTimeOut(true);
+         pool = executor;
+      }
+      return pool;
+   }
+
+   /**
+    * Reported by the column tasks to the thread running {@link XViewerPreComputer#run(IProgressMonitor)}
+    */
+   private static class Progress {
+      final XViewerColumn column;
+      final boolean done;
+
+      Progress(XViewerColumn column, boolean done) {
+         this.column = column;
+         this.done = done;
+      }
+   }
+
+   private final XViewer xViewer;
+   private final Display display;
+   private final List<Object> inputObjects;
+   private final boolean incremental;
+   private final List<XViewerColumn> columns = new ArrayList<XViewerColumn>();
+   private final List<Map<Long, String>> valueMaps = new ArrayList<Map<Long, String>>();
+   private final Set<XViewerColumn> pending = Collections.synchronizedSet(new HashSet<XViewerColumn>());
+   private final BlockingQueue<Progress> progress = new LinkedBlockingQueue<Progress>();
+   private volatile boolean cancelled = false;
+
+   /**
+    * Must be called on the display thread. Installs new value maps in the visible pre-computed columns, which keep the
+    * values already computed if incremental.
+    *
+    * @param incremental true to only compute the values of objects which have none yet
+    */
+   XViewerPreComputer(XViewer xViewer, List<Object> inputObjects, boolean incremental) {
+      this.xViewer = xViewer;
+      this.display = xViewer.getControl().getDisplay();
+      this.inputObjects = inputObjects;
+      this.incremental = incremental;
+      for (XViewerColumn column : xViewer.getCustomizeMgr().getCurrentVisibleTableColumns()) {
+         if (column instanceof IXViewerPreComputedColumn) {
+            Map<Long, String> oldValues = column.getPreComputedValueMap();
+            Map<Long, String> values;
+            if (incremental) {
+               // a canceled refresh may still be merging into the old map
+               synchronized (oldValues) {
+                  values = new HashMap<Long, String>(oldValues);
+               }
+            } else {
+               values = new HashMap<Long, String>(inputObjects.size());
+            }
+            Map<Long, String> valueMap = Collections.synchronizedMap(values);
+            column.setPreComputedValueMap(valueMap);
+            columns.add(column);
+            valueMaps.add(valueMap);
+         }
+      }
+      pending.addAll(columns);
+   }
+
+   /**
+    * Computes the columns and waits until all are done or the monitor is canceled. Calls
+    * {@link XViewer#preComputedColumnDone(XViewerPreComputer)} on the calling thread as each column is done.
+    */
+   void run(IProgressMonitor monitor) {
+      int chunks = Math.max(1, (inputObjects.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+      monitor.beginTask("Refreshing Columns", Math.max(1, columns.size() * chunks));
+      Map<XViewerColumn, Integer> worked = new HashMap<XViewerColumn, Integer>();
+      for (int i = 0; i < columns.size(); i++) {
+         final XViewerColumn column = columns.get(i);
+         final Map<Long, String> valueMap = valueMaps.get(i);
+         worked.put(column, 0);
+         getPool().execute(new Runnable() {
+            @Override
+            public void run() {
+               compute(column, valueMap);
+            }
+         });
+      }
+      int remaining = columns.size();
+      try {
+         while (remaining > 0 && !cancelled) {
+            if (monitor.isCanceled()) {
+               cancel();
+               break;
+            }
+            Progress next = progress.poll(100, TimeUnit.MILLISECONDS);
+            if (next == null) {
+               continue;
+            }
+            int columnWorked = worked.get(next.column);
+            if (next.done) {
+               remaining--;
+               monitor.worked(chunks - columnWorked);
+               pending.remove(next.column);
+               xViewer.preComputedColumnDone(this);
+            } else if (columnWorked < chunks) {
+               worked.put(next.column, columnWorked + 1);
+               monitor.worked(1);
+               monitor.subTask(String.format("%s (%d/%d)", next.column.getName(), columnWorked + 1, chunks));
+            }
+         }
+      } catch (InterruptedException ex) {
+         cancel();
+         Thread.currentThread().interrupt();
+      } finally {
+         monitor.done();
+      }
+   }
+
+   private void compute(XViewerColumn column, Map<Long, String> valueMap) {
+      IXViewerPreComputedColumn preComputedColumn = (IXViewerPreComputedColumn) column;
+      long startTime = System.currentTimeMillis();
+      try {
+         List<Object> objects = inputObjects;
+         if (incremental) {
+            objects = new ArrayList<Object>();
+            for (Object obj : inputObjects) {
+               if (!valueMap.containsKey(preComputedColumn.getKey(obj))) {
+                  objects.add(obj);
+               }
+            }
+         }
+         for (int start = 0; start < objects.size() && !cancelled; start += CHUNK_SIZE) {
+            List<Object> chunk =
+               new ArrayList<Object>(objects.subList(start, Math.min(objects.size(), start + CHUNK_SIZE)));
+            Map<Long, String> chunkValues = new HashMap<Long, String>(chunk.size());
+            preComputedColumn.populateCachedValues(chunk, chunkValues);
+            if (cancelled) {
+               break;
+            }
+            valueMap.putAll(chunkValues);
+            progress.add(new Progress(column, false));
+         }
+      } catch (Exception ex) {
+         XViewerLog.log(Activator.class, Level.SEVERE, String.format("Error performing pre-compute for column %s", column),
+            ex);
+      } finally {
+         if (xViewer.isDebugLoading()) {
+            xViewer.addPreComputeElapsedTime(column, System.currentTimeMillis() - startTime);
+         }
+         progress.add(new Progress(column, true));
+      }
+   }
+
+   /**
+    * Stops computing after the chunks being computed. Values of canceled columns are computed by the label provider
+    * when needed.
+    */
+   void cancel() {
+      cancelled = true;
+   }
+
+   boolean isCancelled() {
+      return cancelled;
+   }
+
+   /**
+    * @return the display of the viewer, on which the viewer is refreshed as the columns are done
+    */
+   Display getDisplay() {
+      return display;
+   }
+
+   /**
+    * @return true if the values of the column are still being computed
+    */
+   boolean isPending(XViewerColumn column) {
+      return !cancelled && pending.contains(column);
+   }
+}
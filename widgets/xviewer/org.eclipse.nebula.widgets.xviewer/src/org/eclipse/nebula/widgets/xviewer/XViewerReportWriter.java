@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Level;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
+import org.eclipse.nebula.widgets.xviewer.util.internal.HtmlUtil;
+import org.eclipse.nebula.widgets.xviewer.util.internal.XViewerLog;
+import org.eclipse.swt.program.Program;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Writes the rows shown in an XViewer as an HTML or CSV report. Unlike {@link XViewerTreeReport#getHtml()} the rows
+ * are not read from the tree items and the report is not built in memory: the elements are walked through the content
+ * provider, filtered and sorted like the viewer does, and each row is written as soon as its text is read from the
+ * label provider, so the values of pre-computed columns come from their caches. Children are included for the
+ * expanded elements; the HTML report indents them, while the CSV report keeps the values as they are.<br>
+ * <br>
+ * The label provider is called on the display thread in chunks of {@link #CHUNK_SIZE} rows, while writing happens on
+ * the calling thread, so a report can be written by a background job without blocking the viewer. A writer writes
+ * one report.
+ */
+public class XViewerReportWriter {
+
+   public static enum Format {
+      HTML,
+      CSV
+   }
+
+   public static final int CHUNK_SIZE = 500;
+
+   private static final String INDENT_HTML = "&nbsp;&nbsp;&nbsp;&nbsp;"; //$NON-NLS-1$
+
+   /**
+    * The children of an element being written
+    */
+   private static class Frame {
+      final Object[] elements;
+      final int depth;
+      int index = 0;
+
+      Frame(Object[] elements, int depth) {
+         this.elements = elements;
+         this.depth = depth;
+      }
+   }
+
+   private final XViewer xViewer;
+   private final Format format;
+   private final String title;
+   private List<String> columnNames;
+   private int[] columnNums;
+   private final LinkedList<Frame> frames = new LinkedList<Frame>();
+
+   public XViewerReportWriter(XViewer xViewer, Format format, String title) {
+      this.xViewer = xViewer;
+      this.format = format;
+      this.title = title;
+   }
+
+   /**
+    * @return the format of the file name's extension, HTML unless it ends with .csv
+    */
+   public static Format getFormat(String filename) {
+      return filename.toLowerCase().endsWith(".csv") ? Format.CSV : Format.HTML; //$NON-NLS-1$
+   }
+
+   /**
+    * Writes the report on a background job, and launches the program registered for the file when done
+    *
+    * @return the scheduled job
+    */
+   public Job export(final File file, final boolean launch) {
+      final Display display = xViewer.getTree().getDisplay();
+      Job job = new Job(title) {
+
+         @Override
+         protected IStatus run(IProgressMonitor monitor) {
+            try {
+               boolean complete;
+               Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8")); //$NON-NLS-1$
+               try {
+                  complete = write(writer, monitor);
+               } finally {
+                  writer.close();
+               }
+               if (!complete) {
+                  file.delete();
+                  return Status.CANCEL_STATUS;
+               }
+               if (launch && !display.isDisposed()) {
+                  display.asyncExec(new Runnable() {
+
+                     @Override
+                     public void run() {
+                        Program.launch(file.getAbsolutePath());
+                     }
+                  });
+               }
+            } catch (Exception ex) {
+               XViewerLog.logAndPopup(Activator.class, Level.SEVERE, ex);
+            }
+            return Status.OK_STATUS;
+         }
+
+      };
+      job.setUser(true);
+      job.schedule();
+      return job;
+   }
+
+   /**
+    * Writes the report to the writer. Must not be called on the display thread for large trees, since the viewer is
+    * only updated between the chunks of rows.
+    *
+    * @return false if the viewer was disposed or the monitor canceled before all rows were written
+    */
+   public boolean write(Writer writer, IProgressMonitor monitor) throws IOException {
+      final Display display = xViewer.getTree().getDisplay();
+      display.syncExec(new Runnable() {
+
+         @Override
+         public void run() {
+            start();
+         }
+      });
+      if (columnNums == null) {
+         return false;
+      }
+      monitor.beginTask(title, frames.isEmpty() ? 1 : frames.getFirst().elements.length);
+      try {
+         writeHeader(writer);
+         final List<String[]> rows = new ArrayList<String[]>(CHUNK_SIZE);
+         final int[] worked = new int[1];
+         while (!frames.isEmpty()) {
+            if (monitor.isCanceled()) {
+               return false;
+            }
+            rows.clear();
+            worked[0] = 0;
+            display.syncExec(new Runnable() {
+
+               @Override
+               public void run() {
+                  worked[0] = readRows(rows);
+               }
+            });
+            if (rows.isEmpty() && !frames.isEmpty()) {
+               // viewer was disposed
+               return false;
+            }
+            for (String[] row : rows) {
+               writeRow(writer, row);
+            }
+            monitor.worked(worked[0]);
+         }
+         writeFooter(writer);
+         writer.flush();
+         return true;
+      } finally {
+         monitor.done();
+      }
+   }
+
+   private void start() {
+      if (xViewer.getTree() == null || xViewer.getTree().isDisposed()) {
+         return;
+      }
+      columnNames = new ArrayList<String>();
+      List<Integer> nums = new ArrayList<Integer>();
+      for (XViewerColumn xCol : xViewer.getCustomizeMgr().getCurrentTableColumnsInOrder()) {
+         if (xCol.isShow()) {
+            columnNames.add(xCol.getName());
+            nums.add(xViewer.getCustomizeMgr().getColumnNumFromXViewerColumn(xCol));
+         }
+      }
+      columnNums = new int[nums.size()];
+      for (int i = 0; i < columnNums.length; i++) {
+         columnNums[i] = nums.get(i);
+      }
+      Object input = xViewer.getInput();
+      if (input != null) {
+         frames.add(new Frame(xViewer.getShownChildren(input), 1));
+      }
+   }
+
+   /**
+    * Reads the next chunk of rows, depth first
+    *
+    * @return the number of top level elements read
+    */
+   private int readRows(List<String[]> rows) {
+      if (xViewer.getTree() == null || xViewer.getTree().isDisposed()) {
+         return 0;
+      }
+      int topLevelRead = 0;
+      while (rows.size() < CHUNK_SIZE && !frames.isEmpty()) {
+         Frame frame = frames.getLast();
+         if (frame.index >= frame.elements.length) {
+            frames.removeLast();
+            continue;
+         }
+         Object element = frame.elements[frame.index++];
+         if (frame.depth == 1) {
+            topLevelRead++;
+         }
+         String[] row = new String[columnNums.length];
+         for (int i = 0; i < columnNums.length; i++) {
+            row[i] = xViewer.getColumnText(element, columnNums[i]);
+         }
+         if (format == Format.HTML && row.length > 0) {
+            row[0] = indentHtml(frame.depth, row[0]);
+         }
+         rows.add(row);
+         if (xViewer.getExpandedState(element)) {
+            Object[] children = xViewer.getShownChildren(element);
+            if (children.length > 0) {
+               frames.add(new Frame(children, frame.depth + 1));
+            }
+         }
+      }
+      return topLevelRead;
+   }
+
+   private static String indentHtml(int depth, String text) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 1; i < depth; i++) {
+         sb.append(INDENT_HTML);
+      }
+      sb.append(HtmlUtil.textToHtml(text));
+      return sb.toString();
+   }
+
+   private void writeHeader(Writer writer) throws IOException {
+      String[] names = columnNames.toArray(new String[columnNames.size()]);
+      if (format == Format.HTML) {
+         writer.write("<html><body>"); //$NON-NLS-1$
+         writer.write(HtmlUtil.beginMultiColumnTable(100, 1));
+         writer.write(HtmlUtil.addHeaderRowMultiColumnTable(names));
+         writer.write('\n');
+      } else {
+         writeCsvRow(writer, names);
+      }
+   }
+
+   private void writeRow(Writer writer, String[] row) throws IOException {
+      if (format == Format.HTML) {
+         // the first cell is already converted since it is indented with entities
+         for (int i = 1; i < row.length; i++) {
+            row[i] = HtmlUtil.textToHtml(row[i]);
+         }
+         writer.write(HtmlUtil.addRowMultiColumnTable(row));
+         writer.write('\n');
+      } else {
+         writeCsvRow(writer, row);
+      }
+   }
+
+   private void writeFooter(Writer writer) throws IOException {
+      if (format == Format.HTML) {
+         writer.write(HtmlUtil.endMultiColumnTable());
+         writer.write("</body></html>"); //$NON-NLS-1$
+      }
+   }
+
+   private static void writeCsvRow(Writer writer, String[] row) throws IOException {
+      for (int i = 0; i < row.length; i++) {
+         if (i > 0) {
+            writer.write(',');
+         }
+         String cell = row[i] == null ? "" : row[i]; //$NON-NLS-1$
+         if (cell.indexOf(',') >= 0 || cell.indexOf('"') >= 0 || cell.indexOf('\n') >= 0 || cell.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(cell.replace("\"", "\"\"")); //$NON-NLS-1$ //$NON-NLS-2$
+            writer.write('"');
+         } else {
+            writer.write(cell);
+         }
+      }
+      writer.write("\r\n"); //$NON-NLS-1$
+   }
+
+}
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.nebula.widgets.xviewer;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.StringTokenizer;
+import org.eclipse.nebula.widgets.xviewer.core.model.SortDataType;
+import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
+
+/**
+ * The typed sort keys of the elements sorted by {@link XViewerSorter#sort}, extracted once per sort. Each sort column
+ * keeps its keys in primitive arrays indexed by element, so comparing two elements neither calls the label provider
+ * nor parses any text. Compares element indices in the same order as
+ * {@link XViewerSorter#compare(org.eclipse.jface.viewers.Viewer, Object, Object, int)}, except that date cells backed
+ * by data other than dates are equal among each other and sorted after the dates, where the pairwise comparison
+ * returned 1 for both orders.
+ */
+class XViewerSortKeys implements Comparator<Integer> {
+
+   // ranks sort cells without text first, and cells that could not be parsed before the parsed ones; date cells
+   // without backing data come before the dates, date cells backed by other data after them
+   private static final byte NO_TEXT = 0;
+   private static final byte NOT_PARSED = 1;
+   private static final byte PARSED = 2;
+   private static final byte NOT_DATE = 3;
+
+   private final Comparator<Object> textComparator;
+   private final Column[] columns;
+
+   private static class Column {
+      final SortDataType sortDataType;
+      final int direction;
+      final byte[] ranks;
+      final Object[] texts; // String or CollationKey
+      long[] longs;
+      double[] doubles;
+      ParagraphNumber[] paragraphNumbers;
+
+      Column(SortDataType sortDataType, boolean forward, int size) {
+         this.sortDataType = sortDataType;
+         this.direction = forward ? 1 : -1;
+         this.ranks = new byte[size];
+         this.texts = new Object[size];
+      }
+   }
+
+   /**
+    * A paragraph number like 1.2.10, split into its segments
+    */
+   private static class ParagraphNumber {
+      final String text;
+      final String[] segments;
+      final int[] values;
+      final boolean[] numeric;
+
+      ParagraphNumber(String text) {
+         this.text = text;
+         StringTokenizer tokenizer = new StringTokenizer(text, ".");
+         int count = tokenizer.countTokens();
+         segments = new String[count];
+         values = new int[count];
+         numeric = new boolean[count];
+         for (int i = 0; i < count; i++) {
+            segments[i] = tokenizer.nextToken();
+            try {
+               values[i] = Integer.parseInt(segments[i]);
+               numeric[i] = true;
+            } catch (NumberFormatException ex) {
+               // compared as text
+            }
+         }
+      }
+
+      int compareTo(ParagraphNumber other) {
+         int count = Math.min(segments.length, other.segments.length);
+         for (int i = 0; i < count; i++) {
+            int result;
+            if (numeric[i] && other.numeric[i]) {
+               result = XViewerSorter.getCompareForInteger(values[i], other.values[i]);
+            } else {
+               result = segments[i].compareTo(other.segments[i]);
+            }
+            if (result != 0) {
+               return result;
+            }
+         }
+         return text.compareTo(other.text);
+      }
+   }
+
+   XViewerSortKeys(XViewer xViewer, Comparator<?> textComparator, List<XViewerColumn> sortXCols, Object[] elements) throws Exception {
+      this((IXViewerLabelProvider) xViewer.getLabelProvider(), textComparator, sortXCols,
+         getColumnNums(xViewer, sortXCols), elements);
+   }
+
+   @SuppressWarnings("unchecked")
+   XViewerSortKeys(IXViewerLabelProvider labelProvider, Comparator<?> textComparator, List<XViewerColumn> sortXCols, int[] columnNums, Object[] elements) throws Exception {
+      this.textComparator = (Comparator<Object>) textComparator;
+      Collator collator = textComparator instanceof Collator ? (Collator) textComparator : null;
+
+      columns = new Column[sortXCols.size()];
+      for (int c = 0; c < columns.length; c++) {
+         XViewerColumn sortXCol = sortXCols.get(c);
+         int columnNum = columnNums[c];
+         Column column = columns[c] = new Column(sortXCol.getSortDataType(), sortXCol.isSortForward(), elements.length);
+         SortDataType sortDataType = column.sortDataType;
+         if (sortDataType == SortDataType.Date || sortDataType == SortDataType.Percent || sortDataType == SortDataType.Integer || sortDataType == SortDataType.Long) {
+            column.longs = new long[elements.length];
+         } else if (sortDataType == SortDataType.Float) {
+            column.doubles = new double[elements.length];
+         } else if (sortDataType == SortDataType.Paragraph_Number) {
+            column.paragraphNumbers = new ParagraphNumber[elements.length];
+         }
+         boolean compareAsText = column.longs == null && column.doubles == null && column.paragraphNumbers == null;
+
+         for (int i = 0; i < elements.length; i++) {
+            String text = labelProvider.getColumnText(elements[i], columnNum);
+            if (text == null) {
+               column.ranks[i] = NO_TEXT;
+               continue;
+            }
+            column.ranks[i] = PARSED;
+            try {
+               if (sortDataType == SortDataType.Date) {
+                  Object data = labelProvider.getBackingData(elements[i], sortXCol, columnNum);
+                  if (data instanceof Date) {
+                     column.longs[i] = ((Date) data).getTime();
+                  } else if (data == null) {
+                     column.ranks[i] = NOT_PARSED;
+                  } else {
+                     column.ranks[i] = NOT_DATE;
+                  }
+               } else if (sortDataType == SortDataType.Percent) {
+                  column.longs[i] = getPercentKey(Integer.parseInt(text));
+               } else if (sortDataType == SortDataType.Float) {
+                  column.doubles[i] = Double.parseDouble(text);
+               } else if (sortDataType == SortDataType.Integer) {
+                  column.longs[i] = Integer.parseInt(text);
+               } else if (sortDataType == SortDataType.Long) {
+                  column.longs[i] = Long.parseLong(text);
+               } else if (sortDataType == SortDataType.Paragraph_Number) {
+                  column.paragraphNumbers[i] = new ParagraphNumber(text);
+               }
+            } catch (NumberFormatException ex) {
+               column.ranks[i] = NOT_PARSED;
+            }
+            // only plain text and numbers that could not be parsed are compared as text
+            if (compareAsText || (column.ranks[i] == NOT_PARSED && sortDataType != SortDataType.Date)) {
+               column.texts[i] = collator != null ? collator.getCollationKey(text) : text;
+            }
+         }
+      }
+   }
+
+   private static int[] getColumnNums(XViewer xViewer, List<XViewerColumn> sortXCols) {
+      int[] columnNums = new int[sortXCols.size()];
+      for (int c = 0; c < columnNums.length; c++) {
+         columnNums[c] = xViewer.getCustomizeMgr().getColumnNumFromXViewerColumn(sortXCols.get(c));
+      }
+      return columnNums;
+   }
+
+   /**
+    * Orders percents as {@link XViewerSorter#getCompareForPercent(int, int)} does: 0 first, 100 last
+    */
+   private static long getPercentKey(int percent) {
+      if (percent == 0) {
+         return Long.MIN_VALUE;
+      } else if (percent == 100) {
+         return Long.MAX_VALUE;
+      }
+      return percent;
+   }
+
+   @Override
+   public int compare(Integer index1, Integer index2) {
+      int i1 = index1.intValue();
+      int i2 = index2.intValue();
+      for (Column column : columns) {
+         int result = column.direction * compare(column, i1, i2);
+         if (result != 0) {
+            return result;
+         }
+      }
+      return 0;
+   }
+
+   private int compare(Column column, int i1, int i2) {
+      byte rank1 = column.ranks[i1];
+      byte rank2 = column.ranks[i2];
+      if (rank1 == NO_TEXT || rank2 == NO_TEXT) {
+         return rank1 - rank2;
+      }
+      SortDataType sortDataType = column.sortDataType;
+      if (sortDataType == SortDataType.Date) {
+         if (rank1 != rank2) {
+            return rank1 - rank2;
+         }
+         return rank1 == PARSED ? XViewerSorter.getCompareForLong(column.longs[i1], column.longs[i2]) : 0;
+      } else if (column.longs != null || column.doubles != null) {
+         if (rank1 == NOT_PARSED && rank2 == NOT_PARSED) {
+            return compareText(column, i1, i2);
+         } else if (rank1 != rank2) {
+            return rank1 - rank2;
+         } else if (column.doubles != null) {
+            return XViewerSorter.getCompareForFloat(column.doubles[i1], column.doubles[i2]);
+         }
+         return XViewerSorter.getCompareForLong(column.longs[i1], column.longs[i2]);
+      } else if (column.paragraphNumbers != null) {
+         return column.paragraphNumbers[i1].compareTo(column.paragraphNumbers[i2]);
+      }
+      return compareText(column, i1, i2);
+   }
+
+   private int compareText(Column column, int i1, int i2) {
+      Object text1 = column.texts[i1];
+      Object text2 = column.texts[i2];
+      if (text1 instanceof CollationKey) {
+         return ((CollationKey) text1).compareTo((CollationKey) text2);
+      }
+      return textComparator.compare(text1, text2);
+   }
+}
@@ -13,6 +13,7 @@ package org.eclipse.nebula.widgets.xviewer;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -35,9 +36,105 @@ public class XViewerSorter extends ViewerSorter {
    private final XViewer treeViewer;
    public final static SimpleDateFormat format10 = new SimpleDateFormat("MM/dd/yyyy");
 
+   // SimpleDateFormat is not thread safe and expensive to create, so each thread keeps its own
+   private static final ThreadLocal<DateFormat> threadFormat10 = new ThreadLocal<DateFormat>() {
+      @Override
+      protected DateFormat initialValue() {
+         return new SimpleDateFormat("MM/dd/yyyy");
+      }
+   };
+   private static final ThreadLocal<DateFormat> threadDefaultFormat = new ThreadLocal<DateFormat>() {
+      @Override
+      protected DateFormat initialValue() {
+         return new SimpleDateFormat();
+      }
+   };
+   private static final ThreadLocal<DateFormat> threadInstanceFormat = new ThreadLocal<DateFormat>() {
+      @Override
+      protected DateFormat initialValue() {
+         return DateFormat.getInstance();
+      }
+   };
+
+   private final boolean sortKeysExtractable;
+
    public XViewerSorter(XViewer treeViewer) {
       super();
       this.treeViewer = treeViewer;
+      this.sortKeysExtractable = !isCompareOverridden();
+   }
+
+   /**
+    * @return true if a subclass overrides one of the methods {@link #compare(Viewer, Object, Object, int)} relies on,
+    * which the typed sort keys would bypass
+    */
+   private boolean isCompareOverridden() {
+      return isOverridden("compare", Viewer.class, Object.class, Object.class, int.class) ||
+         isOverridden("compare", Viewer.class, Object.class, Object.class) ||
+         isOverridden("getCompareBasedOnDirection", XViewerColumn.class, int.class, Viewer.class, Object.class,
+            Object.class, int.class) ||
+         isOverridden("getCompareForDate", String.class, Object.class, String.class, Object.class) ||
+         isOverridden("getCompareForDate", Date.class, Date.class) ||
+         isOverridden("getCompareForFloat", String.class, String.class) ||
+         isOverridden("getCompareForInteger", String.class, String.class) ||
+         isOverridden("getCompareForLong", String.class, String.class) ||
+         isOverridden("getCompareForPercent", String.class, String.class) ||
+         isOverridden("getCompareForPercent", int.class, int.class) ||
+         isOverridden("paragraphNumberCompare", String.class, String.class);
+   }
+
+   private boolean isOverridden(String name, Class<?>... parameterTypes) {
+      try {
+         return getClass().getMethod(name, parameterTypes).getDeclaringClass() != XViewerSorter.class;
+      } catch (NoSuchMethodException ex) {
+         return true;
+      }
+   }
+
+   /**
+    * Returns true if {@link #sort(Viewer, Object[])} may extract the typed sort keys of all elements up front instead
+    * of comparing elements pairwise. By default this is the case unless a subclass overrides the compare methods or
+    * the helpers they call.
+    */
+   protected boolean isSortKeysExtractable() {
+      return sortKeysExtractable;
+   }
+
+   /**
+    * Sorts the elements by the sort columns. Rather than calling the label provider and parsing the cell text of both
+    * elements in every comparison, the typed sort key of each element (date millis, number, paragraph segments or
+    * collation key) is extracted once per sort column, and the element indices are sorted by these keys.
+    */
+   @Override
+   public void sort(Viewer viewer, Object[] elements) {
+      if (!isSortKeysExtractable() || elements.length < 2) {
+         super.sort(viewer, elements);
+         return;
+      }
+      if (treeViewer.getCustomizeMgr().isLoading()) {
+         return;
+      }
+      List<XViewerColumn> sortXCols = treeViewer.getCustomizeMgr().getSortXCols();
+      if (sortXCols == null || sortXCols.isEmpty()) {
+         return;
+      }
+      XViewerSortKeys sortKeys;
+      try {
+         sortKeys = new XViewerSortKeys(treeViewer, getComparator(), sortXCols, elements);
+      } catch (Exception ex) {
+         XViewerLog.log(Activator.class, Level.SEVERE, ex);
+         super.sort(viewer, elements);
+         return;
+      }
+      Integer[] order = new Integer[elements.length];
+      for (int i = 0; i < order.length; i++) {
+         order[i] = Integer.valueOf(i);
+      }
+      Arrays.sort(order, sortKeys);
+      Object[] unsorted = elements.clone();
+      for (int i = 0; i < order.length; i++) {
+         elements[i] = unsorted[order[i].intValue()];
+      }
    }
 
    @SuppressWarnings("unchecked")
@@ -279,16 +376,16 @@ public class XViewerSorter extends ViewerSorter {
       Pair<Date, Date> datePair = new Pair<Date, Date>(null, null);
       DateFormat format;
       if (date1.length() == 10) {
-         format = format10;
+         format = threadFormat10.get();
       } else {
-         format = new SimpleDateFormat();
+         format = threadDefaultFormat.get();
       }
       try {
          Date date = format.parse(date1);
          datePair.setFirst(date);
       } catch (ParseException ex) {
          try {
-            Date date = new SimpleDateFormat().parse(date1);
+            Date date = threadDefaultFormat.get().parse(date1);
             datePair.setFirst(date);
          } catch (ParseException ex2) {
             // do nothing;
@@ -299,7 +396,7 @@ public class XViewerSorter extends ViewerSorter {
          datePair.setSecond(date);
       } catch (ParseException ex) {
          try {
-            Date date = DateFormat.getInstance().parse(date2);
+            Date date = threadInstanceFormat.get().parse(date2);
             datePair.setSecond(date);
          } catch (ParseException ex2) {
             // do nothing
@@ -10,22 +10,31 @@
  *******************************************************************************/
 package org.eclipse.nebula.widgets.xviewer;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.nebula.widgets.xviewer.XViewerFilterCache.Row;
 import org.eclipse.nebula.widgets.xviewer.core.model.ColumnDateFilter;
 import org.eclipse.nebula.widgets.xviewer.core.model.DateRangeType;
 import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
 import org.eclipse.nebula.widgets.xviewer.core.util.Strings;
 
 /**
+ * Filters the rows of an XViewer by the filter text and the column filters. The filters are compiled into conditions
+ * once per update, which test the cell values cached by {@link XViewerFilterCache} instead of asking the label
+ * provider on every pass. Literal filters are matched against the case folded cell text without regular expressions.
+ * When the new filters only narrow the previous ones, e.g. a character was typed into the filter text, the rows
+ * rejected by the previous filters are rejected again without being tested.
+ *
  * @author Donald G. Dunne
  */
 public class XViewerTextFilter extends ViewerFilter {
@@ -38,9 +47,18 @@ public class XViewerTextFilter extends ViewerFilter {
    protected static final Pattern EMPTY_STR_PATTERN = Pattern.compile("");
    protected static final Pattern NOT_EMPTY_STR_PATTERN = Pattern.compile("^.+$");
    private final Set<Object> parentMatches = new HashSet<Object>();
+   private final XViewerFilterCache cache;
+   private final List<Condition> conditions = new ArrayList<Condition>();
+   private Condition[] compiled;
+   private Condition[] previous;
+   private int generation = 0;
+   private int previousGeneration = 0;
+   private int narrowedGeneration = 0;
+   private boolean refiltering = false;
 
    public XViewerTextFilter(XViewer xViewer) {
       this.xViewer = xViewer;
+      this.cache = new XViewerFilterCache(xViewer);
    }
 
    /**
@@ -48,15 +66,23 @@ public class XViewerTextFilter extends ViewerFilter {
     */
    public void update() {
       parentMatches.clear();
+      if (compiled != null) {
+         previous = compiled;
+         previousGeneration = generation;
+      }
+      compiled = null;
+      conditions.clear();
       // Update text filter pattern
-      if (!Strings.isValid(xViewer.getCustomizeMgr().getFilterText())) {
+      String filterText = xViewer.getCustomizeMgr().getFilterText();
+      boolean regularExpression = xViewer.getCustomizeMgr().isFilterTextRegularExpression();
+      if (!Strings.isValid(filterText)) {
          textPattern = null;
       } else {
          int flags = Pattern.CASE_INSENSITIVE;
-         if (!xViewer.getCustomizeMgr().isFilterTextRegularExpression()) {
+         if (!regularExpression) {
             flags = Pattern.LITERAL | flags;
          }
-         textPattern = Pattern.compile(xViewer.getCustomizeMgr().getFilterText(), flags);
+         textPattern = Pattern.compile(filterText, flags);
       }
       // Update column filter patterns
       colIdToPattern.clear();
@@ -73,6 +99,7 @@ public class XViewerTextFilter extends ViewerFilter {
             if (isNot) {
                colFilterText = colFilterText.replaceFirst("^!", "");
             }
+            String literal = colFilterText;
             colFilterText = Pattern.quote(colFilterText);
             // Handle != case  ^(.(?<!big))*$
             if (isNot) {
@@ -91,12 +118,89 @@ public class XViewerTextFilter extends ViewerFilter {
                   colIdToPattern.put(colId, Pattern.compile(colFilterText, Pattern.CASE_INSENSITIVE));
                }
             }
+            conditions.add(new ColumnTextCondition(colId, literal, isNot, colIdToPattern.get(colId)));
          }
          ColumnDateFilter dateFilter = xViewer.getCustomizeMgr().getColumnDateFilter(colId);
          if (dateFilter != null) {
             colIdToDateFilter.put(colId, dateFilter);
+            conditions.add(new DateCondition(colId, dateFilter));
          }
       }
+      // Must match all column filters before the filter text is searched in all columns
+      if (textPattern != null) {
+         conditions.add(new TextCondition(filterText, regularExpression, textPattern));
+      }
+   }
+
+   /**
+    * Updates the filters and refreshes the viewer. The cached cell values are kept since only the filters changed.
+    */
+   public void refilter() {
+      update();
+      refiltering = true;
+      try {
+         xViewer.refresh();
+      } finally {
+         refiltering = false;
+      }
+   }
+
+   /**
+    * Drops the cached cell values of an element, for labels that changed without the element being refreshed
+    */
+   public void invalidate(Object element) {
+      cache.invalidate(element);
+   }
+
+   /**
+    * Called by the viewer before the element is refreshed; null or the input for a refresh of all elements
+    */
+   void refreshing(Object element) {
+      if (!refiltering) {
+         if (element == null || element == xViewer.getInput()) {
+            cache.clear();
+         } else {
+            cache.invalidate(element);
+         }
+      }
+   }
+
+   /**
+    * Resolves the columns of the conditions on the first pass after an update, since the columns of a customization
+    * are created after the filters are updated
+    */
+   private Condition[] getCompiled() {
+      if (compiled == null) {
+         List<Condition> bound = new ArrayList<Condition>(conditions.size());
+         for (Condition condition : conditions) {
+            if (condition.bind(xViewer, cache)) {
+               bound.add(condition);
+            }
+         }
+         compiled = bound.toArray(new Condition[bound.size()]);
+         narrowedGeneration = previous != null && isNarrowing(compiled, previous) ? previousGeneration : 0;
+         generation++;
+      }
+      return compiled;
+   }
+
+   /**
+    * @return true if every row matching the new conditions matches the old conditions too
+    */
+   private static boolean isNarrowing(Condition[] newConditions, Condition[] oldConditions) {
+      for (Condition oldCondition : oldConditions) {
+         boolean implied = false;
+         for (Condition newCondition : newConditions) {
+            if (newCondition.implies(oldCondition)) {
+               implied = true;
+               break;
+            }
+         }
+         if (!implied) {
+            return false;
+         }
+      }
+      return true;
    }
 
    @Override
@@ -111,92 +215,268 @@ public class XViewerTextFilter extends ViewerFilter {
          }
          return true;
       }
-      boolean match = true;
-      // Must match all column filters or don't show
-      Set<String> colIds = xViewer.getCustomizeMgr().getColumnFilterData().getColIds();
-      for (String filteredColId : colIds) {
-         XViewerColumn xCol = xViewer.getCustomizeMgr().getCurrentTableColumn(filteredColId);
-         if (xCol.isShow()) {
-            if (colIdToPattern.keySet().contains(xCol.getId())) {
-               String cellStr =
-                  xViewer.getColumnText(element, xViewer.getCustomizeMgr().getColumnNumFromXViewerColumn(xCol));
-               if (cellStr != null) {
-                  matcher = colIdToPattern.get(xCol.getId()).matcher(cellStr);
-                  if (!matcher.find()) {
-                     return false;
-                  }
-               }
+      Condition[] compiledConditions = getCompiled();
+      Row row = cache.getRow(element);
+      if (narrowedGeneration != 0 && row.rejected == narrowedGeneration) {
+         row.rejected = generation;
+         return false;
+      }
+      for (Condition condition : compiledConditions) {
+         if (!condition.matches(cache, row, element)) {
+            row.rejected = generation;
+            return false;
+         }
+      }
+      if (parentElement != null) {
+         parentMatches.add(parentElement);
+      }
+      return true;
+   }
+
+   private static boolean hasLineTerminator(String text) {
+      for (int i = 0; i < text.length(); i++) {
+         char ch = text.charAt(i);
+         if (ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029') {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * A compiled filter
+    */
+   abstract static class Condition {
+
+      /**
+       * Resolves the columns of the condition
+       *
+       * @return false if the condition does not apply since its column is not shown
+       */
+      abstract boolean bind(XViewer xViewer, XViewerFilterCache cache);
+
+      abstract boolean matches(XViewerFilterCache cache, Row row, Object element);
+
+      /**
+       * @return true if every row matching this condition matches the other condition too
+       */
+      abstract boolean implies(Condition other);
+   }
+
+   abstract static class ColumnCondition extends Condition {
+      protected final String colId;
+      protected int slot;
+      protected int columnNum;
+
+      ColumnCondition(String colId) {
+         this.colId = colId;
+      }
+
+      @Override
+      boolean bind(XViewer xViewer, XViewerFilterCache cache) {
+         XViewerColumn xCol = xViewer.getCustomizeMgr().getCurrentTableColumn(colId);
+         if (xCol == null || !xCol.isShow()) {
+            return false;
+         }
+         slot = cache.getSlot(colId);
+         columnNum = xViewer.getCustomizeMgr().getColumnNumFromXViewerColumn(xCol);
+         return true;
+      }
+   }
+
+   /**
+    * Column filter text: cells containing the text, or not containing it if negated. Cells without text always match.
+    */
+   static class ColumnTextCondition extends ColumnCondition {
+      private final String foldedText;
+      private final boolean isNot;
+      private final Pattern pattern;
+
+      ColumnTextCondition(String colId, String text, boolean isNot, Pattern pattern) {
+         super(colId);
+         this.foldedText = XViewerFilterCache.foldCase(text);
+         this.isNot = isNot;
+         this.pattern = pattern;
+      }
+
+      @Override
+      boolean matches(XViewerFilterCache cache, Row row, Object element) {
+         return matches(cache.getFoldedText(row, element, slot, columnNum));
+      }
+
+      /**
+       * @param cellText the case folded text of the cell
+       */
+      boolean matches(String cellText) {
+         if (cellText == null) {
+            return true;
+         } else if (!isNot) {
+            return cellText.contains(foldedText);
+         } else if (hasLineTerminator(cellText)) {
+            // the negated patterns only match single lines
+            return pattern.matcher(cellText).find();
+         } else if (foldedText.length() == 0) {
+            // "!" only matches empty cells
+            return cellText.length() == 0;
+         }
+         return !cellText.contains(foldedText);
+      }
+
+      @Override
+      boolean implies(Condition other) {
+         if (!(other instanceof ColumnTextCondition)) {
+            return false;
+         }
+         ColumnTextCondition condition = (ColumnTextCondition) other;
+         if (!colId.equals(condition.colId) || isNot != condition.isNot) {
+            return false;
+         }
+         return isNot ? foldedText.equals(condition.foldedText) : foldedText.contains(condition.foldedText);
+      }
+   }
+
+   /**
+    * Column date filter: cells showing a date in the range. Cells without text never match, cells not showing a date
+    * always match.
+    */
+   private static class DateCondition extends ColumnCondition {
+      private final ColumnDateFilter dateFilter;
+      private long from = Long.MIN_VALUE;
+      private long to = Long.MAX_VALUE;
+
+      DateCondition(String colId, ColumnDateFilter dateFilter) {
+         super(colId);
+         this.dateFilter = dateFilter;
+      }
+
+      @Override
+      boolean bind(XViewer xViewer, XViewerFilterCache cache) {
+         if (!super.bind(xViewer, cache)) {
+            return false;
+         }
+         DateRangeType rangeType = dateFilter.getType();
+         Date date1 = dateFilter.getDate1();
+         Date date2 = dateFilter.getDate2();
+         if (rangeType == DateRangeType.Equals_Date && date1 != null) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime(date1);
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+            from = calendar.getTimeInMillis();
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+            to = calendar.getTimeInMillis() - 1;
+         } else if (rangeType == DateRangeType.After_Date && date1 != null) {
+            from = date1.getTime();
+         } else if (rangeType == DateRangeType.Before_Date && date1 != null) {
+            to = date1.getTime();
+         } else if (rangeType == DateRangeType.Between_Dates) {
+            if (date1 != null) {
+               from = date1.getTime();
             }
-            if (colIdToDateFilter.containsKey(xCol.getId())) {
-               String cellStr =
-                  xViewer.getColumnText(element, xViewer.getCustomizeMgr().getColumnNumFromXViewerColumn(xCol));
-               if (Strings.isValid(cellStr)) {
-                  Date cellDate = XViewerSorter.parseDatePair(cellStr, "").getFirst();
-                  if (cellDate != null) {
-                     ColumnDateFilter columnDateFilter = colIdToDateFilter.get(xCol.getId());
-                     Calendar cellCal = Calendar.getInstance();
-                     cellCal.setTime(cellDate);
-                     Calendar filterCal = Calendar.getInstance();
-                     Date filterDate1 = columnDateFilter.getDate1();
-                     filterCal.setTime(filterDate1);
-                     DateRangeType rangeType = columnDateFilter.getType();
-                     if (rangeType == DateRangeType.Equals_Date) {
-                        if (cellCal.get(Calendar.YEAR) != filterCal.get(Calendar.YEAR) || cellCal.get(
-                           Calendar.MONTH) != filterCal.get(Calendar.MONTH) || cellCal.get(
-                              Calendar.DAY_OF_MONTH) != filterCal.get(Calendar.DAY_OF_MONTH)) {
-                           return false;
-                        }
-                     } else if (rangeType == DateRangeType.After_Date && cellDate.before(filterDate1)) {
-                        return false;
-                     } else if (rangeType == DateRangeType.Before_Date && cellDate.after(filterDate1)) {
-                        return false;
-                     } else if (rangeType == DateRangeType.Between_Dates) {
-                        if (cellDate.before(filterDate1)) {
-                           return false;
-                        }
-                        Date filterDate2 = columnDateFilter.getDate2();
-                        if (cellDate.after(filterDate2)) {
-                           return false;
-                        }
-                     }
-                  }
-               } else {
-                  // Do not show this row if date filter selected and no date is shown
-                  return false;
-               }
+            if (date2 != null) {
+               to = date2.getTime();
             }
          }
+         return true;
       }
-      if (!match) {
-         return false;
+
+      @Override
+      boolean matches(XViewerFilterCache cache, Row row, Object element) {
+         long date = cache.getDate(row, element, slot, columnNum);
+         if (date == XViewerFilterCache.NO_TEXT) {
+            // Do not show this row if date filter selected and no date is shown
+            return false;
+         } else if (date == XViewerFilterCache.NOT_PARSED) {
+            return true;
+         }
+         return date >= from && date <= to;
       }
 
-      // Must match at least one column for filter text
-      if (textPattern == null) {
-         if (match && parentElement != null) {
-            parentMatches.add(parentElement);
+      @Override
+      boolean implies(Condition other) {
+         if (!(other instanceof DateCondition)) {
+            return false;
          }
-         return match;
+         DateCondition condition = (DateCondition) other;
+         return colId.equals(condition.colId) && from >= condition.from && to <= condition.to;
       }
-      if (textPattern != null) {
+   }
+
+   /**
+    * Filter text: rows with at least one shown cell containing the text, or matching it if a regular expression
+    */
+   static class TextCondition extends Condition {
+      private final String text;
+      private final String foldedText;
+      private final boolean regularExpression;
+      private final Pattern pattern;
+      private final List<String> colIds = new ArrayList<String>();
+      private int[] slots;
+      private int[] columnNums;
+
+      TextCondition(String text, boolean regularExpression, Pattern pattern) {
+         this.text = text;
+         this.foldedText = XViewerFilterCache.foldCase(text);
+         this.regularExpression = regularExpression;
+         this.pattern = pattern;
+      }
+
+      @Override
+      boolean bind(XViewer xViewer, XViewerFilterCache cache) {
+         List<XViewerColumn> shown = new ArrayList<XViewerColumn>();
          for (XViewerColumn xCol : xViewer.getCustomizeMgr().getCurrentTableColumns()) {
             if (xCol.isShow()) {
-               // Check text filter
-               String cellStr =
-                  xViewer.getColumnText(element, xViewer.getCustomizeMgr().getColumnNumFromXViewerColumn(xCol));
-               if (cellStr != null) {
-                  matcher = textPattern.matcher(cellStr);
-                  if (matcher.find()) {
-                     if (parentElement != null) {
-                        parentMatches.add(parentElement);
-                     }
-                     return true;
-                  }
+               shown.add(xCol);
+            }
+         }
+         slots = new int[shown.size()];
+         columnNums = new int[shown.size()];
+         for (int i = 0; i < slots.length; i++) {
+            XViewerColumn xCol = shown.get(i);
+            colIds.add(xCol.getId());
+            slots[i] = cache.getSlot(xCol.getId());
+            columnNums[i] = xViewer.getCustomizeMgr().getColumnNumFromXViewerColumn(xCol);
+         }
+         return true;
+      }
+
+      @Override
+      boolean matches(XViewerFilterCache cache, Row row, Object element) {
+         for (int i = 0; i < slots.length; i++) {
+            if (regularExpression) {
+               if (matchesCell(cache.getText(row, element, slots[i], columnNums[i]))) {
+                  return true;
                }
+            } else if (matchesCell(cache.getFoldedText(row, element, slots[i], columnNums[i]))) {
+               return true;
             }
          }
+         return false;
+      }
+
+      /**
+       * @param cellText the text of the cell, case folded unless the filter text is a regular expression
+       */
+      boolean matchesCell(String cellText) {
+         if (cellText == null) {
+            return false;
+         }
+         return regularExpression ? pattern.matcher(cellText).find() : cellText.contains(foldedText);
+      }
+
+      @Override
+      boolean implies(Condition other) {
+         if (!(other instanceof TextCondition)) {
+            return false;
+         }
+         TextCondition condition = (TextCondition) other;
+         if (!colIds.equals(condition.colIds) || regularExpression != condition.regularExpression) {
+            return false;
+         }
+         return regularExpression ? text.equals(condition.text) : foldedText.contains(condition.foldedText);
       }
-      return false;
    }
 
 }
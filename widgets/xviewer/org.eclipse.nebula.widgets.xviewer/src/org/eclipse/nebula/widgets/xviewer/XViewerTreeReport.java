@@ -11,12 +11,16 @@
 
 package org.eclipse.nebula.widgets.xviewer;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.eclipse.nebula.widgets.xviewer.core.model.XViewerColumn;
 import org.eclipse.nebula.widgets.xviewer.util.XViewerException;
 import org.eclipse.nebula.widgets.xviewer.util.internal.HtmlUtil;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.TreeItem;
 
 /**
@@ -37,9 +41,36 @@ public class XViewerTreeReport extends XViewerHtmlReport {
       this(XViewerText.get("XViewerTreeReport.title"), xViewer); //$NON-NLS-1$
    }
 
+   /**
+    * Writes the report to a file chosen by the user, as CSV if the file name ends with .csv and as HTML otherwise. The
+    * report is streamed by a {@link XViewerReportWriter} on a background job, unless a subclass provides its own html.
+    */
    @Override
    public void open(String defaultFilename) {
-      super.open(defaultFilename);
+      if (isHtmlOverridden()) {
+         super.open(defaultFilename);
+         return;
+      }
+      final FileDialog dialog = new FileDialog(Display.getCurrent().getActiveShell().getShell(), SWT.SAVE);
+      dialog.setFilterExtensions(new String[] {"*.html", "*.csv"}); //$NON-NLS-1$ //$NON-NLS-2$
+      if (defaultFilename != null && !defaultFilename.equals("")) { //$NON-NLS-1$
+         dialog.setFileName(defaultFilename);
+      }
+      String filename = dialog.open();
+      if (filename == null || filename.equals("")) { //$NON-NLS-1$
+         return;
+      }
+      new XViewerReportWriter(xViewer, XViewerReportWriter.getFormat(filename), title).export(new File(filename),
+         true);
+   }
+
+   private boolean isHtmlOverridden() {
+      try {
+         return getClass().getMethod("getHtml").getDeclaringClass() != XViewerTreeReport.class || getClass().getMethod( //$NON-NLS-1$
+            "getHtml", TreeItem[].class).getDeclaringClass() != XViewerTreeReport.class; //$NON-NLS-1$
+      } catch (NoSuchMethodException ex) {
+         return true;
+      }
    }
 
    @Override
@@ -204,8 +204,7 @@ public class CustomizeManager {
       currentCustData.getFilterData().setFilterText(text, regex);
       try {
          xViewer.getTree().setRedraw(false);
-         xViewerTextFilter.update();
-         xViewer.refresh();
+         xViewerTextFilter.refilter();
       } finally {
          xViewer.getTree().setRedraw(true);
       }
@@ -221,21 +220,18 @@ public class CustomizeManager {
       } else {
          currentCustData.getColumnFilterData().setFilterText(colId, text);
       }
-      xViewerTextFilter.update();
-      xViewer.refresh();
+      xViewerTextFilter.refilter();
    }
 
    public void clearFilters() {
       xViewer.getFilterDataUI().clear();
       currentCustData.getColumnFilterData().clear();
-      xViewerTextFilter.update();
-      xViewer.refresh();
+      xViewerTextFilter.refilter();
    }
 
    public void clearAllColumnFilters() {
       currentCustData.getColumnFilterData().clear();
-      xViewerTextFilter.update();
-      xViewer.refresh();
+      xViewerTextFilter.refilter();
    }
 
    public String getColumnFilterText(String colId) {
@@ -609,8 +605,7 @@ public class CustomizeManager {
       } else {
          currentCustData.getColumnFilterData().setDateFilter(columnId, dateRangeType, date1, date2);
       }
-      xViewerTextFilter.update();
-      xViewer.refresh();
+      xViewerTextFilter.refilter();
 
    }
 
@@ -14,7 +14,12 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import org.eclipse.nebula.widgets.xviewer.XViewerText;
 import org.eclipse.nebula.widgets.xviewer.core.model.CustomizeData;
@@ -23,10 +28,31 @@ import org.eclipse.nebula.widgets.xviewer.util.internal.FileUtil;
 import org.eclipse.nebula.widgets.xviewer.util.internal.XViewerLog;
 
 /**
+ * Customizations are parsed once per file and shared by all viewers of the table until the file changes. Each call
+ * returns copies of the parsed CustomizeData, so callers may change them.
+ *
  * @author Andrew M. Finkbeiner
  */
 public class FileStoreCustomizations implements IXViewerCustomizations {
 
+   /**
+    * Table id (directory, prefix and postfix of the files) to file name to parsed file
+    */
+   private static final ConcurrentMap<String, Map<String, ParsedFile>> tableIdToParsedFiles =
+      new ConcurrentHashMap<String, Map<String, ParsedFile>>();
+
+   private static class ParsedFile {
+      final long lastModified;
+      final long length;
+      final CustomizeData custData;
+
+      ParsedFile(long lastModified, long length, CustomizeData custData) {
+         this.lastModified = lastModified;
+         this.length = length;
+         this.custData = custData;
+      }
+   }
+
    private final File baseStorage;
    private final String prefix;
    private final String postfix;
@@ -46,6 +72,7 @@ public class FileStoreCustomizations implements IXViewerCustomizations {
       File file = new File(getFilename(custData));
       if (file.exists()) {
          boolean success = file.delete();
+         clearParsedFile(file);
          if (!success) {
             throw new XViewerException(XViewerText.get("error.delete_customization")); //$NON-NLS-1$
          }
@@ -55,6 +82,8 @@ public class FileStoreCustomizations implements IXViewerCustomizations {
    @Override
    public List<CustomizeData> getSavedCustDatas() throws XViewerException {
       List<CustomizeData> custDatas = new ArrayList<CustomizeData>();
+      Map<String, ParsedFile> parsedFiles = getParsedFiles();
+      Set<String> filenames = new HashSet<String>();
       for (String filename : FileUtil.readListFromDir(getCustomDataDir(), new FilenameFilter() {
          @Override
          public boolean accept(File dir, String name) {
@@ -64,11 +93,40 @@ public class FileStoreCustomizations implements IXViewerCustomizations {
             return false;
          }
       })) {
-         custDatas.add(new CustomizeData(FileUtil.fileToString(new File(getCustomDataDir(), filename))));
+         File file = new File(getCustomDataDir(), filename);
+         long lastModified = file.lastModified();
+         long length = file.length();
+         ParsedFile parsedFile = parsedFiles.get(filename);
+         if (parsedFile == null || parsedFile.lastModified != lastModified || parsedFile.length != length) {
+            parsedFile = new ParsedFile(lastModified, length, new CustomizeData(FileUtil.fileToString(file)));
+            parsedFiles.put(filename, parsedFile);
+         }
+         filenames.add(filename);
+         custDatas.add(parsedFile.custData.copy());
       }
+      // drop the files deleted meanwhile
+      parsedFiles.keySet().retainAll(filenames);
       return custDatas;
    }
 
+   private String getTableId() {
+      return new File(getCustomDataDir(), prefix + "*" + postfix).getAbsolutePath(); //$NON-NLS-1$
+   }
+
+   private Map<String, ParsedFile> getParsedFiles() {
+      String tableId = getTableId();
+      Map<String, ParsedFile> parsedFiles = tableIdToParsedFiles.get(tableId);
+      if (parsedFiles == null) {
+         tableIdToParsedFiles.putIfAbsent(tableId, new ConcurrentHashMap<String, ParsedFile>());
+         parsedFiles = tableIdToParsedFiles.get(tableId);
+      }
+      return parsedFiles;
+   }
+
+   private void clearParsedFile(File file) {
+      getParsedFiles().remove(file.getName());
+   }
+
    @Override
    public CustomizeData getUserDefaultCustData() throws XViewerException {
       File file = new File(getDefaultFilename());
@@ -106,7 +164,10 @@ public class FileStoreCustomizations implements IXViewerCustomizations {
 
    @Override
    public void saveCustomization(CustomizeData custData) throws Exception {
-      FileUtil.writeStringToFile(custData.getXml(true), new File(getFilename(custData)));
+      File file = new File(getFilename(custData));
+      FileUtil.writeStringToFile(custData.getXml(true), file);
+      // the modification time may not have changed if saved twice within its resolution
+      clearParsedFile(file);
    }
 
    private String getFilename(CustomizeData custData) {
@@ -396,7 +396,7 @@ public class XViewerCustomMenu {
          }
          custData.getColumnData().setColumns(newXCols);
          xViewer.getCustomizeMgr().loadCustomization(custData);
-         xViewer.refreshColumnsWithPreCompute();
+         xViewer.refreshColumnsWithPreCompute(xViewer.getInput(), true);
       }
    }
 
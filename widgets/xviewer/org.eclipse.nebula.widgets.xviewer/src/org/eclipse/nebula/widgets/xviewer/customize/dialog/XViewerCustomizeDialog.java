@@ -1046,7 +1046,7 @@ public class XViewerCustomizeDialog extends MessageDialog {
 
    private void handleLoadConfigCustButton() {
       xViewerToCustomize.getCustomizeMgr().loadCustomization(getConfigCustomizeCustData());
-      xViewerToCustomize.refreshColumnsWithPreCompute();
+      xViewerToCustomize.refreshColumnsWithPreCompute(xViewerToCustomize.getInput(), true);
    }
 
    /**